@@ -0,0 +1,38 @@
+package com.kaba4cow.objmodel;
+
+/**
+ * The JDK Flight Recorder events of the library on Java 8, where no events are emitted. Java 11 and later runtimes load
+ * the implementation under {@code META-INF/versions/11} instead, which is compiled from {@code src/main/java11} and is
+ * the only class that refers to {@code jdk.jfr}.
+ */
+final class FlightEvents {
+
+	private FlightEvents() {}
+
+	static boolean isAvailable() {
+		return false;
+	}
+
+	static Object beginParse() {
+		return null;
+	}
+
+	static void commitParse(Object parse, ParseStats stats) {}
+
+	static boolean isObjectEnabled() {
+		return false;
+	}
+
+	static Object beginObject() {
+		return null;
+	}
+
+	static void commitObject(Object object, String name, long vertices, long textures, long normals, long faces) {}
+
+	static Object beginExport() {
+		return null;
+	}
+
+	static void commitExport(Object export, int objects, long characters) {}
+
+}
@@ -0,0 +1,381 @@
+package com.kaba4cow.objmodel;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.objmodel.elements.OBJVertex;
+
+/**
+ * An immutable axis-aligned bounding box together with a bounding sphere centered on the box center. The sphere radius is
+ * the distance from the center to the farthest point, so the sphere is tighter than the one around the box corners.
+ * <p>
+ * Bounds are computed in blocks, and large inputs are processed in parallel. Bounds of no points are empty: their minimum is
+ * positive infinity, their maximum negative infinity and their radius zero, and they neither contain nor intersect anything.
+ */
+public final class OBJBounds {
+
+	/**
+	 * The empty bounds.
+	 */
+	public static final OBJBounds EMPTY = new OBJBounds(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY,
+			Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, 0.0f);
+
+	private static final int BLOCK_SIZE = 1 << 13;
+
+	private final float minX;
+	private final float minY;
+	private final float minZ;
+	private final float maxX;
+	private final float maxY;
+	private final float maxZ;
+	private final float radius;
+
+	private OBJBounds(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, float radius) {
+		this.minX = minX;
+		this.minY = minY;
+		this.minZ = minZ;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		this.maxZ = maxZ;
+		this.radius = radius;
+	}
+
+	/**
+	 * Computes the bounds of the specified vertices.
+	 *
+	 * @param vertices the list of {@link OBJVertex} objects
+	 * 
+	 * @return the bounds of the vertices
+	 */
+	public static OBJBounds of(List<OBJVertex> vertices) {
+		Objects.requireNonNull(vertices, "Vertices must not be null");
+		return compute(vertices.size(), vertices::get);
+	}
+
+	/**
+	 * Computes the bounds of the vertices at the specified indices.
+	 *
+	 * @param vertices the list of {@link OBJVertex} objects
+	 * @param indices the indices of the vertices to include
+	 * @param count the number of indices to use
+	 * 
+	 * @return the bounds of the selected vertices
+	 */
+	public static OBJBounds of(List<OBJVertex> vertices, int[] indices, int count) {
+		Objects.requireNonNull(vertices, "Vertices must not be null");
+		Objects.requireNonNull(indices, "Indices must not be null");
+		return compute(count, i -> vertices.get(indices[i]));
+	}
+
+	/**
+	 * Computes the bounds of packed positions.
+	 *
+	 * @param positions the packed positions, three floats (x, y, z) per position
+	 * @param offset the offset of the first position in the array
+	 * @param count the number of positions
+	 * 
+	 * @return the bounds of the positions
+	 */
+	public static OBJBounds of(float[] positions, int offset, int count) {
+		Objects.requireNonNull(positions, "Positions must not be null");
+		float[] box = new float[6 * blockCount(count)];
+		blocks(count).forEach(block -> {
+			float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+			float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+			for (int i = offset + 3 * block, end = offset + 3 * Math.min(count, block + BLOCK_SIZE); i < end; i += 3) {
+				float x = positions[i + 0], y = positions[i + 1], z = positions[i + 2];
+				minX = Math.min(minX, x);
+				minY = Math.min(minY, y);
+				minZ = Math.min(minZ, z);
+				maxX = Math.max(maxX, x);
+				maxY = Math.max(maxY, y);
+				maxZ = Math.max(maxZ, z);
+			}
+			store(box, block / BLOCK_SIZE, minX, minY, minZ, maxX, maxY, maxZ);
+		});
+		OBJBounds bounds = merge(box);
+		if (bounds.isEmpty())
+			return EMPTY;
+		float[] distances = new float[blockCount(count)];
+		blocks(count).forEach(block -> {
+			float max = 0.0f;
+			for (int i = offset + 3 * block, end = offset + 3 * Math.min(count, block + BLOCK_SIZE); i < end; i += 3)
+				max = Math.max(max, bounds.distanceSquared(positions[i + 0], positions[i + 1], positions[i + 2]));
+			distances[block / BLOCK_SIZE] = max;
+		});
+		return bounds.withRadius(distances);
+	}
+
+	private static OBJBounds compute(int count, Source source) {
+		float[] box = new float[6 * blockCount(count)];
+		blocks(count).forEach(block -> {
+			float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+			float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+			for (int i = block, end = Math.min(count, block + BLOCK_SIZE); i < end; i++) {
+				OBJVertex vertex = source.get(i);
+				float x = vertex.getX(), y = vertex.getY(), z = vertex.getZ();
+				minX = Math.min(minX, x);
+				minY = Math.min(minY, y);
+				minZ = Math.min(minZ, z);
+				maxX = Math.max(maxX, x);
+				maxY = Math.max(maxY, y);
+				maxZ = Math.max(maxZ, z);
+			}
+			store(box, block / BLOCK_SIZE, minX, minY, minZ, maxX, maxY, maxZ);
+		});
+		OBJBounds bounds = merge(box);
+		if (bounds.isEmpty())
+			return EMPTY;
+		float[] distances = new float[blockCount(count)];
+		blocks(count).forEach(block -> {
+			float max = 0.0f;
+			for (int i = block, end = Math.min(count, block + BLOCK_SIZE); i < end; i++) {
+				OBJVertex vertex = source.get(i);
+				max = Math.max(max, bounds.distanceSquared(vertex.getX(), vertex.getY(), vertex.getZ()));
+			}
+			distances[block / BLOCK_SIZE] = max;
+		});
+		return bounds.withRadius(distances);
+	}
+
+	/**
+	 * Returns the smallest bounds containing both these and the specified bounds. The sphere of the result is centered on
+	 * the new box center and encloses the spheres of both bounds.
+	 *
+	 * @param other the bounds to merge with
+	 * 
+	 * @return the merged bounds
+	 */
+	public OBJBounds union(OBJBounds other) {
+		Objects.requireNonNull(other, "Bounds must not be null");
+		if (other.isEmpty())
+			return this;
+		if (isEmpty())
+			return other;
+		OBJBounds bounds = new OBJBounds(Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+				Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ), 0.0f);
+		float radius = Math.max(
+				(float) Math.sqrt(bounds.distanceSquared(getCenterX(), getCenterY(), getCenterZ())) + this.radius,
+				(float) Math.sqrt(bounds.distanceSquared(other.getCenterX(), other.getCenterY(), other.getCenterZ()))
+						+ other.radius);
+		return new OBJBounds(bounds.minX, bounds.minY, bounds.minZ, bounds.maxX, bounds.maxY, bounds.maxZ, Math.nextUp(radius));
+	}
+
+	/**
+	 * Checks whether the bounds contain no points.
+	 *
+	 * @return {@code true} if the bounds are empty
+	 */
+	public boolean isEmpty() {
+		return !(minX <= maxX && minY <= maxY && minZ <= maxZ);
+	}
+
+	/**
+	 * Checks whether the box contains the specified point. Points on the boundary are contained.
+	 *
+	 * @param x the X coordinate of the point
+	 * @param y the Y coordinate of the point
+	 * @param z the Z coordinate of the point
+	 * 
+	 * @return {@code true} if the point lies inside the box
+	 */
+	public boolean contains(float x, float y, float z) {
+		return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+	}
+
+	/**
+	 * Checks whether the box intersects the specified box. Touching boxes intersect.
+	 *
+	 * @param minX the minimum X coordinate of the other box
+	 * @param minY the minimum Y coordinate of the other box
+	 * @param minZ the minimum Z coordinate of the other box
+	 * @param maxX the maximum X coordinate of the other box
+	 * @param maxY the maximum Y coordinate of the other box
+	 * @param maxZ the maximum Z coordinate of the other box
+	 * 
+	 * @return {@code true} if the boxes intersect
+	 */
+	public boolean intersects(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		return this.minX <= maxX && this.maxX >= minX && this.minY <= maxY && this.maxY >= minY && this.minZ <= maxZ
+				&& this.maxZ >= minZ;
+	}
+
+	/**
+	 * Checks whether the box intersects the box of the specified bounds. Touching boxes intersect.
+	 *
+	 * @param other the other bounds
+	 * 
+	 * @return {@code true} if the boxes intersect
+	 */
+	public boolean intersects(OBJBounds other) {
+		Objects.requireNonNull(other, "Bounds must not be null");
+		return intersects(other.minX, other.minY, other.minZ, other.maxX, other.maxY, other.maxZ);
+	}
+
+	/**
+	 * Checks whether the sphere intersects the specified sphere, for example for distance culling.
+	 *
+	 * @param x the X coordinate of the center of the other sphere
+	 * @param y the Y coordinate of the center of the other sphere
+	 * @param z the Z coordinate of the center of the other sphere
+	 * @param radius the radius of the other sphere
+	 * 
+	 * @return {@code true} if the spheres intersect
+	 */
+	public boolean intersectsSphere(float x, float y, float z, float radius) {
+		if (isEmpty())
+			return false;
+		float dx = x - getCenterX(), dy = y - getCenterY(), dz = z - getCenterZ();
+		float sum = this.radius + radius;
+		return dx * dx + dy * dy + dz * dz <= sum * sum;
+	}
+
+	/**
+	 * Retrieves the minimum X coordinate of the box.
+	 *
+	 * @return the minimum X coordinate
+	 */
+	public float getMinX() {
+		return minX;
+	}
+
+	/**
+	 * Retrieves the minimum Y coordinate of the box.
+	 *
+	 * @return the minimum Y coordinate
+	 */
+	public float getMinY() {
+		return minY;
+	}
+
+	/**
+	 * Retrieves the minimum Z coordinate of the box.
+	 *
+	 * @return the minimum Z coordinate
+	 */
+	public float getMinZ() {
+		return minZ;
+	}
+
+	/**
+	 * Retrieves the maximum X coordinate of the box.
+	 *
+	 * @return the maximum X coordinate
+	 */
+	public float getMaxX() {
+		return maxX;
+	}
+
+	/**
+	 * Retrieves the maximum Y coordinate of the box.
+	 *
+	 * @return the maximum Y coordinate
+	 */
+	public float getMaxY() {
+		return maxY;
+	}
+
+	/**
+	 * Retrieves the maximum Z coordinate of the box.
+	 *
+	 * @return the maximum Z coordinate
+	 */
+	public float getMaxZ() {
+		return maxZ;
+	}
+
+	/**
+	 * Retrieves the X coordinate of the center of the box, which is also the center of the sphere.
+	 *
+	 * @return the X coordinate of the center
+	 */
+	public float getCenterX() {
+		return 0.5f * (minX + maxX);
+	}
+
+	/**
+	 * Retrieves the Y coordinate of the center of the box, which is also the center of the sphere.
+	 *
+	 * @return the Y coordinate of the center
+	 */
+	public float getCenterY() {
+		return 0.5f * (minY + maxY);
+	}
+
+	/**
+	 * Retrieves the Z coordinate of the center of the box, which is also the center of the sphere.
+	 *
+	 * @return the Z coordinate of the center
+	 */
+	public float getCenterZ() {
+		return 0.5f * (minZ + maxZ);
+	}
+
+	/**
+	 * Retrieves the radius of the bounding sphere.
+	 *
+	 * @return the radius, or {@code 0} for empty bounds
+	 */
+	public float getRadius() {
+		return radius;
+	}
+
+	private float distanceSquared(float x, float y, float z) {
+		float dx = x - getCenterX(), dy = y - getCenterY(), dz = z - getCenterZ();
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	private OBJBounds withRadius(float[] distances) {
+		float max = 0.0f;
+		for (float distance : distances)
+			max = Math.max(max, distance);
+		// Round the radius up by one ulp so that the farthest point is not lost to rounding
+		return new OBJBounds(minX, minY, minZ, maxX, maxY, maxZ, Math.nextUp((float) Math.sqrt(max)));
+	}
+
+	private static void store(float[] box, int index, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		box[6 * index + 0] = minX;
+		box[6 * index + 1] = minY;
+		box[6 * index + 2] = minZ;
+		box[6 * index + 3] = maxX;
+		box[6 * index + 4] = maxY;
+		box[6 * index + 5] = maxZ;
+	}
+
+	private static OBJBounds merge(float[] box) {
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+		for (int i = 0; i < box.length; i += 6) {
+			minX = Math.min(minX, box[i + 0]);
+			minY = Math.min(minY, box[i + 1]);
+			minZ = Math.min(minZ, box[i + 2]);
+			maxX = Math.max(maxX, box[i + 3]);
+			maxY = Math.max(maxY, box[i + 4]);
+			maxZ = Math.max(maxZ, box[i + 5]);
+		}
+		return new OBJBounds(minX, minY, minZ, maxX, maxY, maxZ, 0.0f);
+	}
+
+	private static int blockCount(int count) {
+		return (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+	}
+
+	private static IntStream blocks(int count) {
+		IntStream stream = IntStream.range(0, blockCount(count)).map(block -> block * BLOCK_SIZE);
+		return count > BLOCK_SIZE ? stream.parallel() : stream;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OBJBounds [min=(%s, %s, %s), max=(%s, %s, %s), radius=%s]", minX, minY, minZ, maxX, maxY, maxZ,
+				radius);
+	}
+
+	private interface Source {
+
+		OBJVertex get(int index);
+
+	}
+
+}
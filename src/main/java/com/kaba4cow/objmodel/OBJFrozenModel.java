@@ -0,0 +1,121 @@
+package com.kaba4cow.objmodel;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.kaba4cow.objmodel.elements.OBJComment;
+import com.kaba4cow.objmodel.elements.OBJFrozenObject;
+
+/**
+ * A deeply immutable snapshot of an {@link OBJModel}. The snapshot holds the comment texts and an {@link OBJFrozenObject} for
+ * every object, all in final fields, so it is safely published once constructed and can be shared across threads without
+ * locking. Use {@link #toBuilder()} to obtain a mutable copy.
+ */
+public final class OBJFrozenModel {
+
+	private final List<String> comments;
+	private final List<OBJFrozenObject> objects;
+
+	/**
+	 * Creates a snapshot of the current state of the specified model.
+	 *
+	 * @param model the {@link OBJModel} to freeze
+	 */
+	public OBJFrozenModel(OBJModel model) {
+		Objects.requireNonNull(model, "Model must not be null");
+		String[] comments = new String[model.getComments().size()];
+		for (int i = 0; i < comments.length; i++)
+			comments[i] = model.getComment(i).getText();
+		OBJFrozenObject[] objects = new OBJFrozenObject[model.getObjects().size()];
+		for (int i = 0; i < objects.length; i++)
+			objects[i] = new OBJFrozenObject(model.getObject(i));
+		this.comments = Collections.unmodifiableList(Arrays.asList(comments));
+		this.objects = Collections.unmodifiableList(Arrays.asList(objects));
+	}
+
+	/**
+	 * Retrieves an unmodifiable list of comment texts in the model.
+	 *
+	 * @return an unmodifiable list of comment texts
+	 */
+	public List<String> getComments() {
+		return comments;
+	}
+
+	/**
+	 * Retrieves an unmodifiable list of objects in the model.
+	 *
+	 * @return an unmodifiable list of {@link OBJFrozenObject} objects
+	 */
+	public List<OBJFrozenObject> getObjects() {
+		return objects;
+	}
+
+	/**
+	 * Retrieves an object from the model by its index.
+	 *
+	 * @param index the index of the object
+	 * 
+	 * @return the {@link OBJFrozenObject} at the specified index
+	 */
+	public OBJFrozenObject getObject(int index) {
+		return objects.get(index);
+	}
+
+	/**
+	 * Retrieves an object from the model by its name.
+	 *
+	 * @param name the name of the object to retrieve
+	 * 
+	 * @return the {@link OBJFrozenObject} with the specified name, or {@code null} if not found
+	 */
+	public OBJFrozenObject getObject(String name) {
+		for (OBJFrozenObject object : objects)
+			if (Objects.equals(object.getName(), name))
+				return object;
+		return null;
+	}
+
+	/**
+	 * Retrieves an optional object from the model by its name.
+	 *
+	 * @param name the name of the object to retrieve
+	 * 
+	 * @return the {@link Optional} containing {@link OBJFrozenObject} with the specified name
+	 */
+	public Optional<OBJFrozenObject> optObject(String name) {
+		return Optional.ofNullable(getObject(name));
+	}
+
+	/**
+	 * Creates a mutable deep copy of this snapshot.
+	 *
+	 * @return a new {@link OBJModel} with copies of all comments and objects
+	 */
+	public OBJModel toBuilder() {
+		OBJModel model = new OBJModel();
+		for (String comment : comments)
+			model.addComment(new OBJComment().setText(comment));
+		for (OBJFrozenObject object : objects)
+			model.addObject(object.toBuilder());
+		return model;
+	}
+
+	/**
+	 * Converts the snapshot to a string representation in OBJ format.
+	 *
+	 * @return a string representation of this snapshot in OBJ format
+	 */
+	public String toOBJString() {
+		return toBuilder().toOBJString();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OBJFrozenModel [comments=%s, objects=%s]", comments, objects);
+	}
+
+}
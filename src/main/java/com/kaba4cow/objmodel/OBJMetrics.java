@@ -0,0 +1,196 @@
+package com.kaba4cow.objmodel;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The registry of {@link OBJMetricsListener} instances and the names of the metrics reported to them.
+ * <p>
+ * {@link OBJParser} reports every parse, including {@link OBJParser#stream(java.io.Reader, OBJParser.Handler)}, and
+ * {@link OBJModel#toOBJString()} reports every export. The same figures are emitted as JDK Flight Recorder events named
+ * {@code com.kaba4cow.objmodel.Parse}, {@code com.kaba4cow.objmodel.ObjectParse} and {@code com.kaba4cow.objmodel.Export}
+ * when the library runs on Java 11 or later with JFR and a recording enables them. Whether any listener or event is
+ * enabled is checked once per parse or export; when none is, nothing is measured and the parser only checks a
+ * {@code null} reference per element.
+ */
+public final class OBJMetrics {
+
+	/**
+	 * The counter of completed parses.
+	 */
+	public static final String PARSE_COUNT = "objmodel.parse.count";
+
+	/**
+	 * The counter of characters read by the parser.
+	 */
+	public static final String PARSE_CHARACTERS = "objmodel.parse.characters";
+
+	/**
+	 * The counter of lines read by the parser.
+	 */
+	public static final String PARSE_LINES = "objmodel.parse.lines";
+
+	/**
+	 * The counter of {@code #} comments read by the parser.
+	 */
+	public static final String PARSE_COMMENTS = "objmodel.parse.comments";
+
+	/**
+	 * The counter of {@code o} objects read by the parser.
+	 */
+	public static final String PARSE_OBJECTS = "objmodel.parse.objects";
+
+	/**
+	 * The counter of {@code v} vertices read by the parser.
+	 */
+	public static final String PARSE_VERTICES = "objmodel.parse.vertices";
+
+	/**
+	 * The counter of {@code vt} texture coordinates read by the parser.
+	 */
+	public static final String PARSE_TEXTURES = "objmodel.parse.textures";
+
+	/**
+	 * The counter of {@code vn} normals read by the parser.
+	 */
+	public static final String PARSE_NORMALS = "objmodel.parse.normals";
+
+	/**
+	 * The counter of {@code f} faces read by the parser.
+	 */
+	public static final String PARSE_FACES = "objmodel.parse.faces";
+
+	/**
+	 * The histogram of parse durations in nanoseconds.
+	 */
+	public static final String PARSE_DURATION = "objmodel.parse.duration";
+
+	/**
+	 * The histogram of the durations in nanoseconds of parsing single objects.
+	 */
+	public static final String PARSE_OBJECT_DURATION = "objmodel.parse.object.duration";
+
+	/**
+	 * The counter of completed exports.
+	 */
+	public static final String EXPORT_COUNT = "objmodel.export.count";
+
+	/**
+	 * The counter of characters written by exports.
+	 */
+	public static final String EXPORT_CHARACTERS = "objmodel.export.characters";
+
+	/**
+	 * The histogram of export durations in nanoseconds.
+	 */
+	public static final String EXPORT_DURATION = "objmodel.export.duration";
+
+	private static final List<OBJMetricsListener> LISTENERS = new CopyOnWriteArrayList<>();
+	static final boolean FLIGHT_RECORDER = isFlightRecorderAvailable();
+
+	static {
+		try {
+			for (OBJMetricsListener listener : ServiceLoader.load(OBJMetricsListener.class, OBJMetrics.class.getClassLoader()))
+				LISTENERS.add(listener);
+		} catch (ServiceConfigurationError error) {
+			// A broken provider must not prevent the library from loading
+		}
+	}
+
+	private OBJMetrics() {}
+
+	/**
+	 * Registers the specified listener.
+	 *
+	 * @param listener the {@link OBJMetricsListener} to add
+	 */
+	public static void addListener(OBJMetricsListener listener) {
+		LISTENERS.add(Objects.requireNonNull(listener, "Listener must not be null"));
+	}
+
+	/**
+	 * Unregisters the specified listener.
+	 *
+	 * @param listener the {@link OBJMetricsListener} to remove
+	 */
+	public static void removeListener(OBJMetricsListener listener) {
+		LISTENERS.remove(listener);
+	}
+
+	/**
+	 * Retrieves an unmodifiable list of the registered listeners, including those discovered through
+	 * {@link ServiceLoader}.
+	 *
+	 * @return an unmodifiable list of {@link OBJMetricsListener} objects
+	 */
+	public static List<OBJMetricsListener> getListeners() {
+		return Collections.unmodifiableList(LISTENERS);
+	}
+
+	static boolean hasListeners() {
+		return !LISTENERS.isEmpty();
+	}
+
+	static void count(String name, long delta) {
+		for (OBJMetricsListener listener : LISTENERS)
+			listener.count(name, delta);
+	}
+
+	static void record(String name, long value) {
+		for (OBJMetricsListener listener : LISTENERS)
+			listener.record(name, value);
+	}
+
+	/**
+	 * Starts measuring an export.
+	 *
+	 * @return the measurement, or {@code null} if no listener or event is enabled
+	 */
+	static Export startExport() {
+		Object event = FLIGHT_RECORDER ? FlightEvents.beginExport() : null;
+		if (Objects.isNull(event) && LISTENERS.isEmpty())
+			return null;
+		return new Export(event);
+	}
+
+	/**
+	 * A running measurement of an export.
+	 */
+	static final class Export {
+
+		private final long start;
+		private final Object event;
+
+		private Export(Object event) {
+			this.start = System.nanoTime();
+			this.event = event;
+		}
+
+		void finish(int objects, long characters) {
+			long duration = System.nanoTime() - start;
+			if (Objects.nonNull(event))
+				FlightEvents.commitExport(event, objects, characters);
+			if (!LISTENERS.isEmpty()) {
+				count(EXPORT_COUNT, 1L);
+				count(EXPORT_CHARACTERS, characters);
+				record(EXPORT_DURATION, duration);
+			}
+		}
+
+	}
+
+	private static boolean isFlightRecorderAvailable() {
+		try {
+			Class.forName("jdk.jfr.Event", false, OBJMetrics.class.getClassLoader());
+			return FlightEvents.isAvailable();
+		} catch (ClassNotFoundException | LinkageError | RuntimeException exception) {
+			// Runtimes without the jdk.jfr module, or JFR disabled
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,27 @@
+package com.kaba4cow.objmodel;
+
+/**
+ * Receives counters and histogram samples from the parser and exporter, for forwarding to a metrics library. Metric names
+ * are the constants of {@link OBJMetrics}. Listeners are registered with {@link OBJMetrics#addListener(OBJMetricsListener)}
+ * or discovered through {@link java.util.ServiceLoader} from {@code META-INF/services} entries. They are called on the
+ * parsing or exporting thread once per parse, object or export, never per line, and must be thread-safe and fast.
+ */
+public interface OBJMetricsListener {
+
+	/**
+	 * Called to increment a counter.
+	 *
+	 * @param name the name of the counter
+	 * @param delta the amount to add
+	 */
+	default void count(String name, long delta) {}
+
+	/**
+	 * Called to record a sample of a histogram, such as a duration in nanoseconds.
+	 *
+	 * @param name the name of the histogram
+	 * @param value the recorded value
+	 */
+	default void record(String name, long value) {}
+
+}
@@ -209,12 +209,66 @@ public class OBJModel {
 		return this;
 	}
 
+	/**
+	 * Transforms all objects of the model by the specified 4x4 matrix, see {@link OBJObject#transform(float[])}.
+	 *
+	 * @param matrix the column-major 4x4 matrix, see {@link OBJTransform}
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @throws IllegalArgumentException if the matrix is malformed or not invertible
+	 */
+	public OBJModel transform(float[] matrix) {
+		return transform(matrix, null);
+	}
+
+	/**
+	 * Transforms all objects of the model by the specified matrices, see {@link OBJObject#transform(float[], float[])}.
+	 *
+	 * @param matrix the column-major 4x4 matrix, see {@link OBJTransform}
+	 * @param textureMatrix the column-major 3x3 texture coordinate matrix, or {@code null} to leave texture coordinates
+	 *                          unchanged
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @throws IllegalArgumentException if a matrix is malformed or not invertible
+	 */
+	public OBJModel transform(float[] matrix, float[] textureMatrix) {
+		for (OBJObject object : objects)
+			object.transform(matrix, textureMatrix);
+		return this;
+	}
+
+	/**
+	 * Returns the bounds of all objects of the model, merged from the cached bounds of each object, see
+	 * {@link OBJObject#getBounds()}. Only objects whose geometry changed since their last query are recomputed.
+	 *
+	 * @return the {@link OBJBounds} of the model, empty if no object has vertices
+	 */
+	public OBJBounds getBounds() {
+		OBJBounds bounds = OBJBounds.EMPTY;
+		for (int i = 0; i < objects.size(); i++)
+			bounds = bounds.union(objects.get(i).getBounds());
+		return bounds;
+	}
+
+	/**
+	 * Creates a deeply immutable snapshot of the current state of the model. The snapshot does not reflect later changes to
+	 * this model and can be shared across threads without locking.
+	 *
+	 * @return a new {@link OBJFrozenModel}
+	 */
+	public OBJFrozenModel freeze() {
+		return new OBJFrozenModel(this);
+	}
+
 	/**
 	 * Converts the model to a string representation in OBJ format.
 	 *
 	 * @return a string representation of this model in OBJ format
 	 */
 	public String toOBJString() {
+		OBJMetrics.Export export = OBJMetrics.startExport();
 		StringBuilder builder = new StringBuilder();
 		if (!comments.isEmpty()) {
 			comments.stream().map(OBJElement::toOBJString).forEach(string -> builder.append(string).append("\n"));
@@ -224,6 +278,8 @@ public class OBJModel {
 			objects.stream().map(OBJElement::toOBJString).forEach(string -> builder.append(string).append("\n"));
 			builder.append("\n");
 		}
+		if (Objects.nonNull(export))
+			export.finish(objects.size(), builder.length());
 		return builder.toString();
 	}
 
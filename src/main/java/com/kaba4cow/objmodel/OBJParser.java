@@ -6,6 +6,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.Arrays;
 import java.util.Objects;
 
 import com.kaba4cow.objmodel.elements.OBJComment;
@@ -37,76 +38,33 @@ public class OBJParser {
 	 * @throws IOException if an I/O error occurs
 	 */
 	public static OBJModel parse(Reader source, OBJModel target) throws IOException {
+		return parse(source, target, null);
+	}
+
+	/**
+	 * Reads the OBJ data from the specified {@link Reader} and converts its contents to an {@link OBJModel} object, recording
+	 * the line of every element in the specified {@link OBJSourceMap}. If the {@code target} is not {@code null} its contents
+	 * are cleared using {@link OBJModel#clearComments()} and {@link OBJModel#clearObjects()}, and the source map is cleared
+	 * as well.
+	 *
+	 * @param source the {@link Reader} to read the OBJ data from
+	 * @param target the {@link OBJModel} to convert the OBJ data to, or {@code null}
+	 * @param lines the {@link OBJSourceMap} to record the element lines in, or {@code null}
+	 * 
+	 * @return the {@link OBJModel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static OBJModel parse(Reader source, OBJModel target, OBJSourceMap lines) throws IOException {
 		Objects.requireNonNull(source, "Source must not be null");
 		if (Objects.isNull(target))
 			target = new OBJModel();
 		else
 			target.clearComments().clearObjects();
-		OBJObject object = null;
-		BufferedReader reader = new BufferedReader(source);
-		String line;
-		while ((line = reader.readLine()) != null) {
-			line = line.trim();
-			if (line.isEmpty())
-				continue;
-			String[] parts = line.split("\\s+");
-			if (parts.length > 1)
-				switch (parts[0]) {
-					case "#":
-						target.addComment(new OBJComment().setText(line.split("\\s+", 2)[1]));
-						break;
-					case "o":
-						if (Objects.nonNull(object))
-							target.addObject(object);
-						object = new OBJObject().setName(parts[1]);
-						break;
-					case "v":
-						if (Objects.nonNull(object)) {
-							OBJVertex vertex = new OBJVertex();
-							vertex.set(Float.parseFloat(parts[1]), Float.parseFloat(parts[2]), Float.parseFloat(parts[3]));
-							object.addVertex(vertex);
-						}
-						break;
-					case "vt":
-						if (Objects.nonNull(object)) {
-							OBJTexture texture = new OBJTexture();
-							if (parts.length > 3)
-								texture.set(Float.parseFloat(parts[1]), Float.parseFloat(parts[2]), Float.parseFloat(parts[3]));
-							else if (parts.length > 2)
-								texture.set(Float.parseFloat(parts[1]), Float.parseFloat(parts[2]));
-							object.addTexture(texture);
-						}
-						break;
-					case "vn":
-						if (Objects.nonNull(object)) {
-							OBJNormal normal = new OBJNormal();
-							normal.set(Float.parseFloat(parts[1]), Float.parseFloat(parts[2]), Float.parseFloat(parts[3]));
-							object.addNormal(normal);
-						}
-						break;
-					case "f":
-						if (Objects.nonNull(object)) {
-							OBJFace face = new OBJFace();
-							for (int i = 1; i < parts.length; i++) {
-								String[] indices = parts[i].split("/");
-								OBJIndex index = new OBJIndex();
-								index.setVertex(Integer.parseInt(indices[0]) - 1);
-								if (indices.length > 1 && !indices[1].isEmpty())
-									index.setTexture(Integer.parseInt(indices[1]) - 1);
-								if (indices.length > 2 && !indices[2].isEmpty())
-									index.setNormal(Integer.parseInt(indices[2]) - 1);
-								face.addIndex(index);
-							}
-							object.addFace(face);
-						}
-						break;
-					default:
-						break;
-				}
-		}
-		if (Objects.nonNull(object))
-			target.addObject(object);
-		reader.close();
+		if (Objects.nonNull(lines))
+			lines.clear();
+		read(source, new Recycler(target, lines));
 		return target;
 	}
 
@@ -144,4 +102,668 @@ public class OBJParser {
 		return parse(new StringReader(source), target);
 	}
 
+	/**
+	 * Reads the OBJ data from the specified {@link InputStream} and converts its contents to an {@link OBJModel} object,
+	 * recording the line of every element, see {@link #parse(Reader, OBJModel, OBJSourceMap)}.
+	 *
+	 * @param source the {@link InputStream} to read the OBJ data from
+	 * @param target the {@link OBJModel} to convert the OBJ data to, or {@code null}
+	 * @param lines the {@link OBJSourceMap} to record the element lines in, or {@code null}
+	 * 
+	 * @return the {@link OBJModel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static OBJModel parse(InputStream source, OBJModel target, OBJSourceMap lines) throws IOException {
+		return parse(new InputStreamReader(source), target, lines);
+	}
+
+	/**
+	 * Reads the OBJ data from the specified string and converts its contents to an {@link OBJModel} object, recording the
+	 * line of every element, see {@link #parse(Reader, OBJModel, OBJSourceMap)}.
+	 *
+	 * @param source the string to read the OBJ data from
+	 * @param target the {@link OBJModel} to convert the OBJ data to, or {@code null}
+	 * @param lines the {@link OBJSourceMap} to record the element lines in, or {@code null}
+	 * 
+	 * @return the {@link OBJModel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static OBJModel parse(String source, OBJModel target, OBJSourceMap lines) throws IOException {
+		return parse(new StringReader(source), target, lines);
+	}
+
+	/**
+	 * Reads the OBJ data from the specified {@link Reader} into the {@code target} model, recycling its contents instead of
+	 * clearing them. The comments, objects, elements and face indices already in the target are updated in place in the
+	 * order they are read, new instances are only created when the data has more elements than the target, and surplus
+	 * elements are removed at the end. Re-parsing data of unchanged size therefore creates almost no garbage, which suits
+	 * hot reloading of the same asset.
+	 * <p>
+	 * The target must be exclusively owned by the caller, for example a model produced by an earlier call to this method:
+	 * references to its objects and elements held elsewhere see the new values, and elements shared between several lists
+	 * would be overwritten more than once.
+	 *
+	 * @param source the {@link Reader} to read the OBJ data from
+	 * @param target the {@link OBJModel} to recycle
+	 * 
+	 * @return the {@code target} model containing the data
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static OBJModel reparse(Reader source, OBJModel target) throws IOException {
+		Objects.requireNonNull(source, "Source must not be null");
+		Objects.requireNonNull(target, "Target must not be null");
+		read(source, new Recycler(target, null));
+		return target;
+	}
+
+	/**
+	 * Reads the OBJ data from the specified {@link InputStream} into the {@code target} model, recycling its contents, see
+	 * {@link #reparse(Reader, OBJModel)}.
+	 *
+	 * @param source the {@link InputStream} to read the OBJ data from
+	 * @param target the {@link OBJModel} to recycle
+	 * 
+	 * @return the {@code target} model containing the data
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static OBJModel reparse(InputStream source, OBJModel target) throws IOException {
+		return reparse(new InputStreamReader(source), target);
+	}
+
+	/**
+	 * Reads the OBJ data from the specified string into the {@code target} model, recycling its contents, see
+	 * {@link #reparse(Reader, OBJModel)}.
+	 *
+	 * @param source the string to read the OBJ data from
+	 * @param target the {@link OBJModel} to recycle
+	 * 
+	 * @return the {@code target} model containing the data
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static OBJModel reparse(String source, OBJModel target) throws IOException {
+		return reparse(new StringReader(source), target);
+	}
+
+	/**
+	 * Reads the OBJ data from the specified {@link Reader} and passes every element to the specified {@link Handler} instead
+	 * of building a model, so files of any size can be read with a bounded heap. As when building a model, elements before
+	 * the first {@code o} statement are ignored. The reader is closed when done.
+	 *
+	 * @param source the {@link Reader} to read the OBJ data from
+	 * @param handler the {@link Handler} to pass the elements to
+	 * 
+	 * @throws IOException if an I/O error occurs or the handler fails
+	 */
+	public static void stream(Reader source, Handler handler) throws IOException {
+		Objects.requireNonNull(source, "Source must not be null");
+		Objects.requireNonNull(handler, "Handler must not be null");
+		Lines parts = new Lines(source);
+		ParseStats stats = ParseStats.start();
+		boolean object = false;
+		int[] corners = new int[3 * 16];
+		while (parts.next()) {
+			if (parts.length > 1)
+				if (parts.is(0, "#")) {
+					handler.comment(parts.rest(1, null));
+					if (Objects.nonNull(stats))
+						stats.comments++;
+				} else if (parts.is(0, "o")) {
+					String name = parts.string(1, null);
+					if (Objects.nonNull(stats))
+						stats.object(name);
+					handler.object(name);
+					object = true;
+				} else if (!object)
+					continue;
+				else if (parts.is(0, "v")) {
+					handler.vertex(parts.getFloat(1), parts.getFloat(2), parts.getFloat(3));
+					if (Objects.nonNull(stats))
+						stats.vertices++;
+				} else if (parts.is(0, "vt")) {
+					if (Objects.nonNull(stats))
+						stats.textures++;
+					if (parts.length > 2)
+						handler.texture(parts.getFloat(1), parts.getFloat(2), parts.length > 3 ? parts.getFloat(3) : Float.NaN);
+					else
+						handler.texture(0.0f, 0.0f, Float.NaN);
+				} else if (parts.is(0, "vn")) {
+					handler.normal(parts.getFloat(1), parts.getFloat(2), parts.getFloat(3));
+					if (Objects.nonNull(stats))
+						stats.normals++;
+				} else if (parts.is(0, "f")) {
+					if (corners.length < 3 * parts.length)
+						corners = new int[3 * parts.length];
+					for (int i = 1; i < parts.length; i++)
+						parts.getCorner(i, corners, 3 * (i - 1));
+					handler.face(corners, parts.length - 1);
+					if (Objects.nonNull(stats))
+						stats.faces++;
+				}
+		}
+		source.close();
+		if (Objects.nonNull(stats))
+			stats.finish(parts.line - 1, parts.characters);
+	}
+
+	/**
+	 * Reads the OBJ data from the specified {@link InputStream} and passes every element to the specified {@link Handler},
+	 * see {@link #stream(Reader, Handler)}.
+	 *
+	 * @param source the {@link InputStream} to read the OBJ data from
+	 * @param handler the {@link Handler} to pass the elements to
+	 * 
+	 * @throws IOException if an I/O error occurs or the handler fails
+	 */
+	public static void stream(InputStream source, Handler handler) throws IOException {
+		stream(new InputStreamReader(source), handler);
+	}
+
+	private static void read(Reader source, Recycler target) throws IOException {
+		Lines parts = new Lines(source);
+		ParseStats stats = ParseStats.start();
+		while (parts.next()) {
+			target.line = parts.line;
+			if (parts.length > 1)
+				if (parts.is(0, "#")) {
+					OBJComment comment = target.comment();
+					comment.setText(parts.rest(1, comment.getText()));
+					if (Objects.nonNull(stats))
+						stats.comments++;
+				} else if (parts.is(0, "o")) {
+					OBJObject object = target.object();
+					object.setName(parts.string(1, object.getName()));
+					if (Objects.nonNull(stats))
+						stats.object(object.getName());
+				} else if (parts.is(0, "v")) {
+					if (target.hasObject()) {
+						target.vertex().set(parts.getFloat(1), parts.getFloat(2), parts.getFloat(3));
+						if (Objects.nonNull(stats))
+							stats.vertices++;
+					}
+				} else if (parts.is(0, "vt")) {
+					if (target.hasObject()) {
+						if (Objects.nonNull(stats))
+							stats.textures++;
+						OBJTexture texture = target.texture();
+						if (parts.length > 2)
+							texture.set(parts.getFloat(1), parts.getFloat(2));
+						else
+							texture.set(0.0f, 0.0f);
+						if (parts.length > 3) {
+							float w = parts.getFloat(3);
+							if (!texture.hasW() || texture.getW() != w)
+								texture.setW(w);
+						} else if (texture.hasW())
+							texture.clearW();
+					}
+				} else if (parts.is(0, "vn")) {
+					if (target.hasObject()) {
+						target.normal().set(parts.getFloat(1), parts.getFloat(2), parts.getFloat(3));
+						if (Objects.nonNull(stats))
+							stats.normals++;
+					}
+				} else if (parts.is(0, "f")) {
+					if (target.hasObject()) {
+						OBJFace face = target.face();
+						for (int i = 1; i < parts.length; i++)
+							parts.getIndex(i, target.index(face, i - 1));
+						target.endFace(face, parts.length - 1);
+						if (Objects.nonNull(stats))
+							stats.faces++;
+					}
+				}
+		}
+		target.finish();
+		source.close();
+		if (Objects.nonNull(stats))
+			stats.finish(parts.line - 1, parts.characters);
+	}
+
+	/**
+	 * Receives the elements read by {@link OBJParser#stream(Reader, Handler)} in file order.
+	 */
+	public interface Handler {
+
+		/**
+		 * Called for a comment.
+		 *
+		 * @param text the text of the comment
+		 * 
+		 * @throws IOException if the comment cannot be handled
+		 */
+		void comment(String text) throws IOException;
+
+		/**
+		 * Called for an {@code o} statement. All following elements belong to this object.
+		 *
+		 * @param name the name of the object
+		 * 
+		 * @throws IOException if the object cannot be handled
+		 */
+		void object(String name) throws IOException;
+
+		/**
+		 * Called for a vertex.
+		 *
+		 * @param x the X component
+		 * @param y the Y component
+		 * @param z the Z component
+		 * 
+		 * @throws IOException if the vertex cannot be handled
+		 */
+		void vertex(float x, float y, float z) throws IOException;
+
+		/**
+		 * Called for a texture coordinate.
+		 *
+		 * @param u the U component
+		 * @param v the V component
+		 * @param w the W component, or {@link Float#NaN} if it is unset
+		 * 
+		 * @throws IOException if the texture coordinate cannot be handled
+		 */
+		void texture(float u, float v, float w) throws IOException;
+
+		/**
+		 * Called for a normal.
+		 *
+		 * @param x the X component
+		 * @param y the Y component
+		 * @param z the Z component
+		 * 
+		 * @throws IOException if the normal cannot be handled
+		 */
+		void normal(float x, float y, float z) throws IOException;
+
+		/**
+		 * Called for a face. The array is reused for the following faces and must not be kept.
+		 *
+		 * @param corners the indices of the face, three ints (vertex, texture, normal) per corner with
+		 *                    {@link OBJIndex#UNSET} for unset indices
+		 * @param count the number of corners
+		 * 
+		 * @throws IOException if the face cannot be handled
+		 */
+		void face(int[] corners, int count) throws IOException;
+
+	}
+
+	/**
+	 * Writes parsed data into a model, reusing the instances at the current positions and creating new ones past the end.
+	 */
+	private static final class Recycler {
+
+		private final OBJModel model;
+		private final OBJSourceMap lines;
+		private int line;
+		private int commentCount;
+		private int objectCount;
+		private OBJObject object;
+		private int vertexCount;
+		private int textureCount;
+		private int normalCount;
+		private int faceCount;
+
+		private Recycler(OBJModel model, OBJSourceMap lines) {
+			this.model = model;
+			this.lines = lines;
+		}
+
+		private OBJComment comment() {
+			if (Objects.nonNull(lines))
+				lines.comment(line);
+			if (commentCount < model.getComments().size())
+				return model.getComment(commentCount++);
+			OBJComment comment = new OBJComment();
+			model.addComment(comment);
+			commentCount++;
+			return comment;
+		}
+
+		private OBJObject object() {
+			if (Objects.nonNull(lines))
+				lines.object(line);
+			trimObject();
+			if (objectCount < model.getObjects().size())
+				object = model.getObject(objectCount);
+			else
+				model.addObject(object = new OBJObject());
+			objectCount++;
+			vertexCount = 0;
+			textureCount = 0;
+			normalCount = 0;
+			faceCount = 0;
+			return object;
+		}
+
+		private boolean hasObject() {
+			return Objects.nonNull(object);
+		}
+
+		private OBJVertex vertex() {
+			if (Objects.nonNull(lines))
+				lines.vertex(line);
+			if (vertexCount < object.getVertexCount())
+				return object.getVertex(vertexCount++);
+			OBJVertex vertex = new OBJVertex();
+			object.addVertex(vertex);
+			vertexCount++;
+			return vertex;
+		}
+
+		private OBJTexture texture() {
+			if (Objects.nonNull(lines))
+				lines.texture(line);
+			if (textureCount < object.getTextureCount())
+				return object.getTexture(textureCount++);
+			OBJTexture texture = new OBJTexture();
+			object.addTexture(texture);
+			textureCount++;
+			return texture;
+		}
+
+		private OBJNormal normal() {
+			if (Objects.nonNull(lines))
+				lines.normal(line);
+			if (normalCount < object.getNormalCount())
+				return object.getNormal(normalCount++);
+			OBJNormal normal = new OBJNormal();
+			object.addNormal(normal);
+			normalCount++;
+			return normal;
+		}
+
+		private OBJFace face() {
+			if (Objects.nonNull(lines))
+				lines.face(line);
+			if (faceCount < object.getFaceCount())
+				return object.getFace(faceCount++);
+			OBJFace face = new OBJFace();
+			object.addFace(face);
+			faceCount++;
+			return face;
+		}
+
+		private OBJIndex index(OBJFace face, int position) {
+			if (position < face.getIndexCount())
+				return face.getIndex(position);
+			OBJIndex index = new OBJIndex();
+			face.addIndex(index);
+			return index;
+		}
+
+		private void endFace(OBJFace face, int size) {
+			for (int i = face.getIndexCount() - 1; i >= size; i--)
+				face.removeIndex(i);
+		}
+
+		private void trimObject() {
+			if (Objects.isNull(object))
+				return;
+			for (int i = object.getVertexCount() - 1; i >= vertexCount; i--)
+				object.removeVertex(i);
+			for (int i = object.getTextureCount() - 1; i >= textureCount; i--)
+				object.removeTexture(i);
+			for (int i = object.getNormalCount() - 1; i >= normalCount; i--)
+				object.removeNormal(i);
+			for (int i = object.getFaceCount() - 1; i >= faceCount; i--)
+				object.removeFace(i);
+		}
+
+		private void finish() {
+			trimObject();
+			for (int i = model.getObjects().size() - 1; i >= objectCount; i--)
+				model.removeObject(i);
+			for (int i = model.getComments().size() - 1; i >= commentCount; i--)
+				model.removeComment(i);
+		}
+
+	}
+
+	/**
+	 * Reads lines into a reused character buffer and splits them at whitespace into token ranges. Keywords, indices and
+	 * common decimal numbers are parsed directly from the buffer, so unchanged data is read without creating strings.
+	 */
+	private static final class Lines {
+
+		private static final float[] POWERS = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f };
+
+		private final Reader reader;
+		private char[] buffer;
+		private int position;
+		private int limit;
+		private boolean skipLineFeed;
+		private int lineEnd;
+		private int line;
+		private long characters;
+		private int[] starts;
+		private int[] ends;
+		private int length;
+
+		private Lines(Reader reader) {
+			this.reader = reader;
+			this.buffer = new char[8192];
+			this.starts = new int[16];
+			this.ends = new int[16];
+		}
+
+		private boolean next() throws IOException {
+			do {
+				if (!readLine())
+					return false;
+			} while (length == 0);
+			return true;
+		}
+
+		private boolean readLine() throws IOException {
+			line++;
+			if (skipLineFeed) {
+				if (position < limit || fill()) {
+					if (buffer[position] == '\n')
+						position++;
+					skipLineFeed = false;
+				}
+			}
+			int i = position;
+			while (true) {
+				for (; i < limit; i++) {
+					char c = buffer[i];
+					if (c == '\n' || c == '\r') {
+						split(position, i);
+						position = i + 1;
+						if (c == '\r') {
+							if (position < limit) {
+								if (buffer[position] == '\n')
+									position++;
+							} else
+								skipLineFeed = true;
+						}
+						return true;
+					}
+				}
+				int scanned = i - position;
+				if (!fill()) {
+					if (position == limit)
+						return false;
+					split(position, limit);
+					position = limit;
+					return true;
+				}
+				i = position + scanned;
+			}
+		}
+
+		private boolean fill() throws IOException {
+			if (position > 0) {
+				System.arraycopy(buffer, position, buffer, 0, limit - position);
+				limit -= position;
+				position = 0;
+			}
+			if (limit == buffer.length)
+				buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+			int read = reader.read(buffer, limit, buffer.length - limit);
+			if (read < 0)
+				return false;
+			limit += read;
+			characters += read;
+			return true;
+		}
+
+		private void split(int from, int to) {
+			while (from < to && buffer[from] <= ' ')
+				from++;
+			while (to > from && buffer[to - 1] <= ' ')
+				to--;
+			lineEnd = to;
+			length = 0;
+			int i = from;
+			while (i < to) {
+				while (i < to && isSpace(buffer[i]))
+					i++;
+				int start = i;
+				while (i < to && !isSpace(buffer[i]))
+					i++;
+				if (i > start) {
+					if (length == starts.length) {
+						starts = Arrays.copyOf(starts, 2 * length);
+						ends = Arrays.copyOf(ends, 2 * length);
+					}
+					starts[length] = start;
+					ends[length] = i;
+					length++;
+				}
+			}
+		}
+
+		private int check(int token) {
+			if (token >= length)
+				throw new ArrayIndexOutOfBoundsException(token);
+			return token;
+		}
+
+		private boolean is(int token, String keyword) {
+			int start = starts[check(token)];
+			if (ends[token] - start != keyword.length())
+				return false;
+			for (int i = 0; i < keyword.length(); i++)
+				if (buffer[start + i] != keyword.charAt(i))
+					return false;
+			return true;
+		}
+
+		private String string(int token, String current) {
+			return string(starts[check(token)], ends[token], current);
+		}
+
+		private String rest(int token, String current) {
+			return string(starts[check(token)], lineEnd, current);
+		}
+
+		private String string(int from, int to, String current) {
+			if (Objects.nonNull(current) && current.length() == to - from) {
+				int i = 0;
+				while (i < current.length() && current.charAt(i) == buffer[from + i])
+					i++;
+				if (i == current.length())
+					return current;
+			}
+			return new String(buffer, from, to - from);
+		}
+
+		private float getFloat(int token) {
+			int from = starts[check(token)], to = ends[token];
+			int i = from;
+			boolean negative = i < to && buffer[i] == '-';
+			if (negative)
+				i++;
+			int mantissa = 0, exponent = 0, digits = 0;
+			boolean fraction = false;
+			for (; i < to; i++) {
+				char c = buffer[i];
+				if (c == '.' && !fraction)
+					fraction = true;
+				else if (c >= '0' && c <= '9' && mantissa < (1 << 24) / 10) {
+					mantissa = 10 * mantissa + (c - '0');
+					digits++;
+					if (fraction)
+						exponent++;
+				} else
+					break;
+			}
+			// Exact mantissas and powers of ten give a correctly rounded quotient; anything else takes the slow path
+			if (i < to || digits == 0 || exponent >= POWERS.length)
+				return Float.parseFloat(new String(buffer, from, to - from));
+			float value = mantissa / POWERS[exponent];
+			return negative ? -value : value;
+		}
+
+		private void getIndex(int token, OBJIndex index) {
+			int from = starts[check(token)], to = ends[token];
+			int first = indexOf('/', from, to);
+			int vertex = parseInt(from, first) - 1;
+			if (!index.hasVertex() || index.getVertex() != vertex)
+				index.setVertex(vertex);
+			int second = first < to ? indexOf('/', first + 1, to) : to;
+			if (second > first + 1) {
+				int texture = parseInt(first + 1, second) - 1;
+				if (!index.hasTexture() || index.getTexture() != texture)
+					index.setTexture(texture);
+			} else if (index.hasTexture())
+				index.clearTexture();
+			int third = second < to ? indexOf('/', second + 1, to) : to;
+			if (third > second + 1) {
+				int normal = parseInt(second + 1, third) - 1;
+				if (!index.hasNormal() || index.getNormal() != normal)
+					index.setNormal(normal);
+			} else if (index.hasNormal())
+				index.clearNormal();
+		}
+
+		private void getCorner(int token, int[] dst, int offset) {
+			int from = starts[check(token)], to = ends[token];
+			int first = indexOf('/', from, to);
+			dst[offset + 0] = parseInt(from, first) - 1;
+			int second = first < to ? indexOf('/', first + 1, to) : to;
+			dst[offset + 1] = second > first + 1 ? parseInt(first + 1, second) - 1 : OBJIndex.UNSET;
+			int third = second < to ? indexOf('/', second + 1, to) : to;
+			dst[offset + 2] = third > second + 1 ? parseInt(second + 1, third) - 1 : OBJIndex.UNSET;
+		}
+
+		private int indexOf(char c, int from, int to) {
+			while (from < to && buffer[from] != c)
+				from++;
+			return from;
+		}
+
+		private int parseInt(int from, int to) {
+			int i = from;
+			boolean negative = false;
+			if (i < to && (buffer[i] == '-' || buffer[i] == '+'))
+				negative = buffer[i++] == '-';
+			long value = 0L;
+			for (; i < to && value <= Integer.MAX_VALUE; i++) {
+				int digit = buffer[i] - '0';
+				if (digit < 0 || digit > 9)
+					break;
+				value = 10L * value + digit;
+			}
+			value = negative ? -value : value;
+			if (i < to || i == from || (negative && i == from + 1) || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+				throw new NumberFormatException(String.format("For input string: \"%s\"", new String(buffer, from, to - from)));
+			return (int) value;
+		}
+
+		private static boolean isSpace(char c) {
+			return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+		}
+
+	}
+
 }
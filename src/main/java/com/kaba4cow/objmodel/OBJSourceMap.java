@@ -0,0 +1,165 @@
+package com.kaba4cow.objmodel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Records the source line numbers of the elements of a model read by {@link OBJParser}, so tools such as validators can
+ * point at the offending lines. Line numbers start at 1; {@code -1} is returned for elements without a recorded line, for
+ * example elements added after parsing. The map refers to the state of the model right after parsing and is not updated
+ * when the model is modified.
+ */
+public class OBJSourceMap {
+
+	private final Lines comments;
+	private final List<ObjectLines> objects;
+
+	/**
+	 * Creates an empty source map.
+	 */
+	public OBJSourceMap() {
+		this.comments = new Lines();
+		this.objects = new ArrayList<>();
+	}
+
+	/**
+	 * Returns the line of a comment.
+	 *
+	 * @param comment the index of the comment in the model
+	 * 
+	 * @return the line number, or {@code -1} if unknown
+	 */
+	public int getCommentLine(int comment) {
+		return comments.get(comment);
+	}
+
+	/**
+	 * Returns the line of the {@code o} statement of an object.
+	 *
+	 * @param object the index of the object in the model
+	 * 
+	 * @return the line number, or {@code -1} if unknown
+	 */
+	public int getObjectLine(int object) {
+		return object >= 0 && object < objects.size() ? objects.get(object).line : -1;
+	}
+
+	/**
+	 * Returns the line of a vertex.
+	 *
+	 * @param object the index of the object in the model
+	 * @param vertex the index of the vertex in the object
+	 * 
+	 * @return the line number, or {@code -1} if unknown
+	 */
+	public int getVertexLine(int object, int vertex) {
+		return object >= 0 && object < objects.size() ? objects.get(object).vertices.get(vertex) : -1;
+	}
+
+	/**
+	 * Returns the line of a texture coordinate.
+	 *
+	 * @param object the index of the object in the model
+	 * @param texture the index of the texture coordinate in the object
+	 * 
+	 * @return the line number, or {@code -1} if unknown
+	 */
+	public int getTextureLine(int object, int texture) {
+		return object >= 0 && object < objects.size() ? objects.get(object).textures.get(texture) : -1;
+	}
+
+	/**
+	 * Returns the line of a normal.
+	 *
+	 * @param object the index of the object in the model
+	 * @param normal the index of the normal in the object
+	 * 
+	 * @return the line number, or {@code -1} if unknown
+	 */
+	public int getNormalLine(int object, int normal) {
+		return object >= 0 && object < objects.size() ? objects.get(object).normals.get(normal) : -1;
+	}
+
+	/**
+	 * Returns the line of a face.
+	 *
+	 * @param object the index of the object in the model
+	 * @param face the index of the face in the object
+	 * 
+	 * @return the line number, or {@code -1} if unknown
+	 */
+	public int getFaceLine(int object, int face) {
+		return object >= 0 && object < objects.size() ? objects.get(object).faces.get(face) : -1;
+	}
+
+	void clear() {
+		comments.size = 0;
+		objects.clear();
+	}
+
+	void comment(int line) {
+		comments.add(line);
+	}
+
+	void object(int line) {
+		objects.add(new ObjectLines(line));
+	}
+
+	void vertex(int line) {
+		objects.get(objects.size() - 1).vertices.add(line);
+	}
+
+	void texture(int line) {
+		objects.get(objects.size() - 1).textures.add(line);
+	}
+
+	void normal(int line) {
+		objects.get(objects.size() - 1).normals.add(line);
+	}
+
+	void face(int line) {
+		objects.get(objects.size() - 1).faces.add(line);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OBJSourceMap [comments=%s, objects=%s]", comments.size, objects.size());
+	}
+
+	private static class ObjectLines {
+
+		private final int line;
+		private final Lines vertices;
+		private final Lines textures;
+		private final Lines normals;
+		private final Lines faces;
+
+		private ObjectLines(int line) {
+			this.line = line;
+			this.vertices = new Lines();
+			this.textures = new Lines();
+			this.normals = new Lines();
+			this.faces = new Lines();
+		}
+
+	}
+
+	private static class Lines {
+
+		private int[] lines = new int[16];
+		private int size;
+
+		private void add(int line) {
+			if (size == lines.length)
+				lines = Arrays.copyOf(lines, 2 * size);
+			lines[size++] = line;
+		}
+
+		private int get(int index) {
+			return index >= 0 && index < size ? lines[index] : -1;
+		}
+
+	}
+
+}
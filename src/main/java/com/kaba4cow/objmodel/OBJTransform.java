@@ -0,0 +1,202 @@
+package com.kaba4cow.objmodel;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.objmodel.elements.OBJNormal;
+import com.kaba4cow.objmodel.elements.OBJTexture;
+import com.kaba4cow.objmodel.elements.OBJVertex;
+
+/**
+ * A utility class with bulk affine transform kernels for geometry. Matrices are column-major float arrays as used by OpenGL:
+ * a 4x4 matrix has 16 elements with the translation in elements 12, 13 and 14, and a 3x3 matrix has 9 elements with the
+ * translation of 2D texture coordinates in elements 6 and 7.
+ * <p>
+ * Positions are transformed by the 4x4 matrix, normals by the inverse-transpose of its upper-left 3x3 part and renormalized,
+ * and texture coordinates by an optional 3x3 matrix. The kernels work on packed float arrays as well as on element lists, and
+ * large inputs are split into blocks that are transformed in parallel.
+ */
+public class OBJTransform {
+
+	private static final int BLOCK_SIZE = 1 << 13;
+
+	private OBJTransform() {}
+
+	/**
+	 * Transforms packed positions in place by the specified 4x4 matrix.
+	 *
+	 * @param matrix the column-major 4x4 matrix
+	 * @param positions the packed positions, three floats (x, y, z) per position
+	 * @param offset the offset of the first position in the array
+	 * @param count the number of positions to transform
+	 */
+	public static void transformPositions(float[] matrix, float[] positions, int offset, int count) {
+		checkMatrix(matrix, 16);
+		blocks(count).forEach(block -> {
+			int end = Math.min(count, block + BLOCK_SIZE);
+			for (int i = offset + 3 * block; i < offset + 3 * end; i += 3) {
+				float x = positions[i + 0], y = positions[i + 1], z = positions[i + 2];
+				positions[i + 0] = matrix[0] * x + matrix[4] * y + matrix[8] * z + matrix[12];
+				positions[i + 1] = matrix[1] * x + matrix[5] * y + matrix[9] * z + matrix[13];
+				positions[i + 2] = matrix[2] * x + matrix[6] * y + matrix[10] * z + matrix[14];
+			}
+		});
+	}
+
+	/**
+	 * Transforms packed normals in place by the specified 3x3 normal matrix and renormalizes them. Zero-length normals are
+	 * left unchanged.
+	 *
+	 * @param normalMatrix the column-major 3x3 normal matrix, see {@link #normalMatrix(float[])}
+	 * @param normals the packed normals, three floats (x, y, z) per normal
+	 * @param offset the offset of the first normal in the array
+	 * @param count the number of normals to transform
+	 */
+	public static void transformNormals(float[] normalMatrix, float[] normals, int offset, int count) {
+		checkMatrix(normalMatrix, 9);
+		blocks(count).forEach(block -> {
+			int end = Math.min(count, block + BLOCK_SIZE);
+			for (int i = offset + 3 * block; i < offset + 3 * end; i += 3) {
+				float x = normals[i + 0], y = normals[i + 1], z = normals[i + 2];
+				float nx = normalMatrix[0] * x + normalMatrix[3] * y + normalMatrix[6] * z;
+				float ny = normalMatrix[1] * x + normalMatrix[4] * y + normalMatrix[7] * z;
+				float nz = normalMatrix[2] * x + normalMatrix[5] * y + normalMatrix[8] * z;
+				float length = nx * nx + ny * ny + nz * nz;
+				if (length > 0.0f) {
+					length = (float) (1.0 / Math.sqrt(length));
+					normals[i + 0] = nx * length;
+					normals[i + 1] = ny * length;
+					normals[i + 2] = nz * length;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Transforms packed texture coordinates in place by the specified 3x3 matrix. Only the U and V components are
+	 * transformed.
+	 *
+	 * @param matrix the column-major 3x3 matrix
+	 * @param textures the packed texture coordinates
+	 * @param offset the offset of the first texture coordinate in the array
+	 * @param count the number of texture coordinates to transform
+	 * @param stride the number of floats per texture coordinate, at least 2
+	 */
+	public static void transformTextures(float[] matrix, float[] textures, int offset, int count, int stride) {
+		checkMatrix(matrix, 9);
+		if (stride < 2)
+			throw new IllegalArgumentException("Stride must be at least 2");
+		blocks(count).forEach(block -> {
+			int end = Math.min(count, block + BLOCK_SIZE);
+			for (int i = offset + stride * block; i < offset + stride * end; i += stride) {
+				float u = textures[i + 0], v = textures[i + 1];
+				textures[i + 0] = matrix[0] * u + matrix[3] * v + matrix[6];
+				textures[i + 1] = matrix[1] * u + matrix[4] * v + matrix[7];
+			}
+		});
+	}
+
+	/**
+	 * Computes the normal matrix of the specified 4x4 matrix, which is the inverse-transpose of its upper-left 3x3 part.
+	 *
+	 * @param matrix the column-major 4x4 matrix
+	 * 
+	 * @return a new column-major 3x3 normal matrix
+	 * 
+	 * @throws IllegalArgumentException if the upper-left 3x3 part is not invertible
+	 */
+	public static float[] normalMatrix(float[] matrix) {
+		checkMatrix(matrix, 16);
+		double a = matrix[0], b = matrix[4], c = matrix[8];
+		double d = matrix[1], e = matrix[5], f = matrix[9];
+		double g = matrix[2], h = matrix[6], i = matrix[10];
+		double ca = e * i - f * h, cb = f * g - d * i, cc = d * h - e * g;
+		double determinant = a * ca + b * cb + c * cc;
+		if (determinant == 0.0 || Double.isNaN(determinant))
+			throw new IllegalArgumentException("Matrix is not invertible");
+		double inverse = 1.0 / determinant;
+		// The inverse-transpose equals the cofactor matrix divided by the determinant
+		return new float[] { //
+				(float) (ca * inverse), (float) ((c * h - b * i) * inverse), (float) ((b * f - c * e) * inverse), //
+				(float) (cb * inverse), (float) ((a * i - c * g) * inverse), (float) ((c * d - a * f) * inverse), //
+				(float) (cc * inverse), (float) ((b * g - a * h) * inverse), (float) ((a * e - b * d) * inverse) //
+		};
+	}
+
+	/**
+	 * Transforms vertices in place by the specified 4x4 matrix.
+	 *
+	 * @param matrix the column-major 4x4 matrix
+	 * @param vertices the list of {@link OBJVertex} objects to transform
+	 */
+	public static void transformVertices(float[] matrix, List<OBJVertex> vertices) {
+		checkMatrix(matrix, 16);
+		int count = vertices.size();
+		blocks(count).forEach(block -> {
+			for (int i = block; i < Math.min(count, block + BLOCK_SIZE); i++) {
+				OBJVertex vertex = vertices.get(i);
+				float x = vertex.getX(), y = vertex.getY(), z = vertex.getZ();
+				vertex.set(matrix[0] * x + matrix[4] * y + matrix[8] * z + matrix[12],
+						matrix[1] * x + matrix[5] * y + matrix[9] * z + matrix[13],
+						matrix[2] * x + matrix[6] * y + matrix[10] * z + matrix[14]);
+			}
+		});
+	}
+
+	/**
+	 * Transforms normals in place by the specified 3x3 normal matrix and renormalizes them. Zero-length normals are left
+	 * unchanged.
+	 *
+	 * @param normalMatrix the column-major 3x3 normal matrix, see {@link #normalMatrix(float[])}
+	 * @param normals the list of {@link OBJNormal} objects to transform
+	 */
+	public static void transformNormals(float[] normalMatrix, List<OBJNormal> normals) {
+		checkMatrix(normalMatrix, 9);
+		int count = normals.size();
+		blocks(count).forEach(block -> {
+			for (int i = block; i < Math.min(count, block + BLOCK_SIZE); i++) {
+				OBJNormal normal = normals.get(i);
+				float x = normal.getX(), y = normal.getY(), z = normal.getZ();
+				float nx = normalMatrix[0] * x + normalMatrix[3] * y + normalMatrix[6] * z;
+				float ny = normalMatrix[1] * x + normalMatrix[4] * y + normalMatrix[7] * z;
+				float nz = normalMatrix[2] * x + normalMatrix[5] * y + normalMatrix[8] * z;
+				float length = nx * nx + ny * ny + nz * nz;
+				if (length > 0.0f) {
+					length = (float) (1.0 / Math.sqrt(length));
+					normal.set(nx * length, ny * length, nz * length);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Transforms the U and V components of texture coordinates in place by the specified 3x3 matrix.
+	 *
+	 * @param matrix the column-major 3x3 matrix
+	 * @param textures the list of {@link OBJTexture} objects to transform
+	 */
+	public static void transformTextures(float[] matrix, List<OBJTexture> textures) {
+		checkMatrix(matrix, 9);
+		int count = textures.size();
+		blocks(count).forEach(block -> {
+			for (int i = block; i < Math.min(count, block + BLOCK_SIZE); i++) {
+				OBJTexture texture = textures.get(i);
+				float u = texture.getU(), v = texture.getV();
+				texture.setU(matrix[0] * u + matrix[3] * v + matrix[6]).setV(matrix[1] * u + matrix[4] * v + matrix[7]);
+			}
+		});
+	}
+
+	private static IntStream blocks(int count) {
+		IntStream stream = IntStream.range(0, (count + BLOCK_SIZE - 1) / BLOCK_SIZE).map(block -> block * BLOCK_SIZE);
+		return count > BLOCK_SIZE ? stream.parallel() : stream;
+	}
+
+	private static void checkMatrix(float[] matrix, int length) {
+		Objects.requireNonNull(matrix, "Matrix must not be null");
+		if (matrix.length != length)
+			throw new IllegalArgumentException(String.format("Matrix must have %s elements", length));
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.kaba4cow.objmodel;
+
+import java.util.Objects;
+
+/**
+ * A running measurement of one parse. The parser increments the element counters as it reads and reports the start of
+ * every object; {@link #finish(long, long)} reports the totals to the listeners and Flight Recorder events that were
+ * enabled when the parse started.
+ */
+final class ParseStats {
+
+	private final boolean listeners;
+	private final boolean objectEvents;
+	private final long start;
+	private final Object event;
+	long characters;
+	long lines;
+	long comments;
+	long objects;
+	long vertices;
+	long textures;
+	long normals;
+	long faces;
+	private String objectName;
+	private long objectStart;
+	private Object objectEvent;
+	private long objectVertices;
+	private long objectTextures;
+	private long objectNormals;
+	private long objectFaces;
+
+	private ParseStats(boolean listeners, boolean objectEvents, Object event) {
+		this.listeners = listeners;
+		this.objectEvents = objectEvents;
+		this.event = event;
+		this.start = System.nanoTime();
+	}
+
+	/**
+	 * Starts measuring a parse.
+	 *
+	 * @return the measurement, or {@code null} if no listener or event is enabled
+	 */
+	static ParseStats start() {
+		boolean listeners = OBJMetrics.hasListeners();
+		boolean objectEvents = OBJMetrics.FLIGHT_RECORDER && FlightEvents.isObjectEnabled();
+		Object event = OBJMetrics.FLIGHT_RECORDER ? FlightEvents.beginParse() : null;
+		if (!listeners && !objectEvents && Objects.isNull(event))
+			return null;
+		return new ParseStats(listeners, objectEvents, event);
+	}
+
+	/**
+	 * Ends the current object, if any, and starts measuring the next one.
+	 *
+	 * @param name the name of the object
+	 */
+	void object(String name) {
+		endObject();
+		objects++;
+		objectName = name;
+		objectVertices = vertices;
+		objectTextures = textures;
+		objectNormals = normals;
+		objectFaces = faces;
+		objectEvent = objectEvents ? FlightEvents.beginObject() : null;
+		objectStart = System.nanoTime();
+	}
+
+	private void endObject() {
+		if (objects == 0L)
+			return;
+		if (listeners)
+			OBJMetrics.record(OBJMetrics.PARSE_OBJECT_DURATION, System.nanoTime() - objectStart);
+		if (Objects.nonNull(objectEvent))
+			FlightEvents.commitObject(objectEvent, objectName, vertices - objectVertices, textures - objectTextures,
+					normals - objectNormals, faces - objectFaces);
+		objectEvent = null;
+	}
+
+	/**
+	 * Ends the measurement and reports it.
+	 *
+	 * @param lines the number of lines read
+	 * @param characters the number of characters read
+	 */
+	void finish(long lines, long characters) {
+		this.lines = lines;
+		this.characters = characters;
+		endObject();
+		if (Objects.nonNull(event))
+			FlightEvents.commitParse(event, this);
+		if (listeners) {
+			OBJMetrics.count(OBJMetrics.PARSE_COUNT, 1L);
+			OBJMetrics.count(OBJMetrics.PARSE_CHARACTERS, characters);
+			OBJMetrics.count(OBJMetrics.PARSE_LINES, lines);
+			OBJMetrics.count(OBJMetrics.PARSE_COMMENTS, comments);
+			OBJMetrics.count(OBJMetrics.PARSE_OBJECTS, objects);
+			OBJMetrics.count(OBJMetrics.PARSE_VERTICES, vertices);
+			OBJMetrics.count(OBJMetrics.PARSE_TEXTURES, textures);
+			OBJMetrics.count(OBJMetrics.PARSE_NORMALS, normals);
+			OBJMetrics.count(OBJMetrics.PARSE_FACES, faces);
+			OBJMetrics.record(OBJMetrics.PARSE_DURATION, System.nanoTime() - start);
+		}
+	}
+
+}
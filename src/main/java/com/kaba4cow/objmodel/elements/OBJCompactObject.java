@@ -0,0 +1,422 @@
+package com.kaba4cow.objmodel.elements;
+
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * A compact, read-only representation of an {@link OBJObject} for memory-resident caches. Geometry is stored in primitive
+ * arrays with lossy encodings:
+ * <ul>
+ * <li>vertex positions are quantized to 16 bits per component relative to the axis-aligned bounding box of the object;</li>
+ * <li>texture coordinates are stored as IEEE 754 half-precision floats;</li>
+ * <li>normals are octahedral-encoded into two 16-bit components, so only their direction is kept.</li>
+ * </ul>
+ * Face indices are stored losslessly. The getters mirror those of {@link OBJObject} and return newly created, dequantized
+ * elements, and the bulk {@code copy} methods decode whole arrays at once. The maximum error introduced by every encoding is
+ * measured while encoding and exposed through {@link #getPositionError()}, {@link #getTextureError()} and
+ * {@link #getNormalError()}.
+ */
+public class OBJCompactObject {
+
+	private static final float POSITION_STEPS = 65535.0f;
+	private static final float NORMAL_STEPS = 32767.0f;
+
+	private final String name;
+	private final float[] origin;
+	private final float[] scale;
+	private final short[] positions;
+	private final short[] textures;
+	private final BitSet textureW;
+	private final short[] normals;
+	private final int[] faceOffsets;
+	private final int[] vertexIndices;
+	private final int[] textureIndices;
+	private final int[] normalIndices;
+	private final float positionError;
+	private final float textureError;
+	private final float normalError;
+
+	/**
+	 * Creates a compact representation of the specified object.
+	 *
+	 * @param object the {@link OBJObject} to encode
+	 */
+	public OBJCompactObject(OBJObject object) {
+		Objects.requireNonNull(object, "Object must not be null");
+		this.name = object.getName();
+
+		int vertexCount = object.getVertexCount();
+		float[] min = { Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY };
+		float[] max = { Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY };
+		for (int i = 0; i < vertexCount; i++) {
+			OBJVertex vertex = object.getVertex(i);
+			min[0] = Math.min(min[0], vertex.getX());
+			min[1] = Math.min(min[1], vertex.getY());
+			min[2] = Math.min(min[2], vertex.getZ());
+			max[0] = Math.max(max[0], vertex.getX());
+			max[1] = Math.max(max[1], vertex.getY());
+			max[2] = Math.max(max[2], vertex.getZ());
+		}
+		this.origin = new float[3];
+		this.scale = new float[3];
+		for (int i = 0; i < 3 && vertexCount > 0; i++) {
+			origin[i] = min[i];
+			scale[i] = (max[i] - min[i]) / POSITION_STEPS;
+		}
+		this.positions = new short[3 * vertexCount];
+		float positionError = 0.0f;
+		for (int i = 0; i < vertexCount; i++) {
+			OBJVertex vertex = object.getVertex(i);
+			positionError = Math.max(positionError, encodePosition(3 * i + 0, vertex.getX()));
+			positionError = Math.max(positionError, encodePosition(3 * i + 1, vertex.getY()));
+			positionError = Math.max(positionError, encodePosition(3 * i + 2, vertex.getZ()));
+		}
+		this.positionError = positionError;
+
+		int textureCount = object.getTextureCount();
+		this.textures = new short[3 * textureCount];
+		this.textureW = new BitSet(textureCount);
+		float textureError = 0.0f;
+		for (int i = 0; i < textureCount; i++) {
+			OBJTexture texture = object.getTexture(i);
+			textures[3 * i + 0] = toHalf(texture.getU());
+			textures[3 * i + 1] = toHalf(texture.getV());
+			textureError = Math.max(textureError, Math.abs(fromHalf(textures[3 * i + 0]) - texture.getU()));
+			textureError = Math.max(textureError, Math.abs(fromHalf(textures[3 * i + 1]) - texture.getV()));
+			if (texture.hasW()) {
+				textureW.set(i);
+				textures[3 * i + 2] = toHalf(texture.getW());
+				if (!Float.isNaN(texture.getW()))
+					textureError = Math.max(textureError, Math.abs(fromHalf(textures[3 * i + 2]) - texture.getW()));
+			}
+		}
+		this.textureError = textureError;
+
+		int normalCount = object.getNormalCount();
+		this.normals = new short[2 * normalCount];
+		float[] decoded = new float[3];
+		float normalError = 0.0f;
+		for (int i = 0; i < normalCount; i++) {
+			OBJNormal normal = object.getNormal(i);
+			float x = normal.getX(), y = normal.getY(), z = normal.getZ();
+			encodeNormal(i, x, y, z);
+			decodeNormal(i, decoded, 0);
+			float length = (float) Math.sqrt(x * x + y * y + z * z);
+			if (length > 0.0f) {
+				float cos = (decoded[0] * x + decoded[1] * y + decoded[2] * z) / length;
+				normalError = Math.max(normalError, (float) Math.acos(Math.max(-1.0f, Math.min(1.0f, cos))));
+			}
+		}
+		this.normalError = normalError;
+
+		int faceCount = object.getFaceCount();
+		this.faceOffsets = new int[faceCount + 1];
+		for (int i = 0; i < faceCount; i++)
+			faceOffsets[i + 1] = faceOffsets[i] + object.getFace(i).getIndexCount();
+		int cornerCount = faceOffsets[faceCount];
+		this.vertexIndices = new int[cornerCount];
+		this.textureIndices = new int[cornerCount];
+		this.normalIndices = new int[cornerCount];
+		for (int i = 0; i < faceCount; i++) {
+			OBJFace face = object.getFace(i);
+			for (int j = 0; j < face.getIndexCount(); j++) {
+				OBJIndex index = face.getIndex(j);
+				int corner = faceOffsets[i] + j;
+				vertexIndices[corner] = index.hasVertex() ? index.getVertex() : OBJIndex.UNSET;
+				textureIndices[corner] = index.hasTexture() ? index.getTexture() : OBJIndex.UNSET;
+				normalIndices[corner] = index.hasNormal() ? index.getNormal() : OBJIndex.UNSET;
+			}
+		}
+	}
+
+	private float encodePosition(int offset, float value) {
+		int axis = offset % 3;
+		int quantized = scale[axis] > 0.0f ? Math.round((value - origin[axis]) / scale[axis]) : 0;
+		positions[offset] = (short) Math.max(0, Math.min(65535, quantized));
+		return Math.abs(decodePosition(offset) - value);
+	}
+
+	private float decodePosition(int offset) {
+		int axis = offset % 3;
+		return origin[axis] + (positions[offset] & 0xFFFF) * scale[axis];
+	}
+
+	private void encodeNormal(int index, float x, float y, float z) {
+		float length = Math.abs(x) + Math.abs(y) + Math.abs(z);
+		if (length == 0.0f) {
+			normals[2 * index + 0] = 0;
+			normals[2 * index + 1] = 0;
+			return;
+		}
+		x /= length;
+		y /= length;
+		if (z < 0.0f) {
+			float ox = (1.0f - Math.abs(y)) * (x >= 0.0f ? 1.0f : -1.0f);
+			float oy = (1.0f - Math.abs(x)) * (y >= 0.0f ? 1.0f : -1.0f);
+			x = ox;
+			y = oy;
+		}
+		normals[2 * index + 0] = (short) Math.round(Math.max(-1.0f, Math.min(1.0f, x)) * NORMAL_STEPS);
+		normals[2 * index + 1] = (short) Math.round(Math.max(-1.0f, Math.min(1.0f, y)) * NORMAL_STEPS);
+	}
+
+	private void decodeNormal(int index, float[] dst, int offset) {
+		float x = normals[2 * index + 0] / NORMAL_STEPS;
+		float y = normals[2 * index + 1] / NORMAL_STEPS;
+		float z = 1.0f - Math.abs(x) - Math.abs(y);
+		float t = Math.max(-z, 0.0f);
+		x += x >= 0.0f ? -t : t;
+		y += y >= 0.0f ? -t : t;
+		float length = (float) Math.sqrt(x * x + y * y + z * z);
+		dst[offset + 0] = x / length;
+		dst[offset + 1] = y / length;
+		dst[offset + 2] = z / length;
+	}
+
+	/**
+	 * Retrieves the name of the object.
+	 *
+	 * @return the name of the object
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Retrieves a dequantized vertex by its index.
+	 *
+	 * @param index the index of the vertex
+	 * 
+	 * @return a new {@link OBJVertex} with the decoded position
+	 */
+	public OBJVertex getVertex(int index) {
+		return new OBJVertex().set(decodePosition(3 * index + 0), decodePosition(3 * index + 1),
+				decodePosition(3 * index + 2));
+	}
+
+	/**
+	 * Returns the number of vertices in the object.
+	 *
+	 * @return number of vertices
+	 */
+	public int getVertexCount() {
+		return positions.length / 3;
+	}
+
+	/**
+	 * Retrieves a decoded texture coordinate by its index.
+	 *
+	 * @param index the index of the texture coordinate
+	 * 
+	 * @return a new {@link OBJTexture} with the decoded components
+	 */
+	public OBJTexture getTexture(int index) {
+		OBJTexture texture = new OBJTexture().set(fromHalf(textures[3 * index + 0]), fromHalf(textures[3 * index + 1]));
+		if (textureW.get(index))
+			texture.setW(fromHalf(textures[3 * index + 2]));
+		return texture;
+	}
+
+	/**
+	 * Returns the number of textures in the object.
+	 *
+	 * @return number of textures
+	 */
+	public int getTextureCount() {
+		return textures.length / 3;
+	}
+
+	/**
+	 * Retrieves a decoded normal by its index.
+	 *
+	 * @param index the index of the normal
+	 * 
+	 * @return a new unit-length {@link OBJNormal}
+	 */
+	public OBJNormal getNormal(int index) {
+		float[] decoded = new float[3];
+		decodeNormal(index, decoded, 0);
+		return new OBJNormal().set(decoded[0], decoded[1], decoded[2]);
+	}
+
+	/**
+	 * Returns the number of normals in the object.
+	 *
+	 * @return number of normals
+	 */
+	public int getNormalCount() {
+		return normals.length / 2;
+	}
+
+	/**
+	 * Retrieves a face by its index.
+	 *
+	 * @param index the index of the face
+	 * 
+	 * @return a new {@link OBJFace} with the stored indices
+	 */
+	public OBJFace getFace(int index) {
+		OBJFace face = new OBJFace();
+		for (int corner = faceOffsets[index]; corner < faceOffsets[index + 1]; corner++) {
+			OBJIndex faceIndex = new OBJIndex();
+			if (vertexIndices[corner] != OBJIndex.UNSET)
+				faceIndex.setVertex(vertexIndices[corner]);
+			if (textureIndices[corner] != OBJIndex.UNSET)
+				faceIndex.setTexture(textureIndices[corner]);
+			if (normalIndices[corner] != OBJIndex.UNSET)
+				faceIndex.setNormal(normalIndices[corner]);
+			face.addIndex(faceIndex);
+		}
+		return face;
+	}
+
+	/**
+	 * Returns the number of faces in the object.
+	 *
+	 * @return number of faces
+	 */
+	public int getFaceCount() {
+		return faceOffsets.length - 1;
+	}
+
+	/**
+	 * Decodes all vertex positions into the specified array, three floats (x, y, z) per vertex.
+	 *
+	 * @param dst the destination array
+	 * @param offset the offset in the destination array
+	 * 
+	 * @return the number of floats written
+	 */
+	public int copyPositions(float[] dst, int offset) {
+		for (int i = 0; i < positions.length; i++)
+			dst[offset + i] = decodePosition(i);
+		return positions.length;
+	}
+
+	/**
+	 * Decodes the U and V components of all texture coordinates into the specified array, two floats per texture coordinate.
+	 *
+	 * @param dst the destination array
+	 * @param offset the offset in the destination array
+	 * 
+	 * @return the number of floats written
+	 */
+	public int copyTextures(float[] dst, int offset) {
+		int count = getTextureCount();
+		for (int i = 0; i < count; i++) {
+			dst[offset + 2 * i + 0] = fromHalf(textures[3 * i + 0]);
+			dst[offset + 2 * i + 1] = fromHalf(textures[3 * i + 1]);
+		}
+		return 2 * count;
+	}
+
+	/**
+	 * Decodes all normals into the specified array, three floats (x, y, z) per normal.
+	 *
+	 * @param dst the destination array
+	 * @param offset the offset in the destination array
+	 * 
+	 * @return the number of floats written
+	 */
+	public int copyNormals(float[] dst, int offset) {
+		int count = getNormalCount();
+		for (int i = 0; i < count; i++)
+			decodeNormal(i, dst, offset + 3 * i);
+		return 3 * count;
+	}
+
+	/**
+	 * Returns the maximum absolute error of any decoded vertex position component, in model units.
+	 *
+	 * @return the maximum position error
+	 */
+	public float getPositionError() {
+		return positionError;
+	}
+
+	/**
+	 * Returns the maximum absolute error of any decoded texture coordinate component.
+	 *
+	 * @return the maximum texture coordinate error
+	 */
+	public float getTextureError() {
+		return textureError;
+	}
+
+	/**
+	 * Returns the maximum angle between any decoded normal and its original direction, in radians.
+	 *
+	 * @return the maximum normal error
+	 */
+	public float getNormalError() {
+		return normalError;
+	}
+
+	/**
+	 * Decodes this compact representation into a new {@link OBJObject}.
+	 *
+	 * @return a new {@link OBJObject} with the decoded elements
+	 */
+	public OBJObject toObject() {
+		OBJObject object = new OBJObject().setName(name);
+		for (int i = 0; i < getVertexCount(); i++)
+			object.addVertex(getVertex(i));
+		for (int i = 0; i < getTextureCount(); i++)
+			object.addTexture(getTexture(i));
+		for (int i = 0; i < getNormalCount(); i++)
+			object.addNormal(getNormal(i));
+		for (int i = 0; i < getFaceCount(); i++)
+			object.addFace(getFace(i));
+		return object;
+	}
+
+	private static short toHalf(float value) {
+		int bits = Float.floatToRawIntBits(value);
+		int sign = (bits >>> 16) & 0x8000;
+		int exponent = (bits >>> 23) & 0xFF;
+		int mantissa = bits & 0x7FFFFF;
+		if (exponent == 0xFF)
+			return (short) (sign | 0x7C00 | (mantissa != 0 ? 0x200 : 0));
+		int halfExponent = exponent - 127 + 15;
+		if (halfExponent >= 0x1F)
+			return (short) (sign | 0x7C00);
+		if (halfExponent <= 0) {
+			if (halfExponent < -10)
+				return (short) sign;
+			mantissa |= 0x800000;
+			int shift = 14 - halfExponent;
+			int half = mantissa >> shift;
+			int remainder = mantissa & ((1 << shift) - 1);
+			int midpoint = 1 << (shift - 1);
+			if (remainder > midpoint || (remainder == midpoint && (half & 1) != 0))
+				half++;
+			return (short) (sign | half);
+		}
+		int half = (halfExponent << 10) | (mantissa >> 13);
+		int remainder = mantissa & 0x1FFF;
+		if (remainder > 0x1000 || (remainder == 0x1000 && (half & 1) != 0))
+			half++;
+		return (short) (sign | half);
+	}
+
+	private static float fromHalf(short value) {
+		int bits = value & 0xFFFF;
+		int sign = (bits & 0x8000) << 16;
+		int exponent = (bits >>> 10) & 0x1F;
+		int mantissa = bits & 0x3FF;
+		if (exponent == 0) {
+			float subnormal = mantissa * 0x1.0p-24f;
+			return sign != 0 ? -subnormal : subnormal;
+		}
+		if (exponent == 0x1F)
+			return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+		return Float.intBitsToFloat(sign | ((exponent - 15 + 127) << 23) | (mantissa << 13));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OBJCompactObject [name=%s, vertices=%s, textures=%s, normals=%s, faces=%s]", name,
+				getVertexCount(), getTextureCount(), getNormalCount(), getFaceCount());
+	}
+
+}
@@ -0,0 +1,363 @@
+package com.kaba4cow.objmodel.elements;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.IntStream;
+
+/**
+ * A builder that lets many threads contribute geometry to one {@link OBJObject} without locking. Every producer appends to
+ * its own {@link Stripe}, a set of growable primitive buffers addressed with stripe-local indices, and {@link #build()}
+ * merges all stripes into a single object, offsetting the face indices of every stripe by the element counts of the stripes
+ * before it.
+ * <p>
+ * Stripes are merged in ascending order of their keys, so the result is deterministic when producers use
+ * {@link #stripe(int)} with keys derived from their work items, for example chunk indices. {@link #localStripe()} is a
+ * convenience that gives every thread its own stripe; thread stripes are merged first, in order of first use, which depends
+ * on scheduling. A stripe must only be used by one thread
+ * at a time, and {@link #build()} must be called after all producers have finished, for example after joining them or after
+ * their tasks have completed.
+ */
+public class OBJConcurrentObjectBuilder {
+
+	private final ConcurrentSkipListMap<Integer, Stripe> stripes;
+	private final ConcurrentLinkedQueue<Stripe> threadStripes;
+	private final ThreadLocal<Stripe> localStripes;
+	private String name;
+
+	/**
+	 * Creates an empty builder.
+	 */
+	public OBJConcurrentObjectBuilder() {
+		this.stripes = new ConcurrentSkipListMap<>();
+		this.threadStripes = new ConcurrentLinkedQueue<>();
+		this.localStripes = new ThreadLocal<>();
+		this.name = null;
+	}
+
+	/**
+	 * Sets the name of the built object.
+	 *
+	 * @param name the name of the object
+	 * 
+	 * @return a reference to this object
+	 */
+	public OBJConcurrentObjectBuilder setName(String name) {
+		this.name = name;
+		return this;
+	}
+
+	/**
+	 * Returns the stripe with the specified key, creating it if necessary. Stripes are merged in ascending key order.
+	 *
+	 * @param key the key of the stripe
+	 * 
+	 * @return the {@link Stripe} with the specified key
+	 */
+	public Stripe stripe(int key) {
+		return stripes.computeIfAbsent(key, k -> new Stripe());
+	}
+
+	/**
+	 * Returns the stripe of the calling thread, creating it on first use. Thread stripes are merged before keyed stripes, in
+	 * the order the threads first requested them.
+	 *
+	 * @return the {@link Stripe} of the calling thread
+	 */
+	public Stripe localStripe() {
+		Stripe stripe = localStripes.get();
+		if (Objects.isNull(stripe)) {
+			stripe = new Stripe();
+			threadStripes.add(stripe);
+			localStripes.set(stripe);
+		}
+		return stripe;
+	}
+
+	/**
+	 * Merges all stripes into a new {@link OBJObject}. The elements of every stripe are created in parallel and appended in
+	 * stripe order.
+	 *
+	 * @return a new {@link OBJObject} containing the geometry of all stripes
+	 */
+	public OBJObject build() {
+		List<Stripe> ordered = new ArrayList<>(threadStripes);
+		ordered.addAll(stripes.values());
+		int[] vertexOffsets = new int[ordered.size()];
+		int[] textureOffsets = new int[ordered.size()];
+		int[] normalOffsets = new int[ordered.size()];
+		for (int i = 1; i < ordered.size(); i++) {
+			Stripe previous = ordered.get(i - 1);
+			vertexOffsets[i] = vertexOffsets[i - 1] + previous.vertexCount;
+			textureOffsets[i] = textureOffsets[i - 1] + previous.textureCount;
+			normalOffsets[i] = normalOffsets[i - 1] + previous.normalCount;
+		}
+		Elements[] elements = new Elements[ordered.size()];
+		IntStream.range(0, ordered.size()).parallel().forEach(i -> elements[i] = ordered.get(i)
+				.toElements(vertexOffsets[i], textureOffsets[i], normalOffsets[i]));
+		OBJObject object = new OBJObject().setName(name);
+		for (Elements stripe : elements) {
+			for (OBJVertex vertex : stripe.vertices)
+				object.addVertex(vertex);
+			for (OBJTexture texture : stripe.textures)
+				object.addTexture(texture);
+			for (OBJNormal normal : stripe.normals)
+				object.addNormal(normal);
+			for (OBJFace face : stripe.faces)
+				object.addFace(face);
+		}
+		return object;
+	}
+
+	/**
+	 * A single-producer buffer of vertices, texture coordinates, normals and faces. Face indices refer to elements of the same
+	 * stripe, starting at 0, and a negative texture or normal index means the index is unset.
+	 */
+	public static class Stripe {
+
+		private float[] vertices;
+		private int vertexCount;
+		private float[] textures;
+		private int textureCount;
+		private float[] normals;
+		private int normalCount;
+		private int[] faceSizes;
+		private int faceCount;
+		private int[] corners;
+		private int cornerCount;
+
+		private Stripe() {
+			this.vertices = new float[3 * 64];
+			this.textures = new float[3 * 64];
+			this.normals = new float[3 * 64];
+			this.faceSizes = new int[64];
+			this.corners = new int[3 * 3 * 64];
+		}
+
+		/**
+		 * Appends a vertex.
+		 *
+		 * @param x the X component of the vertex
+		 * @param y the Y component of the vertex
+		 * @param z the Z component of the vertex
+		 * 
+		 * @return the stripe-local index of the vertex
+		 */
+		public int addVertex(float x, float y, float z) {
+			vertices = ensure(vertices, 3 * vertexCount + 3);
+			vertices[3 * vertexCount + 0] = x;
+			vertices[3 * vertexCount + 1] = y;
+			vertices[3 * vertexCount + 2] = z;
+			return vertexCount++;
+		}
+
+		/**
+		 * Appends a texture coordinate without a W component.
+		 *
+		 * @param u the U component of the texture coordinate
+		 * @param v the V component of the texture coordinate
+		 * 
+		 * @return the stripe-local index of the texture coordinate
+		 */
+		public int addTexture(float u, float v) {
+			return addTexture(u, v, Float.NaN);
+		}
+
+		/**
+		 * Appends a texture coordinate.
+		 *
+		 * @param u the U component of the texture coordinate
+		 * @param v the V component of the texture coordinate
+		 * @param w the W component of the texture coordinate, or {@link Float#NaN} to leave it unset
+		 * 
+		 * @return the stripe-local index of the texture coordinate
+		 */
+		public int addTexture(float u, float v, float w) {
+			textures = ensure(textures, 3 * textureCount + 3);
+			textures[3 * textureCount + 0] = u;
+			textures[3 * textureCount + 1] = v;
+			textures[3 * textureCount + 2] = w;
+			return textureCount++;
+		}
+
+		/**
+		 * Appends a normal.
+		 *
+		 * @param x the X component of the normal
+		 * @param y the Y component of the normal
+		 * @param z the Z component of the normal
+		 * 
+		 * @return the stripe-local index of the normal
+		 */
+		public int addNormal(float x, float y, float z) {
+			normals = ensure(normals, 3 * normalCount + 3);
+			normals[3 * normalCount + 0] = x;
+			normals[3 * normalCount + 1] = y;
+			normals[3 * normalCount + 2] = z;
+			return normalCount++;
+		}
+
+		/**
+		 * Appends a triangle that only references vertices.
+		 *
+		 * @param a the stripe-local index of the first vertex
+		 * @param b the stripe-local index of the second vertex
+		 * @param c the stripe-local index of the third vertex
+		 * 
+		 * @return the stripe-local index of the face
+		 */
+		public int addTriangle(int a, int b, int c) {
+			beginFace(3);
+			addCorner(a, -1, -1);
+			addCorner(b, -1, -1);
+			addCorner(c, -1, -1);
+			return faceCount++;
+		}
+
+		/**
+		 * Appends a face that only references vertices.
+		 *
+		 * @param vertices the stripe-local vertex indices of the face
+		 * 
+		 * @return the stripe-local index of the face
+		 */
+		public int addFace(int... vertices) {
+			return addFace(vertices, null, null);
+		}
+
+		/**
+		 * Appends a face. The texture and normal arrays may be {@code null}; otherwise they must have the same length as the
+		 * vertex array.
+		 *
+		 * @param vertices the stripe-local vertex indices of the face
+		 * @param textures the stripe-local texture indices of the face, or {@code null}
+		 * @param normals the stripe-local normal indices of the face, or {@code null}
+		 * 
+		 * @return the stripe-local index of the face
+		 * 
+		 * @throws IllegalArgumentException if the index arrays have different lengths
+		 */
+		public int addFace(int[] vertices, int[] textures, int[] normals) {
+			Objects.requireNonNull(vertices, "Vertices must not be null");
+			if ((Objects.nonNull(textures) && textures.length != vertices.length)
+					|| (Objects.nonNull(normals) && normals.length != vertices.length))
+				throw new IllegalArgumentException("Index arrays must have the same length");
+			beginFace(vertices.length);
+			for (int i = 0; i < vertices.length; i++)
+				addCorner(vertices[i], Objects.isNull(textures) ? -1 : textures[i], Objects.isNull(normals) ? -1 : normals[i]);
+			return faceCount++;
+		}
+
+		private void beginFace(int size) {
+			faceSizes = ensure(faceSizes, faceCount + 1);
+			faceSizes[faceCount] = size;
+			corners = ensure(corners, 3 * (cornerCount + size));
+		}
+
+		private void addCorner(int vertex, int texture, int normal) {
+			corners[3 * cornerCount + 0] = vertex;
+			corners[3 * cornerCount + 1] = texture;
+			corners[3 * cornerCount + 2] = normal;
+			cornerCount++;
+		}
+
+		/**
+		 * Returns the number of vertices in the stripe.
+		 *
+		 * @return number of vertices
+		 */
+		public int getVertexCount() {
+			return vertexCount;
+		}
+
+		/**
+		 * Returns the number of textures in the stripe.
+		 *
+		 * @return number of textures
+		 */
+		public int getTextureCount() {
+			return textureCount;
+		}
+
+		/**
+		 * Returns the number of normals in the stripe.
+		 *
+		 * @return number of normals
+		 */
+		public int getNormalCount() {
+			return normalCount;
+		}
+
+		/**
+		 * Returns the number of faces in the stripe.
+		 *
+		 * @return number of faces
+		 */
+		public int getFaceCount() {
+			return faceCount;
+		}
+
+		private Elements toElements(int vertexOffset, int textureOffset, int normalOffset) {
+			Elements elements = new Elements(vertexCount, textureCount, normalCount, faceCount);
+			for (int i = 0; i < vertexCount; i++)
+				elements.vertices[i] = new OBJVertex().set(vertices[3 * i + 0], vertices[3 * i + 1], vertices[3 * i + 2]);
+			for (int i = 0; i < textureCount; i++) {
+				OBJTexture texture = new OBJTexture().set(textures[3 * i + 0], textures[3 * i + 1]);
+				if (!Float.isNaN(textures[3 * i + 2]))
+					texture.setW(textures[3 * i + 2]);
+				elements.textures[i] = texture;
+			}
+			for (int i = 0; i < normalCount; i++)
+				elements.normals[i] = new OBJNormal().set(normals[3 * i + 0], normals[3 * i + 1], normals[3 * i + 2]);
+			int corner = 0;
+			for (int i = 0; i < faceCount; i++) {
+				OBJFace face = new OBJFace();
+				for (int j = 0; j < faceSizes[i]; j++, corner++) {
+					OBJIndex index = new OBJIndex().setVertex(corners[3 * corner + 0] + vertexOffset);
+					if (corners[3 * corner + 1] >= 0)
+						index.setTexture(corners[3 * corner + 1] + textureOffset);
+					if (corners[3 * corner + 2] >= 0)
+						index.setNormal(corners[3 * corner + 2] + normalOffset);
+					face.addIndex(index);
+				}
+				elements.faces[i] = face;
+			}
+			return elements;
+		}
+
+		private static float[] ensure(float[] array, int length) {
+			return array.length >= length ? array : Arrays.copyOf(array, Math.max(length, 2 * array.length));
+		}
+
+		private static int[] ensure(int[] array, int length) {
+			return array.length >= length ? array : Arrays.copyOf(array, Math.max(length, 2 * array.length));
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Stripe [vertices=%s, textures=%s, normals=%s, faces=%s]", vertexCount, textureCount,
+					normalCount, faceCount);
+		}
+
+	}
+
+	private static class Elements {
+
+		private final OBJVertex[] vertices;
+		private final OBJTexture[] textures;
+		private final OBJNormal[] normals;
+		private final OBJFace[] faces;
+
+		private Elements(int vertexCount, int textureCount, int normalCount, int faceCount) {
+			this.vertices = new OBJVertex[vertexCount];
+			this.textures = new OBJTexture[textureCount];
+			this.normals = new OBJNormal[normalCount];
+			this.faces = new OBJFace[faceCount];
+		}
+
+	}
+
+}
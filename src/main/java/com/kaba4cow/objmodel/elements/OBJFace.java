@@ -3,7 +3,6 @@ package com.kaba4cow.objmodel.elements;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import com.kaba4cow.objmodel.OBJElement;
 
@@ -104,13 +103,15 @@ public class OBJFace implements OBJElement {
 	 */
 	@Override
 	public String toOBJString() {
-		return new StringBuilder().append("f ").append(indices.stream()//
-				.map(OBJIndex::toOBJString).collect(Collectors.joining(" "))).toString();
+		StringBuilder builder = new StringBuilder().append("f ");
+		for (int i = 0; i < getIndexCount(); i++)
+			builder.append(i > 0 ? " " : "").append(getIndex(i).toOBJString());
+		return builder.toString();
 	}
 
 	@Override
 	public String toString() {
-		return String.format("OBJFace [indices=%s]", indices);
+		return String.format("OBJFace [indices=%s]", getIndices());
 	}
 
 }
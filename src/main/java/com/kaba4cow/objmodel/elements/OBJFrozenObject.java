@@ -0,0 +1,390 @@
+package com.kaba4cow.objmodel.elements;
+
+import java.util.BitSet;
+import java.util.Objects;
+
+import com.kaba4cow.objmodel.OBJElement;
+
+/**
+ * A deeply immutable snapshot of an {@link OBJObject} backed by packed primitive arrays. All fields are final and the arrays
+ * are never exposed, so a snapshot is safely published once constructed and can be read by any number of threads without
+ * locking. Element getters return new copies; {@link #toBuilder()} returns a mutable {@link OBJObject} for writers.
+ */
+public final class OBJFrozenObject implements OBJElement {
+
+	private final String name;
+	private final float[] positions;
+	private final float[] textures;
+	private final BitSet textureW;
+	private final float[] normals;
+	private final int[] faceOffsets;
+	private final int[] vertexIndices;
+	private final int[] textureIndices;
+	private final int[] normalIndices;
+
+	/**
+	 * Creates a snapshot of the current state of the specified object.
+	 *
+	 * @param object the {@link OBJObject} to freeze
+	 */
+	public OBJFrozenObject(OBJObject object) {
+		Objects.requireNonNull(object, "Object must not be null");
+		this.name = object.getName();
+		int vertexCount = object.getVertexCount();
+		this.positions = new float[3 * vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			OBJVertex vertex = object.getVertex(i);
+			positions[3 * i + 0] = vertex.getX();
+			positions[3 * i + 1] = vertex.getY();
+			positions[3 * i + 2] = vertex.getZ();
+		}
+		int textureCount = object.getTextureCount();
+		this.textures = new float[3 * textureCount];
+		this.textureW = new BitSet(textureCount);
+		for (int i = 0; i < textureCount; i++) {
+			OBJTexture texture = object.getTexture(i);
+			textures[3 * i + 0] = texture.getU();
+			textures[3 * i + 1] = texture.getV();
+			textures[3 * i + 2] = texture.hasW() ? texture.getW() : Float.NaN;
+			if (texture.hasW())
+				textureW.set(i);
+		}
+		int normalCount = object.getNormalCount();
+		this.normals = new float[3 * normalCount];
+		for (int i = 0; i < normalCount; i++) {
+			OBJNormal normal = object.getNormal(i);
+			normals[3 * i + 0] = normal.getX();
+			normals[3 * i + 1] = normal.getY();
+			normals[3 * i + 2] = normal.getZ();
+		}
+		int faceCount = object.getFaceCount();
+		this.faceOffsets = new int[faceCount + 1];
+		for (int i = 0; i < faceCount; i++)
+			faceOffsets[i + 1] = faceOffsets[i] + object.getFace(i).getIndexCount();
+		int cornerCount = faceOffsets[faceCount];
+		this.vertexIndices = new int[cornerCount];
+		this.textureIndices = new int[cornerCount];
+		this.normalIndices = new int[cornerCount];
+		for (int i = 0; i < faceCount; i++) {
+			OBJFace face = object.getFace(i);
+			for (int j = 0; j < face.getIndexCount(); j++) {
+				OBJIndex index = face.getIndex(j);
+				int corner = faceOffsets[i] + j;
+				vertexIndices[corner] = index.hasVertex() ? index.getVertex() : OBJIndex.UNSET;
+				textureIndices[corner] = index.hasTexture() ? index.getTexture() : OBJIndex.UNSET;
+				normalIndices[corner] = index.hasNormal() ? index.getNormal() : OBJIndex.UNSET;
+			}
+		}
+	}
+
+	/**
+	 * Retrieves the name of the object.
+	 *
+	 * @return the name of the object
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the number of vertices in the object.
+	 *
+	 * @return number of vertices
+	 */
+	public int getVertexCount() {
+		return positions.length / 3;
+	}
+
+	/**
+	 * Retrieves the X component of a vertex.
+	 *
+	 * @param index the index of the vertex
+	 * 
+	 * @return the X component of the vertex
+	 */
+	public float getVertexX(int index) {
+		return positions[3 * checkIndex(index, getVertexCount()) + 0];
+	}
+
+	/**
+	 * Retrieves the Y component of a vertex.
+	 *
+	 * @param index the index of the vertex
+	 * 
+	 * @return the Y component of the vertex
+	 */
+	public float getVertexY(int index) {
+		return positions[3 * checkIndex(index, getVertexCount()) + 1];
+	}
+
+	/**
+	 * Retrieves the Z component of a vertex.
+	 *
+	 * @param index the index of the vertex
+	 * 
+	 * @return the Z component of the vertex
+	 */
+	public float getVertexZ(int index) {
+		return positions[3 * checkIndex(index, getVertexCount()) + 2];
+	}
+
+	/**
+	 * Retrieves a copy of a vertex.
+	 *
+	 * @param index the index of the vertex
+	 * 
+	 * @return a new {@link OBJVertex} with the components of the vertex
+	 */
+	public OBJVertex getVertex(int index) {
+		return new OBJVertex().set(getVertexX(index), getVertexY(index), getVertexZ(index));
+	}
+
+	/**
+	 * Returns the number of textures in the object.
+	 *
+	 * @return number of textures
+	 */
+	public int getTextureCount() {
+		return textures.length / 3;
+	}
+
+	/**
+	 * Retrieves the U component of a texture coordinate.
+	 *
+	 * @param index the index of the texture coordinate
+	 * 
+	 * @return the U component of the texture coordinate
+	 */
+	public float getTextureU(int index) {
+		return textures[3 * checkIndex(index, getTextureCount()) + 0];
+	}
+
+	/**
+	 * Retrieves the V component of a texture coordinate.
+	 *
+	 * @param index the index of the texture coordinate
+	 * 
+	 * @return the V component of the texture coordinate
+	 */
+	public float getTextureV(int index) {
+		return textures[3 * checkIndex(index, getTextureCount()) + 1];
+	}
+
+	/**
+	 * Retrieves the W component of a texture coordinate.
+	 *
+	 * @param index the index of the texture coordinate
+	 * 
+	 * @return the W component of the texture coordinate, or {@link Float#NaN} if it is unset
+	 * 
+	 * @see #hasTextureW(int)
+	 */
+	public float getTextureW(int index) {
+		return textures[3 * checkIndex(index, getTextureCount()) + 2];
+	}
+
+	/**
+	 * Checks if a texture coordinate has a W component, which tells an unset component from one that is {@link Float#NaN}.
+	 *
+	 * @param index the index of the texture coordinate
+	 * 
+	 * @return {@code true} if the W component is set, {@code false} otherwise
+	 */
+	public boolean hasTextureW(int index) {
+		return textureW.get(checkIndex(index, getTextureCount()));
+	}
+
+	/**
+	 * Retrieves a copy of a texture coordinate.
+	 *
+	 * @param index the index of the texture coordinate
+	 * 
+	 * @return a new {@link OBJTexture} with the components of the texture coordinate
+	 */
+	public OBJTexture getTexture(int index) {
+		OBJTexture texture = new OBJTexture().set(getTextureU(index), getTextureV(index));
+		if (hasTextureW(index))
+			texture.setW(getTextureW(index));
+		return texture;
+	}
+
+	/**
+	 * Returns the number of normals in the object.
+	 *
+	 * @return number of normals
+	 */
+	public int getNormalCount() {
+		return normals.length / 3;
+	}
+
+	/**
+	 * Retrieves the X component of a normal.
+	 *
+	 * @param index the index of the normal
+	 * 
+	 * @return the X component of the normal
+	 */
+	public float getNormalX(int index) {
+		return normals[3 * checkIndex(index, getNormalCount()) + 0];
+	}
+
+	/**
+	 * Retrieves the Y component of a normal.
+	 *
+	 * @param index the index of the normal
+	 * 
+	 * @return the Y component of the normal
+	 */
+	public float getNormalY(int index) {
+		return normals[3 * checkIndex(index, getNormalCount()) + 1];
+	}
+
+	/**
+	 * Retrieves the Z component of a normal.
+	 *
+	 * @param index the index of the normal
+	 * 
+	 * @return the Z component of the normal
+	 */
+	public float getNormalZ(int index) {
+		return normals[3 * checkIndex(index, getNormalCount()) + 2];
+	}
+
+	/**
+	 * Retrieves a copy of a normal.
+	 *
+	 * @param index the index of the normal
+	 * 
+	 * @return a new {@link OBJNormal} with the components of the normal
+	 */
+	public OBJNormal getNormal(int index) {
+		return new OBJNormal().set(getNormalX(index), getNormalY(index), getNormalZ(index));
+	}
+
+	/**
+	 * Returns the number of faces in the object.
+	 *
+	 * @return number of faces
+	 */
+	public int getFaceCount() {
+		return faceOffsets.length - 1;
+	}
+
+	/**
+	 * Returns the number of indices of a face.
+	 *
+	 * @param face the index of the face
+	 * 
+	 * @return number of indices of the face
+	 */
+	public int getFaceSize(int face) {
+		checkIndex(face, getFaceCount());
+		return faceOffsets[face + 1] - faceOffsets[face];
+	}
+
+	/**
+	 * Returns the vertex index at a corner of a face.
+	 *
+	 * @param face the index of the face
+	 * @param corner the position of the index within the face
+	 * 
+	 * @return the vertex index, or {@link OBJIndex#UNSET} if it is unset
+	 */
+	public int getFaceVertex(int face, int corner) {
+		return vertexIndices[corner(face, corner)];
+	}
+
+	/**
+	 * Returns the texture index at a corner of a face.
+	 *
+	 * @param face the index of the face
+	 * @param corner the position of the index within the face
+	 * 
+	 * @return the texture index, or {@link OBJIndex#UNSET} if it is unset
+	 */
+	public int getFaceTexture(int face, int corner) {
+		return textureIndices[corner(face, corner)];
+	}
+
+	/**
+	 * Returns the normal index at a corner of a face.
+	 *
+	 * @param face the index of the face
+	 * @param corner the position of the index within the face
+	 * 
+	 * @return the normal index, or {@link OBJIndex#UNSET} if it is unset
+	 */
+	public int getFaceNormal(int face, int corner) {
+		return normalIndices[corner(face, corner)];
+	}
+
+	/**
+	 * Retrieves a copy of a face.
+	 *
+	 * @param index the index of the face
+	 * 
+	 * @return a new {@link OBJFace} with the indices of the face
+	 */
+	public OBJFace getFace(int index) {
+		int size = getFaceSize(index);
+		OBJFace face = new OBJFace();
+		for (int i = 0; i < size; i++) {
+			int corner = faceOffsets[index] + i;
+			OBJIndex faceIndex = new OBJIndex();
+			if (vertexIndices[corner] != OBJIndex.UNSET)
+				faceIndex.setVertex(vertexIndices[corner]);
+			if (textureIndices[corner] != OBJIndex.UNSET)
+				faceIndex.setTexture(textureIndices[corner]);
+			if (normalIndices[corner] != OBJIndex.UNSET)
+				faceIndex.setNormal(normalIndices[corner]);
+			face.addIndex(faceIndex);
+		}
+		return face;
+	}
+
+	private int corner(int face, int corner) {
+		checkIndex(corner, getFaceSize(face));
+		return faceOffsets[face] + corner;
+	}
+
+	private static int checkIndex(int index, int size) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException(String.format("Index %s out of bounds for length %s", index, size));
+		return index;
+	}
+
+	/**
+	 * Creates a mutable deep copy of this snapshot.
+	 *
+	 * @return a new {@link OBJObject} with copies of all elements
+	 */
+	public OBJObject toBuilder() {
+		OBJObject object = new OBJObject().setName(name);
+		for (int i = 0; i < getVertexCount(); i++)
+			object.addVertex(getVertex(i));
+		for (int i = 0; i < getTextureCount(); i++)
+			object.addTexture(getTexture(i));
+		for (int i = 0; i < getNormalCount(); i++)
+			object.addNormal(getNormal(i));
+		for (int i = 0; i < getFaceCount(); i++)
+			object.addFace(getFace(i));
+		return object;
+	}
+
+	/**
+	 * Converts this snapshot to its string representation in the OBJ format.
+	 *
+	 * @return the OBJ format string for this object
+	 */
+	@Override
+	public String toOBJString() {
+		return toBuilder().toOBJString();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OBJFrozenObject [name=%s, vertices=%s, textures=%s, normals=%s, faces=%s]", name,
+				getVertexCount(), getTextureCount(), getNormalCount(), getFaceCount());
+	}
+
+}
@@ -9,6 +9,14 @@ import com.kaba4cow.objmodel.OBJElement;
  */
 public class OBJIndex implements OBJElement {
 
+	/**
+	 * The value that stands for an unset index in packed index arrays, such as those filled by
+	 * {@link OBJObject#copyFaceCorners(int[], int)}. Indices are stored as written minus one, so relative indices are
+	 * negative and an index written as {@code 0} is {@code -1}. Only a relative index reaching back more elements than an
+	 * object can hold maps to this value, so it never stands for a valid index.
+	 */
+	public static final int UNSET = Integer.MIN_VALUE;
+
 	private Integer vertex;
 	private Integer texture;
 	private Integer normal;
@@ -164,21 +172,23 @@ public class OBJIndex implements OBJElement {
 	 */
 	@Override
 	public String toOBJString() {
-		Objects.requireNonNull(vertex, "Vertex must not be empty");
+		if (!hasVertex())
+			throw new NullPointerException("Vertex must not be empty");
 		StringBuilder builder = new StringBuilder();
-		builder.append(vertex + 1);
-		if (Objects.nonNull(texture))
-			builder.append("/").append(texture + 1);
-		else if (Objects.nonNull(normal))
+		builder.append(getVertex() + 1);
+		if (hasTexture())
+			builder.append("/").append(getTexture() + 1);
+		else if (hasNormal())
 			builder.append("/");
-		if (Objects.nonNull(normal))
-			builder.append("/").append(normal + 1);
+		if (hasNormal())
+			builder.append("/").append(getNormal() + 1);
 		return builder.toString();
 	}
 
 	@Override
 	public String toString() {
-		return String.format("OBJIndex [vertex=%s, texture=%s, normal=%s]", vertex, texture, normal);
+		return String.format("OBJIndex [vertex=%s, texture=%s, normal=%s]", hasVertex() ? getVertex() : null,
+				hasTexture() ? getTexture() : null, hasNormal() ? getNormal() : null);
 	}
 
 }
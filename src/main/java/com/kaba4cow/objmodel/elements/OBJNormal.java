@@ -104,12 +104,12 @@ public class OBJNormal implements OBJElement {
 	 */
 	@Override
 	public String toOBJString() {
-		return String.format("vn %s %s %s", x, y, z);
+		return String.format("vn %s %s %s", getX(), getY(), getZ());
 	}
 
 	@Override
 	public String toString() {
-		return String.format("OBJNormal [x=%s, y=%s, z=%s]", x, y, z);
+		return String.format("OBJNormal [x=%s, y=%s, z=%s]", getX(), getY(), getZ());
 	}
 
 }
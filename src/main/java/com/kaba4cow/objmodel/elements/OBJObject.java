@@ -1,14 +1,25 @@
 package com.kaba4cow.objmodel.elements;
 
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.kaba4cow.objmodel.OBJBounds;
 import com.kaba4cow.objmodel.OBJElement;
+import com.kaba4cow.objmodel.OBJTransform;
 
 /**
  * Represents an object in an OBJ model. An {@code OBJObject} contains a name and lists of vertices, textures, normals, and
  * faces, providing methods for manipulation and export to OBJ format.
+ * <p>
+ * The bounds of the object and of face ranges are computed lazily and cached until the geometry changes, see
+ * {@link #getBounds()}.
  */
 public class OBJObject implements OBJElement {
 
@@ -17,6 +28,10 @@ public class OBJObject implements OBJElement {
 	private final List<OBJTexture> textures;
 	private final List<OBJNormal> normals;
 	private final List<OBJFace> faces;
+	private int vertexModifications;
+	private int faceModifications;
+	private volatile CachedBounds bounds;
+	private volatile CachedBounds rangeBounds;
 
 	/**
 	 * Creates a new {@code OBJObject} with no name and empty lists for vertices, textures, normals, and faces.
@@ -27,6 +42,10 @@ public class OBJObject implements OBJElement {
 		this.textures = new ArrayList<>();
 		this.normals = new ArrayList<>();
 		this.faces = new ArrayList<>();
+		this.vertexModifications = 0;
+		this.faceModifications = 0;
+		this.bounds = null;
+		this.rangeBounds = null;
 	}
 
 	/**
@@ -79,6 +98,7 @@ public class OBJObject implements OBJElement {
 	 */
 	public OBJObject addVertex(OBJVertex vertex) {
 		vertices.add(vertex);
+		vertexModifications++;
 		return this;
 	}
 
@@ -91,6 +111,7 @@ public class OBJObject implements OBJElement {
 	 */
 	public OBJObject removeVertex(int index) {
 		vertices.remove(index);
+		vertexModifications++;
 		return this;
 	}
 
@@ -102,7 +123,8 @@ public class OBJObject implements OBJElement {
 	 * @return a reference to this object
 	 */
 	public OBJObject removeVertex(OBJVertex vertex) {
-		vertices.remove(vertex);
+		if (vertices.remove(vertex))
+			vertexModifications++;
 		return this;
 	}
 
@@ -113,6 +135,7 @@ public class OBJObject implements OBJElement {
 	 */
 	public OBJObject clearVertices() {
 		vertices.clear();
+		vertexModifications++;
 		return this;
 	}
 
@@ -304,6 +327,7 @@ public class OBJObject implements OBJElement {
 	 */
 	public OBJObject addFace(OBJFace face) {
 		faces.add(face);
+		faceModifications++;
 		return this;
 	}
 
@@ -316,6 +340,7 @@ public class OBJObject implements OBJElement {
 	 */
 	public OBJObject removeFace(int index) {
 		faces.remove(index);
+		faceModifications++;
 		return this;
 	}
 
@@ -327,7 +352,8 @@ public class OBJObject implements OBJElement {
 	 * @return a reference to this object
 	 */
 	public OBJObject removeFace(OBJFace face) {
-		faces.remove(face);
+		if (faces.remove(face))
+			faceModifications++;
 		return this;
 	}
 
@@ -338,6 +364,7 @@ public class OBJObject implements OBJElement {
 	 */
 	public OBJObject clearFaces() {
 		faces.clear();
+		faceModifications++;
 		return this;
 	}
 
@@ -350,6 +377,403 @@ public class OBJObject implements OBJElement {
 		return faces.size();
 	}
 
+	/**
+	 * Returns the total number of indices of all faces in the object.
+	 *
+	 * @return number of face corners
+	 */
+	public int getCornerCount() {
+		int count = 0;
+		for (int i = 0; i < faces.size(); i++)
+			count += faces.get(i).getIndexCount();
+		return count;
+	}
+
+	/**
+	 * Returns the bounds of all vertices of the object, including vertices not referenced by any face. The bounds are
+	 * computed on first use, in parallel for large objects, and cached until a vertex is added or removed or the object is
+	 * transformed, so repeated queries take constant time. Vertices do not notify the object when their components change;
+	 * call {@link #invalidateBounds()} once after changing vertices directly.
+	 *
+	 * @return the cached {@link OBJBounds}, empty if the object has no vertices
+	 */
+	public OBJBounds getBounds() {
+		CachedBounds bounds = this.bounds;
+		if (Objects.isNull(bounds) || bounds.vertexModifications != vertexModifications)
+			this.bounds = bounds = new CachedBounds(vertexModifications, faceModifications, OBJBounds.of(vertices));
+		return bounds.bounds;
+	}
+
+	/**
+	 * Returns the bounds of the vertices referenced by a range of faces, for example the faces of one material or group.
+	 * The bounds are cached per range like {@link #getBounds()}, and are also invalidated when faces are added or removed.
+	 * Call {@link #invalidateBounds()} after changing the indices of a face already in the object.
+	 *
+	 * @param fromFace the index of the first face, inclusive
+	 * @param toFace the index of the last face, exclusive
+	 * 
+	 * @return the cached {@link OBJBounds}, empty if the range is empty
+	 * 
+	 * @throws IndexOutOfBoundsException if the range is out of bounds
+	 * @throws IllegalArgumentException  if a face index in the range has no vertex or refers to a missing vertex
+	 */
+	public OBJBounds getBounds(int fromFace, int toFace) {
+		if (fromFace < 0 || toFace > faces.size() || fromFace > toFace)
+			throw new IndexOutOfBoundsException(
+					String.format("Face range [%s, %s) is out of bounds for %s faces", fromFace, toFace, faces.size()));
+		CachedBounds ranges = this.rangeBounds;
+		if (Objects.isNull(ranges) || ranges.vertexModifications != vertexModifications
+				|| ranges.faceModifications != faceModifications)
+			this.rangeBounds = ranges = new CachedBounds(vertexModifications, faceModifications, null);
+		Long key = ((long) fromFace << 32) | toFace;
+		OBJBounds bounds = ranges.ranges.get(key);
+		if (Objects.isNull(bounds)) {
+			int[] indices = new int[16];
+			int count = 0;
+			for (int i = fromFace; i < toFace; i++) {
+				OBJFace face = faces.get(i);
+				for (int j = 0; j < face.getIndexCount(); j++) {
+					OBJIndex index = face.getIndex(j);
+					if (!index.hasVertex() || index.getVertex() < 0 || index.getVertex() >= vertices.size())
+						throw new IllegalArgumentException(String.format("Face %s has an invalid index", i));
+					if (count == indices.length)
+						indices = Arrays.copyOf(indices, 2 * count);
+					indices[count++] = index.getVertex();
+				}
+			}
+			bounds = OBJBounds.of(vertices, indices, count);
+			ranges.ranges.put(key, bounds);
+		}
+		return bounds;
+	}
+
+	/**
+	 * Discards the cached bounds of the object and of all face ranges, so they are recomputed on next use. This is done
+	 * automatically when vertices or faces are added or removed and when the object is transformed, but not when the
+	 * components of a vertex or the indices of a face are changed directly.
+	 *
+	 * @return a reference to this object
+	 */
+	public OBJObject invalidateBounds() {
+		vertexModifications++;
+		return this;
+	}
+
+	private static OBJIndex copy(OBJIndex index) {
+		OBJIndex copy = new OBJIndex();
+		if (index.hasVertex())
+			copy.setVertex(index.getVertex());
+		if (index.hasTexture())
+			copy.setTexture(index.getTexture());
+		if (index.hasNormal())
+			copy.setNormal(index.getNormal());
+		return copy;
+	}
+
+	/**
+	 * Creates a spliterator over the vertices of the object. The spliterator is ordered, sized and subsized and splits into
+	 * halves, so parallel streams divide the work evenly.
+	 *
+	 * @return a {@link Spliterator} over the {@link OBJVertex} objects
+	 */
+	public Spliterator<OBJVertex> vertexSpliterator() {
+		return vertices.spliterator();
+	}
+
+	/**
+	 * Creates a spliterator over the textures of the object. The spliterator is ordered, sized and subsized and splits into
+	 * halves, so parallel streams divide the work evenly.
+	 *
+	 * @return a {@link Spliterator} over the {@link OBJTexture} objects
+	 */
+	public Spliterator<OBJTexture> textureSpliterator() {
+		return textures.spliterator();
+	}
+
+	/**
+	 * Creates a spliterator over the normals of the object. The spliterator is ordered, sized and subsized and splits into
+	 * halves, so parallel streams divide the work evenly.
+	 *
+	 * @return a {@link Spliterator} over the {@link OBJNormal} objects
+	 */
+	public Spliterator<OBJNormal> normalSpliterator() {
+		return normals.spliterator();
+	}
+
+	/**
+	 * Creates a spliterator over the faces of the object. The spliterator is ordered, sized and subsized and splits into
+	 * halves, so parallel streams divide the work evenly.
+	 *
+	 * @return a {@link Spliterator} over the {@link OBJFace} objects
+	 */
+	public Spliterator<OBJFace> faceSpliterator() {
+		return faces.spliterator();
+	}
+
+	/**
+	 * Copies all vertex positions into the specified array, three floats (x, y, z) per vertex.
+	 *
+	 * @param dst the destination array
+	 * @param offset the offset in the destination array
+	 * 
+	 * @return the number of floats written
+	 */
+	public int copyPositions(float[] dst, int offset) {
+		int count = vertices.size();
+		for (int i = 0, j = offset; i < count; i++, j += 3) {
+			OBJVertex vertex = vertices.get(i);
+			dst[j + 0] = vertex.getX();
+			dst[j + 1] = vertex.getY();
+			dst[j + 2] = vertex.getZ();
+		}
+		return 3 * count;
+	}
+
+	/**
+	 * Copies the U and V components of all texture coordinates into the specified array, two floats per texture coordinate.
+	 *
+	 * @param dst the destination array
+	 * @param offset the offset in the destination array
+	 * 
+	 * @return the number of floats written
+	 */
+	public int copyTextures(float[] dst, int offset) {
+		int count = textures.size();
+		for (int i = 0, j = offset; i < count; i++, j += 2) {
+			OBJTexture texture = textures.get(i);
+			dst[j + 0] = texture.getU();
+			dst[j + 1] = texture.getV();
+		}
+		return 2 * count;
+	}
+
+	/**
+	 * Copies all normals into the specified array, three floats (x, y, z) per normal.
+	 *
+	 * @param dst the destination array
+	 * @param offset the offset in the destination array
+	 * 
+	 * @return the number of floats written
+	 */
+	public int copyNormals(float[] dst, int offset) {
+		int count = normals.size();
+		for (int i = 0, j = offset; i < count; i++, j += 3) {
+			OBJNormal normal = normals.get(i);
+			dst[j + 0] = normal.getX();
+			dst[j + 1] = normal.getY();
+			dst[j + 2] = normal.getZ();
+		}
+		return 3 * count;
+	}
+
+	/**
+	 * Copies all vertex positions into the specified buffer at its current position, three floats (x, y, z) per vertex. The
+	 * position of the buffer is advanced by the number of floats written.
+	 *
+	 * @param dst the destination buffer, for example a direct buffer for upload
+	 * 
+	 * @return the number of floats written
+	 */
+	public int copyPositions(FloatBuffer dst) {
+		for (int i = 0; i < vertices.size(); i++) {
+			OBJVertex vertex = vertices.get(i);
+			dst.put(vertex.getX()).put(vertex.getY()).put(vertex.getZ());
+		}
+		return 3 * vertices.size();
+	}
+
+	/**
+	 * Copies the U and V components of all texture coordinates into the specified buffer at its current position, two floats
+	 * per texture coordinate. The position of the buffer is advanced by the number of floats written.
+	 *
+	 * @param dst the destination buffer, for example a direct buffer for upload
+	 * 
+	 * @return the number of floats written
+	 */
+	public int copyTextures(FloatBuffer dst) {
+		for (int i = 0; i < textures.size(); i++) {
+			OBJTexture texture = textures.get(i);
+			dst.put(texture.getU()).put(texture.getV());
+		}
+		return 2 * textures.size();
+	}
+
+	/**
+	 * Copies all normals into the specified buffer at its current position, three floats (x, y, z) per normal. The position
+	 * of the buffer is advanced by the number of floats written.
+	 *
+	 * @param dst the destination buffer, for example a direct buffer for upload
+	 * 
+	 * @return the number of floats written
+	 */
+	public int copyNormals(FloatBuffer dst) {
+		for (int i = 0; i < normals.size(); i++) {
+			OBJNormal normal = normals.get(i);
+			dst.put(normal.getX()).put(normal.getY()).put(normal.getZ());
+		}
+		return 3 * normals.size();
+	}
+
+	/**
+	 * Creates a read-only buffer with the packed vertex positions of the object, three floats (x, y, z) per vertex. The
+	 * buffer is a snapshot and does not reflect later changes to the object.
+	 *
+	 * @return a read-only {@link FloatBuffer} with the vertex positions
+	 */
+	public FloatBuffer positionBuffer() {
+		float[] array = new float[3 * vertices.size()];
+		copyPositions(array, 0);
+		return FloatBuffer.wrap(array).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Creates a read-only buffer with the packed U and V components of the texture coordinates of the object, two floats per
+	 * texture coordinate. The buffer is a snapshot and does not reflect later changes to the object.
+	 *
+	 * @return a read-only {@link FloatBuffer} with the texture coordinates
+	 */
+	public FloatBuffer textureBuffer() {
+		float[] array = new float[2 * textures.size()];
+		copyTextures(array, 0);
+		return FloatBuffer.wrap(array).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Creates a read-only buffer with the packed normals of the object, three floats (x, y, z) per normal. The buffer is a
+	 * snapshot and does not reflect later changes to the object.
+	 *
+	 * @return a read-only {@link FloatBuffer} with the normals
+	 */
+	public FloatBuffer normalBuffer() {
+		float[] array = new float[3 * normals.size()];
+		copyNormals(array, 0);
+		return FloatBuffer.wrap(array).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Copies the number of indices of every face into the specified array, one int per face.
+	 *
+	 * @param dst the destination array
+	 * @param offset the offset in the destination array
+	 * 
+	 * @return the number of ints written
+	 */
+	public int copyFaceSizes(int[] dst, int offset) {
+		int count = faces.size();
+		for (int i = 0; i < count; i++)
+			dst[offset + i] = faces.get(i).getIndexCount();
+		return count;
+	}
+
+	/**
+	 * Copies the indices of all faces into the specified array, see {@link #copyFaceCorners(int[], int)}.
+	 *
+	 * @param dst the destination array
+	 * 
+	 * @return the number of ints written
+	 */
+	public int copyFaceCorners(int[] dst) {
+		return copyFaceCorners(dst, 0);
+	}
+
+	/**
+	 * Copies the indices of all faces into the specified array in face order, three ints (vertex, texture, normal) per face
+	 * corner. Set indices are copied as stored, including negative relative indices, and unset indices are written as
+	 * {@link OBJIndex#UNSET}. The array must hold at least three times {@link #getCornerCount()} ints after the offset; face
+	 * boundaries are given by {@link #copyFaceSizes(int[], int)}.
+	 *
+	 * @param dst the destination array
+	 * @param offset the offset in the destination array
+	 * 
+	 * @return the number of ints written
+	 */
+	public int copyFaceCorners(int[] dst, int offset) {
+		int j = offset;
+		for (int i = 0; i < faces.size(); i++) {
+			OBJFace face = faces.get(i);
+			for (int k = 0; k < face.getIndexCount(); k++, j += 3) {
+				OBJIndex index = face.getIndex(k);
+				dst[j + 0] = index.hasVertex() ? index.getVertex() : OBJIndex.UNSET;
+				dst[j + 1] = index.hasTexture() ? index.getTexture() : OBJIndex.UNSET;
+				dst[j + 2] = index.hasNormal() ? index.getNormal() : OBJIndex.UNSET;
+			}
+		}
+		return j - offset;
+	}
+
+	/**
+	 * Transforms the vertices of the object by the specified 4x4 matrix and its normals by the inverse-transpose of the
+	 * matrix. Large objects are transformed in parallel.
+	 *
+	 * @param matrix the column-major 4x4 matrix, see {@link OBJTransform}
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @throws IllegalArgumentException if the matrix is malformed or not invertible
+	 */
+	public OBJObject transform(float[] matrix) {
+		return transform(matrix, null);
+	}
+
+	/**
+	 * Transforms the vertices of the object by the specified 4x4 matrix, its normals by the inverse-transpose of the matrix
+	 * and its texture coordinates by the specified 3x3 matrix. Large objects are transformed in parallel. Both matrices are
+	 * checked before anything is changed, whatever elements the object has.
+	 *
+	 * @param matrix the column-major 4x4 matrix, see {@link OBJTransform}
+	 * @param textureMatrix the column-major 3x3 texture coordinate matrix, or {@code null} to leave texture coordinates
+	 *                          unchanged
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @throws IllegalArgumentException if a matrix is malformed or not invertible
+	 */
+	public OBJObject transform(float[] matrix, float[] textureMatrix) {
+		float[] normalMatrix = OBJTransform.normalMatrix(matrix);
+		if (Objects.nonNull(textureMatrix) && textureMatrix.length != 9)
+			throw new IllegalArgumentException("Matrix must have 9 elements");
+		OBJTransform.transformVertices(matrix, vertices);
+		vertexModifications++;
+		OBJTransform.transformNormals(normalMatrix, normals);
+		if (Objects.nonNull(textureMatrix))
+			OBJTransform.transformTextures(textureMatrix, textures);
+		return this;
+	}
+
+	/**
+	 * Splits every face with more than three indices into a fan of triangles around its first index, in place. The
+	 * triangles of a face replace it in the face list and hold copies of its indices. Faces with fewer than three indices
+	 * are removed.
+	 *
+	 * @return a reference to this object
+	 */
+	public OBJObject triangulate() {
+		List<OBJFace> triangles = new ArrayList<>(faces.size());
+		for (int i = 0; i < faces.size(); i++) {
+			OBJFace face = faces.get(i);
+			if (face.getIndexCount() == 3)
+				triangles.add(face);
+			else
+				for (int j = 2; j < face.getIndexCount(); j++)
+					triangles.add(new OBJFace().addIndex(copy(face.getIndex(0))).addIndex(copy(face.getIndex(j - 1)))
+							.addIndex(copy(face.getIndex(j))));
+		}
+		faces.clear();
+		faces.addAll(triangles);
+		faceModifications++;
+		return this;
+	}
+
+	/**
+	 * Creates a deeply immutable snapshot of the current state of the object. The snapshot does not reflect later changes to
+	 * this object and can be shared across threads without locking.
+	 *
+	 * @return a new {@link OBJFrozenObject}
+	 */
+	public OBJFrozenObject freeze() {
+		return new OBJFrozenObject(this);
+	}
+
 	/**
 	 * Converts this object to its string representation in the OBJ format.
 	 *
@@ -372,4 +796,20 @@ public class OBJObject implements OBJElement {
 				normals, faces);
 	}
 
+	private static class CachedBounds {
+
+		private final int vertexModifications;
+		private final int faceModifications;
+		private final OBJBounds bounds;
+		private final Map<Long, OBJBounds> ranges;
+
+		private CachedBounds(int vertexModifications, int faceModifications, OBJBounds bounds) {
+			this.vertexModifications = vertexModifications;
+			this.faceModifications = faceModifications;
+			this.bounds = bounds;
+			this.ranges = Objects.isNull(bounds) ? new ConcurrentHashMap<>() : null;
+		}
+
+	}
+
 }
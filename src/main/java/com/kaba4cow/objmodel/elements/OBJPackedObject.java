@@ -0,0 +1,771 @@
+package com.kaba4cow.objmodel.elements;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import com.kaba4cow.objmodel.OBJElement;
+
+/**
+ * A mutable object backed by packed primitive arrays, with flyweight views in place of per-element objects. Positions,
+ * texture coordinates and normals are stored as three floats per element, and face corners as three ints (vertex, texture,
+ * normal) per corner with {@link OBJIndex#UNSET} for unset indices.
+ * <p>
+ * The views extend {@link OBJVertex}, {@link OBJTexture}, {@link OBJNormal}, {@link OBJFace} and {@link OBJIndex}, so
+ * existing code that works on elements accepts them unchanged. A view is bound to one element at a time and is moved with
+ * {@code moveTo}; reads and writes go straight through to the backing arrays, so a single view can walk millions of elements
+ * without allocating. The number of elements and the size of every face are fixed, so views of faces cannot add or remove
+ * indices. Views are not thread-safe, but separate views may be used by separate threads to write separate elements.
+ */
+public class OBJPackedObject implements OBJElement {
+
+	private final String name;
+	private final float[] positions;
+	private final float[] textures;
+	private final boolean[] textureW;
+	private final float[] normals;
+	private final int[] faceOffsets;
+	private final int[] corners;
+
+	/**
+	 * Creates a packed copy of the specified object.
+	 *
+	 * @param object the {@link OBJObject} to pack
+	 */
+	public OBJPackedObject(OBJObject object) {
+		Objects.requireNonNull(object, "Object must not be null");
+		this.name = object.getName();
+		this.positions = new float[3 * object.getVertexCount()];
+		object.copyPositions(positions, 0);
+		int textureCount = object.getTextureCount();
+		this.textures = new float[3 * textureCount];
+		this.textureW = new boolean[textureCount];
+		for (int i = 0; i < textureCount; i++) {
+			OBJTexture texture = object.getTexture(i);
+			textures[3 * i + 0] = texture.getU();
+			textures[3 * i + 1] = texture.getV();
+			textures[3 * i + 2] = texture.hasW() ? texture.getW() : 0.0f;
+			textureW[i] = texture.hasW();
+		}
+		this.normals = new float[3 * object.getNormalCount()];
+		object.copyNormals(normals, 0);
+		int faceCount = object.getFaceCount();
+		this.faceOffsets = new int[faceCount + 1];
+		for (int i = 0; i < faceCount; i++)
+			faceOffsets[i + 1] = faceOffsets[i] + object.getFace(i).getIndexCount();
+		this.corners = new int[3 * faceOffsets[faceCount]];
+		object.copyFaceCorners(corners, 0);
+	}
+
+	/**
+	 * Retrieves the name of the object.
+	 *
+	 * @return the name of the object
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the number of vertices in the object.
+	 *
+	 * @return number of vertices
+	 */
+	public int getVertexCount() {
+		return positions.length / 3;
+	}
+
+	/**
+	 * Returns the number of textures in the object.
+	 *
+	 * @return number of textures
+	 */
+	public int getTextureCount() {
+		return textures.length / 3;
+	}
+
+	/**
+	 * Returns the number of normals in the object.
+	 *
+	 * @return number of normals
+	 */
+	public int getNormalCount() {
+		return normals.length / 3;
+	}
+
+	/**
+	 * Returns the number of faces in the object.
+	 *
+	 * @return number of faces
+	 */
+	public int getFaceCount() {
+		return faceOffsets.length - 1;
+	}
+
+	/**
+	 * Returns the total number of indices of all faces in the object.
+	 *
+	 * @return number of face corners
+	 */
+	public int getCornerCount() {
+		return corners.length / 3;
+	}
+
+	/**
+	 * Creates a view bound to a vertex.
+	 *
+	 * @param index the index of the vertex
+	 * 
+	 * @return a new {@link VertexView}
+	 * 
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public VertexView getVertex(int index) {
+		return new VertexView().moveTo(index);
+	}
+
+	/**
+	 * Creates a view bound to a texture coordinate.
+	 *
+	 * @param index the index of the texture coordinate
+	 * 
+	 * @return a new {@link TextureView}
+	 * 
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public TextureView getTexture(int index) {
+		return new TextureView().moveTo(index);
+	}
+
+	/**
+	 * Creates a view bound to a normal.
+	 *
+	 * @param index the index of the normal
+	 * 
+	 * @return a new {@link NormalView}
+	 * 
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public NormalView getNormal(int index) {
+		return new NormalView().moveTo(index);
+	}
+
+	/**
+	 * Creates a view bound to a face.
+	 *
+	 * @param index the index of the face
+	 * 
+	 * @return a new {@link FaceView}
+	 * 
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public FaceView getFace(int index) {
+		return new FaceView().moveTo(index);
+	}
+
+	/**
+	 * Creates an unbound vertex view for iteration. The view must be moved to a vertex before it is used.
+	 *
+	 * @return a new {@link VertexView}
+	 */
+	public VertexView vertexView() {
+		return new VertexView();
+	}
+
+	/**
+	 * Creates an unbound texture coordinate view for iteration. The view must be moved to a texture coordinate before it is
+	 * used.
+	 *
+	 * @return a new {@link TextureView}
+	 */
+	public TextureView textureView() {
+		return new TextureView();
+	}
+
+	/**
+	 * Creates an unbound normal view for iteration. The view must be moved to a normal before it is used.
+	 *
+	 * @return a new {@link NormalView}
+	 */
+	public NormalView normalView() {
+		return new NormalView();
+	}
+
+	/**
+	 * Creates an unbound face view for iteration. The view must be moved to a face before it is used.
+	 *
+	 * @return a new {@link FaceView}
+	 */
+	public FaceView faceView() {
+		return new FaceView();
+	}
+
+	/**
+	 * Creates an unbound face corner view for iteration over all corners of the object. The view must be moved to a corner
+	 * before it is used.
+	 *
+	 * @return a new {@link IndexView}
+	 */
+	public IndexView indexView() {
+		return new IndexView();
+	}
+
+	/**
+	 * Copies all vertex positions into the specified array, three floats (x, y, z) per vertex.
+	 *
+	 * @param dst the destination array
+	 * @param offset the offset in the destination array
+	 * 
+	 * @return the number of floats written
+	 */
+	public int copyPositions(float[] dst, int offset) {
+		System.arraycopy(positions, 0, dst, offset, positions.length);
+		return positions.length;
+	}
+
+	/**
+	 * Copies all normals into the specified array, three floats (x, y, z) per normal.
+	 *
+	 * @param dst the destination array
+	 * @param offset the offset in the destination array
+	 * 
+	 * @return the number of floats written
+	 */
+	public int copyNormals(float[] dst, int offset) {
+		System.arraycopy(normals, 0, dst, offset, normals.length);
+		return normals.length;
+	}
+
+	/**
+	 * Copies the indices of all faces into the specified array, three ints (vertex, texture, normal) per face corner, see
+	 * {@link OBJObject#copyFaceCorners(int[], int)}.
+	 *
+	 * @param dst the destination array
+	 * @param offset the offset in the destination array
+	 * 
+	 * @return the number of ints written
+	 */
+	public int copyFaceCorners(int[] dst, int offset) {
+		System.arraycopy(corners, 0, dst, offset, corners.length);
+		return corners.length;
+	}
+
+	/**
+	 * Creates a mutable deep copy of this object with one heap object per element.
+	 *
+	 * @return a new {@link OBJObject} with copies of all elements
+	 */
+	public OBJObject toObject() {
+		OBJObject object = new OBJObject().setName(name);
+		for (int i = 0; i < getVertexCount(); i++)
+			object.addVertex(new OBJVertex().set(positions[3 * i + 0], positions[3 * i + 1], positions[3 * i + 2]));
+		for (int i = 0; i < getTextureCount(); i++) {
+			OBJTexture texture = new OBJTexture().set(textures[3 * i + 0], textures[3 * i + 1]);
+			if (textureW[i])
+				texture.setW(textures[3 * i + 2]);
+			object.addTexture(texture);
+		}
+		for (int i = 0; i < getNormalCount(); i++)
+			object.addNormal(new OBJNormal().set(normals[3 * i + 0], normals[3 * i + 1], normals[3 * i + 2]));
+		for (int i = 0; i < getFaceCount(); i++) {
+			OBJFace face = new OBJFace();
+			for (int corner = 3 * faceOffsets[i]; corner < 3 * faceOffsets[i + 1]; corner += 3) {
+				OBJIndex index = new OBJIndex();
+				if (corners[corner + 0] != OBJIndex.UNSET)
+					index.setVertex(corners[corner + 0]);
+				if (corners[corner + 1] != OBJIndex.UNSET)
+					index.setTexture(corners[corner + 1]);
+				if (corners[corner + 2] != OBJIndex.UNSET)
+					index.setNormal(corners[corner + 2]);
+				face.addIndex(index);
+			}
+			object.addFace(face);
+		}
+		return object;
+	}
+
+	/**
+	 * Converts this object to its string representation in the OBJ format.
+	 *
+	 * @return the OBJ format string for this object
+	 */
+	@Override
+	public String toOBJString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format("o %s\n", name));
+		VertexView vertex = vertexView();
+		for (int i = 0; i < getVertexCount(); i++)
+			builder.append(vertex.moveTo(i).toOBJString()).append("\n");
+		TextureView texture = textureView();
+		for (int i = 0; i < getTextureCount(); i++)
+			builder.append(texture.moveTo(i).toOBJString()).append("\n");
+		NormalView normal = normalView();
+		for (int i = 0; i < getNormalCount(); i++)
+			builder.append(normal.moveTo(i).toOBJString()).append("\n");
+		FaceView face = faceView();
+		for (int i = 0; i < getFaceCount(); i++)
+			builder.append(face.moveTo(i).toOBJString()).append("\n");
+		return builder.toString();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OBJPackedObject [name=%s, vertices=%s, textures=%s, normals=%s, faces=%s]", name,
+				getVertexCount(), getTextureCount(), getNormalCount(), getFaceCount());
+	}
+
+	private static int checkIndex(int index, int size) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException(String.format("Index %s out of bounds for length %s", index, size));
+		return index;
+	}
+
+	/**
+	 * A view of one vertex of a {@link OBJPackedObject}.
+	 */
+	public class VertexView extends OBJVertex {
+
+		private int offset = -1;
+
+		private VertexView() {}
+
+		/**
+		 * Binds this view to a vertex.
+		 *
+		 * @param index the index of the vertex
+		 * 
+		 * @return a reference to this view
+		 * 
+		 * @throws IndexOutOfBoundsException if the index is out of bounds
+		 */
+		public VertexView moveTo(int index) {
+			offset = 3 * checkIndex(index, getVertexCount());
+			return this;
+		}
+
+		/**
+		 * Returns the index of the vertex this view is bound to.
+		 *
+		 * @return the index of the vertex, or {@code -1} if the view is unbound
+		 */
+		public int getIndex() {
+			return offset / 3;
+		}
+
+		@Override
+		public float getX() {
+			return positions[offset + 0];
+		}
+
+		@Override
+		public VertexView setX(float x) {
+			positions[offset + 0] = x;
+			return this;
+		}
+
+		@Override
+		public float getY() {
+			return positions[offset + 1];
+		}
+
+		@Override
+		public VertexView setY(float y) {
+			positions[offset + 1] = y;
+			return this;
+		}
+
+		@Override
+		public float getZ() {
+			return positions[offset + 2];
+		}
+
+		@Override
+		public VertexView setZ(float z) {
+			positions[offset + 2] = z;
+			return this;
+		}
+
+		@Override
+		public VertexView set(float x, float y, float z) {
+			positions[offset + 0] = x;
+			positions[offset + 1] = y;
+			positions[offset + 2] = z;
+			return this;
+		}
+
+	}
+
+	/**
+	 * A view of one texture coordinate of a {@link OBJPackedObject}. Whether the W component is set is kept in a separate
+	 * flag per texture coordinate, so a W component of {@link Float#NaN} is kept as well.
+	 */
+	public class TextureView extends OBJTexture {
+
+		private int offset = -1;
+
+		private TextureView() {}
+
+		/**
+		 * Binds this view to a texture coordinate.
+		 *
+		 * @param index the index of the texture coordinate
+		 * 
+		 * @return a reference to this view
+		 * 
+		 * @throws IndexOutOfBoundsException if the index is out of bounds
+		 */
+		public TextureView moveTo(int index) {
+			offset = 3 * checkIndex(index, getTextureCount());
+			return this;
+		}
+
+		/**
+		 * Returns the index of the texture coordinate this view is bound to.
+		 *
+		 * @return the index of the texture coordinate, or {@code -1} if the view is unbound
+		 */
+		public int getIndex() {
+			return offset / 3;
+		}
+
+		@Override
+		public float getU() {
+			return textures[offset + 0];
+		}
+
+		@Override
+		public TextureView setU(float u) {
+			textures[offset + 0] = u;
+			return this;
+		}
+
+		@Override
+		public float getV() {
+			return textures[offset + 1];
+		}
+
+		@Override
+		public TextureView setV(float v) {
+			textures[offset + 1] = v;
+			return this;
+		}
+
+		@Override
+		public Float getW() {
+			return hasW() ? textures[offset + 2] : null;
+		}
+
+		@Override
+		public TextureView setW(float w) {
+			textures[offset + 2] = w;
+			textureW[offset / 3] = true;
+			return this;
+		}
+
+		@Override
+		public boolean hasW() {
+			return textureW[offset / 3];
+		}
+
+		@Override
+		public TextureView clearW() {
+			textures[offset + 2] = 0.0f;
+			textureW[offset / 3] = false;
+			return this;
+		}
+
+		@Override
+		public TextureView set(float u, float v) {
+			textures[offset + 0] = u;
+			textures[offset + 1] = v;
+			return this;
+		}
+
+		@Override
+		public TextureView set(float u, float v, float w) {
+			return set(u, v).setW(w);
+		}
+
+	}
+
+	/**
+	 * A view of one normal of a {@link OBJPackedObject}.
+	 */
+	public class NormalView extends OBJNormal {
+
+		private int offset = -1;
+
+		private NormalView() {}
+
+		/**
+		 * Binds this view to a normal.
+		 *
+		 * @param index the index of the normal
+		 * 
+		 * @return a reference to this view
+		 * 
+		 * @throws IndexOutOfBoundsException if the index is out of bounds
+		 */
+		public NormalView moveTo(int index) {
+			offset = 3 * checkIndex(index, getNormalCount());
+			return this;
+		}
+
+		/**
+		 * Returns the index of the normal this view is bound to.
+		 *
+		 * @return the index of the normal, or {@code -1} if the view is unbound
+		 */
+		public int getIndex() {
+			return offset / 3;
+		}
+
+		@Override
+		public float getX() {
+			return normals[offset + 0];
+		}
+
+		@Override
+		public NormalView setX(float x) {
+			normals[offset + 0] = x;
+			return this;
+		}
+
+		@Override
+		public float getY() {
+			return normals[offset + 1];
+		}
+
+		@Override
+		public NormalView setY(float y) {
+			normals[offset + 1] = y;
+			return this;
+		}
+
+		@Override
+		public float getZ() {
+			return normals[offset + 2];
+		}
+
+		@Override
+		public NormalView setZ(float z) {
+			normals[offset + 2] = z;
+			return this;
+		}
+
+		@Override
+		public NormalView set(float x, float y, float z) {
+			normals[offset + 0] = x;
+			normals[offset + 1] = y;
+			normals[offset + 2] = z;
+			return this;
+		}
+
+	}
+
+	/**
+	 * A view of one face of a {@link OBJPackedObject}. The indices returned by {@link #getIndex(int)} are views owned by this
+	 * face view, one per corner position, and are rebound whenever they are retrieved.
+	 */
+	public class FaceView extends OBJFace {
+
+		private int face = -1;
+		private IndexView[] indices = new IndexView[0];
+		private final List<OBJIndex> indexList = new AbstractList<OBJIndex>() {
+
+			@Override
+			public OBJIndex get(int index) {
+				return getIndex(index);
+			}
+
+			@Override
+			public int size() {
+				return getIndexCount();
+			}
+
+		};
+
+		private FaceView() {}
+
+		/**
+		 * Binds this view to a face.
+		 *
+		 * @param index the index of the face
+		 * 
+		 * @return a reference to this view
+		 * 
+		 * @throws IndexOutOfBoundsException if the index is out of bounds
+		 */
+		public FaceView moveTo(int index) {
+			face = checkIndex(index, getFaceCount());
+			return this;
+		}
+
+		/**
+		 * Returns the index of the face this view is bound to.
+		 *
+		 * @return the index of the face, or {@code -1} if the view is unbound
+		 */
+		public int getFace() {
+			return face;
+		}
+
+		@Override
+		public List<OBJIndex> getIndices() {
+			return indexList;
+		}
+
+		@Override
+		public IndexView getIndex(int index) {
+			checkIndex(index, getIndexCount());
+			if (index >= indices.length) {
+				int length = indices.length;
+				indices = Arrays.copyOf(indices, Math.max(index + 1, 2 * length));
+				for (int i = length; i < indices.length; i++)
+					indices[i] = new IndexView();
+			}
+			return indices[index].moveTo(faceOffsets[face] + index);
+		}
+
+		@Override
+		public int getIndexCount() {
+			return faceOffsets[face + 1] - faceOffsets[face];
+		}
+
+		@Override
+		public OBJFace addIndex(OBJIndex index) {
+			throw new UnsupportedOperationException("Packed faces have a fixed size");
+		}
+
+		@Override
+		public OBJFace removeIndex(int index) {
+			throw new UnsupportedOperationException("Packed faces have a fixed size");
+		}
+
+		@Override
+		public OBJFace removeIndex(OBJIndex index) {
+			throw new UnsupportedOperationException("Packed faces have a fixed size");
+		}
+
+		@Override
+		public OBJFace clearIndices() {
+			throw new UnsupportedOperationException("Packed faces have a fixed size");
+		}
+
+	}
+
+	/**
+	 * A view of one face corner of a {@link OBJPackedObject}. Corners are numbered across all faces in face order. Like
+	 * {@link OBJIndex}, the views accept negative (relative) indices and the getters throw {@link NullPointerException} for
+	 * unset indices. The setters reject only {@link OBJIndex#UNSET}, which marks unset indices in the backing array.
+	 */
+	public class IndexView extends OBJIndex {
+
+		private int offset = -1;
+
+		private IndexView() {}
+
+		/**
+		 * Binds this view to a face corner.
+		 *
+		 * @param corner the index of the corner across all faces
+		 * 
+		 * @return a reference to this view
+		 * 
+		 * @throws IndexOutOfBoundsException if the index is out of bounds
+		 */
+		public IndexView moveTo(int corner) {
+			offset = 3 * checkIndex(corner, getCornerCount());
+			return this;
+		}
+
+		/**
+		 * Returns the index of the corner this view is bound to.
+		 *
+		 * @return the index of the corner across all faces, or {@code -1} if the view is unbound
+		 */
+		public int getCorner() {
+			return offset / 3;
+		}
+
+		@Override
+		public int getVertex() {
+			return get(0, "Vertex");
+		}
+
+		@Override
+		public IndexView setVertex(int vertex) {
+			return set(0, vertex, "Vertex");
+		}
+
+		@Override
+		public IndexView clearVertex() {
+			corners[offset + 0] = UNSET;
+			return this;
+		}
+
+		@Override
+		public boolean hasVertex() {
+			return corners[offset + 0] != UNSET;
+		}
+
+		@Override
+		public int getTexture() {
+			return get(1, "Texture");
+		}
+
+		@Override
+		public IndexView setTexture(int texture) {
+			return set(1, texture, "Texture");
+		}
+
+		@Override
+		public IndexView clearTexture() {
+			corners[offset + 1] = UNSET;
+			return this;
+		}
+
+		@Override
+		public boolean hasTexture() {
+			return corners[offset + 1] != UNSET;
+		}
+
+		@Override
+		public int getNormal() {
+			return get(2, "Normal");
+		}
+
+		@Override
+		public IndexView setNormal(int normal) {
+			return set(2, normal, "Normal");
+		}
+
+		@Override
+		public IndexView clearNormal() {
+			corners[offset + 2] = UNSET;
+			return this;
+		}
+
+		@Override
+		public boolean hasNormal() {
+			return corners[offset + 2] != UNSET;
+		}
+
+		private int get(int slot, String name) {
+			int value = corners[offset + slot];
+			if (value == UNSET)
+				throw new NullPointerException(String.format("%s index is not set", name));
+			return value;
+		}
+
+		private IndexView set(int slot, int value, String name) {
+			if (value == UNSET)
+				throw new IllegalArgumentException(String.format("%s index must not be OBJIndex.UNSET", name));
+			corners[offset + slot] = value;
+			return this;
+		}
+
+	}
+
+}
@@ -139,13 +139,13 @@ public class OBJTexture implements OBJElement {
 	@Override
 	public String toOBJString() {
 		return hasW() //
-				? String.format("vt %s %s %s", u, v, w) //
-				: String.format("vt %s %s", u, v);
+				? String.format("vt %s %s %s", getU(), getV(), getW()) //
+				: String.format("vt %s %s", getU(), getV());
 	}
 
 	@Override
 	public String toString() {
-		return String.format("OBJTexture [u=%s, v=%s, w=%s]", u, v, w);
+		return String.format("OBJTexture [u=%s, v=%s, w=%s]", getU(), getV(), getW());
 	}
 
 }
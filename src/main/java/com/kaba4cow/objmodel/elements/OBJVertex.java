@@ -3,7 +3,8 @@ package com.kaba4cow.objmodel.elements;
 import com.kaba4cow.objmodel.OBJElement;
 
 /**
- * Represents a vertex in an OBJ model. A vertex is defined by three floating-point components (x, y, z).
+ * Represents a vertex in an OBJ model. A vertex is defined by three floating-point components (x, y, z). Changing a
+ * component does not invalidate the cached bounds of an object, see {@link OBJObject#invalidateBounds()}.
  */
 public class OBJVertex implements OBJElement {
 
@@ -103,12 +104,12 @@ public class OBJVertex implements OBJElement {
 	 */
 	@Override
 	public String toOBJString() {
-		return String.format("v %s %s %s", x, y, z);
+		return String.format("v %s %s %s", getX(), getY(), getZ());
 	}
 
 	@Override
 	public String toString() {
-		return String.format("OBJVertex [x=%s, y=%s, z=%s]", x, y, z);
+		return String.format("OBJVertex [x=%s, y=%s, z=%s]", getX(), getY(), getZ());
 	}
 
 }
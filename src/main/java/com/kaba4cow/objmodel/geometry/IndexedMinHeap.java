@@ -0,0 +1,136 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of integer ids in the range {@code [0, capacity)} keyed by {@code float} priorities. The position of
+ * every id is tracked, so keys can be changed and ids removed in logarithmic time. All state is kept in primitive arrays.
+ */
+class IndexedMinHeap {
+
+	private final int[] heap;
+	private final int[] positions;
+	private final float[] keys;
+	private int size;
+
+	/**
+	 * Creates an empty heap for ids in the range {@code [0, capacity)}.
+	 *
+	 * @param capacity the number of distinct ids
+	 */
+	IndexedMinHeap(int capacity) {
+		this.heap = new int[capacity];
+		this.positions = new int[capacity];
+		this.keys = new float[capacity];
+		this.size = 0;
+		Arrays.fill(positions, -1);
+	}
+
+	/**
+	 * Inserts the id or changes its key if it is already present.
+	 *
+	 * @param id the id
+	 * @param key the new key of the id
+	 */
+	void update(int id, float key) {
+		int position = positions[id];
+		if (position < 0) {
+			keys[id] = key;
+			heap[size] = id;
+			positions[id] = size;
+			siftUp(size++);
+		} else {
+			float old = keys[id];
+			keys[id] = key;
+			if (key < old)
+				siftUp(position);
+			else
+				siftDown(position);
+		}
+	}
+
+	/**
+	 * Removes the id if it is present.
+	 *
+	 * @param id the id to remove
+	 */
+	void remove(int id) {
+		int position = positions[id];
+		if (position < 0)
+			return;
+		positions[id] = -1;
+		if (position == --size)
+			return;
+		int last = heap[size];
+		heap[position] = last;
+		positions[last] = position;
+		siftDown(position);
+		siftUp(positions[last]);
+	}
+
+	/**
+	 * Removes and returns the id with the smallest key.
+	 *
+	 * @return the id with the smallest key
+	 */
+	int pop() {
+		int id = heap[0];
+		remove(id);
+		return id;
+	}
+
+	/**
+	 * Returns the smallest key in the heap.
+	 *
+	 * @return the smallest key
+	 */
+	float peekKey() {
+		return keys[heap[0]];
+	}
+
+	/**
+	 * Checks if the heap is empty.
+	 *
+	 * @return {@code true} if the heap is empty, {@code false} otherwise
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	private void siftUp(int position) {
+		int id = heap[position];
+		float key = keys[id];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			int parentId = heap[parent];
+			if (keys[parentId] <= key)
+				break;
+			heap[position] = parentId;
+			positions[parentId] = position;
+			position = parent;
+		}
+		heap[position] = id;
+		positions[id] = position;
+	}
+
+	private void siftDown(int position) {
+		int id = heap[position];
+		float key = keys[id];
+		int half = size >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			int right = child + 1;
+			if (right < size && keys[heap[right]] < keys[heap[child]])
+				child = right;
+			int childId = heap[child];
+			if (key <= keys[childId])
+				break;
+			heap[position] = childId;
+			positions[childId] = position;
+			position = child;
+		}
+		heap[position] = id;
+		positions[id] = position;
+	}
+
+}
@@ -0,0 +1,139 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from {@code long} keys to non-negative {@code int} values backed by primitive arrays. Used to
+ * pair edges and weld corners without boxing.
+ */
+class LongIntHashMap {
+
+	private static final int MISSING = -1;
+
+	private long[] keys;
+	private int[] values;
+	private int mask;
+	private int size;
+
+	/**
+	 * Creates a map sized to hold the specified number of keys without rehashing.
+	 *
+	 * @param expected the expected number of keys
+	 */
+	LongIntHashMap(int expected) {
+		int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+		this.keys = new long[capacity];
+		this.values = new int[capacity];
+		this.mask = capacity - 1;
+		this.size = 0;
+		Arrays.fill(values, MISSING);
+	}
+
+	/**
+	 * Returns the value mapped to the key.
+	 *
+	 * @param key the key
+	 * 
+	 * @return the mapped value, or {@code -1} if the key is not present
+	 */
+	int get(long key) {
+		int slot = slot(key);
+		while (values[slot] != MISSING) {
+			if (keys[slot] == key)
+				return values[slot];
+			slot = (slot + 1) & mask;
+		}
+		return MISSING;
+	}
+
+	/**
+	 * Maps the key to the value if the key is not present yet.
+	 *
+	 * @param key the key
+	 * @param value the non-negative value to map
+	 * 
+	 * @return the value already mapped to the key, or {@code -1} if the value was inserted
+	 */
+	int putIfAbsent(long key, int value) {
+		int slot = slot(key);
+		while (values[slot] != MISSING) {
+			if (keys[slot] == key)
+				return values[slot];
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size * 2 > keys.length)
+			rehash();
+		return MISSING;
+	}
+
+	/**
+	 * Maps the key to the value, replacing any previous value.
+	 *
+	 * @param key the key
+	 * @param value the non-negative value to map
+	 */
+	void put(long key, int value) {
+		int slot = slot(key);
+		while (values[slot] != MISSING) {
+			if (keys[slot] == key) {
+				values[slot] = value;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size * 2 > keys.length)
+			rehash();
+	}
+
+	/**
+	 * Returns the number of keys in the map.
+	 *
+	 * @return number of keys
+	 */
+	int size() {
+		return size;
+	}
+
+	private int slot(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int) key & mask;
+	}
+
+	private void rehash() {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new long[oldKeys.length * 2];
+		values = new int[oldValues.length * 2];
+		mask = keys.length - 1;
+		Arrays.fill(values, MISSING);
+		for (int i = 0; i < oldKeys.length; i++)
+			if (oldValues[i] != MISSING) {
+				int slot = slot(oldKeys[i]);
+				while (values[slot] != MISSING)
+					slot = (slot + 1) & mask;
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+	}
+
+	/**
+	 * Packs two non-negative {@code int} values into one key.
+	 *
+	 * @param high the value stored in the upper 32 bits
+	 * @param low the value stored in the lower 32 bits
+	 * 
+	 * @return the packed key
+	 */
+	static long key(int high, int low) {
+		return ((long) high << 32) | (low & 0xFFFFFFFFL);
+	}
+
+}
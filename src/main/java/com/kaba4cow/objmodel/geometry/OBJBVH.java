@@ -0,0 +1,605 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.objmodel.elements.OBJObject;
+
+/**
+ * A bounding volume hierarchy over the triangles of an {@link OBJTriangles} snapshot for ray and box queries. The hierarchy
+ * is built top-down with the surface area heuristic evaluated over {@value #BIN_COUNT} centroid bins per axis; subtrees are
+ * built in parallel on the common fork-join pool, and the binning of large nodes is split into parallel chunks.
+ * <p>
+ * Nodes are stored in one flat float array, eight floats per node: the bounds followed by the raw bits of either the first
+ * child and {@code 0}, or the first triangle and the triangle count of a leaf. The two children of a node are stored next to
+ * each other, so a traversal step reads one cache line. The triangle positions are copied in leaf order, nine floats per
+ * triangle, so a leaf reads one contiguous range. Queries do not allocate: the traversal stack is a per-thread array, and
+ * the structure is immutable, so any number of threads may query it at the same time. Triangles are intersected from both
+ * sides.
+ * <p>
+ * Query results refer to triangles of the snapshot; {@link OBJTriangles#getFaceIndices()} maps them to the faces of the
+ * source object.
+ */
+public class OBJBVH {
+
+	/**
+	 * The number of centroid bins per axis evaluated for every split.
+	 */
+	public static final int BIN_COUNT = 16;
+
+	/**
+	 * The maximum depth of the hierarchy; nodes at this depth become leaves regardless of their size.
+	 */
+	public static final int MAX_DEPTH = 64;
+
+	private static final int MAX_LEAF_SIZE = 8;
+	private static final float TRAVERSAL_COST = 1.0f;
+	private static final int PARALLEL_THRESHOLD = 1 << 14;
+	private static final int CHUNK_SIZE = 1 << 16;
+	private static final float EPSILON = 1e-8f;
+	private static final int NODE_STRIDE = 8;
+	private static final int REFERENCE_STRIDE = 9;
+
+	private static final ThreadLocal<Stack> STACKS = ThreadLocal.withInitial(Stack::new);
+
+	private final OBJTriangles source;
+	private final float[] nodes;
+	private final float[] vertices;
+	private final int[] triangles;
+
+	/**
+	 * Builds a hierarchy over the triangulated faces of the specified object.
+	 *
+	 * @param object the {@link OBJObject} to build the hierarchy for
+	 * 
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing element
+	 */
+	public OBJBVH(OBJObject object) {
+		this(new OBJTriangles(object));
+	}
+
+	/**
+	 * Builds a hierarchy over the specified triangles.
+	 *
+	 * @param triangles the {@link OBJTriangles} to build the hierarchy for
+	 */
+	public OBJBVH(OBJTriangles triangles) {
+		Objects.requireNonNull(triangles, "Triangles must not be null");
+		this.source = triangles;
+		int count = triangles.getTriangleCount();
+		float[] positions = triangles.getPositions();
+		int[] indices = triangles.getVertexIndices();
+		float[] primitives = new float[9 * count];
+		range(count).forEach(triangle -> {
+			for (int i = 0; i < 3; i++)
+				System.arraycopy(positions, 3 * indices[3 * triangle + i], primitives, 9 * triangle + 3 * i, 3);
+		});
+		float[] references = new float[REFERENCE_STRIDE * count];
+		range(count).forEach(triangle -> {
+			int v = 9 * triangle, r = REFERENCE_STRIDE * triangle;
+			for (int i = 0; i < 3; i++) {
+				float a = primitives[v + i], b = primitives[v + i + 3], c = primitives[v + i + 6];
+				references[r + i] = Math.min(a, Math.min(b, c));
+				references[r + i + 3] = Math.max(a, Math.max(b, c));
+				references[r + i + 6] = (a + b + c) / 3.0f;
+			}
+		});
+		int[] order = new int[count];
+		for (int i = 0; i < count; i++)
+			order[i] = i;
+		int capacity = Math.max(1, 2 * count - 1);
+		float[] nodes = new float[NODE_STRIDE * capacity];
+		AtomicInteger nodeCount = new AtomicInteger(1);
+		ForkJoinPool.commonPool().invoke(new Build(references, order, nodes, nodeCount, 0, 0, count, 0));
+		int used = nodeCount.get();
+		this.nodes = used == capacity ? nodes : Arrays.copyOf(nodes, NODE_STRIDE * used);
+		this.triangles = order;
+		this.vertices = new float[9 * count];
+		range(count).forEach(i -> System.arraycopy(primitives, 9 * order[i], vertices, 9 * i, 9));
+	}
+
+	/**
+	 * Retrieves the triangles the hierarchy was built over.
+	 *
+	 * @return the source {@link OBJTriangles}
+	 */
+	public OBJTriangles getTriangles() {
+		return source;
+	}
+
+	/**
+	 * Returns the number of nodes in the hierarchy.
+	 *
+	 * @return number of nodes
+	 */
+	public int getNodeCount() {
+		return nodes.length / NODE_STRIDE;
+	}
+
+	/**
+	 * Retrieves the bounding box of all triangles.
+	 *
+	 * @return a new array with the minimum X, Y, Z and maximum X, Y, Z, or {@code null} if there are no triangles
+	 */
+	public float[] getBounds() {
+		return triangles.length == 0 ? null : Arrays.copyOf(nodes, 6);
+	}
+
+	/**
+	 * Finds the closest triangle hit by a ray. The direction does not need to be normalised; distances are measured in
+	 * multiples of its length.
+	 *
+	 * @param ox the X coordinate of the ray origin
+	 * @param oy the Y coordinate of the ray origin
+	 * @param oz the Z coordinate of the ray origin
+	 * @param dx the X component of the ray direction
+	 * @param dy the Y component of the ray direction
+	 * @param dz the Z component of the ray direction
+	 * @param maxDistance the maximum hit distance
+	 * @param hit an array that receives the hit distance and the barycentric coordinates u and v of the hit point, or
+	 *                {@code null}
+	 * 
+	 * @return the index of the closest hit triangle, or {@code -1} if the ray hits nothing within the distance
+	 */
+	public int closestHit(float ox, float oy, float oz, float dx, float dy, float dz, float maxDistance, float[] hit) {
+		return trace(ox, oy, oz, dx, dy, dz, maxDistance, hit, false);
+	}
+
+	/**
+	 * Checks whether a ray hits any triangle, stopping at the first hit found. This is the query for shadow and visibility
+	 * rays.
+	 *
+	 * @param ox the X coordinate of the ray origin
+	 * @param oy the Y coordinate of the ray origin
+	 * @param oz the Z coordinate of the ray origin
+	 * @param dx the X component of the ray direction
+	 * @param dy the Y component of the ray direction
+	 * @param dz the Z component of the ray direction
+	 * @param maxDistance the maximum hit distance
+	 * 
+	 * @return {@code true} if the ray hits a triangle within the distance
+	 */
+	public boolean anyHit(float ox, float oy, float oz, float dx, float dy, float dz, float maxDistance) {
+		return trace(ox, oy, oz, dx, dy, dz, maxDistance, null, true) >= 0;
+	}
+
+	/**
+	 * Finds the triangles that overlap an axis-aligned box, using an exact separating axis test per triangle. Indices are
+	 * written into the array until it is full, but all overlapping triangles are counted.
+	 *
+	 * @param minX the minimum X coordinate of the box
+	 * @param minY the minimum Y coordinate of the box
+	 * @param minZ the minimum Z coordinate of the box
+	 * @param maxX the maximum X coordinate of the box
+	 * @param maxY the maximum Y coordinate of the box
+	 * @param maxZ the maximum Z coordinate of the box
+	 * @param dst the array that receives the indices of the overlapping triangles
+	 * 
+	 * @return the number of overlapping triangles, which may exceed the length of the array
+	 */
+	public int overlap(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int[] dst) {
+		if (triangles.length == 0)
+			return 0;
+		float cx = 0.5f * (minX + maxX), cy = 0.5f * (minY + maxY), cz = 0.5f * (minZ + maxZ);
+		float hx = 0.5f * (maxX - minX), hy = 0.5f * (maxY - minY), hz = 0.5f * (maxZ - minZ);
+		int[] stack = STACKS.get().nodes;
+		int size = 0, count = 0;
+		stack[size++] = 0;
+		while (size > 0) {
+			int node = stack[--size];
+			int b = NODE_STRIDE * node;
+			if (nodes[b + 0] > maxX || nodes[b + 1] > maxY || nodes[b + 2] > maxZ || nodes[b + 3] < minX
+					|| nodes[b + 4] < minY || nodes[b + 5] < minZ)
+				continue;
+			int first = Float.floatToRawIntBits(nodes[b + 6]), primitives = Float.floatToRawIntBits(nodes[b + 7]);
+			if (primitives == 0) {
+				stack[size++] = first + 1;
+				stack[size++] = first;
+				continue;
+			}
+			for (int i = first; i < first + primitives; i++)
+				if (overlaps(vertices, 9 * i, cx, cy, cz, hx, hy, hz)) {
+					if (count < dst.length)
+						dst[count] = triangles[i];
+					count++;
+				}
+		}
+		return count;
+	}
+
+	private int trace(float ox, float oy, float oz, float dx, float dy, float dz, float maxDistance, float[] hit,
+			boolean any) {
+		if (triangles.length == 0)
+			return -1;
+		float ix = 1.0f / dx, iy = 1.0f / dy, iz = 1.0f / dz;
+		float closest = maxDistance, hitU = 0.0f, hitV = 0.0f;
+		int result = -1;
+		Stack stack = STACKS.get();
+		int[] stackNodes = stack.nodes;
+		float[] stackDistances = stack.distances;
+		int size = 0;
+		float root = slab(0, ox, oy, oz, ix, iy, iz, closest);
+		if (root < Float.POSITIVE_INFINITY) {
+			stackNodes[size] = 0;
+			stackDistances[size++] = root;
+		}
+		while (size > 0) {
+			int node = stackNodes[--size];
+			if (stackDistances[size] > closest)
+				continue;
+			int b = NODE_STRIDE * node;
+			int first = Float.floatToRawIntBits(nodes[b + 6]), primitives = Float.floatToRawIntBits(nodes[b + 7]);
+			if (primitives == 0) {
+				int near = first, far = first + 1;
+				float nearDistance = slab(near, ox, oy, oz, ix, iy, iz, closest);
+				float farDistance = slab(far, ox, oy, oz, ix, iy, iz, closest);
+				if (nearDistance > farDistance) {
+					near = far;
+					far = first;
+					float swap = nearDistance;
+					nearDistance = farDistance;
+					farDistance = swap;
+				}
+				if (farDistance < Float.POSITIVE_INFINITY) {
+					stackNodes[size] = far;
+					stackDistances[size++] = farDistance;
+				}
+				if (nearDistance < Float.POSITIVE_INFINITY) {
+					stackNodes[size] = near;
+					stackDistances[size++] = nearDistance;
+				}
+				continue;
+			}
+			for (int i = first; i < first + primitives; i++) {
+				int v = 9 * i;
+				float e1x = vertices[v + 3] - vertices[v + 0];
+				float e1y = vertices[v + 4] - vertices[v + 1];
+				float e1z = vertices[v + 5] - vertices[v + 2];
+				float e2x = vertices[v + 6] - vertices[v + 0];
+				float e2y = vertices[v + 7] - vertices[v + 1];
+				float e2z = vertices[v + 8] - vertices[v + 2];
+				float px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+				float determinant = e1x * px + e1y * py + e1z * pz;
+				if (determinant > -EPSILON && determinant < EPSILON)
+					continue;
+				float inverse = 1.0f / determinant;
+				float sx = ox - vertices[v + 0], sy = oy - vertices[v + 1], sz = oz - vertices[v + 2];
+				float u = (sx * px + sy * py + sz * pz) * inverse;
+				if (u < 0.0f || u > 1.0f)
+					continue;
+				float qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+				float w = (dx * qx + dy * qy + dz * qz) * inverse;
+				if (w < 0.0f || u + w > 1.0f)
+					continue;
+				float t = (e2x * qx + e2y * qy + e2z * qz) * inverse;
+				if (t < 0.0f || t > closest)
+					continue;
+				result = triangles[i];
+				if (any)
+					return result;
+				closest = t;
+				hitU = u;
+				hitV = w;
+			}
+		}
+		if (result >= 0 && hit != null) {
+			hit[0] = closest;
+			hit[1] = hitU;
+			hit[2] = hitV;
+		}
+		return result;
+	}
+
+	private float slab(int node, float ox, float oy, float oz, float ix, float iy, float iz, float maxDistance) {
+		int b = NODE_STRIDE * node;
+		float t0 = (nodes[b + 0] - ox) * ix, t1 = (nodes[b + 3] - ox) * ix;
+		float near = t0 < t1 ? t0 : t1, far = t0 < t1 ? t1 : t0;
+		t0 = (nodes[b + 1] - oy) * iy;
+		t1 = (nodes[b + 4] - oy) * iy;
+		near = Math.max(near, t0 < t1 ? t0 : t1);
+		far = Math.min(far, t0 < t1 ? t1 : t0);
+		t0 = (nodes[b + 2] - oz) * iz;
+		t1 = (nodes[b + 5] - oz) * iz;
+		near = Math.max(near, t0 < t1 ? t0 : t1);
+		far = Math.min(far, t0 < t1 ? t1 : t0);
+		return near <= far && far >= 0.0f && near <= maxDistance ? Math.max(near, 0.0f) : Float.POSITIVE_INFINITY;
+	}
+
+	private static boolean overlaps(float[] vertices, int v, float cx, float cy, float cz, float hx, float hy, float hz) {
+		float x0 = vertices[v + 0] - cx, y0 = vertices[v + 1] - cy, z0 = vertices[v + 2] - cz;
+		float x1 = vertices[v + 3] - cx, y1 = vertices[v + 4] - cy, z1 = vertices[v + 5] - cz;
+		float x2 = vertices[v + 6] - cx, y2 = vertices[v + 7] - cy, z2 = vertices[v + 8] - cz;
+		if (separated(1.0f, 0.0f, 0.0f, x0, y0, z0, x1, y1, z1, x2, y2, z2, hx, hy, hz)
+				|| separated(0.0f, 1.0f, 0.0f, x0, y0, z0, x1, y1, z1, x2, y2, z2, hx, hy, hz)
+				|| separated(0.0f, 0.0f, 1.0f, x0, y0, z0, x1, y1, z1, x2, y2, z2, hx, hy, hz))
+			return false;
+		float ax = x1 - x0, ay = y1 - y0, az = z1 - z0;
+		float bx = x2 - x1, by = y2 - y1, bz = z2 - z1;
+		float ex = x0 - x2, ey = y0 - y2, ez = z0 - z2;
+		if (separated(ay * bz - az * by, az * bx - ax * bz, ax * by - ay * bx, x0, y0, z0, x1, y1, z1, x2, y2, z2, hx, hy,
+				hz))
+			return false;
+		return !separated(0.0f, -az, ay, x0, y0, z0, x1, y1, z1, x2, y2, z2, hx, hy, hz)
+				&& !separated(0.0f, -bz, by, x0, y0, z0, x1, y1, z1, x2, y2, z2, hx, hy, hz)
+				&& !separated(0.0f, -ez, ey, x0, y0, z0, x1, y1, z1, x2, y2, z2, hx, hy, hz)
+				&& !separated(az, 0.0f, -ax, x0, y0, z0, x1, y1, z1, x2, y2, z2, hx, hy, hz)
+				&& !separated(bz, 0.0f, -bx, x0, y0, z0, x1, y1, z1, x2, y2, z2, hx, hy, hz)
+				&& !separated(ez, 0.0f, -ex, x0, y0, z0, x1, y1, z1, x2, y2, z2, hx, hy, hz)
+				&& !separated(-ay, ax, 0.0f, x0, y0, z0, x1, y1, z1, x2, y2, z2, hx, hy, hz)
+				&& !separated(-by, bx, 0.0f, x0, y0, z0, x1, y1, z1, x2, y2, z2, hx, hy, hz)
+				&& !separated(-ey, ex, 0.0f, x0, y0, z0, x1, y1, z1, x2, y2, z2, hx, hy, hz);
+	}
+
+	private static boolean separated(float ax, float ay, float az, float x0, float y0, float z0, float x1, float y1,
+			float z1, float x2, float y2, float z2, float hx, float hy, float hz) {
+		float p0 = ax * x0 + ay * y0 + az * z0;
+		float p1 = ax * x1 + ay * y1 + az * z1;
+		float p2 = ax * x2 + ay * y2 + az * z2;
+		float radius = hx * Math.abs(ax) + hy * Math.abs(ay) + hz * Math.abs(az);
+		return Math.min(p0, Math.min(p1, p2)) > radius || Math.max(p0, Math.max(p1, p2)) < -radius;
+	}
+
+	private static IntStream range(int count) {
+		IntStream range = IntStream.range(0, count);
+		return count >= PARALLEL_THRESHOLD ? range.parallel() : range;
+	}
+
+	private static class Stack {
+
+		private final int[] nodes = new int[MAX_DEPTH + 2];
+		private final float[] distances = new float[MAX_DEPTH + 2];
+
+	}
+
+	private static class Build extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final float[] references;
+		private final int[] order;
+		private final float[] nodes;
+		private final AtomicInteger nodeCount;
+		private final int node;
+		private final int start;
+		private final int end;
+		private final int depth;
+
+		private Build(float[] references, int[] order, float[] nodes, AtomicInteger nodeCount, int node, int start,
+				int end, int depth) {
+			this.references = references;
+			this.order = order;
+			this.nodes = nodes;
+			this.nodeCount = nodeCount;
+			this.node = node;
+			this.start = start;
+			this.end = end;
+			this.depth = depth;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start >= PARALLEL_THRESHOLD)
+				build(node, start, end, depth, null, null);
+			else
+				build(node, start, end, depth, new Bins(1), new Bins(BIN_COUNT));
+		}
+
+		private void build(int node, int start, int end, int depth, Bins boundsScratch, Bins binsScratch) {
+			int count = end - start;
+			Bins bounds = collect(boundsScratch, 1, null, null, start, end);
+			System.arraycopy(bounds.boxes, 0, nodes, NODE_STRIDE * node, 6);
+			if (count <= 1 || depth >= MAX_DEPTH) {
+				leaf(node, start, end);
+				return;
+			}
+			float[] centroids = bounds.centroids;
+			float minX = centroids[0], minY = centroids[1], minZ = centroids[2];
+			float scaleX = scale(centroids[3] - minX), scaleY = scale(centroids[4] - minY), scaleZ = scale(centroids[5] - minZ);
+			int axis = -1, split = 0;
+			float cost = Float.POSITIVE_INFINITY;
+			if (scaleX > 0.0f || scaleY > 0.0f || scaleZ > 0.0f) {
+				Bins bins = collect(binsScratch, BIN_COUNT, centroids, new float[] { scaleX, scaleY, scaleZ }, start, end);
+				float area = area(nodes, NODE_STRIDE * node);
+				for (int a = 0; a < 3; a++) {
+					if (bins.scales[a] == 0.0f)
+						continue;
+					int leftCount = 0;
+					bins.clearSweep();
+					for (int i = 0; i < BIN_COUNT - 1; i++) {
+						int bin = a * BIN_COUNT + i;
+						leftCount += bins.counts[bin];
+						bins.leftCosts[i] = leftCount * bins.sweep(bin);
+					}
+					int rightCount = 0;
+					bins.clearSweep();
+					for (int i = BIN_COUNT - 1; i > 0; i--) {
+						int bin = a * BIN_COUNT + i;
+						rightCount += bins.counts[bin];
+						float splitCost = TRAVERSAL_COST + (bins.leftCosts[i - 1] + rightCount * bins.sweep(bin)) / area;
+						if (rightCount > 0 && rightCount < count && splitCost < cost) {
+							cost = splitCost;
+							axis = a;
+							split = i;
+						}
+					}
+				}
+			}
+			if (count <= MAX_LEAF_SIZE && (axis < 0 || cost >= count)) {
+				leaf(node, start, end);
+				return;
+			}
+			int middle = (start + end) >>> 1;
+			if (axis >= 0)
+				middle = partition(start, end, axis, split, axis == 0 ? minX : axis == 1 ? minY : minZ,
+						axis == 0 ? scaleX : axis == 1 ? scaleY : scaleZ);
+			int children = nodeCount.getAndAdd(2);
+			nodes[NODE_STRIDE * node + 6] = Float.intBitsToFloat(children);
+			nodes[NODE_STRIDE * node + 7] = 0.0f;
+			if (count >= PARALLEL_THRESHOLD)
+				invokeAll(new Build(references, order, nodes, nodeCount, children, start, middle, depth + 1),
+						new Build(references, order, nodes, nodeCount, children + 1, middle, end, depth + 1));
+			else {
+				build(children, start, middle, depth + 1, boundsScratch, binsScratch);
+				build(children + 1, middle, end, depth + 1, boundsScratch, binsScratch);
+			}
+		}
+
+		private void leaf(int node, int start, int end) {
+			nodes[NODE_STRIDE * node + 6] = Float.intBitsToFloat(start);
+			nodes[NODE_STRIDE * node + 7] = Float.intBitsToFloat(end - start);
+		}
+
+		private Bins collect(Bins scratch, int binCount, float[] centroids, float[] scales, int start, int end) {
+			int count = end - start;
+			if (count < 2 * CHUNK_SIZE)
+				return collect((scratch == null ? new Bins(binCount) : scratch).reset(centroids, scales), start, end);
+			return IntStream.range(0, (count + CHUNK_SIZE - 1) / CHUNK_SIZE).parallel()
+					.mapToObj(chunk -> collect(new Bins(binCount).reset(centroids, scales), start + chunk * CHUNK_SIZE,
+							Math.min(end, start + (chunk + 1) * CHUNK_SIZE)))
+					.reduce(Bins::merge).get();
+		}
+
+		private Bins collect(Bins bins, int start, int end) {
+			if (bins.scales == null)
+				for (int slot = start; slot < end; slot++)
+					bins.add(0, slot, references, true);
+			else
+				for (int slot = start; slot < end; slot++)
+					for (int axis = 0; axis < 3; axis++)
+						if (bins.scales[axis] > 0.0f)
+							bins.add(axis * BIN_COUNT + bin(references[REFERENCE_STRIDE * slot + 6 + axis],
+									bins.origin[axis], bins.scales[axis]), slot, references, false);
+			return bins;
+		}
+
+		private int partition(int start, int end, int axis, int split, float origin, float scale) {
+			int i = start, j = end - 1;
+			while (i <= j) {
+				if (bin(references[REFERENCE_STRIDE * i + 6 + axis], origin, scale) < split)
+					i++;
+				else {
+					int swap = order[i];
+					order[i] = order[j];
+					order[j] = swap;
+					for (int k = 0; k < REFERENCE_STRIDE; k++) {
+						float value = references[REFERENCE_STRIDE * i + k];
+						references[REFERENCE_STRIDE * i + k] = references[REFERENCE_STRIDE * j + k];
+						references[REFERENCE_STRIDE * j + k] = value;
+					}
+					j--;
+				}
+			}
+			return i;
+		}
+
+		private static float scale(float extent) {
+			return extent > 0.0f ? BIN_COUNT * (1.0f - 1e-6f) / extent : 0.0f;
+		}
+
+		private static int bin(float centroid, float origin, float scale) {
+			int bin = (int) ((centroid - origin) * scale);
+			return bin < 0 ? 0 : bin >= BIN_COUNT ? BIN_COUNT - 1 : bin;
+		}
+
+	}
+
+	private static class Bins {
+
+		private final int[] counts;
+		private final float[] boxes;
+		private final float[] centroids;
+		private final float[] origin;
+		private final float[] leftCosts;
+		private final float[] sweep;
+		private float[] scales;
+
+		private Bins(int binCount) {
+			this.counts = new int[3 * binCount];
+			this.boxes = new float[6 * 3 * binCount];
+			this.centroids = new float[6];
+			this.origin = new float[3];
+			this.leftCosts = new float[binCount];
+			this.sweep = new float[6];
+		}
+
+		private Bins reset(float[] centroidBox, float[] scales) {
+			Arrays.fill(counts, 0);
+			for (int i = 0; i < boxes.length; i += 6) {
+				boxes[i + 0] = boxes[i + 1] = boxes[i + 2] = Float.POSITIVE_INFINITY;
+				boxes[i + 3] = boxes[i + 4] = boxes[i + 5] = Float.NEGATIVE_INFINITY;
+			}
+			centroids[0] = centroids[1] = centroids[2] = Float.POSITIVE_INFINITY;
+			centroids[3] = centroids[4] = centroids[5] = Float.NEGATIVE_INFINITY;
+			if (centroidBox != null)
+				System.arraycopy(centroidBox, 0, origin, 0, 3);
+			this.scales = scales;
+			return this;
+		}
+
+		private void add(int bin, int slot, float[] references, boolean centroid) {
+			counts[bin]++;
+			int b = 6 * bin, r = REFERENCE_STRIDE * slot;
+			for (int i = 0; i < 3; i++) {
+				float min = references[r + i], max = references[r + i + 3];
+				if (min < boxes[b + i])
+					boxes[b + i] = min;
+				if (max > boxes[b + i + 3])
+					boxes[b + i + 3] = max;
+			}
+			if (centroid)
+				for (int i = 0; i < 3; i++) {
+					float value = references[r + i + 6];
+					if (value < centroids[i])
+						centroids[i] = value;
+					if (value > centroids[i + 3])
+						centroids[i + 3] = value;
+				}
+		}
+
+		private Bins merge(Bins other) {
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] += other.counts[i];
+				grow(boxes, 6 * i, other.boxes, 6 * i);
+			}
+			grow(centroids, 0, other.centroids, 0);
+			return this;
+		}
+
+		private void clearSweep() {
+			sweep[0] = sweep[1] = sweep[2] = Float.POSITIVE_INFINITY;
+			sweep[3] = sweep[4] = sweep[5] = Float.NEGATIVE_INFINITY;
+		}
+
+		private float sweep(int bin) {
+			grow(sweep, 0, boxes, 6 * bin);
+			return area(sweep, 0);
+		}
+
+	}
+
+	private static void grow(float[] box, int offset, float[] other, int otherOffset) {
+		for (int i = 0; i < 3; i++) {
+			if (other[otherOffset + i] < box[offset + i])
+				box[offset + i] = other[otherOffset + i];
+			if (other[otherOffset + i + 3] > box[offset + i + 3])
+				box[offset + i + 3] = other[otherOffset + i + 3];
+		}
+	}
+
+	private static float area(float[] box, int offset) {
+		float x = box[offset + 3] - box[offset + 0];
+		float y = box[offset + 4] - box[offset + 1];
+		float z = box[offset + 5] - box[offset + 2];
+		return x < 0.0f || y < 0.0f || z < 0.0f ? 0.0f : x * y + y * z + z * x;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OBJBVH [triangles=%s, nodes=%s]", triangles.length, getNodeCount());
+	}
+
+}
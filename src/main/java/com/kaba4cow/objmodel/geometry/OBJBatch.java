@@ -0,0 +1,211 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.kaba4cow.objmodel.elements.OBJObject;
+
+/**
+ * A combined mesh produced by {@link OBJBatcher}. A batch holds an {@link OBJObject} with the concatenated geometry of
+ * several source objects and a table of {@link Part} ranges, one per source object, so the individual parts stay
+ * addressable inside the combined mesh.
+ */
+public class OBJBatch {
+
+	private final OBJObject object;
+	private final List<Part> parts;
+
+	OBJBatch(OBJObject object, List<Part> parts) {
+		this.object = object;
+		this.parts = Collections.unmodifiableList(parts);
+	}
+
+	/**
+	 * Retrieves the combined object of the batch.
+	 *
+	 * @return the combined {@link OBJObject}
+	 */
+	public OBJObject getObject() {
+		return object;
+	}
+
+	/**
+	 * Retrieves an unmodifiable list of parts in the batch, in the order they were appended.
+	 *
+	 * @return an unmodifiable list of {@link Part} objects
+	 */
+	public List<Part> getParts() {
+		return parts;
+	}
+
+	/**
+	 * Retrieves a part of the batch by its index.
+	 *
+	 * @param index the index of the part
+	 * 
+	 * @return the {@link Part} at the specified index
+	 */
+	public Part getPart(int index) {
+		return parts.get(index);
+	}
+
+	/**
+	 * Retrieves a part of the batch by the name of its source object.
+	 *
+	 * @param name the name of the source object
+	 * 
+	 * @return the first {@link Part} with the specified name, or {@code null} if not found
+	 */
+	public Part getPart(String name) {
+		for (Part part : parts)
+			if (Objects.equals(part.name, name))
+				return part;
+		return null;
+	}
+
+	/**
+	 * Returns the number of parts in the batch.
+	 *
+	 * @return number of parts
+	 */
+	public int getPartCount() {
+		return parts.size();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OBJBatch [object=%s, parts=%s]", object, parts.size());
+	}
+
+	/**
+	 * The sub-range of a combined mesh that holds the geometry of one source object. Every range is given as an offset into
+	 * the corresponding list of the combined object and the number of elements.
+	 */
+	public static class Part {
+
+		private final String name;
+		private final int sourceIndex;
+		private final int vertexOffset;
+		private final int vertexCount;
+		private final int textureOffset;
+		private final int textureCount;
+		private final int normalOffset;
+		private final int normalCount;
+		private final int faceOffset;
+		private final int faceCount;
+
+		Part(String name, int sourceIndex, int vertexOffset, int vertexCount, int textureOffset, int textureCount,
+				int normalOffset, int normalCount, int faceOffset, int faceCount) {
+			this.name = name;
+			this.sourceIndex = sourceIndex;
+			this.vertexOffset = vertexOffset;
+			this.vertexCount = vertexCount;
+			this.textureOffset = textureOffset;
+			this.textureCount = textureCount;
+			this.normalOffset = normalOffset;
+			this.normalCount = normalCount;
+			this.faceOffset = faceOffset;
+			this.faceCount = faceCount;
+		}
+
+		/**
+		 * Retrieves the name of the source object.
+		 *
+		 * @return the name of the source object
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the index of the source object in the batched model.
+		 *
+		 * @return the index of the source object
+		 */
+		public int getSourceIndex() {
+			return sourceIndex;
+		}
+
+		/**
+		 * Returns the index of the first vertex of the part in the combined object.
+		 *
+		 * @return the vertex offset
+		 */
+		public int getVertexOffset() {
+			return vertexOffset;
+		}
+
+		/**
+		 * Returns the number of vertices of the part.
+		 *
+		 * @return number of vertices
+		 */
+		public int getVertexCount() {
+			return vertexCount;
+		}
+
+		/**
+		 * Returns the index of the first texture of the part in the combined object.
+		 *
+		 * @return the texture offset
+		 */
+		public int getTextureOffset() {
+			return textureOffset;
+		}
+
+		/**
+		 * Returns the number of textures of the part.
+		 *
+		 * @return number of textures
+		 */
+		public int getTextureCount() {
+			return textureCount;
+		}
+
+		/**
+		 * Returns the index of the first normal of the part in the combined object.
+		 *
+		 * @return the normal offset
+		 */
+		public int getNormalOffset() {
+			return normalOffset;
+		}
+
+		/**
+		 * Returns the number of normals of the part.
+		 *
+		 * @return number of normals
+		 */
+		public int getNormalCount() {
+			return normalCount;
+		}
+
+		/**
+		 * Returns the index of the first face of the part in the combined object.
+		 *
+		 * @return the face offset
+		 */
+		public int getFaceOffset() {
+			return faceOffset;
+		}
+
+		/**
+		 * Returns the number of faces of the part.
+		 *
+		 * @return number of faces
+		 */
+		public int getFaceCount() {
+			return faceCount;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Part [name=%s, source=%s, vertices=%s+%s, textures=%s+%s, normals=%s+%s, faces=%s+%s]", name,
+					sourceIndex, vertexOffset, vertexCount, textureOffset, textureCount, normalOffset, normalCount,
+					faceOffset, faceCount);
+		}
+
+	}
+
+}
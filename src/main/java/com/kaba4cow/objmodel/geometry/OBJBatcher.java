@@ -0,0 +1,140 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.objmodel.OBJModel;
+import com.kaba4cow.objmodel.elements.OBJFace;
+import com.kaba4cow.objmodel.elements.OBJIndex;
+import com.kaba4cow.objmodel.elements.OBJNormal;
+import com.kaba4cow.objmodel.elements.OBJObject;
+import com.kaba4cow.objmodel.elements.OBJTexture;
+import com.kaba4cow.objmodel.elements.OBJVertex;
+
+/**
+ * A utility class for merging many small {@link OBJObject} objects into a few combined meshes to reduce draw calls. Source
+ * objects are appended in model order, with their vertex, texture and normal indices offset into the combined lists, and a
+ * new batch is started whenever the next object would push the vertex count of the current batch over the limit. Relative
+ * indices are resolved against the element counts of their object before the offset is added. Batches are assembled in
+ * parallel, and the source objects are not modified.
+ */
+public class OBJBatcher {
+
+	/**
+	 * The vertex limit for batches addressed with unsigned 16-bit indices.
+	 */
+	public static final int MAX_VERTICES_16 = 65535;
+
+	private OBJBatcher() {}
+
+	/**
+	 * Merges all objects of the specified model into batches of at most {@link #MAX_VERTICES_16} vertices.
+	 *
+	 * @param model the {@link OBJModel} to batch
+	 * 
+	 * @return the list of {@link OBJBatch} objects
+	 */
+	public static List<OBJBatch> batch(OBJModel model) {
+		return batch(model, MAX_VERTICES_16);
+	}
+
+	/**
+	 * Merges all objects of the specified model into batches of at most {@code maxVertices} vertices. An object that alone
+	 * exceeds the limit cannot be split by this operation and is placed in a batch of its own.
+	 *
+	 * @param model the {@link OBJModel} to batch
+	 * @param maxVertices the maximum number of vertices per batch
+	 * 
+	 * @return the list of {@link OBJBatch} objects
+	 * 
+	 * @throws IllegalArgumentException if the limit is not positive or a face index refers to a missing element
+	 */
+	public static List<OBJBatch> batch(OBJModel model, int maxVertices) {
+		Objects.requireNonNull(model, "Model must not be null");
+		return batch(model.getObjects(), maxVertices);
+	}
+
+	/**
+	 * Merges the specified objects into batches of at most {@code maxVertices} vertices. An object that alone exceeds the
+	 * limit cannot be split by this operation and is placed in a batch of its own.
+	 *
+	 * @param objects the list of {@link OBJObject} objects to batch
+	 * @param maxVertices the maximum number of vertices per batch
+	 * 
+	 * @return the list of {@link OBJBatch} objects
+	 * 
+	 * @throws IllegalArgumentException if the limit is not positive or a face index refers to a missing element
+	 */
+	public static List<OBJBatch> batch(List<OBJObject> objects, int maxVertices) {
+		Objects.requireNonNull(objects, "Objects must not be null");
+		if (maxVertices <= 0)
+			throw new IllegalArgumentException("Max vertices must be positive");
+		List<Integer> starts = new ArrayList<>();
+		int vertexCount = 0;
+		for (int i = 0; i < objects.size(); i++) {
+			int count = objects.get(i).getVertexCount();
+			if (starts.isEmpty() || (vertexCount > 0 && vertexCount + count > maxVertices)) {
+				starts.add(i);
+				vertexCount = 0;
+			}
+			vertexCount += count;
+		}
+		starts.add(objects.size());
+		OBJBatch[] batches = new OBJBatch[starts.size() - 1];
+		IntStream.range(0, batches.length).parallel()
+				.forEach(i -> batches[i] = merge(objects, starts.get(i), starts.get(i + 1), i));
+		List<OBJBatch> list = new ArrayList<>(batches.length);
+		for (OBJBatch batch : batches)
+			list.add(batch);
+		return list;
+	}
+
+	private static OBJBatch merge(List<OBJObject> objects, int from, int to, int batchIndex) {
+		OBJObject combined = new OBJObject().setName(String.format("batch_%s", batchIndex));
+		List<OBJBatch.Part> parts = new ArrayList<>(to - from);
+		for (int i = from; i < to; i++) {
+			OBJObject source = objects.get(i);
+			int vertexOffset = combined.getVertexCount();
+			int textureOffset = combined.getTextureCount();
+			int normalOffset = combined.getNormalCount();
+			int faceOffset = combined.getFaceCount();
+			for (OBJVertex vertex : source.getVertices())
+				combined.addVertex(new OBJVertex().set(vertex.getX(), vertex.getY(), vertex.getZ()));
+			for (OBJTexture texture : source.getTextures()) {
+				OBJTexture copy = new OBJTexture().set(texture.getU(), texture.getV());
+				if (texture.hasW())
+					copy.setW(texture.getW());
+				combined.addTexture(copy);
+			}
+			for (OBJNormal normal : source.getNormals())
+				combined.addNormal(new OBJNormal().set(normal.getX(), normal.getY(), normal.getZ()));
+			for (int j = 0; j < source.getFaceCount(); j++) {
+				OBJFace copy = new OBJFace();
+				for (OBJIndex index : source.getFace(j).getIndices()) {
+					OBJIndex offset = new OBJIndex();
+					if (index.hasVertex())
+						offset.setVertex(resolve(index.getVertex(), source.getVertexCount(), i, j) + vertexOffset);
+					if (index.hasTexture())
+						offset.setTexture(resolve(index.getTexture(), source.getTextureCount(), i, j) + textureOffset);
+					if (index.hasNormal())
+						offset.setNormal(resolve(index.getNormal(), source.getNormalCount(), i, j) + normalOffset);
+					copy.addIndex(offset);
+				}
+				combined.addFace(copy);
+			}
+			parts.add(new OBJBatch.Part(source.getName(), i, vertexOffset, source.getVertexCount(), textureOffset,
+					source.getTextureCount(), normalOffset, source.getNormalCount(), faceOffset, source.getFaceCount()));
+		}
+		return new OBJBatch(combined, parts);
+	}
+
+	private static int resolve(int index, int count, int object, int face) {
+		int resolved = index < 0 ? count + index + 1 : index;
+		if (resolved < 0 || resolved >= count)
+			throw new IllegalArgumentException(String.format("Face %s of object %s has an invalid index", face, object));
+		return resolved;
+	}
+
+}
@@ -0,0 +1,215 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.objmodel.elements.OBJFace;
+import com.kaba4cow.objmodel.elements.OBJIndex;
+import com.kaba4cow.objmodel.elements.OBJNormal;
+import com.kaba4cow.objmodel.elements.OBJObject;
+import com.kaba4cow.objmodel.elements.OBJTexture;
+import com.kaba4cow.objmodel.elements.OBJVertex;
+
+/**
+ * A utility class for content hashing and comparison of the geometry of {@link OBJObject} objects. Names are ignored, so
+ * objects that differ only in their OBJ text formatting or name hash alike.
+ * <p>
+ * {@link #hash(OBJObject)} streams the vertices, texture coordinates, normals and faces in order through xxHash64.
+ * {@link #hash(OBJObject, float)} is normalised: every face is hashed by the snapped values its corners refer to, starting at
+ * its smallest corner so the winding is kept, and the face hashes are combined by a commutative sum, so the result does not
+ * depend on the order of vertices or faces. Faces are hashed in parallel for large objects.
+ * <p>
+ * Both hashes accept relative (negative) face indices and reject indices that do not refer to an element of the object.
+ * The exact hash keeps relative indices as written, while the normalised hash resolves them to the elements they refer
+ * to.
+ */
+public class OBJGeometryHash {
+
+	private static final long SEED = 0x4F424A4D45534831L;
+	private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+	private OBJGeometryHash() {}
+
+	/**
+	 * Computes the exact, order-dependent geometry hash of the specified object. Positive and negative zero hash alike.
+	 *
+	 * @param object the {@link OBJObject} to hash
+	 * 
+	 * @return the 64-bit hash
+	 * 
+	 * @throws IllegalArgumentException if a face index refers to a missing element
+	 */
+	public static long hash(OBJObject object) {
+		Objects.requireNonNull(object, "Object must not be null");
+		XXHash64 hash = new XXHash64(SEED);
+		hash.putInt(object.getVertexCount()).putInt(object.getTextureCount()).putInt(object.getNormalCount())
+				.putInt(object.getFaceCount());
+		for (int i = 0; i < object.getVertexCount(); i++) {
+			OBJVertex vertex = object.getVertex(i);
+			hash.putFloat(vertex.getX()).putFloat(vertex.getY()).putFloat(vertex.getZ());
+		}
+		for (int i = 0; i < object.getTextureCount(); i++) {
+			OBJTexture texture = object.getTexture(i);
+			hash.putFloat(texture.getU()).putFloat(texture.getV());
+			if (texture.hasW())
+				hash.putInt(1).putFloat(texture.getW());
+			else
+				hash.putInt(0);
+		}
+		for (int i = 0; i < object.getNormalCount(); i++) {
+			OBJNormal normal = object.getNormal(i);
+			hash.putFloat(normal.getX()).putFloat(normal.getY()).putFloat(normal.getZ());
+		}
+		for (int i = 0; i < object.getFaceCount(); i++) {
+			OBJFace face = object.getFace(i);
+			hash.putInt(face.getIndexCount());
+			for (int j = 0; j < face.getIndexCount(); j++) {
+				OBJIndex index = face.getIndex(j);
+				validate(object, index, i);
+				hash.putInt(index.hasVertex() ? index.getVertex() : Integer.MIN_VALUE)
+						.putInt(index.hasTexture() ? index.getTexture() : Integer.MIN_VALUE)
+						.putInt(index.hasNormal() ? index.getNormal() : Integer.MIN_VALUE);
+			}
+		}
+		return hash.digest();
+	}
+
+	/**
+	 * Computes the normalised geometry hash of the specified object, which does not depend on the order of vertices, texture
+	 * coordinates, normals or faces, nor on the first corner of a face. Components are snapped to a grid with the specified
+	 * spacing before hashing, which absorbs float noise that does not cross a grid line; a spacing of {@code 0} hashes the
+	 * exact values. Unreferenced elements are ignored.
+	 *
+	 * @param object the {@link OBJObject} to hash
+	 * @param tolerance the grid spacing, or {@code 0} for exact values
+	 * 
+	 * @return the 64-bit hash
+	 * 
+	 * @throws IllegalArgumentException if the tolerance is negative or a face index refers to a missing element
+	 */
+	public static long hash(OBJObject object, float tolerance) {
+		Objects.requireNonNull(object, "Object must not be null");
+		if (!(tolerance >= 0.0f))
+			throw new IllegalArgumentException("Tolerance must not be negative");
+		long[] vertices = new long[object.getVertexCount()];
+		long[] textures = new long[object.getTextureCount()];
+		long[] normals = new long[object.getNormalCount()];
+		range(vertices.length).forEach(i -> {
+			OBJVertex vertex = object.getVertex(i);
+			vertices[i] = snap(new XXHash64(1L), tolerance, vertex.getX(), vertex.getY(), vertex.getZ()).digest();
+		});
+		range(textures.length).forEach(i -> {
+			OBJTexture texture = object.getTexture(i);
+			XXHash64 hash = snap(new XXHash64(2L), tolerance, texture.getU(), texture.getV());
+			textures[i] = (texture.hasW() ? snap(hash, tolerance, texture.getW()) : hash).digest();
+		});
+		range(normals.length).forEach(i -> {
+			OBJNormal normal = object.getNormal(i);
+			normals[i] = snap(new XXHash64(3L), tolerance, normal.getX(), normal.getY(), normal.getZ()).digest();
+		});
+		long sum = range(object.getFaceCount()).mapToLong(i -> {
+			OBJFace face = object.getFace(i);
+			int size = face.getIndexCount();
+			long[] corners = new long[size];
+			int first = 0;
+			for (int j = 0; j < size; j++) {
+				OBJIndex index = face.getIndex(j);
+				long corner = index.hasVertex() ? vertices[resolve(index.getVertex(), vertices.length, i)] : 0L;
+				corner = 31L * corner + (index.hasTexture() ? textures[resolve(index.getTexture(), textures.length, i)] : 0L);
+				corner = 31L * corner + (index.hasNormal() ? normals[resolve(index.getNormal(), normals.length, i)] : 0L);
+				corners[j] = corner;
+				if (corner < corners[first])
+					first = j;
+			}
+			XXHash64 hash = new XXHash64(SEED).putInt(size);
+			for (int j = 0; j < size; j++) {
+				long corner = corners[(first + j) % size];
+				hash.putInt((int) corner).putInt((int) (corner >>> 32));
+			}
+			return XXHash64.mix(hash.digest());
+		}).sum();
+		return XXHash64.mix(sum + object.getFaceCount());
+	}
+
+	/**
+	 * Checks whether two objects have exactly the same geometry: equal element counts, equal components and equal face
+	 * indices in the same order. Names are ignored, positive and negative zero are equal, and so are NaN components.
+	 *
+	 * @param a the first {@link OBJObject}
+	 * @param b the second {@link OBJObject}
+	 * 
+	 * @return {@code true} if the geometry of the objects is identical
+	 */
+	public static boolean equalGeometry(OBJObject a, OBJObject b) {
+		if (a == b)
+			return true;
+		if (a.getVertexCount() != b.getVertexCount() || a.getTextureCount() != b.getTextureCount()
+				|| a.getNormalCount() != b.getNormalCount() || a.getFaceCount() != b.getFaceCount())
+			return false;
+		for (int i = 0; i < a.getVertexCount(); i++) {
+			OBJVertex x = a.getVertex(i), y = b.getVertex(i);
+			if (!same(x.getX(), y.getX()) || !same(x.getY(), y.getY()) || !same(x.getZ(), y.getZ()))
+				return false;
+		}
+		for (int i = 0; i < a.getTextureCount(); i++) {
+			OBJTexture x = a.getTexture(i), y = b.getTexture(i);
+			if (!same(x.getU(), y.getU()) || !same(x.getV(), y.getV()) || x.hasW() != y.hasW()
+					|| (x.hasW() && !same(x.getW(), y.getW())))
+				return false;
+		}
+		for (int i = 0; i < a.getNormalCount(); i++) {
+			OBJNormal x = a.getNormal(i), y = b.getNormal(i);
+			if (!same(x.getX(), y.getX()) || !same(x.getY(), y.getY()) || !same(x.getZ(), y.getZ()))
+				return false;
+		}
+		for (int i = 0; i < a.getFaceCount(); i++) {
+			OBJFace x = a.getFace(i), y = b.getFace(i);
+			if (x.getIndexCount() != y.getIndexCount())
+				return false;
+			for (int j = 0; j < x.getIndexCount(); j++) {
+				OBJIndex p = x.getIndex(j), q = y.getIndex(j);
+				if (p.hasVertex() != q.hasVertex() || (p.hasVertex() && p.getVertex() != q.getVertex())
+						|| p.hasTexture() != q.hasTexture() || (p.hasTexture() && p.getTexture() != q.getTexture())
+						|| p.hasNormal() != q.hasNormal() || (p.hasNormal() && p.getNormal() != q.getNormal()))
+					return false;
+			}
+		}
+		return true;
+	}
+
+	private static void validate(OBJObject object, OBJIndex index, int face) {
+		if (index.hasVertex())
+			resolve(index.getVertex(), object.getVertexCount(), face);
+		if (index.hasTexture())
+			resolve(index.getTexture(), object.getTextureCount(), face);
+		if (index.hasNormal())
+			resolve(index.getNormal(), object.getNormalCount(), face);
+	}
+
+	private static int resolve(int index, int count, int face) {
+		int resolved = index < 0 ? count + index + 1 : index;
+		if (resolved < 0 || resolved >= count)
+			throw new IllegalArgumentException(String.format("Face %s has an invalid index", face));
+		return resolved;
+	}
+
+	private static boolean same(float a, float b) {
+		return a == b || (Float.isNaN(a) && Float.isNaN(b));
+	}
+
+	private static XXHash64 snap(XXHash64 hash, float tolerance, float... values) {
+		for (float value : values)
+			if (tolerance > 0.0f) {
+				long cell = Math.round((double) value / tolerance);
+				hash.putInt((int) cell).putInt((int) (cell >>> 32));
+			} else
+				hash.putFloat(value);
+		return hash;
+	}
+
+	private static IntStream range(int count) {
+		IntStream range = IntStream.range(0, count);
+		return count >= PARALLEL_THRESHOLD ? range.parallel() : range;
+	}
+
+}
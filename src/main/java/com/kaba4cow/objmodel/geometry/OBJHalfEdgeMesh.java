@@ -0,0 +1,382 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.objmodel.elements.OBJFace;
+import com.kaba4cow.objmodel.elements.OBJIndex;
+import com.kaba4cow.objmodel.elements.OBJObject;
+
+/**
+ * An immutable half-edge adjacency structure over the faces of an {@link OBJObject}, stored in flat int arrays. Every face
+ * corner is a half-edge leaving the vertex of the corner, and the half-edges of a face are numbered consecutively, so
+ * {@link #next(int)}, {@link #prev(int)} and {@link #face(int)} are array lookups. Opposite half-edges are paired in linear
+ * time with a primitive hash map keyed by directed edge.
+ * <p>
+ * An edge shared by more than two half-edges, or by two half-edges with the same direction, is non-manifold; its half-edges
+ * have no twin, like boundary half-edges, and are reported by {@link #isNonManifold(int)}. The structure is a snapshot: it
+ * does not reflect later changes to the object.
+ */
+public class OBJHalfEdgeMesh {
+
+	private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+	private final int vertexCount;
+	private final int[] faceOffsets;
+	private final int[] faces;
+	private final int[] origins;
+	private final int[] twins;
+	private final boolean[] nonManifold;
+	private final int[] vertexHalfEdges;
+	private final int[] vertexCorners;
+
+	/**
+	 * Builds the half-edge structure of the specified object.
+	 *
+	 * @param object the {@link OBJObject} to build the structure for
+	 * 
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing vertex
+	 */
+	public OBJHalfEdgeMesh(OBJObject object) {
+		Objects.requireNonNull(object, "Object must not be null");
+		this.vertexCount = object.getVertexCount();
+		int faceCount = object.getFaceCount();
+		this.faceOffsets = new int[faceCount + 1];
+		for (int i = 0; i < faceCount; i++)
+			faceOffsets[i + 1] = faceOffsets[i] + object.getFace(i).getIndexCount();
+		int count = faceOffsets[faceCount];
+		this.faces = new int[count];
+		this.origins = new int[count];
+		this.vertexCorners = new int[vertexCount];
+		for (int i = 0; i < faceCount; i++) {
+			OBJFace face = object.getFace(i);
+			for (int j = 0; j < face.getIndexCount(); j++) {
+				OBJIndex index = face.getIndex(j);
+				if (!index.hasVertex() || index.getVertex() < 0 || index.getVertex() >= vertexCount)
+					throw new IllegalArgumentException(String.format("Face %s has an invalid vertex index", i));
+				int halfEdge = faceOffsets[i] + j;
+				faces[halfEdge] = i;
+				origins[halfEdge] = index.getVertex();
+				vertexCorners[index.getVertex()]++;
+			}
+		}
+		LongIntHashMap directed = new LongIntHashMap(count);
+		LongIntHashMap undirected = new LongIntHashMap(count);
+		this.nonManifold = new boolean[count];
+		boolean[] duplicate = new boolean[count];
+		for (int halfEdge = 0; halfEdge < count; halfEdge++) {
+			int a = origins[halfEdge], b = target(halfEdge);
+			int first = directed.putIfAbsent(LongIntHashMap.key(a, b), halfEdge);
+			if (first >= 0)
+				duplicate[first] = duplicate[halfEdge] = true;
+			long edge = LongIntHashMap.key(Math.min(a, b), Math.max(a, b));
+			int uses = undirected.get(edge);
+			undirected.put(edge, uses < 0 ? 1 : uses + 1);
+		}
+		this.twins = new int[count];
+		range(count).forEach(halfEdge -> {
+			int a = origins[halfEdge], b = target(halfEdge);
+			int twin = directed.get(LongIntHashMap.key(b, a));
+			boolean bad = undirected.get(LongIntHashMap.key(Math.min(a, b), Math.max(a, b))) > 2 || duplicate[halfEdge]
+					|| (twin >= 0 && duplicate[twin]);
+			nonManifold[halfEdge] = bad;
+			twins[halfEdge] = bad ? -1 : twin;
+		});
+		this.vertexHalfEdges = new int[vertexCount];
+		Arrays.fill(vertexHalfEdges, -1);
+		for (int halfEdge = 0; halfEdge < count; halfEdge++) {
+			int vertex = origins[halfEdge];
+			// Fans are walked from a half-edge without a twin, which no rotation leads to, so the walk covers every face
+			if (vertexHalfEdges[vertex] < 0 || twins[halfEdge] < 0)
+				vertexHalfEdges[vertex] = halfEdge;
+		}
+	}
+
+	/**
+	 * Returns the number of vertices of the source object.
+	 *
+	 * @return number of vertices
+	 */
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 * Returns the number of faces.
+	 *
+	 * @return number of faces
+	 */
+	public int getFaceCount() {
+		return faceOffsets.length - 1;
+	}
+
+	/**
+	 * Returns the number of half-edges, which equals the number of face corners.
+	 *
+	 * @return number of half-edges
+	 */
+	public int getHalfEdgeCount() {
+		return origins.length;
+	}
+
+	/**
+	 * Returns the first half-edge of a face.
+	 *
+	 * @param face the index of the face
+	 * 
+	 * @return the half-edge leaving the first corner of the face
+	 */
+	public int faceHalfEdge(int face) {
+		return faceOffsets[face];
+	}
+
+	/**
+	 * Returns the number of half-edges of a face.
+	 *
+	 * @param face the index of the face
+	 * 
+	 * @return number of half-edges of the face
+	 */
+	public int faceSize(int face) {
+		return faceOffsets[face + 1] - faceOffsets[face];
+	}
+
+	/**
+	 * Returns a half-edge leaving a vertex. For a vertex on a border, the half-edge is chosen so that walking
+	 * {@link #rotate(int)} from it visits all faces of its fan.
+	 *
+	 * @param vertex the index of the vertex
+	 * 
+	 * @return a half-edge leaving the vertex, or {@code -1} if no face uses the vertex
+	 */
+	public int vertexHalfEdge(int vertex) {
+		return vertexHalfEdges[vertex];
+	}
+
+	/**
+	 * Returns the face of a half-edge.
+	 *
+	 * @param halfEdge the index of the half-edge
+	 * 
+	 * @return the index of the face
+	 */
+	public int face(int halfEdge) {
+		return faces[halfEdge];
+	}
+
+	/**
+	 * Returns the vertex a half-edge leaves.
+	 *
+	 * @param halfEdge the index of the half-edge
+	 * 
+	 * @return the index of the origin vertex
+	 */
+	public int origin(int halfEdge) {
+		return origins[halfEdge];
+	}
+
+	/**
+	 * Returns the vertex a half-edge points to.
+	 *
+	 * @param halfEdge the index of the half-edge
+	 * 
+	 * @return the index of the target vertex
+	 */
+	public int target(int halfEdge) {
+		return origins[next(halfEdge)];
+	}
+
+	/**
+	 * Returns the next half-edge in the same face.
+	 *
+	 * @param halfEdge the index of the half-edge
+	 * 
+	 * @return the index of the next half-edge
+	 */
+	public int next(int halfEdge) {
+		int face = faces[halfEdge];
+		return halfEdge + 1 < faceOffsets[face + 1] ? halfEdge + 1 : faceOffsets[face];
+	}
+
+	/**
+	 * Returns the previous half-edge in the same face.
+	 *
+	 * @param halfEdge the index of the half-edge
+	 * 
+	 * @return the index of the previous half-edge
+	 */
+	public int prev(int halfEdge) {
+		int face = faces[halfEdge];
+		return halfEdge > faceOffsets[face] ? halfEdge - 1 : faceOffsets[face + 1] - 1;
+	}
+
+	/**
+	 * Returns the opposite half-edge in the neighbouring face.
+	 *
+	 * @param halfEdge the index of the half-edge
+	 * 
+	 * @return the index of the twin half-edge, or {@code -1} on borders and non-manifold edges
+	 */
+	public int twin(int halfEdge) {
+		return twins[halfEdge];
+	}
+
+	/**
+	 * Returns the next half-edge leaving the same vertex, in the neighbouring face across the previous edge.
+	 *
+	 * @param halfEdge the index of the half-edge
+	 * 
+	 * @return the index of the next half-edge around the origin vertex, or {@code -1} at a border
+	 */
+	public int rotate(int halfEdge) {
+		return twins[prev(halfEdge)];
+	}
+
+	/**
+	 * Checks whether a half-edge lies on a border, that is, has no twin and is not non-manifold.
+	 *
+	 * @param halfEdge the index of the half-edge
+	 * 
+	 * @return {@code true} if the half-edge is a border half-edge
+	 */
+	public boolean isBoundary(int halfEdge) {
+		return twins[halfEdge] < 0 && !nonManifold[halfEdge];
+	}
+
+	/**
+	 * Checks whether the edge of a half-edge is non-manifold.
+	 *
+	 * @param halfEdge the index of the half-edge
+	 * 
+	 * @return {@code true} if the edge is shared by more than two half-edges or by two half-edges with the same direction
+	 */
+	public boolean isNonManifold(int halfEdge) {
+		return nonManifold[halfEdge];
+	}
+
+	/**
+	 * Writes the faces that share an edge with the specified face into the specified array.
+	 *
+	 * @param face the index of the face
+	 * @param dst the destination array, with room for {@link #faceSize(int)} faces
+	 * 
+	 * @return the number of faces written
+	 */
+	public int faceNeighbours(int face, int[] dst) {
+		int count = 0;
+		for (int halfEdge = faceOffsets[face]; halfEdge < faceOffsets[face + 1]; halfEdge++)
+			if (twins[halfEdge] >= 0)
+				dst[count++] = faces[twins[halfEdge]];
+		return count;
+	}
+
+	/**
+	 * Writes the faces of the fan around a vertex into the specified array, in rotation order. For a non-manifold vertex
+	 * only one fan is visited, see {@link #isManifoldVertex(int)}.
+	 *
+	 * @param vertex the index of the vertex
+	 * @param dst the destination array, with room for {@link #vertexValence(int)} faces
+	 * 
+	 * @return the number of faces written
+	 */
+	public int vertexFaces(int vertex, int[] dst) {
+		int start = vertexHalfEdges[vertex];
+		if (start < 0)
+			return 0;
+		int count = 0, halfEdge = start;
+		do {
+			dst[count++] = faces[halfEdge];
+			halfEdge = rotate(halfEdge);
+		} while (halfEdge >= 0 && halfEdge != start && count < vertexCorners[vertex]);
+		return count;
+	}
+
+	/**
+	 * Returns the number of face corners that use a vertex.
+	 *
+	 * @param vertex the index of the vertex
+	 * 
+	 * @return number of corners using the vertex
+	 */
+	public int vertexValence(int vertex) {
+		return vertexCorners[vertex];
+	}
+
+	/**
+	 * Checks whether the faces around a vertex form a single fan, which is either closed or bounded by two border edges.
+	 * Unused vertices are manifold.
+	 *
+	 * @param vertex the index of the vertex
+	 * 
+	 * @return {@code true} if the vertex is manifold
+	 */
+	public boolean isManifoldVertex(int vertex) {
+		int start = vertexHalfEdges[vertex];
+		if (start < 0)
+			return true;
+		int count = 0, halfEdge = start;
+		do {
+			if (nonManifold[halfEdge])
+				return false;
+			count++;
+			halfEdge = rotate(halfEdge);
+		} while (halfEdge >= 0 && halfEdge != start && count <= vertexCorners[vertex]);
+		return count == vertexCorners[vertex];
+	}
+
+	/**
+	 * Checks whether the mesh is manifold: no edge is non-manifold and every vertex is manifold. Vertices are checked in
+	 * parallel for large meshes.
+	 *
+	 * @return {@code true} if the mesh is manifold
+	 */
+	public boolean isManifold() {
+		for (boolean bad : nonManifold)
+			if (bad)
+				return false;
+		return range(vertexCount).allMatch(this::isManifoldVertex);
+	}
+
+	/**
+	 * Checks whether the mesh has no border half-edges.
+	 *
+	 * @return {@code true} if every manifold edge has two faces
+	 */
+	public boolean isClosed() {
+		for (int halfEdge = 0; halfEdge < origins.length; halfEdge++)
+			if (isBoundary(halfEdge))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Collects all border half-edges.
+	 *
+	 * @return a new array with the indices of the border half-edges in ascending order
+	 */
+	public int[] getBoundaryHalfEdges() {
+		return range(origins.length).filter(this::isBoundary).toArray();
+	}
+
+	/**
+	 * Collects all half-edges of non-manifold edges.
+	 *
+	 * @return a new array with the indices of the non-manifold half-edges in ascending order
+	 */
+	public int[] getNonManifoldHalfEdges() {
+		return range(origins.length).filter(this::isNonManifold).toArray();
+	}
+
+	private static IntStream range(int count) {
+		IntStream range = IntStream.range(0, count);
+		return count >= PARALLEL_THRESHOLD ? range.parallel() : range;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OBJHalfEdgeMesh [vertices=%s, faces=%s, halfEdges=%s]", vertexCount, getFaceCount(),
+				origins.length);
+	}
+
+}
@@ -0,0 +1,116 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.kaba4cow.objmodel.OBJModel;
+import com.kaba4cow.objmodel.elements.OBJObject;
+
+/**
+ * A thread-safe registry that collapses geometry-identical {@link OBJObject} objects to one shared instance. Objects are
+ * looked up by {@link OBJGeometryHash#hash(OBJObject)} and confirmed with {@link OBJGeometryHash#equalGeometry(OBJObject,
+ * OBJObject)}, so hash collisions never merge different meshes. Names are ignored: the first registered object is returned
+ * for every later object with the same geometry.
+ * <p>
+ * Interned objects are shared by everyone who interned an equal mesh and must not be modified afterwards.
+ */
+public class OBJInterner {
+
+	private final ConcurrentHashMap<Long, List<OBJObject>> table;
+	private final AtomicInteger size;
+
+	/**
+	 * Creates an empty registry.
+	 */
+	public OBJInterner() {
+		this.table = new ConcurrentHashMap<>();
+		this.size = new AtomicInteger();
+	}
+
+	/**
+	 * Returns the registered object with the same geometry as the specified object, registering the object itself if there
+	 * is none.
+	 *
+	 * @param object the {@link OBJObject} to intern
+	 * 
+	 * @return the shared {@link OBJObject} with the same geometry
+	 * 
+	 * @throws IllegalArgumentException if a face index refers to a missing element
+	 */
+	public OBJObject intern(OBJObject object) {
+		Objects.requireNonNull(object, "Object must not be null");
+		long hash = OBJGeometryHash.hash(object);
+		OBJObject[] result = new OBJObject[1];
+		table.compute(hash, (key, objects) -> {
+			if (Objects.isNull(objects))
+				objects = new ArrayList<>(1);
+			for (OBJObject candidate : objects)
+				if (OBJGeometryHash.equalGeometry(candidate, object)) {
+					result[0] = candidate;
+					return objects;
+				}
+			objects.add(object);
+			size.incrementAndGet();
+			result[0] = object;
+			return objects;
+		});
+		return result[0];
+	}
+
+	/**
+	 * Replaces every object of the specified model with its shared instance, see {@link #intern(OBJObject)}.
+	 *
+	 * @param model the {@link OBJModel} to intern
+	 * 
+	 * @return the number of objects that were replaced by an instance already in the registry
+	 * 
+	 * @throws IllegalArgumentException if a face index refers to a missing element
+	 */
+	public int intern(OBJModel model) {
+		Objects.requireNonNull(model, "Model must not be null");
+		List<OBJObject> objects = new ArrayList<>(model.getObjects());
+		int replaced = 0;
+		for (int i = 0; i < objects.size(); i++) {
+			OBJObject shared = intern(objects.get(i));
+			if (shared != objects.get(i)) {
+				objects.set(i, shared);
+				replaced++;
+			}
+		}
+		if (replaced > 0) {
+			model.clearObjects();
+			for (OBJObject object : objects)
+				model.addObject(object);
+		}
+		return replaced;
+	}
+
+	/**
+	 * Returns the number of distinct meshes in the registry.
+	 *
+	 * @return number of registered objects
+	 */
+	public int size() {
+		return size.get();
+	}
+
+	/**
+	 * Removes all objects from the registry.
+	 *
+	 * @return a reference to this object
+	 */
+	public OBJInterner clear() {
+		table.clear();
+		size.set(0);
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OBJInterner [size=%s]", size());
+	}
+
+}
@@ -0,0 +1,329 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.objmodel.elements.OBJFace;
+import com.kaba4cow.objmodel.elements.OBJIndex;
+import com.kaba4cow.objmodel.elements.OBJNormal;
+import com.kaba4cow.objmodel.elements.OBJObject;
+import com.kaba4cow.objmodel.elements.OBJTexture;
+import com.kaba4cow.objmodel.elements.OBJVertex;
+
+/**
+ * A utility class for finding the connected components (islands) of the faces of an {@link OBJObject}. Faces are joined by a
+ * union-find over int arrays, with union by size and path halving, so labelling runs in near-linear time. Faces are
+ * connected either through any shared vertex or only through shared edges, see {@link Connectivity}.
+ * <p>
+ * {@link #split(OBJObject)} turns every island into a separate object with compacted vertex, texture and normal lists that
+ * keep the relative order of the source elements. Elements not referenced by any face are dropped. Island objects are
+ * assembled in parallel, and the source object is not modified.
+ */
+public class OBJIslands {
+
+	private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+	private OBJIslands() {}
+
+	/**
+	 * Labels the faces of the specified object by island, connecting faces through shared vertices.
+	 *
+	 * @param object the {@link OBJObject} to label
+	 * 
+	 * @return a new array with the island of every face, numbered from {@code 0} in order of the first face of each island
+	 * 
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing element
+	 */
+	public static int[] label(OBJObject object) {
+		return label(object, Connectivity.VERTEX);
+	}
+
+	/**
+	 * Labels the faces of the specified object by island.
+	 *
+	 * @param object the {@link OBJObject} to label
+	 * @param connectivity how faces are connected
+	 * 
+	 * @return a new array with the island of every face, numbered from {@code 0} in order of the first face of each island
+	 * 
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing element
+	 */
+	public static int[] label(OBJObject object, Connectivity connectivity) {
+		Objects.requireNonNull(object, "Object must not be null");
+		Objects.requireNonNull(connectivity, "Connectivity must not be null");
+		int faceCount = object.getFaceCount();
+		int[] offsets = new int[faceCount + 1];
+		for (int i = 0; i < faceCount; i++)
+			offsets[i + 1] = offsets[i] + object.getFace(i).getIndexCount();
+		int[] corners = new int[offsets[faceCount]];
+		range(faceCount).forEach(i -> {
+			OBJFace face = object.getFace(i);
+			for (int j = 0; j < face.getIndexCount(); j++)
+				corners[offsets[i] + j] = vertex(object, face.getIndex(j), i);
+		});
+		UnionFind sets = new UnionFind(faceCount);
+		if (connectivity == Connectivity.VERTEX) {
+			int[] first = new int[object.getVertexCount()];
+			Arrays.fill(first, -1);
+			for (int i = 0; i < faceCount; i++)
+				for (int corner = offsets[i]; corner < offsets[i + 1]; corner++) {
+					int vertex = corners[corner];
+					if (first[vertex] < 0)
+						first[vertex] = i;
+					else
+						sets.union(first[vertex], i);
+				}
+		} else {
+			LongIntHashMap first = new LongIntHashMap(corners.length);
+			for (int i = 0; i < faceCount; i++)
+				for (int corner = offsets[i]; corner < offsets[i + 1]; corner++) {
+					int a = corners[corner];
+					int b = corners[corner + 1 < offsets[i + 1] ? corner + 1 : offsets[i]];
+					int face = first.putIfAbsent(LongIntHashMap.key(Math.min(a, b), Math.max(a, b)), i);
+					if (face >= 0)
+						sets.union(face, i);
+				}
+		}
+		int[] labels = new int[faceCount];
+		int[] roots = new int[faceCount];
+		Arrays.fill(roots, -1);
+		int count = 0;
+		for (int i = 0; i < faceCount; i++) {
+			int root = sets.find(i);
+			if (roots[root] < 0)
+				roots[root] = count++;
+			labels[i] = roots[root];
+		}
+		return labels;
+	}
+
+	/**
+	 * Returns the number of islands in the specified labels.
+	 *
+	 * @param labels the face labels returned by {@link #label(OBJObject, Connectivity)}
+	 * 
+	 * @return number of islands
+	 */
+	public static int count(int[] labels) {
+		int max = -1;
+		for (int label : labels)
+			max = Math.max(max, label);
+		return max + 1;
+	}
+
+	/**
+	 * Splits the specified object into one object per island, connecting faces through shared vertices.
+	 *
+	 * @param object the {@link OBJObject} to split
+	 * 
+	 * @return the list of island objects, in order of the first face of each island
+	 * 
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing element
+	 */
+	public static List<OBJObject> split(OBJObject object) {
+		return split(object, Connectivity.VERTEX);
+	}
+
+	/**
+	 * Splits the specified object into one object per island. Each island object is named after the source object with the
+	 * island number appended, and holds copies of the elements its faces refer to. With {@link Connectivity#EDGE}, a vertex
+	 * shared by islands that only touch at that vertex is copied into each of them.
+	 *
+	 * @param object the {@link OBJObject} to split
+	 * @param connectivity how faces are connected
+	 * 
+	 * @return the list of island objects, in order of the first face of each island
+	 * 
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing element
+	 */
+	public static List<OBJObject> split(OBJObject object, Connectivity connectivity) {
+		int[] labels = label(object, connectivity);
+		int islandCount = count(labels);
+		int[] faceStarts = new int[islandCount + 1];
+		for (int label : labels)
+			faceStarts[label + 1]++;
+		for (int i = 0; i < islandCount; i++)
+			faceStarts[i + 1] += faceStarts[i];
+		int[] faces = new int[labels.length];
+		int[] cursors = Arrays.copyOf(faceStarts, islandCount);
+		for (int i = 0; i < labels.length; i++)
+			faces[cursors[labels[i]]++] = i;
+		Remap vertices = new Remap(object.getVertexCount());
+		Remap textures = new Remap(object.getTextureCount());
+		Remap normals = new Remap(object.getNormalCount());
+		int[][] islandVertices = new int[islandCount][];
+		int[][] islandTextures = new int[islandCount][];
+		int[][] islandNormals = new int[islandCount][];
+		int[] cornerStarts = new int[labels.length + 1];
+		for (int i = 0; i < labels.length; i++)
+			cornerStarts[i + 1] = cornerStarts[i] + 3 * object.getFace(faces[i]).getIndexCount();
+		int[] corners = new int[cornerStarts[labels.length]];
+		for (int island = 0; island < islandCount; island++) {
+			for (int i = faceStarts[island]; i < faceStarts[island + 1]; i++)
+				for (OBJIndex index : object.getFace(faces[i]).getIndices()) {
+					vertices.mark(island, index.getVertex());
+					if (index.hasTexture())
+						textures.mark(island, index.getTexture());
+					if (index.hasNormal())
+						normals.mark(island, index.getNormal());
+				}
+			islandVertices[island] = vertices.assign();
+			islandTextures[island] = textures.assign();
+			islandNormals[island] = normals.assign();
+			for (int i = faceStarts[island]; i < faceStarts[island + 1]; i++) {
+				int corner = cornerStarts[i];
+				for (OBJIndex index : object.getFace(faces[i]).getIndices()) {
+					corners[corner++] = vertices.get(index.getVertex());
+					corners[corner++] = index.hasTexture() ? textures.get(index.getTexture()) : -1;
+					corners[corner++] = index.hasNormal() ? normals.get(index.getNormal()) : -1;
+				}
+			}
+		}
+		OBJObject[] islands = new OBJObject[islandCount];
+		String name = object.getName();
+		IntStream stream = IntStream.range(0, islandCount);
+		(labels.length >= PARALLEL_THRESHOLD ? stream.parallel() : stream).forEach(island -> {
+			OBJObject result = new OBJObject()
+					.setName(name == null ? String.format("island_%s", island) : String.format("%s_%s", name, island));
+			for (int vertex : islandVertices[island]) {
+				OBJVertex source = object.getVertex(vertex);
+				result.addVertex(new OBJVertex().set(source.getX(), source.getY(), source.getZ()));
+			}
+			for (int texture : islandTextures[island]) {
+				OBJTexture source = object.getTexture(texture);
+				OBJTexture copy = new OBJTexture().set(source.getU(), source.getV());
+				if (source.hasW())
+					copy.setW(source.getW());
+				result.addTexture(copy);
+			}
+			for (int normal : islandNormals[island]) {
+				OBJNormal source = object.getNormal(normal);
+				result.addNormal(new OBJNormal().set(source.getX(), source.getY(), source.getZ()));
+			}
+			for (int i = faceStarts[island]; i < faceStarts[island + 1]; i++) {
+				OBJFace face = new OBJFace();
+				for (int j = cornerStarts[i]; j < cornerStarts[i + 1]; j += 3) {
+					OBJIndex index = new OBJIndex().setVertex(corners[j]);
+					if (corners[j + 1] >= 0)
+						index.setTexture(corners[j + 1]);
+					if (corners[j + 2] >= 0)
+						index.setNormal(corners[j + 2]);
+					face.addIndex(index);
+				}
+				result.addFace(face);
+			}
+			islands[island] = result;
+		});
+		return new ArrayList<>(Arrays.asList(islands));
+	}
+
+	private static int vertex(OBJObject object, OBJIndex index, int face) {
+		if (!index.hasVertex() || index.getVertex() < 0 || index.getVertex() >= object.getVertexCount()
+				|| (index.hasTexture() && (index.getTexture() < 0 || index.getTexture() >= object.getTextureCount()))
+				|| (index.hasNormal() && (index.getNormal() < 0 || index.getNormal() >= object.getNormalCount())))
+			throw new IllegalArgumentException(String.format("Face %s has an invalid index", face));
+		return index.getVertex();
+	}
+
+	private static IntStream range(int count) {
+		IntStream range = IntStream.range(0, count);
+		return count >= PARALLEL_THRESHOLD ? range.parallel() : range;
+	}
+
+	/**
+	 * The ways faces can be connected into islands.
+	 */
+	public enum Connectivity {
+
+		/**
+		 * Faces that share at least one vertex belong to the same island.
+		 */
+		VERTEX,
+
+		/**
+		 * Faces that share at least one edge belong to the same island; faces touching only at a vertex do not.
+		 */
+		EDGE
+
+	}
+
+	private static class UnionFind {
+
+		private final int[] parents;
+		private final int[] sizes;
+
+		private UnionFind(int count) {
+			this.parents = new int[count];
+			this.sizes = new int[count];
+			for (int i = 0; i < count; i++) {
+				parents[i] = i;
+				sizes[i] = 1;
+			}
+		}
+
+		private int find(int element) {
+			while (parents[element] != element) {
+				parents[element] = parents[parents[element]];
+				element = parents[element];
+			}
+			return element;
+		}
+
+		private void union(int a, int b) {
+			a = find(a);
+			b = find(b);
+			if (a == b)
+				return;
+			if (sizes[a] < sizes[b]) {
+				int swap = a;
+				a = b;
+				b = swap;
+			}
+			parents[b] = a;
+			sizes[a] += sizes[b];
+		}
+
+	}
+
+	private static class Remap {
+
+		private final int[] owners;
+		private final int[] indices;
+		private int[] marked;
+		private int size;
+
+		private Remap(int count) {
+			this.owners = new int[count];
+			this.indices = new int[count];
+			this.marked = new int[16];
+			Arrays.fill(owners, -1);
+		}
+
+		private void mark(int island, int element) {
+			if (owners[element] == island)
+				return;
+			owners[element] = island;
+			if (size == marked.length)
+				marked = Arrays.copyOf(marked, 2 * size);
+			marked[size++] = element;
+		}
+
+		private int[] assign() {
+			int[] elements = Arrays.copyOf(marked, size);
+			Arrays.sort(elements);
+			for (int i = 0; i < elements.length; i++)
+				indices[elements[i]] = i;
+			size = 0;
+			return elements;
+		}
+
+		private int get(int element) {
+			return indices[element];
+		}
+
+	}
+
+}
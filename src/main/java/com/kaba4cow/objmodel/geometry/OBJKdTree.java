@@ -0,0 +1,461 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.objmodel.OBJModel;
+import com.kaba4cow.objmodel.elements.OBJObject;
+
+/**
+ * A k-d tree over packed point positions for nearest-neighbour and radius queries, typically over the vertices of an
+ * {@link OBJObject} or of a whole {@link OBJModel}. The tree is implicit: points are reordered so that every node is a range
+ * of the point array split at its middle, along the axis of its largest extent, and only the split axis and value are stored
+ * per node. Ranges of at most {@value #LEAF_SIZE} points are leaves. Subtrees are built in parallel on the common
+ * fork-join pool.
+ * <p>
+ * Query results are the indices of the points in the source order: the index of a vertex in the object, or a model-wide
+ * index that {@link #getObject(int)} and {@link #getVertex(int)} map back to the object and vertex. Queries do not
+ * allocate: the traversal stack is a per-thread array, and the tree is immutable, so any number of threads may query it at
+ * the same time.
+ */
+public class OBJKdTree {
+
+	/**
+	 * The maximum number of points in a leaf.
+	 */
+	public static final int LEAF_SIZE = 16;
+
+	private static final int PARALLEL_THRESHOLD = 1 << 16;
+	private static final int MAX_DEPTH = 64;
+
+	private static final ThreadLocal<Stack> STACKS = ThreadLocal.withInitial(Stack::new);
+
+	private final float[] points;
+	private final int[] ids;
+	private final byte[] axes;
+	private final float[] splits;
+	private final int[] objectOffsets;
+
+	/**
+	 * Builds a tree over the vertices of the specified object.
+	 *
+	 * @param object the {@link OBJObject} to index
+	 */
+	public OBJKdTree(OBJObject object) {
+		this(positions(object), new int[] { 0, object.getVertexCount() });
+	}
+
+	/**
+	 * Builds a tree over the vertices of all objects of the specified model. Points are numbered model-wide, in object order.
+	 *
+	 * @param model the {@link OBJModel} to index
+	 */
+	public OBJKdTree(OBJModel model) {
+		this(positions(model), offsets(model));
+	}
+
+	/**
+	 * Builds a tree over packed positions, three floats (x, y, z) per point. The positions are copied, so the array may be
+	 * reused afterwards.
+	 *
+	 * @param positions the packed positions
+	 * @param count the number of points
+	 * 
+	 * @throws IllegalArgumentException if the array holds fewer than {@code count} points
+	 */
+	public OBJKdTree(float[] positions, int count) {
+		this(copy(positions, count), new int[] { 0, count });
+	}
+
+	private OBJKdTree(float[] points, int[] objectOffsets) {
+		int count = points.length / 3;
+		this.points = points;
+		this.objectOffsets = objectOffsets;
+		this.ids = new int[count];
+		range(count).forEach(i -> ids[i] = i);
+		int depth = 0;
+		for (int size = count; size > LEAF_SIZE; size -= size / 2)
+			depth++;
+		this.axes = new byte[1 << (depth + 1)];
+		this.splits = new float[axes.length];
+		ForkJoinPool.commonPool().invoke(new Build(1, 0, count));
+	}
+
+	/**
+	 * Returns the number of points in the tree.
+	 *
+	 * @return number of points
+	 */
+	public int getPointCount() {
+		return ids.length;
+	}
+
+	/**
+	 * Returns the index of the object a point belongs to, for a tree built over an {@link OBJModel}.
+	 *
+	 * @param point the index of the point
+	 * 
+	 * @return the index of the object in the model, or {@code 0} for a tree over a single object or packed positions
+	 */
+	public int getObject(int point) {
+		int object = Arrays.binarySearch(objectOffsets, point);
+		if (object < 0)
+			return -object - 2;
+		while (object + 1 < objectOffsets.length - 1 && objectOffsets[object + 1] == point)
+			object++;
+		return object;
+	}
+
+	/**
+	 * Returns the index of a point within its object, for a tree built over an {@link OBJModel}.
+	 *
+	 * @param point the index of the point
+	 * 
+	 * @return the index of the vertex in its object
+	 */
+	public int getVertex(int point) {
+		return point - objectOffsets[getObject(point)];
+	}
+
+	/**
+	 * Finds the point closest to a position.
+	 *
+	 * @param x the X coordinate of the position
+	 * @param y the Y coordinate of the position
+	 * @param z the Z coordinate of the position
+	 * 
+	 * @return the index of the nearest point, or {@code -1} if the tree is empty
+	 */
+	public int nearest(float x, float y, float z) {
+		Stack stack = STACKS.get();
+		return search(x, y, z, 1, Float.POSITIVE_INFINITY, stack.nearest, stack.distance, stack) > 0 ? stack.nearest[0] : -1;
+	}
+
+	/**
+	 * Finds the {@code k} points closest to a position, where {@code k} is the length of the destination array, ordered by
+	 * increasing distance.
+	 *
+	 * @param x the X coordinate of the position
+	 * @param y the Y coordinate of the position
+	 * @param z the Z coordinate of the position
+	 * @param maxDistance the maximum distance of the points, or {@link Float#POSITIVE_INFINITY} for no limit
+	 * @param dst the array that receives the indices of the nearest points
+	 * @param distances the array that receives the distances of the nearest points, at least as long as {@code dst}, or
+	 *                      {@code null}
+	 * 
+	 * @return the number of points found, at most the length of the destination array
+	 */
+	public int nearest(float x, float y, float z, float maxDistance, int[] dst, float[] distances) {
+		Stack stack = STACKS.get();
+		float[] squared = distances != null ? distances : stack.scratch(dst.length);
+		int count = search(x, y, z, dst.length, maxDistance, dst, squared, stack);
+		for (int end = count - 1; end > 0; end--) {
+			swap(dst, squared, 0, end);
+			siftDown(dst, squared, 0, end);
+		}
+		if (distances != null)
+			for (int i = 0; i < count; i++)
+				distances[i] = (float) Math.sqrt(distances[i]);
+		return count;
+	}
+
+	/**
+	 * Finds the points within a distance of a position, in no particular order. Indices are written into the array until it
+	 * is full, but all points within the distance are counted.
+	 *
+	 * @param x the X coordinate of the position
+	 * @param y the Y coordinate of the position
+	 * @param z the Z coordinate of the position
+	 * @param radius the maximum distance of the points
+	 * @param dst the array that receives the indices of the points
+	 * 
+	 * @return the number of points within the distance, which may exceed the length of the array
+	 */
+	public int radius(float x, float y, float z, float radius, int[] dst) {
+		if (ids.length == 0)
+			return 0;
+		float limit = radius * radius;
+		Stack stack = STACKS.get();
+		int size = stack.push(0, 1, 0, ids.length, 0.0f);
+		int count = 0;
+		while (size > 0) {
+			size--;
+			if (stack.bounds[size] > limit)
+				continue;
+			int node = stack.nodes[size], start = stack.starts[size], end = stack.ends[size];
+			while (end - start > LEAF_SIZE) {
+				int axis = axes[node], middle = (start + end) >>> 1;
+				float offset = (axis == 0 ? x : axis == 1 ? y : z) - splits[node];
+				if (offset < 0.0f) {
+					if (offset * offset <= limit)
+						size = stack.push(size, 2 * node + 1, middle, end, offset * offset);
+					node = 2 * node;
+					end = middle;
+				} else {
+					if (offset * offset <= limit)
+						size = stack.push(size, 2 * node, start, middle, offset * offset);
+					node = 2 * node + 1;
+					start = middle;
+				}
+			}
+			for (int i = start; i < end; i++)
+				if (distance(i, x, y, z) <= limit) {
+					if (count < dst.length)
+						dst[count] = ids[i];
+					count++;
+				}
+		}
+		return count;
+	}
+
+	private int search(float x, float y, float z, int k, float maxDistance, int[] heapIds, float[] heapDistances,
+			Stack stack) {
+		if (ids.length == 0 || k == 0)
+			return 0;
+		float limit = maxDistance * maxDistance;
+		int size = stack.push(0, 1, 0, ids.length, 0.0f);
+		int count = 0;
+		while (size > 0) {
+			size--;
+			float worst = count == k ? heapDistances[0] : limit;
+			if (stack.bounds[size] > worst)
+				continue;
+			int node = stack.nodes[size], start = stack.starts[size], end = stack.ends[size];
+			while (end - start > LEAF_SIZE) {
+				int axis = axes[node], middle = (start + end) >>> 1;
+				float offset = (axis == 0 ? x : axis == 1 ? y : z) - splits[node];
+				if (offset < 0.0f) {
+					if (offset * offset <= worst)
+						size = stack.push(size, 2 * node + 1, middle, end, offset * offset);
+					node = 2 * node;
+					end = middle;
+				} else {
+					if (offset * offset <= worst)
+						size = stack.push(size, 2 * node, start, middle, offset * offset);
+					node = 2 * node + 1;
+					start = middle;
+				}
+			}
+			for (int i = start; i < end; i++) {
+				float distance = distance(i, x, y, z);
+				if (count < k) {
+					if (distance > limit)
+						continue;
+					heapIds[count] = ids[i];
+					heapDistances[count] = distance;
+					siftUp(heapIds, heapDistances, count++);
+					if (count == k)
+						worst = heapDistances[0];
+				} else if (distance < heapDistances[0]) {
+					heapIds[0] = ids[i];
+					heapDistances[0] = distance;
+					siftDown(heapIds, heapDistances, 0, k);
+					worst = heapDistances[0];
+				}
+			}
+		}
+		return count;
+	}
+
+	private float distance(int point, float x, float y, float z) {
+		float dx = points[3 * point + 0] - x, dy = points[3 * point + 1] - y, dz = points[3 * point + 2] - z;
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	private static void siftUp(int[] ids, float[] distances, int index) {
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (distances[parent] >= distances[index])
+				return;
+			swap(ids, distances, parent, index);
+			index = parent;
+		}
+	}
+
+	private static void siftDown(int[] ids, float[] distances, int index, int size) {
+		while (true) {
+			int child = 2 * index + 1;
+			if (child >= size)
+				return;
+			if (child + 1 < size && distances[child + 1] > distances[child])
+				child++;
+			if (distances[index] >= distances[child])
+				return;
+			swap(ids, distances, index, child);
+			index = child;
+		}
+	}
+
+	private static void swap(int[] ids, float[] distances, int a, int b) {
+		int id = ids[a];
+		ids[a] = ids[b];
+		ids[b] = id;
+		float distance = distances[a];
+		distances[a] = distances[b];
+		distances[b] = distance;
+	}
+
+	private static float[] positions(OBJObject object) {
+		Objects.requireNonNull(object, "Object must not be null");
+		float[] positions = new float[3 * object.getVertexCount()];
+		object.copyPositions(positions, 0);
+		return positions;
+	}
+
+	private static float[] positions(OBJModel model) {
+		Objects.requireNonNull(model, "Model must not be null");
+		List<OBJObject> objects = model.getObjects();
+		int[] offsets = offsets(model);
+		float[] positions = new float[3 * offsets[objects.size()]];
+		IntStream.range(0, objects.size()).parallel()
+				.forEach(i -> objects.get(i).copyPositions(positions, 3 * offsets[i]));
+		return positions;
+	}
+
+	private static int[] offsets(OBJModel model) {
+		List<OBJObject> objects = model.getObjects();
+		int[] offsets = new int[objects.size() + 1];
+		for (int i = 0; i < objects.size(); i++)
+			offsets[i + 1] = offsets[i] + objects.get(i).getVertexCount();
+		return offsets;
+	}
+
+	private static float[] copy(float[] positions, int count) {
+		Objects.requireNonNull(positions, "Positions must not be null");
+		if (count < 0 || 3L * count > positions.length)
+			throw new IllegalArgumentException("Positions must hold at least count points");
+		return Arrays.copyOf(positions, 3 * count);
+	}
+
+	private static IntStream range(int count) {
+		IntStream range = IntStream.range(0, count);
+		return count >= PARALLEL_THRESHOLD ? range.parallel() : range;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OBJKdTree [points=%s]", ids.length);
+	}
+
+	private class Build extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int node;
+		private final int start;
+		private final int end;
+
+		private Build(int node, int start, int end) {
+			this.node = node;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			build(node, start, end);
+		}
+
+		private void build(int node, int start, int end) {
+			if (end - start <= LEAF_SIZE)
+				return;
+			float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+			float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+			for (int i = 3 * start; i < 3 * end; i += 3) {
+				minX = Math.min(minX, points[i + 0]);
+				minY = Math.min(minY, points[i + 1]);
+				minZ = Math.min(minZ, points[i + 2]);
+				maxX = Math.max(maxX, points[i + 0]);
+				maxY = Math.max(maxY, points[i + 1]);
+				maxZ = Math.max(maxZ, points[i + 2]);
+			}
+			float extentX = maxX - minX, extentY = maxY - minY, extentZ = maxZ - minZ;
+			int axis = extentX >= extentY && extentX >= extentZ ? 0 : extentY >= extentZ ? 1 : 2;
+			axes[node] = (byte) axis;
+			int middle = (start + end) >>> 1;
+			select(start, end - 1, middle, axis);
+			splits[node] = points[3 * middle + axis];
+			if (end - start >= PARALLEL_THRESHOLD)
+				invokeAll(new Build(2 * node, start, middle), new Build(2 * node + 1, middle, end));
+			else {
+				build(2 * node, start, middle);
+				build(2 * node + 1, middle, end);
+			}
+		}
+
+		private void select(int low, int high, int k, int axis) {
+			while (high > low) {
+				int middle = (low + high) >>> 1;
+				if (value(middle, axis) < value(low, axis))
+					swap(middle, low);
+				if (value(high, axis) < value(low, axis))
+					swap(high, low);
+				if (value(high, axis) < value(middle, axis))
+					swap(high, middle);
+				float pivot = value(middle, axis);
+				int i = low, j = high;
+				while (i <= j) {
+					while (value(i, axis) < pivot)
+						i++;
+					while (value(j, axis) > pivot)
+						j--;
+					if (i <= j)
+						swap(i++, j--);
+				}
+				if (k <= j)
+					high = j;
+				else if (k >= i)
+					low = i;
+				else
+					return;
+			}
+		}
+
+		private float value(int point, int axis) {
+			return points[3 * point + axis];
+		}
+
+		private void swap(int a, int b) {
+			for (int i = 0; i < 3; i++) {
+				float value = points[3 * a + i];
+				points[3 * a + i] = points[3 * b + i];
+				points[3 * b + i] = value;
+			}
+			int id = ids[a];
+			ids[a] = ids[b];
+			ids[b] = id;
+		}
+
+	}
+
+	private static class Stack {
+
+		private final int[] nodes = new int[MAX_DEPTH];
+		private final int[] starts = new int[MAX_DEPTH];
+		private final int[] ends = new int[MAX_DEPTH];
+		private final float[] bounds = new float[MAX_DEPTH];
+		private final int[] nearest = new int[1];
+		private final float[] distance = new float[1];
+		private float[] scratch = new float[16];
+
+		private int push(int size, int node, int start, int end, float bound) {
+			nodes[size] = node;
+			starts[size] = start;
+			ends[size] = end;
+			bounds[size] = bound;
+			return size + 1;
+		}
+
+		private float[] scratch(int length) {
+			if (scratch.length < length)
+				scratch = new float[length];
+			return scratch;
+		}
+
+	}
+
+}
@@ -0,0 +1,324 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.objmodel.elements.OBJObject;
+
+/**
+ * A utility class for splitting {@link OBJObject} triangles into small clusters (meshlets) for GPU-driven culling. Triangles
+ * are first ordered along a Morton curve over their centroids, so consecutive triangles are spatially close, and then
+ * greedily packed into meshlets that respect the vertex and triangle limits. The ordered triangles are processed in
+ * independent chunks in parallel, and the bounding sphere and normal cone of every meshlet are computed in parallel as well.
+ */
+public class OBJMeshletBuilder {
+
+	/**
+	 * The default maximum number of vertices per meshlet.
+	 */
+	public static final int DEFAULT_MAX_VERTICES = 64;
+
+	/**
+	 * The default maximum number of triangles per meshlet.
+	 */
+	public static final int DEFAULT_MAX_TRIANGLES = 124;
+
+	private static final int CHUNK_SIZE = 1 << 16;
+	private static final int PARALLEL_THRESHOLD = 1 << 14;
+	private static final float CONE_THRESHOLD = 0.1f;
+
+	private OBJMeshletBuilder() {}
+
+	/**
+	 * Builds meshlets for the specified object using {@link #DEFAULT_MAX_VERTICES} and {@link #DEFAULT_MAX_TRIANGLES}.
+	 *
+	 * @param object the {@link OBJObject} to build meshlets for
+	 * 
+	 * @return the packed {@link OBJMeshlets}
+	 * 
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing element
+	 */
+	public static OBJMeshlets build(OBJObject object) {
+		return build(new OBJTriangles(object), DEFAULT_MAX_VERTICES, DEFAULT_MAX_TRIANGLES);
+	}
+
+	/**
+	 * Builds meshlets for the specified object.
+	 *
+	 * @param object the {@link OBJObject} to build meshlets for
+	 * @param maxVertices the maximum number of vertices per meshlet, between 3 and 256
+	 * @param maxTriangles the maximum number of triangles per meshlet, between 1 and 512
+	 * 
+	 * @return the packed {@link OBJMeshlets}
+	 * 
+	 * @throws IllegalArgumentException if a limit is out of range or a face index has no vertex or refers to a missing
+	 *                                      element
+	 */
+	public static OBJMeshlets build(OBJObject object, int maxVertices, int maxTriangles) {
+		return build(new OBJTriangles(object), maxVertices, maxTriangles);
+	}
+
+	/**
+	 * Builds meshlets for the specified triangles.
+	 *
+	 * @param triangles the {@link OBJTriangles} to build meshlets for
+	 * @param maxVertices the maximum number of vertices per meshlet, between 3 and 256
+	 * @param maxTriangles the maximum number of triangles per meshlet, between 1 and 512
+	 * 
+	 * @return the packed {@link OBJMeshlets}
+	 * 
+	 * @throws IllegalArgumentException if a limit is out of range
+	 */
+	public static OBJMeshlets build(OBJTriangles triangles, int maxVertices, int maxTriangles) {
+		Objects.requireNonNull(triangles, "Triangles must not be null");
+		if (maxVertices < 3 || maxVertices > 256)
+			throw new IllegalArgumentException("Max vertices must be between 3 and 256");
+		if (maxTriangles < 1 || maxTriangles > 512)
+			throw new IllegalArgumentException("Max triangles must be between 1 and 512");
+		int[] order = sortTriangles(triangles);
+		int chunkCount = (order.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		Chunk[] chunks = new Chunk[chunkCount];
+		range(chunkCount, 2).forEach(chunk -> chunks[chunk] = new Chunk(triangles, order, chunk * CHUNK_SIZE,
+				Math.min(order.length, (chunk + 1) * CHUNK_SIZE), maxVertices, maxTriangles));
+
+		int meshletCount = 0;
+		int vertexCount = 0;
+		for (Chunk chunk : chunks) {
+			meshletCount += chunk.meshletCount;
+			vertexCount += chunk.vertexCount;
+		}
+		int[] meshlets = new int[OBJMeshlets.MESHLET_STRIDE * meshletCount];
+		int[] vertices = new int[vertexCount];
+		byte[] localTriangles = new byte[3 * order.length];
+		int meshletOffset = 0;
+		int vertexOffset = 0;
+		int triangleOffset = 0;
+		for (Chunk chunk : chunks) {
+			for (int i = 0; i < chunk.meshletCount; i++) {
+				int m = OBJMeshlets.MESHLET_STRIDE * (meshletOffset + i);
+				meshlets[m + 0] = chunk.meshlets[4 * i + 0] + vertexOffset;
+				meshlets[m + 1] = chunk.meshlets[4 * i + 1];
+				meshlets[m + 2] = chunk.meshlets[4 * i + 2] + triangleOffset;
+				meshlets[m + 3] = chunk.meshlets[4 * i + 3];
+			}
+			System.arraycopy(chunk.vertices, 0, vertices, vertexOffset, chunk.vertexCount);
+			System.arraycopy(chunk.triangles, 0, localTriangles, 3 * triangleOffset, chunk.triangles.length);
+			meshletOffset += chunk.meshletCount;
+			vertexOffset += chunk.vertexCount;
+			triangleOffset += chunk.triangles.length / 3;
+		}
+
+		float[] bounds = new float[OBJMeshlets.BOUNDS_STRIDE * meshletCount];
+		range(meshletCount, PARALLEL_THRESHOLD / DEFAULT_MAX_TRIANGLES)
+				.forEach(meshlet -> computeBounds(triangles, meshlets, vertices, order, meshlet, bounds));
+		return new OBJMeshlets(meshlets, vertices, localTriangles, order, bounds);
+	}
+
+	private static int[] sortTriangles(OBJTriangles triangles) {
+		float[] positions = triangles.getPositions();
+		int[] indices = triangles.getVertexIndices();
+		int triangleCount = triangles.getTriangleCount();
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+		for (int i = 0; i < positions.length; i += 3) {
+			minX = Math.min(minX, positions[i + 0]);
+			minY = Math.min(minY, positions[i + 1]);
+			minZ = Math.min(minZ, positions[i + 2]);
+			maxX = Math.max(maxX, positions[i + 0]);
+			maxY = Math.max(maxY, positions[i + 1]);
+			maxZ = Math.max(maxZ, positions[i + 2]);
+		}
+		float offsetX = minX, offsetY = minY, offsetZ = minZ;
+		float scale = 1023.0f / Math.max(Float.MIN_NORMAL, Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ)));
+		long[] keys = new long[triangleCount];
+		range(triangleCount, PARALLEL_THRESHOLD).forEach(triangle -> {
+			float x = 0.0f, y = 0.0f, z = 0.0f;
+			for (int i = 0; i < 3; i++) {
+				int p = 3 * indices[3 * triangle + i];
+				x += positions[p + 0];
+				y += positions[p + 1];
+				z += positions[p + 2];
+			}
+			long code = morton((x / 3.0f - offsetX) * scale) | morton((y / 3.0f - offsetY) * scale) << 1
+					| morton((z / 3.0f - offsetZ) * scale) << 2;
+			keys[triangle] = code << 32 | triangle;
+		});
+		if (triangleCount >= PARALLEL_THRESHOLD)
+			Arrays.parallelSort(keys);
+		else
+			Arrays.sort(keys);
+		int[] order = new int[triangleCount];
+		for (int i = 0; i < triangleCount; i++)
+			order[i] = (int) keys[i];
+		return order;
+	}
+
+	private static long morton(float value) {
+		long bits = Math.max(0, Math.min(1023, (int) value));
+		bits = (bits | bits << 16) & 0x030000FFL;
+		bits = (bits | bits << 8) & 0x0300F00FL;
+		bits = (bits | bits << 4) & 0x030C30C3L;
+		bits = (bits | bits << 2) & 0x09249249L;
+		return bits;
+	}
+
+	private static void computeBounds(OBJTriangles triangles, int[] meshlets, int[] vertices, int[] order, int meshlet,
+			float[] bounds) {
+		float[] positions = triangles.getPositions();
+		int[] indices = triangles.getVertexIndices();
+		int m = OBJMeshlets.MESHLET_STRIDE * meshlet;
+		int vertexOffset = meshlets[m + 0];
+		int vertexCount = meshlets[m + 1];
+		int triangleOffset = meshlets[m + 2];
+		int triangleCount = meshlets[m + 3];
+
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+		for (int i = vertexOffset; i < vertexOffset + vertexCount; i++) {
+			int p = 3 * vertices[i];
+			minX = Math.min(minX, positions[p + 0]);
+			minY = Math.min(minY, positions[p + 1]);
+			minZ = Math.min(minZ, positions[p + 2]);
+			maxX = Math.max(maxX, positions[p + 0]);
+			maxY = Math.max(maxY, positions[p + 1]);
+			maxZ = Math.max(maxZ, positions[p + 2]);
+		}
+		float cx = 0.5f * (minX + maxX), cy = 0.5f * (minY + maxY), cz = 0.5f * (minZ + maxZ);
+		float radius = 0.0f;
+		for (int i = vertexOffset; i < vertexOffset + vertexCount; i++) {
+			int p = 3 * vertices[i];
+			float dx = positions[p + 0] - cx, dy = positions[p + 1] - cy, dz = positions[p + 2] - cz;
+			radius = Math.max(radius, dx * dx + dy * dy + dz * dz);
+		}
+		radius = (float) Math.sqrt(radius);
+
+		float[] normals = new float[3 * triangleCount];
+		float ax = 0.0f, ay = 0.0f, az = 0.0f;
+		for (int i = 0; i < triangleCount; i++) {
+			int t = 3 * order[triangleOffset + i];
+			int p0 = 3 * indices[t + 0], p1 = 3 * indices[t + 1], p2 = 3 * indices[t + 2];
+			float e1x = positions[p1 + 0] - positions[p0 + 0];
+			float e1y = positions[p1 + 1] - positions[p0 + 1];
+			float e1z = positions[p1 + 2] - positions[p0 + 2];
+			float e2x = positions[p2 + 0] - positions[p0 + 0];
+			float e2y = positions[p2 + 1] - positions[p0 + 1];
+			float e2z = positions[p2 + 2] - positions[p0 + 2];
+			float nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+			float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+			if (length > 0.0f) {
+				normals[3 * i + 0] = nx / length;
+				normals[3 * i + 1] = ny / length;
+				normals[3 * i + 2] = nz / length;
+			}
+			ax += normals[3 * i + 0];
+			ay += normals[3 * i + 1];
+			az += normals[3 * i + 2];
+		}
+		float axisLength = (float) Math.sqrt(ax * ax + ay * ay + az * az);
+		if (axisLength > 0.0f) {
+			ax /= axisLength;
+			ay /= axisLength;
+			az /= axisLength;
+		}
+		float minDot = 1.0f;
+		for (int i = 0; i < triangleCount; i++)
+			minDot = Math.min(minDot, normals[3 * i + 0] * ax + normals[3 * i + 1] * ay + normals[3 * i + 2] * az);
+
+		int b = OBJMeshlets.BOUNDS_STRIDE * meshlet;
+		bounds[b + 0] = cx;
+		bounds[b + 1] = cy;
+		bounds[b + 2] = cz;
+		bounds[b + 3] = radius;
+		bounds[b + 7] = ax;
+		bounds[b + 8] = ay;
+		bounds[b + 9] = az;
+		if (minDot <= CONE_THRESHOLD) {
+			bounds[b + 4] = cx;
+			bounds[b + 5] = cy;
+			bounds[b + 6] = cz;
+			bounds[b + 10] = 1.0f;
+			return;
+		}
+		float maxT = 0.0f;
+		for (int i = 0; i < triangleCount; i++) {
+			int p0 = 3 * indices[3 * order[triangleOffset + i]];
+			float nx = normals[3 * i + 0], ny = normals[3 * i + 1], nz = normals[3 * i + 2];
+			float distance = (cx - positions[p0 + 0]) * nx + (cy - positions[p0 + 1]) * ny + (cz - positions[p0 + 2]) * nz;
+			float alignment = ax * nx + ay * ny + az * nz;
+			maxT = Math.max(maxT, distance / alignment);
+		}
+		bounds[b + 4] = cx - ax * maxT;
+		bounds[b + 5] = cy - ay * maxT;
+		bounds[b + 6] = cz - az * maxT;
+		bounds[b + 10] = (float) Math.sqrt(1.0f - minDot * minDot);
+	}
+
+	private static IntStream range(int count, int threshold) {
+		IntStream stream = IntStream.range(0, count);
+		return count >= threshold ? stream.parallel() : stream;
+	}
+
+	private static class Chunk {
+
+		private final int[] meshlets;
+		private final int[] vertices;
+		private final byte[] triangles;
+		private int meshletCount;
+		private int vertexCount;
+
+		private Chunk(OBJTriangles source, int[] order, int from, int to, int maxVertices, int maxTriangles) {
+			int[] indices = source.getVertexIndices();
+			int triangleCount = to - from;
+			this.meshlets = new int[4 * triangleCount];
+			this.vertices = new int[3 * triangleCount];
+			this.triangles = new byte[3 * triangleCount];
+			this.meshletCount = 0;
+			this.vertexCount = 0;
+			int meshletVertices = 0;
+			int meshletTriangles = 0;
+			for (int i = 0; i < triangleCount; i++) {
+				int t = 3 * order[from + i];
+				int added = 0;
+				for (int j = 0; j < 3; j++)
+					if (find(indices[t + j], meshletVertices) < 0 && (j == 0 || indices[t + j] != indices[t + j - 1])
+							&& (j < 2 || indices[t + 2] != indices[t]))
+						added++;
+				if (meshletVertices + added > maxVertices || meshletTriangles == maxTriangles) {
+					close(meshletVertices, meshletTriangles, i);
+					meshletVertices = 0;
+					meshletTriangles = 0;
+				}
+				for (int j = 0; j < 3; j++) {
+					int local = find(indices[t + j], meshletVertices);
+					if (local < 0) {
+						local = meshletVertices++;
+						vertices[vertexCount + local] = indices[t + j];
+					}
+					triangles[3 * i + j] = (byte) local;
+				}
+				meshletTriangles++;
+			}
+			if (meshletTriangles > 0)
+				close(meshletVertices, meshletTriangles, triangleCount);
+		}
+
+		private int find(int vertex, int meshletVertices) {
+			for (int i = 0; i < meshletVertices; i++)
+				if (vertices[vertexCount + i] == vertex)
+					return i;
+			return -1;
+		}
+
+		private void close(int meshletVertices, int meshletTriangles, int end) {
+			meshlets[4 * meshletCount + 0] = vertexCount;
+			meshlets[4 * meshletCount + 1] = meshletVertices;
+			meshlets[4 * meshletCount + 2] = end - meshletTriangles;
+			meshlets[4 * meshletCount + 3] = meshletTriangles;
+			meshletCount++;
+			vertexCount += meshletVertices;
+		}
+
+	}
+
+}
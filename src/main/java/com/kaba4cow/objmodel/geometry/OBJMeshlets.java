@@ -0,0 +1,106 @@
+package com.kaba4cow.objmodel.geometry;
+
+/**
+ * The packed result of {@link OBJMeshletBuilder}. All meshlets share flat arrays, and every meshlet is described by four
+ * integers in {@link #getMeshlets()}: the offset and count of its vertices in {@link #getVertices()}, followed by the offset
+ * and count of its triangles. Triangle data is addressed per triangle, so a triangle offset {@code t} refers to the local
+ * indices {@code [3 * t, 3 * t + 3)} in {@link #getTriangles()} and to the source triangle {@code t} in
+ * {@link #getSourceTriangles()}.
+ * <p>
+ * The bounds of every meshlet are stored as twelve floats in {@link #getBounds()}: the bounding sphere center (x, y, z) and
+ * radius, the normal cone apex (x, y, z), the normal cone axis (x, y, z), the cone cutoff and one float of padding. A meshlet
+ * can be culled as back-facing when {@code dot(normalize(apex - camera), axis) >= cutoff}. Meshlets whose normals spread too
+ * far have a cutoff of {@code 1.0} and are never culled by this test.
+ * <p>
+ * The arrays returned by the getters are the backing arrays of the result and must not be modified.
+ */
+public class OBJMeshlets {
+
+	/**
+	 * The number of integers describing one meshlet in {@link #getMeshlets()}.
+	 */
+	public static final int MESHLET_STRIDE = 4;
+
+	/**
+	 * The number of floats describing the bounds of one meshlet in {@link #getBounds()}.
+	 */
+	public static final int BOUNDS_STRIDE = 12;
+
+	private final int[] meshlets;
+	private final int[] vertices;
+	private final byte[] triangles;
+	private final int[] sourceTriangles;
+	private final float[] bounds;
+
+	OBJMeshlets(int[] meshlets, int[] vertices, byte[] triangles, int[] sourceTriangles, float[] bounds) {
+		this.meshlets = meshlets;
+		this.vertices = vertices;
+		this.triangles = triangles;
+		this.sourceTriangles = sourceTriangles;
+		this.bounds = bounds;
+	}
+
+	/**
+	 * Returns the meshlet descriptors, {@link #MESHLET_STRIDE} integers per meshlet: vertex offset, vertex count, triangle
+	 * offset and triangle count.
+	 *
+	 * @return the backing array of meshlet descriptors
+	 */
+	public int[] getMeshlets() {
+		return meshlets;
+	}
+
+	/**
+	 * Returns the vertex indices of all meshlets. Each entry refers to a vertex of the source object.
+	 *
+	 * @return the backing array of meshlet vertex indices
+	 */
+	public int[] getVertices() {
+		return vertices;
+	}
+
+	/**
+	 * Returns the local triangle indices of all meshlets, three unsigned bytes per triangle. Each byte refers to a vertex of
+	 * its meshlet, relative to the vertex offset of the meshlet.
+	 *
+	 * @return the backing array of local triangle indices
+	 */
+	public byte[] getTriangles() {
+		return triangles;
+	}
+
+	/**
+	 * Returns the index of the source triangle in {@link OBJTriangles} for every meshlet triangle, which gives access to the
+	 * texture and normal indices of its corners.
+	 *
+	 * @return the backing array of source triangle indices
+	 */
+	public int[] getSourceTriangles() {
+		return sourceTriangles;
+	}
+
+	/**
+	 * Returns the bounds of all meshlets, {@link #BOUNDS_STRIDE} floats per meshlet.
+	 *
+	 * @return the backing array of meshlet bounds
+	 */
+	public float[] getBounds() {
+		return bounds;
+	}
+
+	/**
+	 * Returns the number of meshlets.
+	 *
+	 * @return number of meshlets
+	 */
+	public int getMeshletCount() {
+		return meshlets.length / MESHLET_STRIDE;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OBJMeshlets [meshlets=%s, vertices=%s, triangles=%s]", getMeshletCount(), vertices.length,
+				sourceTriangles.length);
+	}
+
+}
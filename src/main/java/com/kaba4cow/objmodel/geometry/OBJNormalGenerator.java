@@ -0,0 +1,77 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.Objects;
+
+import com.kaba4cow.objmodel.elements.OBJFace;
+import com.kaba4cow.objmodel.elements.OBJIndex;
+import com.kaba4cow.objmodel.elements.OBJNormal;
+import com.kaba4cow.objmodel.elements.OBJObject;
+
+/**
+ * A utility class for generating smooth vertex normals. The normal of every vertex is the normalized sum of the unnormalized
+ * normals of the fan triangles of the faces around it, so larger faces weigh more. Vertices shared by faces are smoothed
+ * across them; weld the object first with {@link OBJWelder} to smooth across duplicated positions. Vertices without area
+ * get a zero normal.
+ */
+public class OBJNormalGenerator {
+
+	private OBJNormalGenerator() {}
+
+	/**
+	 * Replaces the normals of the specified object with generated smooth normals, in place. One normal is created per vertex,
+	 * and the normal index of every face corner is set to its vertex index.
+	 *
+	 * @param object the {@link OBJObject} to generate normals for
+	 * 
+	 * @return a reference to the object
+	 * 
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing vertex
+	 */
+	public static OBJObject generate(OBJObject object) {
+		Objects.requireNonNull(object, "Object must not be null");
+		int vertexCount = object.getVertexCount();
+		float[] positions = new float[3 * vertexCount];
+		object.copyPositions(positions, 0);
+		float[] sums = new float[3 * vertexCount];
+		for (int i = 0; i < object.getFaceCount(); i++) {
+			OBJFace face = object.getFace(i);
+			for (OBJIndex index : face.getIndices())
+				if (!index.hasVertex() || index.getVertex() < 0 || index.getVertex() >= vertexCount)
+					throw new IllegalArgumentException(String.format("Face %s has an invalid index", i));
+			if (face.getIndexCount() < 3)
+				continue;
+			int a = 3 * face.getIndex(0).getVertex();
+			for (int j = 2; j < face.getIndexCount(); j++) {
+				int b = 3 * face.getIndex(j - 1).getVertex(), c = 3 * face.getIndex(j).getVertex();
+				float ux = positions[b + 0] - positions[a + 0], uy = positions[b + 1] - positions[a + 1],
+						uz = positions[b + 2] - positions[a + 2];
+				float vx = positions[c + 0] - positions[a + 0], vy = positions[c + 1] - positions[a + 1],
+						vz = positions[c + 2] - positions[a + 2];
+				float nx = uy * vz - uz * vy, ny = uz * vx - ux * vz, nz = ux * vy - uy * vx;
+				add(sums, a, nx, ny, nz);
+				add(sums, b, nx, ny, nz);
+				add(sums, c, nx, ny, nz);
+			}
+		}
+		object.clearNormals();
+		for (int i = 0; i < vertexCount; i++) {
+			float x = sums[3 * i + 0], y = sums[3 * i + 1], z = sums[3 * i + 2];
+			float length = (float) Math.sqrt(x * x + y * y + z * z);
+			OBJNormal normal = new OBJNormal();
+			if (length > 0.0f)
+				normal.set(x / length, y / length, z / length);
+			object.addNormal(normal);
+		}
+		for (int i = 0; i < object.getFaceCount(); i++)
+			for (OBJIndex index : object.getFace(i).getIndices())
+				index.setNormal(index.getVertex());
+		return object;
+	}
+
+	private static void add(float[] sums, int offset, float x, float y, float z) {
+		sums[offset + 0] += x;
+		sums[offset + 1] += y;
+		sums[offset + 2] += z;
+	}
+
+}
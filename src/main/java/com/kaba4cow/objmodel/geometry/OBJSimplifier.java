@@ -0,0 +1,494 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.objmodel.elements.OBJFace;
+import com.kaba4cow.objmodel.elements.OBJIndex;
+import com.kaba4cow.objmodel.elements.OBJNormal;
+import com.kaba4cow.objmodel.elements.OBJObject;
+import com.kaba4cow.objmodel.elements.OBJTexture;
+import com.kaba4cow.objmodel.elements.OBJVertex;
+
+/**
+ * A utility class for simplifying {@link OBJObject} geometry with quadric error metric edge collapses. Every vertex
+ * accumulates the area-weighted planes of its triangles, and edges are collapsed onto one of their endpoints in order of
+ * increasing error, so no new vertices, texture coordinates or normals are created.
+ * <p>
+ * Vertices on open borders, on non-manifold edges and on texture or normal seams (vertices referenced with more than one
+ * texture/normal combination) are never moved, which keeps silhouettes and UV layouts intact. Collapses that would flip a
+ * triangle or create non-manifold topology are rejected. The error is measured as the weighted mean squared distance to the
+ * original planes and is compared against the squared {@code maxError} given in model units.
+ * <p>
+ * Collapse candidates are ordered by an indexed min-heap, and vertex adjacency is kept in primitive linked lists, so the
+ * simplifier scales to very large meshes.
+ */
+public class OBJSimplifier {
+
+	private static final int PARALLEL_THRESHOLD = 1 << 14;
+	private static final float FLIP_THRESHOLD = 0.25f;
+
+	private OBJSimplifier() {}
+
+	/**
+	 * Simplifies the specified object until it has at most {@code targetTriangleCount} triangles or no further edge can be
+	 * collapsed within {@code maxError}.
+	 *
+	 * @param object the {@link OBJObject} to simplify
+	 * @param targetTriangleCount the target number of triangles
+	 * @param maxError the maximum geometric error in model units, or {@link Float#POSITIVE_INFINITY} for no bound
+	 * 
+	 * @return a new simplified {@link OBJObject}
+	 * 
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing element
+	 */
+	public static OBJObject simplify(OBJObject object, int targetTriangleCount, float maxError) {
+		return simplifyChain(object, new int[] { targetTriangleCount }, maxError).get(0);
+	}
+
+	/**
+	 * Generates a chain of levels of detail for the specified object in a single simplification run. Each ratio is the
+	 * fraction of the source triangle count a level should keep, so the ratios must not increase.
+	 *
+	 * @param object the {@link OBJObject} to simplify
+	 * @param ratios the triangle ratios of the levels, in non-increasing order
+	 * @param maxError the maximum geometric error in model units, or {@link Float#POSITIVE_INFINITY} for no bound
+	 * 
+	 * @return a list of new {@link OBJObject}s, one per level
+	 * 
+	 * @throws IllegalArgumentException if the ratios increase or a face index has no vertex or refers to a missing
+	 *                                      element
+	 */
+	public static List<OBJObject> simplifyChain(OBJObject object, float[] ratios, float maxError) {
+		Objects.requireNonNull(ratios, "Ratios must not be null");
+		OBJTriangles triangles = new OBJTriangles(object);
+		int[] targets = new int[ratios.length];
+		for (int i = 0; i < ratios.length; i++)
+			targets[i] = (int) (ratios[i] * triangles.getTriangleCount());
+		return simplifyChain(object, triangles, targets, maxError);
+	}
+
+	/**
+	 * Generates a chain of levels of detail for the specified object in a single simplification run. Each level is captured
+	 * when the triangle count reaches its target, or when the error bound stops the simplification.
+	 *
+	 * @param object the {@link OBJObject} to simplify
+	 * @param targetTriangleCounts the target triangle counts of the levels, in non-increasing order
+	 * @param maxError the maximum geometric error in model units, or {@link Float#POSITIVE_INFINITY} for no bound
+	 * 
+	 * @return a list of new {@link OBJObject}s, one per level
+	 * 
+	 * @throws IllegalArgumentException if the target triangle counts increase or a face index has no vertex or refers
+	 *                                      to a missing element
+	 */
+	public static List<OBJObject> simplifyChain(OBJObject object, int[] targetTriangleCounts, float maxError) {
+		return simplifyChain(object, new OBJTriangles(object), targetTriangleCounts, maxError);
+	}
+
+	private static List<OBJObject> simplifyChain(OBJObject object, OBJTriangles triangles, int[] targets, float maxError) {
+		Objects.requireNonNull(targets, "Targets must not be null");
+		for (int i = 1; i < targets.length; i++)
+			if (targets[i] > targets[i - 1])
+				throw new IllegalArgumentException("Targets must not increase");
+		Collapser collapser = new Collapser(triangles);
+		float maxCost = maxError * maxError;
+		List<OBJObject> levels = new ArrayList<>();
+		for (int i = 0; i < targets.length; i++) {
+			collapser.run(targets[i], maxCost);
+			levels.add(collapser.toObject(object, String.format("%s_LOD%s", object.getName(), i + 1)));
+		}
+		return levels;
+	}
+
+	private static class Collapser {
+
+		private final float[] positions;
+		private final int[] vertices;
+		private final int[] textures;
+		private final int[] normals;
+		private final boolean[] deadTriangles;
+		private int liveTriangles;
+
+		private final int[] first;
+		private final int[] last;
+		private final int[] next;
+		private final float[] quadrics;
+		private final float[] weights;
+		private final boolean[] locked;
+		private final boolean[] removed;
+		private final int[] targets;
+		private final IndexedMinHeap heap;
+		private final int[] stamps;
+		private int stamp;
+
+		private int collapseTexture;
+		private int collapseNormal;
+
+		private Collapser(OBJTriangles triangles) {
+			int vertexCount = triangles.getVertexCount();
+			int cornerCount = triangles.getCornerCount();
+			this.positions = triangles.getPositions();
+			this.vertices = triangles.getVertexIndices().clone();
+			this.textures = triangles.getTextureIndices().clone();
+			this.normals = triangles.getNormalIndices().clone();
+			this.deadTriangles = new boolean[triangles.getTriangleCount()];
+			this.liveTriangles = triangles.getTriangleCount();
+			this.first = new int[vertexCount];
+			this.last = new int[vertexCount];
+			this.next = new int[cornerCount];
+			this.quadrics = new float[10 * vertexCount];
+			this.weights = new float[vertexCount];
+			this.locked = new boolean[vertexCount];
+			this.removed = new boolean[vertexCount];
+			this.targets = new int[vertexCount];
+			this.heap = new IndexedMinHeap(vertexCount);
+			this.stamps = new int[vertexCount];
+			this.stamp = 0;
+
+			Arrays.fill(first, -1);
+			Arrays.fill(last, -1);
+			for (int corner = 0; corner < cornerCount; corner++) {
+				int vertex = vertices[corner];
+				next[corner] = -1;
+				if (first[vertex] < 0)
+					first[vertex] = corner;
+				else
+					next[last[vertex]] = corner;
+				last[vertex] = corner;
+			}
+			lockBorders();
+			lockSeams();
+			accumulateQuadrics();
+
+			float[] costs = new float[vertexCount];
+			range(vertexCount).forEach(vertex -> costs[vertex] = findTarget(vertex));
+			for (int vertex = 0; vertex < vertexCount; vertex++)
+				if (targets[vertex] >= 0)
+					heap.update(vertex, costs[vertex]);
+		}
+
+		private void lockBorders() {
+			LongIntHashMap edges = new LongIntHashMap(vertices.length);
+			for (int corner = 0; corner < vertices.length; corner++) {
+				long key = edgeKey(corner);
+				int count = edges.get(key);
+				edges.put(key, count < 0 ? 1 : count + 1);
+			}
+			for (int corner = 0; corner < vertices.length; corner++)
+				if (edges.get(edgeKey(corner)) != 2) {
+					locked[vertices[corner]] = true;
+					locked[vertices[nextCorner(corner)]] = true;
+				}
+		}
+
+		private void lockSeams() {
+			for (int vertex = 0; vertex < first.length; vertex++) {
+				int head = first[vertex];
+				if (head < 0)
+					continue;
+				for (int corner = next[head]; corner >= 0; corner = next[corner])
+					if (textures[corner] != textures[head] || normals[corner] != normals[head]) {
+						locked[vertex] = true;
+						break;
+					}
+			}
+		}
+
+		private void accumulateQuadrics() {
+			for (int triangle = 0; triangle < deadTriangles.length; triangle++) {
+				int p0 = 3 * vertices[3 * triangle + 0];
+				int p1 = 3 * vertices[3 * triangle + 1];
+				int p2 = 3 * vertices[3 * triangle + 2];
+				float e1x = positions[p1 + 0] - positions[p0 + 0];
+				float e1y = positions[p1 + 1] - positions[p0 + 1];
+				float e1z = positions[p1 + 2] - positions[p0 + 2];
+				float e2x = positions[p2 + 0] - positions[p0 + 0];
+				float e2y = positions[p2 + 1] - positions[p0 + 1];
+				float e2z = positions[p2 + 2] - positions[p0 + 2];
+				float a = e1y * e2z - e1z * e2y;
+				float b = e1z * e2x - e1x * e2z;
+				float c = e1x * e2y - e1y * e2x;
+				float length = (float) Math.sqrt(a * a + b * b + c * c);
+				if (length == 0.0f)
+					continue;
+				a /= length;
+				b /= length;
+				c /= length;
+				float d = -(a * positions[p0 + 0] + b * positions[p0 + 1] + c * positions[p0 + 2]);
+				float weight = 0.5f * length;
+				for (int i = 0; i < 3; i++) {
+					int vertex = vertices[3 * triangle + i];
+					int q = 10 * vertex;
+					quadrics[q + 0] += weight * a * a;
+					quadrics[q + 1] += weight * a * b;
+					quadrics[q + 2] += weight * a * c;
+					quadrics[q + 3] += weight * a * d;
+					quadrics[q + 4] += weight * b * b;
+					quadrics[q + 5] += weight * b * c;
+					quadrics[q + 6] += weight * b * d;
+					quadrics[q + 7] += weight * c * c;
+					quadrics[q + 8] += weight * c * d;
+					quadrics[q + 9] += weight * d * d;
+					weights[vertex] += weight;
+				}
+			}
+		}
+
+		private float findTarget(int vertex) {
+			targets[vertex] = -1;
+			if (locked[vertex] || removed[vertex])
+				return Float.POSITIVE_INFINITY;
+			float best = Float.POSITIVE_INFINITY;
+			for (int corner = first[vertex]; corner >= 0; corner = next[corner]) {
+				if (deadTriangles[corner / 3])
+					continue;
+				for (int i = 1; i < 3; i++) {
+					int other = vertices[3 * (corner / 3) + (corner + i) % 3];
+					if (other == vertex)
+						continue;
+					float cost = cost(vertex, other);
+					if (cost < best) {
+						best = cost;
+						targets[vertex] = other;
+					}
+				}
+			}
+			return best;
+		}
+
+		private float cost(int from, int to) {
+			int a = 10 * from;
+			int b = 10 * to;
+			int p = 3 * to;
+			float x = positions[p + 0];
+			float y = positions[p + 1];
+			float z = positions[p + 2];
+			float error = (quadrics[a + 0] + quadrics[b + 0]) * x * x //
+					+ 2.0f * (quadrics[a + 1] + quadrics[b + 1]) * x * y //
+					+ 2.0f * (quadrics[a + 2] + quadrics[b + 2]) * x * z //
+					+ 2.0f * (quadrics[a + 3] + quadrics[b + 3]) * x //
+					+ (quadrics[a + 4] + quadrics[b + 4]) * y * y //
+					+ 2.0f * (quadrics[a + 5] + quadrics[b + 5]) * y * z //
+					+ 2.0f * (quadrics[a + 6] + quadrics[b + 6]) * y //
+					+ (quadrics[a + 7] + quadrics[b + 7]) * z * z //
+					+ 2.0f * (quadrics[a + 8] + quadrics[b + 8]) * z //
+					+ (quadrics[a + 9] + quadrics[b + 9]);
+			float weight = weights[from] + weights[to];
+			return weight > 0.0f ? Math.max(0.0f, error / weight) : 0.0f;
+		}
+
+		private void run(int targetTriangleCount, float maxCost) {
+			while (liveTriangles > targetTriangleCount && !heap.isEmpty()) {
+				if (heap.peekKey() > maxCost)
+					break;
+				int vertex = heap.pop();
+				int target = targets[vertex];
+				if (target >= 0 && canCollapse(vertex, target))
+					collapse(vertex, target);
+			}
+		}
+
+		private boolean canCollapse(int from, int to) {
+			if (removed[to])
+				return false;
+			int neighbours = ++stamp;
+			int counted = ++stamp;
+			boolean found = false;
+			int shared = 0;
+			for (int corner = first[from]; corner >= 0; corner = next[corner]) {
+				int triangle = corner / 3;
+				if (deadTriangles[triangle])
+					continue;
+				int b = 3 * triangle + (corner + 1) % 3;
+				int c = 3 * triangle + (corner + 2) % 3;
+				stamps[vertices[b]] = neighbours;
+				stamps[vertices[c]] = neighbours;
+				int toCorner = vertices[b] == to ? b : vertices[c] == to ? c : -1;
+				if (toCorner >= 0) {
+					if (!found) {
+						collapseTexture = textures[toCorner];
+						collapseNormal = normals[toCorner];
+						found = true;
+					} else if (textures[toCorner] != collapseTexture || normals[toCorner] != collapseNormal)
+						return false;
+					shared++;
+				} else if (flips(from, to, vertices[b], vertices[c]))
+					return false;
+			}
+			if (!found)
+				return false;
+			int common = 0;
+			for (int corner = first[to]; corner >= 0; corner = next[corner]) {
+				int triangle = corner / 3;
+				if (deadTriangles[triangle])
+					continue;
+				for (int i = 1; i < 3; i++) {
+					int other = vertices[3 * triangle + (corner + i) % 3];
+					if (stamps[other] == neighbours) {
+						stamps[other] = counted;
+						common++;
+					}
+				}
+			}
+			return common == shared;
+		}
+
+		private boolean flips(int from, int to, int b, int c) {
+			int pf = 3 * from;
+			int pt = 3 * to;
+			int pb = 3 * b;
+			int pc = 3 * c;
+			float bx = positions[pb + 0], by = positions[pb + 1], bz = positions[pb + 2];
+			float cx = positions[pc + 0], cy = positions[pc + 1], cz = positions[pc + 2];
+			float e1x = bx - positions[pf + 0], e1y = by - positions[pf + 1], e1z = bz - positions[pf + 2];
+			float e2x = cx - positions[pf + 0], e2y = cy - positions[pf + 1], e2z = cz - positions[pf + 2];
+			float n1x = e1y * e2z - e1z * e2y;
+			float n1y = e1z * e2x - e1x * e2z;
+			float n1z = e1x * e2y - e1y * e2x;
+			e1x = bx - positions[pt + 0];
+			e1y = by - positions[pt + 1];
+			e1z = bz - positions[pt + 2];
+			e2x = cx - positions[pt + 0];
+			e2y = cy - positions[pt + 1];
+			e2z = cz - positions[pt + 2];
+			float n2x = e1y * e2z - e1z * e2y;
+			float n2y = e1z * e2x - e1x * e2z;
+			float n2z = e1x * e2y - e1y * e2x;
+			float dot = n1x * n2x + n1y * n2y + n1z * n2z;
+			float lengths = (float) Math.sqrt((n1x * n1x + n1y * n1y + n1z * n1z) * (n2x * n2x + n2y * n2y + n2z * n2z));
+			return dot <= FLIP_THRESHOLD * lengths;
+		}
+
+		private void collapse(int from, int to) {
+			for (int corner = first[from]; corner >= 0; corner = next[corner]) {
+				int triangle = corner / 3;
+				if (deadTriangles[triangle])
+					continue;
+				if (vertices[3 * triangle + (corner + 1) % 3] == to || vertices[3 * triangle + (corner + 2) % 3] == to) {
+					deadTriangles[triangle] = true;
+					liveTriangles--;
+				} else {
+					vertices[corner] = to;
+					textures[corner] = collapseTexture;
+					normals[corner] = collapseNormal;
+				}
+			}
+			if (first[from] >= 0) {
+				if (first[to] < 0)
+					first[to] = first[from];
+				else
+					next[last[to]] = first[from];
+				last[to] = last[from];
+			}
+			first[from] = -1;
+			last[from] = -1;
+			removed[from] = true;
+			for (int i = 0; i < 10; i++)
+				quadrics[10 * to + i] += quadrics[10 * from + i];
+			weights[to] += weights[from];
+			prune(to);
+
+			int visited = ++stamp;
+			refresh(to);
+			stamps[to] = visited;
+			for (int corner = first[to]; corner >= 0; corner = next[corner])
+				for (int i = 1; i < 3; i++) {
+					int other = vertices[3 * (corner / 3) + (corner + i) % 3];
+					if (stamps[other] != visited) {
+						stamps[other] = visited;
+						refresh(other);
+					}
+				}
+		}
+
+		private void refresh(int vertex) {
+			float cost = findTarget(vertex);
+			if (targets[vertex] >= 0)
+				heap.update(vertex, cost);
+			else
+				heap.remove(vertex);
+		}
+
+		private void prune(int vertex) {
+			int previous = -1;
+			for (int corner = first[vertex]; corner >= 0; corner = next[corner])
+				if (deadTriangles[corner / 3]) {
+					if (previous < 0)
+						first[vertex] = next[corner];
+					else
+						next[previous] = next[corner];
+				} else
+					previous = corner;
+			last[vertex] = previous;
+		}
+
+		private long edgeKey(int corner) {
+			int a = vertices[corner];
+			int b = vertices[nextCorner(corner)];
+			return a < b ? LongIntHashMap.key(a, b) : LongIntHashMap.key(b, a);
+		}
+
+		private int nextCorner(int corner) {
+			return 3 * (corner / 3) + (corner + 1) % 3;
+		}
+
+		private OBJObject toObject(OBJObject source, String name) {
+			OBJObject object = new OBJObject().setName(name);
+			int[] vertexMap = new int[source.getVertexCount()];
+			int[] textureMap = new int[source.getTextureCount()];
+			int[] normalMap = new int[source.getNormalCount()];
+			Arrays.fill(vertexMap, -1);
+			Arrays.fill(textureMap, -1);
+			Arrays.fill(normalMap, -1);
+			for (int triangle = 0; triangle < deadTriangles.length; triangle++) {
+				if (deadTriangles[triangle])
+					continue;
+				OBJFace face = new OBJFace();
+				for (int corner = 3 * triangle; corner < 3 * triangle + 3; corner++) {
+					OBJIndex index = new OBJIndex();
+					int vertex = vertices[corner];
+					if (vertexMap[vertex] < 0) {
+						OBJVertex original = source.getVertex(vertex);
+						vertexMap[vertex] = object.getVertexCount();
+						object.addVertex(new OBJVertex().set(original.getX(), original.getY(), original.getZ()));
+					}
+					index.setVertex(vertexMap[vertex]);
+					int texture = textures[corner];
+					if (texture != OBJIndex.UNSET) {
+						if (textureMap[texture] < 0) {
+							OBJTexture original = source.getTexture(texture);
+							OBJTexture copy = new OBJTexture().set(original.getU(), original.getV());
+							if (original.hasW())
+								copy.setW(original.getW());
+							textureMap[texture] = object.getTextureCount();
+							object.addTexture(copy);
+						}
+						index.setTexture(textureMap[texture]);
+					}
+					int normal = normals[corner];
+					if (normal != OBJIndex.UNSET) {
+						if (normalMap[normal] < 0) {
+							OBJNormal original = source.getNormal(normal);
+							normalMap[normal] = object.getNormalCount();
+							object.addNormal(new OBJNormal().set(original.getX(), original.getY(), original.getZ()));
+						}
+						index.setNormal(normalMap[normal]);
+					}
+					face.addIndex(index);
+				}
+				object.addFace(face);
+			}
+			return object;
+		}
+
+	}
+
+	private static IntStream range(int count) {
+		IntStream stream = IntStream.range(0, count);
+		return count >= PARALLEL_THRESHOLD ? stream.parallel() : stream;
+	}
+
+}
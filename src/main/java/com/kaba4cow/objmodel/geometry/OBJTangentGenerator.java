@@ -0,0 +1,243 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.objmodel.elements.OBJIndex;
+import com.kaba4cow.objmodel.elements.OBJObject;
+
+/**
+ * A utility class for generating tangent space bases for {@link OBJObject} geometry. The generator follows the MikkTSpace
+ * rules: every triangle corner receives a tangent derived from the texture coordinate gradients of its triangle, projected
+ * onto the plane of the corner normal and weighted by the corner angle. Contributions are averaged over all corners that
+ * share the same vertex, texture and normal indices and the same texture space orientation, so mirrored UV islands keep
+ * separate tangents.
+ * <p>
+ * The result is a packed float array aligned with the de-indexed vertex stream of {@link OBJTriangles}: four floats per
+ * triangle corner, the tangent (x, y, z) followed by the bitangent sign (w). The bitangent of a corner is
+ * {@code w * cross(normal, tangent)}. Corners without a normal use the face normal, and triangles without texture coordinates
+ * receive an arbitrary tangent orthogonal to the normal.
+ */
+public class OBJTangentGenerator {
+
+	private static final int PARALLEL_THRESHOLD = 1 << 14;
+	private static final float EPSILON = 1e-20f;
+
+	private OBJTangentGenerator() {}
+
+	/**
+	 * Generates tangents for the specified object.
+	 *
+	 * @param object the {@link OBJObject} to generate tangents for
+	 * 
+	 * @return the packed tangents, four floats per triangle corner
+	 * 
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing element
+	 */
+	public static float[] generate(OBJObject object) {
+		return generate(new OBJTriangles(object));
+	}
+
+	/**
+	 * Generates tangents for the specified triangles. Large meshes are processed in parallel.
+	 *
+	 * @param triangles the {@link OBJTriangles} to generate tangents for
+	 * 
+	 * @return the packed tangents, four floats per triangle corner
+	 */
+	public static float[] generate(OBJTriangles triangles) {
+		Objects.requireNonNull(triangles, "Triangles must not be null");
+		int triangleCount = triangles.getTriangleCount();
+		int cornerCount = triangles.getCornerCount();
+		float[] cornerNormals = new float[3 * cornerCount];
+		float[] cornerTangents = new float[3 * cornerCount];
+		boolean[] orientations = new boolean[triangleCount];
+		range(triangleCount).forEach(triangle -> computeTriangle(triangles, triangle, cornerNormals, cornerTangents,
+				orientations));
+
+		int[] groups = new int[cornerCount];
+		int groupCount = groupCorners(triangles, orientations, groups);
+		float[] sums = new float[3 * groupCount];
+		for (int corner = 0; corner < cornerCount; corner++) {
+			int group = groups[corner];
+			sums[3 * group + 0] += cornerTangents[3 * corner + 0];
+			sums[3 * group + 1] += cornerTangents[3 * corner + 1];
+			sums[3 * group + 2] += cornerTangents[3 * corner + 2];
+		}
+
+		float[] result = new float[4 * cornerCount];
+		range(cornerCount).forEach(corner -> {
+			int group = groups[corner];
+			float nx = cornerNormals[3 * corner + 0];
+			float ny = cornerNormals[3 * corner + 1];
+			float nz = cornerNormals[3 * corner + 2];
+			float tx = sums[3 * group + 0];
+			float ty = sums[3 * group + 1];
+			float tz = sums[3 * group + 2];
+			float dot = nx * tx + ny * ty + nz * tz;
+			tx -= nx * dot;
+			ty -= ny * dot;
+			tz -= nz * dot;
+			float length = tx * tx + ty * ty + tz * tz;
+			if (length > EPSILON) {
+				length = (float) (1.0 / Math.sqrt(length));
+				tx *= length;
+				ty *= length;
+				tz *= length;
+			} else if (Math.abs(nx) < 0.9f) {
+				length = (float) (1.0 / Math.sqrt(ny * ny + nz * nz + EPSILON));
+				tx = 0.0f;
+				ty = nz * length;
+				tz = -ny * length;
+			} else {
+				length = (float) (1.0 / Math.sqrt(nx * nx + nz * nz + EPSILON));
+				tx = -nz * length;
+				ty = 0.0f;
+				tz = nx * length;
+			}
+			result[4 * corner + 0] = tx;
+			result[4 * corner + 1] = ty;
+			result[4 * corner + 2] = tz;
+			result[4 * corner + 3] = orientations[corner / 3] ? 1.0f : -1.0f;
+		});
+		return result;
+	}
+
+	private static void computeTriangle(OBJTriangles triangles, int triangle, float[] cornerNormals, float[] cornerTangents,
+			boolean[] orientations) {
+		float[] positions = triangles.getPositions();
+		float[] textures = triangles.getTextures();
+		float[] normals = triangles.getNormals();
+		int[] vertexIndices = triangles.getVertexIndices();
+		int[] textureIndices = triangles.getTextureIndices();
+		int[] normalIndices = triangles.getNormalIndices();
+		int c0 = 3 * triangle;
+
+		int p0 = 3 * vertexIndices[c0 + 0];
+		int p1 = 3 * vertexIndices[c0 + 1];
+		int p2 = 3 * vertexIndices[c0 + 2];
+		float e1x = positions[p1 + 0] - positions[p0 + 0];
+		float e1y = positions[p1 + 1] - positions[p0 + 1];
+		float e1z = positions[p1 + 2] - positions[p0 + 2];
+		float e2x = positions[p2 + 0] - positions[p0 + 0];
+		float e2y = positions[p2 + 1] - positions[p0 + 1];
+		float e2z = positions[p2 + 2] - positions[p0 + 2];
+		float fnx = e1y * e2z - e1z * e2y;
+		float fny = e1z * e2x - e1x * e2z;
+		float fnz = e1x * e2y - e1y * e2x;
+		float fnLength = (float) Math.sqrt(fnx * fnx + fny * fny + fnz * fnz);
+		if (fnLength > EPSILON) {
+			fnx /= fnLength;
+			fny /= fnLength;
+			fnz /= fnLength;
+		}
+
+		float osx = 0.0f, osy = 0.0f, osz = 0.0f;
+		boolean orientation = true;
+		if (textureIndices[c0 + 0] != OBJIndex.UNSET && textureIndices[c0 + 1] != OBJIndex.UNSET
+				&& textureIndices[c0 + 2] != OBJIndex.UNSET) {
+			int t0 = 2 * textureIndices[c0 + 0];
+			int t1 = 2 * textureIndices[c0 + 1];
+			int t2 = 2 * textureIndices[c0 + 2];
+			float s1 = textures[t1 + 0] - textures[t0 + 0];
+			float v1 = textures[t1 + 1] - textures[t0 + 1];
+			float s2 = textures[t2 + 0] - textures[t0 + 0];
+			float v2 = textures[t2 + 1] - textures[t0 + 1];
+			float signedArea = s1 * v2 - s2 * v1;
+			orientation = signedArea > 0.0f;
+			osx = v2 * e1x - v1 * e2x;
+			osy = v2 * e1y - v1 * e2y;
+			osz = v2 * e1z - v1 * e2z;
+			float osLength = (float) Math.sqrt(osx * osx + osy * osy + osz * osz);
+			if (osLength > EPSILON) {
+				float scale = (orientation ? 1.0f : -1.0f) / osLength;
+				osx *= scale;
+				osy *= scale;
+				osz *= scale;
+			}
+		}
+		orientations[triangle] = orientation;
+
+		for (int i = 0; i < 3; i++) {
+			int corner = c0 + i;
+			float nx = fnx, ny = fny, nz = fnz;
+			if (normalIndices[corner] != OBJIndex.UNSET) {
+				int n = 3 * normalIndices[corner];
+				nx = normals[n + 0];
+				ny = normals[n + 1];
+				nz = normals[n + 2];
+				float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+				if (length > EPSILON) {
+					nx /= length;
+					ny /= length;
+					nz /= length;
+				}
+			}
+			cornerNormals[3 * corner + 0] = nx;
+			cornerNormals[3 * corner + 1] = ny;
+			cornerNormals[3 * corner + 2] = nz;
+
+			int p = 3 * vertexIndices[corner];
+			int pn = 3 * vertexIndices[c0 + (i + 1) % 3];
+			int pp = 3 * vertexIndices[c0 + (i + 2) % 3];
+			float ax = positions[pn + 0] - positions[p + 0];
+			float ay = positions[pn + 1] - positions[p + 1];
+			float az = positions[pn + 2] - positions[p + 2];
+			float bx = positions[pp + 0] - positions[p + 0];
+			float by = positions[pp + 1] - positions[p + 1];
+			float bz = positions[pp + 2] - positions[p + 2];
+			float dot = ax * nx + ay * ny + az * nz;
+			ax -= nx * dot;
+			ay -= ny * dot;
+			az -= nz * dot;
+			dot = bx * nx + by * ny + bz * nz;
+			bx -= nx * dot;
+			by -= ny * dot;
+			bz -= nz * dot;
+			float lengths = (float) Math.sqrt((ax * ax + ay * ay + az * az) * (bx * bx + by * by + bz * bz));
+			float angle = lengths > EPSILON
+					? (float) Math.acos(Math.max(-1.0f, Math.min(1.0f, (ax * bx + ay * by + az * bz) / lengths)))
+					: 0.0f;
+
+			dot = osx * nx + osy * ny + osz * nz;
+			float tx = osx - nx * dot;
+			float ty = osy - ny * dot;
+			float tz = osz - nz * dot;
+			float length = (float) Math.sqrt(tx * tx + ty * ty + tz * tz);
+			if (length > EPSILON) {
+				float scale = angle / length;
+				cornerTangents[3 * corner + 0] = tx * scale;
+				cornerTangents[3 * corner + 1] = ty * scale;
+				cornerTangents[3 * corner + 2] = tz * scale;
+			}
+		}
+	}
+
+	private static int groupCorners(OBJTriangles triangles, boolean[] orientations, int[] groups) {
+		int[] vertexIndices = triangles.getVertexIndices();
+		int[] textureIndices = triangles.getTextureIndices();
+		int[] normalIndices = triangles.getNormalIndices();
+		int cornerCount = triangles.getCornerCount();
+		LongIntHashMap attributes = new LongIntHashMap(cornerCount);
+		LongIntHashMap corners = new LongIntHashMap(cornerCount);
+		int groupCount = 0;
+		for (int corner = 0; corner < cornerCount; corner++) {
+			long attributeKey = LongIntHashMap.key(textureIndices[corner], normalIndices[corner]);
+			int attribute = attributes.putIfAbsent(attributeKey, attributes.size());
+			if (attribute < 0)
+				attribute = attributes.size() - 1;
+			int low = 2 * attribute + (orientations[corner / 3] ? 1 : 0);
+			int group = corners.putIfAbsent(LongIntHashMap.key(vertexIndices[corner], low), groupCount);
+			if (group < 0)
+				group = groupCount++;
+			groups[corner] = group;
+		}
+		return groupCount;
+	}
+
+	private static IntStream range(int count) {
+		IntStream stream = IntStream.range(0, count);
+		return count >= PARALLEL_THRESHOLD ? stream.parallel() : stream;
+	}
+
+}
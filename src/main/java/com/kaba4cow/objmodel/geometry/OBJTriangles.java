@@ -0,0 +1,190 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.Objects;
+
+import com.kaba4cow.objmodel.elements.OBJFace;
+import com.kaba4cow.objmodel.elements.OBJIndex;
+import com.kaba4cow.objmodel.elements.OBJNormal;
+import com.kaba4cow.objmodel.elements.OBJObject;
+import com.kaba4cow.objmodel.elements.OBJTexture;
+import com.kaba4cow.objmodel.elements.OBJVertex;
+
+/**
+ * A packed, triangulated snapshot of an {@link OBJObject}. Vertices, texture coordinates and normals are copied into flat
+ * float arrays and every face is fan-triangulated into corners that refer to them. Faces with fewer than three indices are
+ * skipped. A missing texture or normal index of a corner is stored as {@link OBJIndex#UNSET}. Relative indices are not
+ * resolved, so every index must refer to an element of the object.
+ * <p>
+ * The arrays returned by the getters are the backing arrays of this snapshot and must not be modified.
+ */
+public class OBJTriangles {
+
+	private final float[] positions;
+	private final float[] textures;
+	private final float[] normals;
+	private final int[] vertexIndices;
+	private final int[] textureIndices;
+	private final int[] normalIndices;
+	private final int[] faceIndices;
+
+	/**
+	 * Creates a packed triangulated snapshot of the specified object.
+	 *
+	 * @param object the {@link OBJObject} to pack
+	 * 
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing element
+	 */
+	public OBJTriangles(OBJObject object) {
+		Objects.requireNonNull(object, "Object must not be null");
+		int vertexCount = object.getVertexCount();
+		this.positions = new float[3 * vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			OBJVertex vertex = object.getVertex(i);
+			positions[3 * i + 0] = vertex.getX();
+			positions[3 * i + 1] = vertex.getY();
+			positions[3 * i + 2] = vertex.getZ();
+		}
+		int textureCount = object.getTextureCount();
+		this.textures = new float[2 * textureCount];
+		for (int i = 0; i < textureCount; i++) {
+			OBJTexture texture = object.getTexture(i);
+			textures[2 * i + 0] = texture.getU();
+			textures[2 * i + 1] = texture.getV();
+		}
+		int normalCount = object.getNormalCount();
+		this.normals = new float[3 * normalCount];
+		for (int i = 0; i < normalCount; i++) {
+			OBJNormal normal = object.getNormal(i);
+			normals[3 * i + 0] = normal.getX();
+			normals[3 * i + 1] = normal.getY();
+			normals[3 * i + 2] = normal.getZ();
+		}
+		int triangleCount = 0;
+		for (int i = 0; i < object.getFaceCount(); i++) {
+			OBJFace face = object.getFace(i);
+			for (OBJIndex index : face.getIndices())
+				if (!index.hasVertex() || index.getVertex() < 0 || index.getVertex() >= vertexCount
+						|| (index.hasTexture() && (index.getTexture() < 0 || index.getTexture() >= textureCount))
+						|| (index.hasNormal() && (index.getNormal() < 0 || index.getNormal() >= normalCount)))
+					throw new IllegalArgumentException(String.format("Face %s has an invalid index", i));
+			triangleCount += Math.max(0, face.getIndexCount() - 2);
+		}
+		this.vertexIndices = new int[3 * triangleCount];
+		this.textureIndices = new int[3 * triangleCount];
+		this.normalIndices = new int[3 * triangleCount];
+		this.faceIndices = new int[triangleCount];
+		int triangle = 0;
+		for (int i = 0; i < object.getFaceCount(); i++) {
+			OBJFace face = object.getFace(i);
+			for (int j = 2; j < face.getIndexCount(); j++) {
+				setCorner(3 * triangle + 0, face.getIndex(0));
+				setCorner(3 * triangle + 1, face.getIndex(j - 1));
+				setCorner(3 * triangle + 2, face.getIndex(j));
+				faceIndices[triangle++] = i;
+			}
+		}
+	}
+
+	private void setCorner(int corner, OBJIndex index) {
+		vertexIndices[corner] = index.getVertex();
+		textureIndices[corner] = index.hasTexture() ? index.getTexture() : OBJIndex.UNSET;
+		normalIndices[corner] = index.hasNormal() ? index.getNormal() : OBJIndex.UNSET;
+	}
+
+	/**
+	 * Returns the packed vertex positions, three floats (x, y, z) per vertex.
+	 *
+	 * @return the backing array of vertex positions
+	 */
+	public float[] getPositions() {
+		return positions;
+	}
+
+	/**
+	 * Returns the packed texture coordinates, two floats (u, v) per texture coordinate.
+	 *
+	 * @return the backing array of texture coordinates
+	 */
+	public float[] getTextures() {
+		return textures;
+	}
+
+	/**
+	 * Returns the packed normals, three floats (x, y, z) per normal.
+	 *
+	 * @return the backing array of normals
+	 */
+	public float[] getNormals() {
+		return normals;
+	}
+
+	/**
+	 * Returns the vertex index of every triangle corner, three corners per triangle.
+	 *
+	 * @return the backing array of corner vertex indices
+	 */
+	public int[] getVertexIndices() {
+		return vertexIndices;
+	}
+
+	/**
+	 * Returns the texture index of every triangle corner, or {@link OBJIndex#UNSET} for corners without one.
+	 *
+	 * @return the backing array of corner texture indices
+	 */
+	public int[] getTextureIndices() {
+		return textureIndices;
+	}
+
+	/**
+	 * Returns the normal index of every triangle corner, or {@link OBJIndex#UNSET} for corners without one.
+	 *
+	 * @return the backing array of corner normal indices
+	 */
+	public int[] getNormalIndices() {
+		return normalIndices;
+	}
+
+	/**
+	 * Returns the index of the source {@link OBJFace} of every triangle.
+	 *
+	 * @return the backing array of source face indices
+	 */
+	public int[] getFaceIndices() {
+		return faceIndices;
+	}
+
+	/**
+	 * Returns the number of vertices.
+	 *
+	 * @return number of vertices
+	 */
+	public int getVertexCount() {
+		return positions.length / 3;
+	}
+
+	/**
+	 * Returns the number of triangles.
+	 *
+	 * @return number of triangles
+	 */
+	public int getTriangleCount() {
+		return faceIndices.length;
+	}
+
+	/**
+	 * Returns the number of triangle corners, which is the length of the de-indexed vertex stream.
+	 *
+	 * @return number of triangle corners
+	 */
+	public int getCornerCount() {
+		return vertexIndices.length;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OBJTriangles [vertices=%s, textures=%s, normals=%s, triangles=%s]", getVertexCount(),
+				textures.length / 2, normals.length / 3, getTriangleCount());
+	}
+
+}
@@ -0,0 +1,300 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * The result of {@link OBJValidator}: the issues found in a model, exact counts per issue type, a histogram of face sizes,
+ * element totals and the axis-aligned bounding boxes of the model and of every object. The list of issues may be truncated
+ * to the limit passed to the validator, but the counts always cover the whole model.
+ */
+public class OBJValidationReport {
+
+	private final List<Issue> issues;
+	private final EnumMap<Type, Long> counts;
+	private final SortedMap<Integer, Long> faceSizes;
+	private final long[] totals;
+	private final float[] bounds;
+	private final float[][] objectBounds;
+
+	OBJValidationReport(List<Issue> issues, EnumMap<Type, Long> counts, SortedMap<Integer, Long> faceSizes, long[] totals,
+			float[] bounds, float[][] objectBounds) {
+		this.issues = Collections.unmodifiableList(issues);
+		this.counts = counts;
+		this.faceSizes = Collections.unmodifiableSortedMap(faceSizes);
+		this.totals = totals;
+		this.bounds = bounds;
+		this.objectBounds = objectBounds;
+	}
+
+	/**
+	 * Checks whether the model has no issues of an error type, see {@link Type#isError()}.
+	 *
+	 * @return {@code true} if the model has no errors
+	 */
+	public boolean isValid() {
+		for (Map.Entry<Type, Long> entry : counts.entrySet())
+			if (entry.getKey().isError() && entry.getValue() > 0L)
+				return false;
+		return true;
+	}
+
+	/**
+	 * Retrieves an unmodifiable list of the reported issues, ordered by object and element.
+	 *
+	 * @return an unmodifiable list of {@link Issue} objects
+	 */
+	public List<Issue> getIssues() {
+		return issues;
+	}
+
+	/**
+	 * Returns the number of issues of the specified type in the whole model.
+	 *
+	 * @param type the type of the issues
+	 * 
+	 * @return number of issues of the type
+	 */
+	public long getCount(Type type) {
+		return counts.getOrDefault(type, 0L);
+	}
+
+	/**
+	 * Retrieves an unmodifiable histogram of face sizes, mapping the number of indices of a face to the number of faces with
+	 * that size.
+	 *
+	 * @return an unmodifiable map from face size to face count
+	 */
+	public SortedMap<Integer, Long> getFaceSizes() {
+		return faceSizes;
+	}
+
+	/**
+	 * Returns the number of vertices in the model.
+	 *
+	 * @return number of vertices
+	 */
+	public long getVertexCount() {
+		return totals[0];
+	}
+
+	/**
+	 * Returns the number of textures in the model.
+	 *
+	 * @return number of textures
+	 */
+	public long getTextureCount() {
+		return totals[1];
+	}
+
+	/**
+	 * Returns the number of normals in the model.
+	 *
+	 * @return number of normals
+	 */
+	public long getNormalCount() {
+		return totals[2];
+	}
+
+	/**
+	 * Returns the number of faces in the model.
+	 *
+	 * @return number of faces
+	 */
+	public long getFaceCount() {
+		return totals[3];
+	}
+
+	/**
+	 * Returns the total number of face indices in the model.
+	 *
+	 * @return number of face corners
+	 */
+	public long getCornerCount() {
+		return totals[4];
+	}
+
+	/**
+	 * Retrieves the bounding box of all finite vertices of the model.
+	 *
+	 * @return a new array with the minimum X, Y, Z and maximum X, Y, Z, or {@code null} if the model has no finite vertices
+	 */
+	public float[] getBounds() {
+		return copy(bounds);
+	}
+
+	/**
+	 * Retrieves the bounding box of the finite vertices of an object.
+	 *
+	 * @param object the index of the object in the model
+	 * 
+	 * @return a new array with the minimum X, Y, Z and maximum X, Y, Z, or {@code null} if the object has no finite vertices
+	 */
+	public float[] getBounds(int object) {
+		return copy(objectBounds[object]);
+	}
+
+	private static float[] copy(float[] bounds) {
+		return bounds[0] > bounds[3] ? null : bounds.clone();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OBJValidationReport [valid=%s, counts=%s, faceSizes=%s, vertices=%s, faces=%s]", isValid(),
+				counts, faceSizes, totals[0], totals[3]);
+	}
+
+	/**
+	 * The types of issues reported by {@link OBJValidator}.
+	 */
+	public enum Type {
+
+		/**
+		 * A face index without a vertex index.
+		 */
+		MISSING_VERTEX_INDEX(true),
+
+		/**
+		 * A vertex index outside the vertex list of the object.
+		 */
+		VERTEX_INDEX_OUT_OF_RANGE(true),
+
+		/**
+		 * A texture index outside the texture list of the object.
+		 */
+		TEXTURE_INDEX_OUT_OF_RANGE(true),
+
+		/**
+		 * A normal index outside the normal list of the object.
+		 */
+		NORMAL_INDEX_OUT_OF_RANGE(true),
+
+		/**
+		 * A face with fewer than three indices.
+		 */
+		DEGENERATE_FACE(true),
+
+		/**
+		 * A face that refers to the same vertex more than once.
+		 */
+		REPEATED_VERTEX(true),
+
+		/**
+		 * A face whose positions span no area.
+		 */
+		ZERO_AREA_FACE(false),
+
+		/**
+		 * A vertex with a NaN or infinite component.
+		 */
+		NON_FINITE_VERTEX(true),
+
+		/**
+		 * A texture coordinate with a NaN or infinite component.
+		 */
+		NON_FINITE_TEXTURE(true),
+
+		/**
+		 * A normal with a NaN or infinite component.
+		 */
+		NON_FINITE_NORMAL(true),
+
+		/**
+		 * A vertex not referenced by any face.
+		 */
+		UNUSED_VERTEX(false);
+
+		private final boolean error;
+
+		private Type(boolean error) {
+			this.error = error;
+		}
+
+		/**
+		 * Checks whether issues of this type are errors that break rendering, as opposed to warnings.
+		 *
+		 * @return {@code true} if this type is an error
+		 */
+		public boolean isError() {
+			return error;
+		}
+
+	}
+
+	/**
+	 * A single issue found in a model.
+	 */
+	public static class Issue {
+
+		private final Type type;
+		private final int object;
+		private final String objectName;
+		private final int element;
+		private final int line;
+
+		Issue(Type type, int object, String objectName, int element, int line) {
+			this.type = type;
+			this.object = object;
+			this.objectName = objectName;
+			this.element = element;
+			this.line = line;
+		}
+
+		/**
+		 * Retrieves the type of the issue.
+		 *
+		 * @return the {@link Type} of the issue
+		 */
+		public Type getType() {
+			return type;
+		}
+
+		/**
+		 * Returns the index of the object in the model.
+		 *
+		 * @return the index of the object
+		 */
+		public int getObject() {
+			return object;
+		}
+
+		/**
+		 * Retrieves the name of the object.
+		 *
+		 * @return the name of the object
+		 */
+		public String getObjectName() {
+			return objectName;
+		}
+
+		/**
+		 * Returns the index of the affected element in the object: a face index for face issues, otherwise the index of the
+		 * vertex, texture coordinate or normal.
+		 *
+		 * @return the index of the element
+		 */
+		public int getElement() {
+			return element;
+		}
+
+		/**
+		 * Returns the source line of the affected element, if the validated model came with an
+		 * {@link com.kaba4cow.objmodel.OBJSourceMap}.
+		 *
+		 * @return the line number, or {@code -1} if unknown
+		 */
+		public int getLine() {
+			return line;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Issue [type=%s, object=%s, element=%s, line=%s]", type, objectName, element, line);
+		}
+
+	}
+
+}
@@ -0,0 +1,379 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.objmodel.OBJModel;
+import com.kaba4cow.objmodel.OBJSourceMap;
+import com.kaba4cow.objmodel.elements.OBJFace;
+import com.kaba4cow.objmodel.elements.OBJIndex;
+import com.kaba4cow.objmodel.elements.OBJNormal;
+import com.kaba4cow.objmodel.elements.OBJObject;
+import com.kaba4cow.objmodel.elements.OBJTexture;
+import com.kaba4cow.objmodel.elements.OBJVertex;
+
+/**
+ * A utility class for validating {@link OBJModel} objects and collecting statistics about them. The elements of every object
+ * are split into chunks that are checked in parallel, each chunk accumulating its own counts, issues, face size histogram
+ * and bounds without allocating per element; the partial results are then merged in chunk order, so the report is
+ * deterministic. Every face chunk also records the vertices its faces refer to in a bit set covering only the range of
+ * vertices it touches; the bit sets are merged into one per object, whose clear bits are the unused vertices.
+ * <p>
+ * When the model was read with {@link com.kaba4cow.objmodel.OBJParser#parse(java.io.Reader, OBJModel, OBJSourceMap)}, the
+ * {@link OBJSourceMap} can be passed to report the source line of every issue.
+ */
+public class OBJValidator {
+
+	/**
+	 * The default maximum number of issues listed in a report.
+	 */
+	public static final int DEFAULT_MAX_ISSUES = 1000;
+
+	private static final int CHUNK_SIZE = 1 << 16;
+	private static final int HISTOGRAM_SIZE = 32;
+	private static final float AREA_EPSILON = 1e-6f;
+	private static final OBJValidationReport.Type[] TYPES = OBJValidationReport.Type.values();
+
+	private OBJValidator() {}
+
+	/**
+	 * Validates the specified model, listing at most {@link #DEFAULT_MAX_ISSUES} issues.
+	 *
+	 * @param model the {@link OBJModel} to validate
+	 * 
+	 * @return the {@link OBJValidationReport}
+	 */
+	public static OBJValidationReport validate(OBJModel model) {
+		return validate(model, null, DEFAULT_MAX_ISSUES);
+	}
+
+	/**
+	 * Validates the specified model, listing at most {@link #DEFAULT_MAX_ISSUES} issues with their source lines.
+	 *
+	 * @param model the {@link OBJModel} to validate
+	 * @param lines the {@link OBJSourceMap} recorded while parsing the model, or {@code null}
+	 * 
+	 * @return the {@link OBJValidationReport}
+	 */
+	public static OBJValidationReport validate(OBJModel model, OBJSourceMap lines) {
+		return validate(model, lines, DEFAULT_MAX_ISSUES);
+	}
+
+	/**
+	 * Validates the specified model.
+	 *
+	 * @param model the {@link OBJModel} to validate
+	 * @param lines the {@link OBJSourceMap} recorded while parsing the model, or {@code null}
+	 * @param maxIssues the maximum number of issues to list; counts are always complete
+	 * 
+	 * @return the {@link OBJValidationReport}
+	 * 
+	 * @throws IllegalArgumentException if the maximum number of issues is negative
+	 */
+	public static OBJValidationReport validate(OBJModel model, OBJSourceMap lines, int maxIssues) {
+		Objects.requireNonNull(model, "Model must not be null");
+		if (maxIssues < 0)
+			throw new IllegalArgumentException("Max issues must not be negative");
+		List<OBJObject> objects = model.getObjects();
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < objects.size(); i++) {
+			OBJObject object = objects.get(i);
+			for (int kind = Task.VERTICES; kind <= Task.FACES; kind++) {
+				int count = kind == Task.VERTICES ? object.getVertexCount()
+						: kind == Task.TEXTURES ? object.getTextureCount()
+								: kind == Task.NORMALS ? object.getNormalCount() : object.getFaceCount();
+				for (int start = 0; start < count; start += CHUNK_SIZE)
+					tasks.add(new Task(kind, i, object, start, Math.min(count, start + CHUNK_SIZE)));
+			}
+		}
+		Partial[] partials = new Partial[tasks.size()];
+		IntStream.range(0, tasks.size()).parallel().forEach(i -> partials[i] = tasks.get(i).run(lines, maxIssues));
+		return merge(objects, partials, lines, maxIssues);
+	}
+
+	private static OBJValidationReport merge(List<OBJObject> objects, Partial[] partials, OBJSourceMap lines,
+			int maxIssues) {
+		List<OBJValidationReport.Issue> issues = new ArrayList<>();
+		long[] counts = new long[TYPES.length];
+		long[] sizes = new long[HISTOGRAM_SIZE];
+		TreeMap<Integer, Long> faceSizes = new TreeMap<>();
+		long[] totals = new long[5];
+		float[] bounds = Partial.emptyBounds();
+		float[][] objectBounds = new float[objects.size()][];
+		long[][] used = new long[objects.size()][];
+		for (int i = 0; i < objects.size(); i++) {
+			OBJObject object = objects.get(i);
+			objectBounds[i] = Partial.emptyBounds();
+			used[i] = new long[(object.getVertexCount() + 63) >>> 6];
+			totals[0] += object.getVertexCount();
+			totals[1] += object.getTextureCount();
+			totals[2] += object.getNormalCount();
+			totals[3] += object.getFaceCount();
+		}
+		for (Partial partial : partials) {
+			for (int i = 0; i < partial.issues.size() && issues.size() < maxIssues; i++)
+				issues.add(partial.issues.get(i));
+			for (int i = 0; i < counts.length; i++)
+				counts[i] += partial.counts[i];
+			for (int i = 0; i < sizes.length; i++)
+				sizes[i] += partial.sizes[i];
+			for (Map.Entry<Integer, Long> entry : partial.largeSizes.entrySet())
+				faceSizes.merge(entry.getKey(), entry.getValue(), Long::sum);
+			totals[4] += partial.corners;
+			Partial.include(objectBounds[partial.object], partial.bounds);
+			Partial.include(bounds, partial.bounds);
+			if (Objects.nonNull(partial.used))
+				for (int i = 0; i < partial.used.length && partial.usedBase + i < used[partial.object].length; i++)
+					used[partial.object][partial.usedBase + i] |= partial.used[i];
+		}
+		for (int i = 0; i < objects.size(); i++) {
+			int vertexCount = objects.get(i).getVertexCount();
+			for (int word = 0; word < used[i].length; word++) {
+				long unused = ~used[i][word];
+				if (word == used[i].length - 1 && (vertexCount & 63) != 0)
+					unused &= (1L << vertexCount) - 1L;
+				counts[OBJValidationReport.Type.UNUSED_VERTEX.ordinal()] += Long.bitCount(unused);
+				for (; unused != 0L && issues.size() < maxIssues; unused &= unused - 1L) {
+					int vertex = (word << 6) + Long.numberOfTrailingZeros(unused);
+					issues.add(new OBJValidationReport.Issue(OBJValidationReport.Type.UNUSED_VERTEX, i,
+							objects.get(i).getName(), vertex, Objects.isNull(lines) ? -1 : lines.getVertexLine(i, vertex)));
+				}
+			}
+		}
+		for (int i = 0; i < sizes.length; i++)
+			if (sizes[i] > 0L)
+				faceSizes.put(i, sizes[i]);
+		EnumMap<OBJValidationReport.Type, Long> map = new EnumMap<>(OBJValidationReport.Type.class);
+		for (int i = 0; i < counts.length; i++)
+			map.put(TYPES[i], counts[i]);
+		return new OBJValidationReport(issues, map, faceSizes, totals, bounds, objectBounds);
+	}
+
+	private static class Task {
+
+		private static final int VERTICES = 0;
+		private static final int TEXTURES = 1;
+		private static final int NORMALS = 2;
+		private static final int FACES = 3;
+
+		private final int kind;
+		private final int objectIndex;
+		private final OBJObject object;
+		private final int start;
+		private final int end;
+
+		private Task(int kind, int objectIndex, OBJObject object, int start, int end) {
+			this.kind = kind;
+			this.objectIndex = objectIndex;
+			this.object = object;
+			this.start = start;
+			this.end = end;
+		}
+
+		private Partial run(OBJSourceMap lines, int maxIssues) {
+			Partial partial = new Partial(this, lines, maxIssues);
+			switch (kind) {
+				case VERTICES:
+					for (int i = start; i < end; i++) {
+						OBJVertex vertex = object.getVertex(i);
+						float x = vertex.getX(), y = vertex.getY(), z = vertex.getZ();
+						if (isFinite(x) && isFinite(y) && isFinite(z))
+							partial.include(x, y, z);
+						else
+							partial.report(OBJValidationReport.Type.NON_FINITE_VERTEX, i);
+					}
+					break;
+				case TEXTURES:
+					for (int i = start; i < end; i++) {
+						OBJTexture texture = object.getTexture(i);
+						if (!isFinite(texture.getU()) || !isFinite(texture.getV())
+								|| (texture.hasW() && !isFinite(texture.getW())))
+							partial.report(OBJValidationReport.Type.NON_FINITE_TEXTURE, i);
+					}
+					break;
+				case NORMALS:
+					for (int i = start; i < end; i++) {
+						OBJNormal normal = object.getNormal(i);
+						if (!isFinite(normal.getX()) || !isFinite(normal.getY()) || !isFinite(normal.getZ()))
+							partial.report(OBJValidationReport.Type.NON_FINITE_NORMAL, i);
+					}
+					break;
+				default:
+					for (int i = start; i < end; i++)
+						checkFace(partial, i);
+					break;
+			}
+			return partial;
+		}
+
+		private void checkFace(Partial partial, int index) {
+			OBJFace face = object.getFace(index);
+			int size = face.getIndexCount();
+			partial.count(size);
+			int vertexCount = object.getVertexCount();
+			boolean missing = false, vertexRange = false, textureRange = false, normalRange = false;
+			for (int i = 0; i < size; i++) {
+				OBJIndex corner = face.getIndex(i);
+				if (!corner.hasVertex())
+					missing = true;
+				else {
+					int vertex = corner.getVertex();
+					if (vertex < 0 || vertex >= vertexCount)
+						vertexRange = true;
+					else
+						partial.use(vertex);
+				}
+				if (corner.hasTexture() && (corner.getTexture() < 0 || corner.getTexture() >= object.getTextureCount()))
+					textureRange = true;
+				if (corner.hasNormal() && (corner.getNormal() < 0 || corner.getNormal() >= object.getNormalCount()))
+					normalRange = true;
+			}
+			if (missing)
+				partial.report(OBJValidationReport.Type.MISSING_VERTEX_INDEX, index);
+			if (vertexRange)
+				partial.report(OBJValidationReport.Type.VERTEX_INDEX_OUT_OF_RANGE, index);
+			if (textureRange)
+				partial.report(OBJValidationReport.Type.TEXTURE_INDEX_OUT_OF_RANGE, index);
+			if (normalRange)
+				partial.report(OBJValidationReport.Type.NORMAL_INDEX_OUT_OF_RANGE, index);
+			if (size < 3) {
+				partial.report(OBJValidationReport.Type.DEGENERATE_FACE, index);
+				return;
+			}
+			if (missing || vertexRange)
+				return;
+			for (int i = 1; i < size; i++) {
+				int vertex = face.getIndex(i).getVertex();
+				for (int j = 0; j < i; j++)
+					if (face.getIndex(j).getVertex() == vertex) {
+						partial.report(OBJValidationReport.Type.REPEATED_VERTEX, index);
+						return;
+					}
+			}
+			// Newell's method gives twice the area vector of any planar or near-planar polygon
+			double nx = 0.0, ny = 0.0, nz = 0.0, edge = 0.0;
+			OBJVertex previous = object.getVertex(face.getIndex(size - 1).getVertex());
+			for (int i = 0; i < size; i++) {
+				OBJVertex current = object.getVertex(face.getIndex(i).getVertex());
+				double px = previous.getX(), py = previous.getY(), pz = previous.getZ();
+				double cx = current.getX(), cy = current.getY(), cz = current.getZ();
+				nx += (py - cy) * (pz + cz);
+				ny += (pz - cz) * (px + cx);
+				nz += (px - cx) * (py + cy);
+				edge = Math.max(edge, (cx - px) * (cx - px) + (cy - py) * (cy - py) + (cz - pz) * (cz - pz));
+				previous = current;
+			}
+			if (Math.sqrt(nx * nx + ny * ny + nz * nz) <= AREA_EPSILON * edge)
+				partial.report(OBJValidationReport.Type.ZERO_AREA_FACE, index);
+		}
+
+		private static boolean isFinite(float value) {
+			return !Float.isNaN(value) && !Float.isInfinite(value);
+		}
+
+		private int line(OBJSourceMap lines, OBJValidationReport.Type type, int element) {
+			if (Objects.isNull(lines))
+				return -1;
+			switch (type) {
+				case NON_FINITE_VERTEX:
+					return lines.getVertexLine(objectIndex, element);
+				case NON_FINITE_TEXTURE:
+					return lines.getTextureLine(objectIndex, element);
+				case NON_FINITE_NORMAL:
+					return lines.getNormalLine(objectIndex, element);
+				default:
+					return lines.getFaceLine(objectIndex, element);
+			}
+		}
+
+	}
+
+	private static class Partial {
+
+		private final Task task;
+		private final int object;
+		private final OBJSourceMap lines;
+		private final int maxIssues;
+		private final long[] counts;
+		private final List<OBJValidationReport.Issue> issues;
+		private final long[] sizes;
+		private final TreeMap<Integer, Long> largeSizes;
+		private final float[] bounds;
+		private long corners;
+		private long[] used;
+		private int usedBase;
+
+		private Partial(Task task, OBJSourceMap lines, int maxIssues) {
+			this.task = task;
+			this.object = task.objectIndex;
+			this.lines = lines;
+			this.maxIssues = maxIssues;
+			this.counts = new long[TYPES.length];
+			this.issues = new ArrayList<>();
+			this.sizes = new long[HISTOGRAM_SIZE];
+			this.largeSizes = new TreeMap<>();
+			this.bounds = emptyBounds();
+		}
+
+		private void report(OBJValidationReport.Type type, int element) {
+			counts[type.ordinal()]++;
+			if (issues.size() < maxIssues)
+				issues.add(new OBJValidationReport.Issue(type, object, task.object.getName(), element,
+						task.line(lines, type, element)));
+		}
+
+		private void count(int size) {
+			corners += size;
+			if (size < HISTOGRAM_SIZE)
+				sizes[size]++;
+			else
+				largeSizes.merge(size, 1L, Long::sum);
+		}
+
+		private void use(int vertex) {
+			int word = vertex >>> 6;
+			if (Objects.isNull(used)) {
+				used = new long[4];
+				usedBase = word;
+			} else if (word < usedBase || word >= usedBase + used.length) {
+				// The window at least doubles and grows towards the new word, so chunks with scattered indices copy rarely
+				int to = Math.max(usedBase + used.length, word + 1);
+				int length = Math.max(to - Math.min(usedBase, word), 2 * used.length);
+				int from = word < usedBase ? Math.max(0, to - length) : usedBase;
+				long[] words = new long[length];
+				System.arraycopy(used, 0, words, usedBase - from, used.length);
+				used = words;
+				usedBase = from;
+			}
+			used[word - usedBase] |= 1L << vertex;
+		}
+
+		private void include(float x, float y, float z) {
+			bounds[0] = Math.min(bounds[0], x);
+			bounds[1] = Math.min(bounds[1], y);
+			bounds[2] = Math.min(bounds[2], z);
+			bounds[3] = Math.max(bounds[3], x);
+			bounds[4] = Math.max(bounds[4], y);
+			bounds[5] = Math.max(bounds[5], z);
+		}
+
+		private static void include(float[] bounds, float[] other) {
+			for (int i = 0; i < 3; i++) {
+				bounds[i] = Math.min(bounds[i], other[i]);
+				bounds[i + 3] = Math.max(bounds[i + 3], other[i + 3]);
+			}
+		}
+
+		private static float[] emptyBounds() {
+			return new float[] { Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY,
+					Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY };
+		}
+
+	}
+
+}
@@ -0,0 +1,117 @@
+package com.kaba4cow.objmodel.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import com.kaba4cow.objmodel.elements.OBJFace;
+import com.kaba4cow.objmodel.elements.OBJIndex;
+import com.kaba4cow.objmodel.elements.OBJObject;
+import com.kaba4cow.objmodel.elements.OBJVertex;
+
+/**
+ * A utility class for welding the vertices of an {@link OBJObject} that share a position. Positions are snapped to a grid
+ * whose cell size is the tolerance, or compared exactly for a tolerance of zero, and hashed into an open-addressing table
+ * of vertex indices, so welding runs in linear time. The first vertex of every cell is kept and face indices are remapped
+ * to it. Texture coordinates and normals are left unchanged.
+ */
+public class OBJWelder {
+
+	private OBJWelder() {}
+
+	/**
+	 * Welds the vertices of the specified object that have exactly the same position, in place.
+	 *
+	 * @param object the {@link OBJObject} to weld
+	 * 
+	 * @return the number of vertices removed
+	 * 
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing vertex
+	 */
+	public static int weld(OBJObject object) {
+		return weld(object, 0.0f);
+	}
+
+	/**
+	 * Welds the vertices of the specified object that fall into the same cell of a grid with the specified cell size, in
+	 * place. Vertices closer than the tolerance but on different sides of a cell boundary are not welded.
+	 *
+	 * @param object the {@link OBJObject} to weld
+	 * @param tolerance the cell size, or {@code 0} to weld only identical positions
+	 * 
+	 * @return the number of vertices removed
+	 * 
+	 * @throws IllegalArgumentException if the tolerance is negative or a face index has no vertex or refers to a missing
+	 *                                      vertex
+	 */
+	public static int weld(OBJObject object, float tolerance) {
+		Objects.requireNonNull(object, "Object must not be null");
+		if (!(tolerance >= 0.0f) || Float.isInfinite(tolerance))
+			throw new IllegalArgumentException("Tolerance must be a non-negative finite number");
+		int vertexCount = object.getVertexCount();
+		for (int i = 0; i < object.getFaceCount(); i++)
+			for (OBJIndex index : object.getFace(i).getIndices())
+				if (!index.hasVertex() || index.getVertex() < 0 || index.getVertex() >= vertexCount)
+					throw new IllegalArgumentException(String.format("Face %s has an invalid index", i));
+		long[] cells = new long[3 * vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			OBJVertex vertex = object.getVertex(i);
+			cells[3 * i + 0] = cell(vertex.getX(), tolerance);
+			cells[3 * i + 1] = cell(vertex.getY(), tolerance);
+			cells[3 * i + 2] = cell(vertex.getZ(), tolerance);
+		}
+		int capacity = Integer.highestOneBit(Math.max(4, vertexCount) * 2 - 1) << 1;
+		int mask = capacity - 1;
+		int[] table = new int[capacity];
+		Arrays.fill(table, -1);
+		int[] remap = new int[vertexCount];
+		List<OBJVertex> kept = new ArrayList<>();
+		for (int i = 0; i < vertexCount; i++) {
+			int slot = hash(cells, i) & mask;
+			while (table[slot] >= 0 && !equal(cells, table[slot], i))
+				slot = (slot + 1) & mask;
+			if (table[slot] >= 0)
+				remap[i] = remap[table[slot]];
+			else {
+				table[slot] = i;
+				remap[i] = kept.size();
+				kept.add(object.getVertex(i));
+			}
+		}
+		int removed = vertexCount - kept.size();
+		if (removed == 0)
+			return 0;
+		object.clearVertices();
+		for (OBJVertex vertex : kept)
+			object.addVertex(vertex);
+		for (int i = 0; i < object.getFaceCount(); i++) {
+			OBJFace face = object.getFace(i);
+			for (int j = 0; j < face.getIndexCount(); j++) {
+				OBJIndex index = face.getIndex(j);
+				index.setVertex(remap[index.getVertex()]);
+			}
+		}
+		object.invalidateBounds();
+		return removed;
+	}
+
+	private static long cell(float value, float tolerance) {
+		if (tolerance == 0.0f)
+			return Float.floatToIntBits(value + 0.0f);
+		return (long) Math.floor(value / tolerance);
+	}
+
+	private static int hash(long[] cells, int vertex) {
+		long hash = cells[3 * vertex + 0] * 0x9E3779B97F4A7C15L;
+		hash = (hash ^ cells[3 * vertex + 1]) * 0x9E3779B97F4A7C15L;
+		hash = (hash ^ cells[3 * vertex + 2]) * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	private static boolean equal(long[] cells, int a, int b) {
+		return cells[3 * a + 0] == cells[3 * b + 0] && cells[3 * a + 1] == cells[3 * b + 1]
+				&& cells[3 * a + 2] == cells[3 * b + 2];
+	}
+
+}
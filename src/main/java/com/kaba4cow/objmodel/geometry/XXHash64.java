@@ -0,0 +1,105 @@
+package com.kaba4cow.objmodel.geometry;
+
+/**
+ * A streaming xxHash64 over a sequence of little-endian 32-bit words. The digest equals the xxHash64 of the same bytes
+ * hashed in one piece.
+ */
+final class XXHash64 {
+
+	private static final long PRIME1 = 0x9E3779B185EBCA87L;
+	private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+	private static final long PRIME3 = 0x165667B19E3779F9L;
+	private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+	private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+	private final long seed;
+	private long v1;
+	private long v2;
+	private long v3;
+	private long v4;
+	private final long[] lanes;
+	private int laneCount;
+	private int half;
+	private boolean hasHalf;
+	private long length;
+
+	XXHash64(long seed) {
+		this.seed = seed;
+		this.v1 = seed + PRIME1 + PRIME2;
+		this.v2 = seed + PRIME2;
+		this.v3 = seed;
+		this.v4 = seed - PRIME1;
+		this.lanes = new long[4];
+	}
+
+	XXHash64 putInt(int value) {
+		length += 4;
+		if (hasHalf) {
+			hasHalf = false;
+			putLane((half & 0xFFFFFFFFL) | ((long) value << 32));
+		} else {
+			half = value;
+			hasHalf = true;
+		}
+		return this;
+	}
+
+	XXHash64 putFloat(float value) {
+		// Both zeros hash alike
+		return putInt(value == 0.0f ? 0 : Float.floatToIntBits(value));
+	}
+
+	private void putLane(long lane) {
+		lanes[laneCount++] = lane;
+		if (laneCount == 4) {
+			v1 = round(v1, lanes[0]);
+			v2 = round(v2, lanes[1]);
+			v3 = round(v3, lanes[2]);
+			v4 = round(v4, lanes[3]);
+			laneCount = 0;
+		}
+	}
+
+	long digest() {
+		long hash;
+		if (length >= 32) {
+			hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+			hash = merge(hash, v1);
+			hash = merge(hash, v2);
+			hash = merge(hash, v3);
+			hash = merge(hash, v4);
+		} else
+			hash = seed + PRIME5;
+		hash += length;
+		for (int i = 0; i < laneCount; i++) {
+			hash ^= round(0L, lanes[i]);
+			hash = Long.rotateLeft(hash, 27) * PRIME1 + PRIME4;
+		}
+		if (hasHalf) {
+			hash ^= (half & 0xFFFFFFFFL) * PRIME1;
+			hash = Long.rotateLeft(hash, 23) * PRIME2 + PRIME3;
+		}
+		return mix(hash);
+	}
+
+	static long mix(long hash) {
+		hash ^= hash >>> 33;
+		hash *= PRIME2;
+		hash ^= hash >>> 29;
+		hash *= PRIME3;
+		hash ^= hash >>> 32;
+		return hash;
+	}
+
+	private static long round(long accumulator, long lane) {
+		accumulator += lane * PRIME2;
+		accumulator = Long.rotateLeft(accumulator, 31);
+		return accumulator * PRIME1;
+	}
+
+	private static long merge(long hash, long accumulator) {
+		hash ^= round(0L, accumulator);
+		return hash * PRIME1 + PRIME4;
+	}
+
+}
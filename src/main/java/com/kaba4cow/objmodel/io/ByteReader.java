@@ -0,0 +1,147 @@
+package com.kaba4cow.objmodel.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A cursor over a byte array that decodes the encodings written by {@link ByteWriter}.
+ */
+class ByteReader {
+
+	private final byte[] bytes;
+	private final int limit;
+	private int position;
+
+	/**
+	 * Creates a reader over the first {@code limit} bytes of the specified array.
+	 *
+	 * @param bytes the bytes to read
+	 * @param limit the number of readable bytes
+	 */
+	ByteReader(byte[] bytes, int limit) {
+		this.bytes = bytes;
+		this.limit = limit;
+		this.position = 0;
+	}
+
+	/**
+	 * Reads a single unsigned byte.
+	 *
+	 * @return the byte value
+	 * 
+	 * @throws IOException if the end of the data is reached
+	 */
+	int readByte() throws IOException {
+		require(1);
+		return bytes[position++] & 0xFF;
+	}
+
+	/**
+	 * Reads an unsigned variable-length integer.
+	 *
+	 * @return the value
+	 * 
+	 * @throws IOException if the end of the data is reached or the value is malformed
+	 */
+	int readVarInt() throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			require(1);
+			int b = bytes[position++];
+			value |= (b & 0x7F) << shift;
+			if (b >= 0)
+				return value;
+		}
+		throw new IOException("Malformed variable-length integer");
+	}
+
+	/**
+	 * Reads an unsigned variable-length integer that counts elements taking at least {@code minBytes} encoded bytes each.
+	 *
+	 * @param minBytes the minimum number of encoded bytes per element
+	 * 
+	 * @return the count
+	 * 
+	 * @throws IOException if the end of the data is reached, or the count is negative or larger than the remaining data can
+	 *                         hold
+	 */
+	int readCount(int minBytes) throws IOException {
+		int count = readVarInt();
+		if (count < 0 || (long) count * minBytes > limit - position)
+			throw new IOException(String.format("Malformed count %s", count));
+		return count;
+	}
+
+	/**
+	 * Reads a zigzag-encoded signed variable-length integer.
+	 *
+	 * @return the value
+	 * 
+	 * @throws IOException if the end of the data is reached or the value is malformed
+	 */
+	int readSignedVarInt() throws IOException {
+		int value = readVarInt();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Reads a string written by {@link ByteWriter#writeString(String)}.
+	 *
+	 * @return the string, or {@code null}
+	 * 
+	 * @throws IOException if the end of the data is reached
+	 */
+	String readString() throws IOException {
+		int length = readVarInt();
+		if (length == 0)
+			return null;
+		length--;
+		require(length);
+		String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+		position += length;
+		return value;
+	}
+
+	/**
+	 * Reads bytes written by {@link ByteWriter#writeByte(int)} or {@link ByteWriter#writeBytes(byte[])}.
+	 *
+	 * @param values the destination array
+	 * @param count the number of bytes to read
+	 * 
+	 * @throws IOException if the end of the data is reached
+	 */
+	void readBytes(byte[] values, int count) throws IOException {
+		require(count);
+		System.arraycopy(bytes, position, values, 0, count);
+		position += count;
+	}
+
+	/**
+	 * Reads floats written by {@link ByteWriter#writeFloatPlanes(float[], int, int)}.
+	 *
+	 * @param values the destination array
+	 * @param count the number of floats to read
+	 * @param stride the number of interleaved components
+	 * 
+	 * @throws IOException if the end of the data is reached
+	 */
+	void readFloatPlanes(float[] values, int count, int stride) throws IOException {
+		require(4 * count);
+		int p0 = position, p1 = p0 + count, p2 = p1 + count, p3 = p2 + count;
+		for (int i = 0; i < count; i++) {
+			int bits = (bytes[p0 + i] & 0xFF) | (bytes[p1 + i] & 0xFF) << 8 | (bytes[p2 + i] & 0xFF) << 16
+					| (bytes[p3 + i] & 0xFF) << 24;
+			if (i >= stride)
+				bits ^= Float.floatToRawIntBits(values[i - stride]);
+			values[i] = Float.intBitsToFloat(bits);
+		}
+		position += 4 * count;
+	}
+
+	private void require(int count) throws IOException {
+		if (count < 0 || position + count > limit)
+			throw new EOFException("Unexpected end of data");
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.kaba4cow.objmodel.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A growable little-endian byte buffer with variable-length integer and byte-plane float encodings.
+ */
+class ByteWriter {
+
+	private byte[] bytes;
+	private int size;
+
+	/**
+	 * Creates an empty buffer with the specified initial capacity.
+	 *
+	 * @param capacity the initial capacity in bytes
+	 */
+	ByteWriter(int capacity) {
+		this.bytes = new byte[Math.max(16, capacity)];
+		this.size = 0;
+	}
+
+	/**
+	 * Writes a single byte.
+	 *
+	 * @param value the byte to write
+	 */
+	void writeByte(int value) {
+		ensureCapacity(1);
+		bytes[size++] = (byte) value;
+	}
+
+	/**
+	 * Writes the specified bytes.
+	 *
+	 * @param values the bytes to write
+	 */
+	void writeBytes(byte[] values) {
+		ensureCapacity(values.length);
+		System.arraycopy(values, 0, bytes, size, values.length);
+		size += values.length;
+	}
+
+	/**
+	 * Writes an unsigned integer using 7 bits per byte, least significant group first.
+	 *
+	 * @param value the value to write, treated as unsigned
+	 */
+	void writeVarInt(int value) {
+		ensureCapacity(5);
+		while ((value & ~0x7F) != 0) {
+			bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		bytes[size++] = (byte) value;
+	}
+
+	/**
+	 * Writes a signed integer as a zigzag-encoded variable-length integer, so small magnitudes take few bytes.
+	 *
+	 * @param value the value to write
+	 */
+	void writeSignedVarInt(int value) {
+		writeVarInt((value << 1) ^ (value >> 31));
+	}
+
+	/**
+	 * Writes a string as its UTF-8 length followed by its bytes, or a zero length for {@code null}. Non-null lengths are
+	 * stored incremented by one.
+	 *
+	 * @param value the string to write, or {@code null}
+	 */
+	void writeString(String value) {
+		if (value == null) {
+			writeVarInt(0);
+			return;
+		}
+		byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(encoded.length + 1);
+		writeBytes(encoded);
+	}
+
+	/**
+	 * Writes floats as byte planes. Every value is XORed with the previous value of the same component, and the resulting
+	 * bits are written as four planes, all lowest bytes first. Similar values then produce long runs of equal bytes that
+	 * compress well.
+	 *
+	 * @param values the floats to write
+	 * @param count the number of floats to write
+	 * @param stride the number of interleaved components
+	 */
+	void writeFloatPlanes(float[] values, int count, int stride) {
+		ensureCapacity(4 * count);
+		for (int i = 0; i < count; i++) {
+			int bits = Float.floatToRawIntBits(values[i]);
+			if (i >= stride)
+				bits ^= Float.floatToRawIntBits(values[i - stride]);
+			bytes[size + i] = (byte) bits;
+			bytes[size + count + i] = (byte) (bits >>> 8);
+			bytes[size + 2 * count + i] = (byte) (bits >>> 16);
+			bytes[size + 3 * count + i] = (byte) (bits >>> 24);
+		}
+		size += 4 * count;
+	}
+
+	/**
+	 * Writes the contents of this buffer to the specified stream.
+	 *
+	 * @param output the stream to write to
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	void writeTo(OutputStream output) throws IOException {
+		output.write(bytes, 0, size);
+	}
+
+	/**
+	 * Returns the number of bytes written.
+	 *
+	 * @return number of bytes written
+	 */
+	int size() {
+		return size;
+	}
+
+	private void ensureCapacity(int extra) {
+		if (size + extra > bytes.length)
+			bytes = Arrays.copyOf(bytes, Math.max(size + extra, 2 * bytes.length));
+	}
+
+}
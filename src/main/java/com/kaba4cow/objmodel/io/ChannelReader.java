@@ -0,0 +1,128 @@
+package com.kaba4cow.objmodel.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A buffered reader of binary values from a {@link ReadableByteChannel} through a direct buffer of fixed size. Arrays are
+ * read with bulk buffer views.
+ */
+final class ChannelReader {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer;
+	private long read;
+
+	/**
+	 * Creates a reader from the specified channel.
+	 *
+	 * @param channel the channel to read from
+	 * @param order the byte order of the read values
+	 */
+	ChannelReader(ReadableByteChannel channel, ByteOrder order) {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(order);
+		buffer.limit(0);
+		this.read = 0L;
+	}
+
+	/**
+	 * Sets the byte order of the values read from now on.
+	 *
+	 * @param order the byte order
+	 */
+	void order(ByteOrder order) {
+		buffer.order(order);
+	}
+
+	/**
+	 * Returns the buffer after reading until it holds at least the specified number of bytes, which must not exceed the
+	 * buffer size.
+	 *
+	 * @param bytes the number of bytes about to be got
+	 * 
+	 * @return the buffer to get the values from
+	 * 
+	 * @throws IOException if the channel ends first
+	 */
+	ByteBuffer require(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			buffer.compact();
+			while (buffer.position() < bytes) {
+				int count = channel.read(buffer);
+				if (count < 0)
+					throw new IOException("Unexpected end of data");
+				read += count;
+			}
+			buffer.flip();
+		}
+		return buffer;
+	}
+
+	/**
+	 * Returns the number of bytes consumed so far, which excludes bytes read ahead into the buffer.
+	 *
+	 * @return the number of consumed bytes
+	 */
+	long position() {
+		return read - buffer.remaining();
+	}
+
+	/**
+	 * Reads the specified number of floats.
+	 *
+	 * @param dst the destination array
+	 * @param offset the offset of the first float
+	 * @param count the number of floats to read
+	 */
+	void readFloats(float[] dst, int offset, int count) throws IOException {
+		while (count > 0) {
+			int length = Math.min(count, Math.max(1, buffer.remaining() >> 2));
+			require(length << 2).asFloatBuffer().get(dst, offset, length);
+			buffer.position(buffer.position() + (length << 2));
+			offset += length;
+			count -= length;
+		}
+	}
+
+	/**
+	 * Skips the specified number of bytes.
+	 *
+	 * @param count the number of bytes to skip
+	 */
+	void skip(long count) throws IOException {
+		while (count > 0L) {
+			int length = (int) Math.min(count, Math.max(1, buffer.remaining()));
+			require(length).position(buffer.position() + length);
+			count -= length;
+		}
+	}
+
+	/**
+	 * Reads a line of ASCII text terminated by {@code \n}, without the terminator and any trailing {@code \r}.
+	 *
+	 * @param maxLength the maximum length of the line
+	 * 
+	 * @return the line
+	 * 
+	 * @throws IOException if the channel ends first or the line is too long
+	 */
+	String readLine(int maxLength) throws IOException {
+		byte[] line = new byte[maxLength];
+		int length = 0;
+		for (byte b; (b = require(1).get()) != '\n';) {
+			if (length == maxLength)
+				throw new IOException("Line is too long");
+			line[length++] = b;
+		}
+		if (length > 0 && line[length - 1] == '\r')
+			length--;
+		return new String(line, 0, length, StandardCharsets.US_ASCII);
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.kaba4cow.objmodel.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A buffered writer of binary values to a {@link WritableByteChannel} through a direct buffer of fixed size. Arrays are
+ * written with bulk buffer views.
+ */
+final class ChannelWriter {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer;
+
+	/**
+	 * Creates a writer to the specified channel.
+	 *
+	 * @param channel the channel to write to
+	 * @param order the byte order of the written values
+	 */
+	ChannelWriter(WritableByteChannel channel, ByteOrder order) {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(order);
+	}
+
+	/**
+	 * Returns the buffer after making room for the specified number of bytes, which must not exceed the buffer size.
+	 *
+	 * @param bytes the number of bytes about to be put
+	 * 
+	 * @return the buffer to put the values into
+	 */
+	ByteBuffer ensure(int bytes) throws IOException {
+		if (buffer.remaining() < bytes)
+			flush();
+		return buffer;
+	}
+
+	/**
+	 * Writes the specified bytes.
+	 *
+	 * @param values the bytes to write
+	 * @param offset the offset of the first byte
+	 * @param count the number of bytes to write
+	 */
+	void writeBytes(byte[] values, int offset, int count) throws IOException {
+		while (count > 0) {
+			int length = Math.min(count, ensure(1).remaining());
+			buffer.put(values, offset, length);
+			offset += length;
+			count -= length;
+		}
+	}
+
+	/**
+	 * Writes the specified number of zero bytes.
+	 *
+	 * @param count the number of bytes to write
+	 */
+	void writeZeros(int count) throws IOException {
+		for (int i = 0; i < count; i++)
+			ensure(1).put((byte) 0);
+	}
+
+	/**
+	 * Writes the specified floats.
+	 *
+	 * @param values the floats to write
+	 * @param offset the offset of the first float
+	 * @param count the number of floats to write
+	 */
+	void writeFloats(float[] values, int offset, int count) throws IOException {
+		while (count > 0) {
+			int length = Math.min(count, ensure(4).remaining() >> 2);
+			buffer.asFloatBuffer().put(values, offset, length);
+			buffer.position(buffer.position() + (length << 2));
+			offset += length;
+			count -= length;
+		}
+	}
+
+	/**
+	 * Writes the buffered bytes to the channel.
+	 */
+	void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+}
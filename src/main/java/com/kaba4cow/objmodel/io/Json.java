@@ -0,0 +1,24 @@
+package com.kaba4cow.objmodel.io;
+
+/**
+ * Helpers for the JSON documents written by this package.
+ */
+final class Json {
+
+	private Json() {}
+
+	static String quote(String string) {
+		StringBuilder builder = new StringBuilder(string.length() + 2).append('"');
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c == '"' || c == '\\')
+				builder.append('\\').append(c);
+			else if (c < 0x20)
+				builder.append(String.format("\\u%04x", (int) c));
+			else
+				builder.append(c);
+		}
+		return builder.append('"').toString();
+	}
+
+}
@@ -0,0 +1,123 @@
+package com.kaba4cow.objmodel.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An append-only array of 4-byte values in a temporary file. Values are appended through a direct write buffer and, once
+ * {@link #finish()} is called, read through memory-mapped segments of {@code 2^30} bytes, so the array is not limited to the
+ * 2 GB a single mapping can cover. Values never straddle segments. The file is deleted when the array is closed.
+ */
+final class MappedArray implements Closeable {
+
+	private static final int SEGMENT_SHIFT = 30;
+	private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1L;
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	private final FileChannel channel;
+	private ByteBuffer buffer;
+	private ByteBuffer[] segments;
+	private long size;
+
+	MappedArray(Path directory) throws IOException {
+		Path file = Files.createTempFile(directory, "objmodel", ".bin");
+		this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+				StandardOpenOption.DELETE_ON_CLOSE);
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.nativeOrder());
+	}
+
+	long size() {
+		return size;
+	}
+
+	void add(float a, float b, float c) throws IOException {
+		if (buffer.remaining() < 12)
+			flush();
+		buffer.putFloat(a).putFloat(b).putFloat(c);
+		size += 3L;
+	}
+
+	void add(int value) throws IOException {
+		if (buffer.remaining() < 4)
+			flush();
+		buffer.putInt(value);
+		size++;
+	}
+
+	void add(int[] values, int count) throws IOException {
+		for (int i = 0; i < count; i++)
+			add(values[i]);
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	void finish() throws IOException {
+		flush();
+		buffer = null;
+		long bytes = 4L * size;
+		segments = new ByteBuffer[(int) ((bytes + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+		for (int i = 0; i < segments.length; i++) {
+			long position = (long) i << SEGMENT_SHIFT;
+			segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_MASK + 1L, bytes - position))
+					.order(ByteOrder.nativeOrder());
+		}
+	}
+
+	float getFloat(long index) {
+		long position = index << 2;
+		return segments[(int) (position >>> SEGMENT_SHIFT)].getFloat((int) (position & SEGMENT_MASK));
+	}
+
+	int getInt(long index) {
+		long position = index << 2;
+		return segments[(int) (position >>> SEGMENT_SHIFT)].getInt((int) (position & SEGMENT_MASK));
+	}
+
+	void getFloats(long index, float[] dst, int offset, int count) {
+		while (count > 0) {
+			ByteBuffer segment = segment(index);
+			int length = Math.min(count, segment.remaining() >> 2);
+			segment.asFloatBuffer().get(dst, offset, length);
+			index += length;
+			offset += length;
+			count -= length;
+		}
+	}
+
+	void getInts(long index, int[] dst, int offset, int count) {
+		while (count > 0) {
+			ByteBuffer segment = segment(index);
+			int length = Math.min(count, segment.remaining() >> 2);
+			segment.asIntBuffer().get(dst, offset, length);
+			index += length;
+			offset += length;
+			count -= length;
+		}
+	}
+
+	private ByteBuffer segment(long index) {
+		long position = index << 2;
+		// Duplicates keep concurrent bulk reads independent but reset the byte order
+		ByteBuffer segment = segments[(int) (position >>> SEGMENT_SHIFT)].duplicate().order(ByteOrder.nativeOrder());
+		segment.position((int) (position & SEGMENT_MASK));
+		return segment;
+	}
+
+	@Override
+	public void close() throws IOException {
+		segments = null;
+		channel.close();
+	}
+
+}
@@ -0,0 +1,745 @@
+package com.kaba4cow.objmodel.io;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.kaba4cow.objmodel.OBJModel;
+import com.kaba4cow.objmodel.OBJParser;
+import com.kaba4cow.objmodel.elements.OBJObject;
+import com.kaba4cow.objmodel.geometry.OBJNormalGenerator;
+import com.kaba4cow.objmodel.geometry.OBJTriangles;
+import com.kaba4cow.objmodel.geometry.OBJWelder;
+
+/**
+ * Converts directories of model files between OBJ, the {@link OBJMeshCodec} format, binary PLY and STL, raw GPU buffers
+ * and binary glTF. Input files are collected recursively, and every file is read, optionally normalized by the
+ * configured {@link Step} values, and written to the same relative path in the output directory with the extension of
+ * the target {@link Format}. OBJ files are read as UTF-8. Inputs whose outputs would share a path, such as {@code a.obj}
+ * and {@code a.ply}, or overwrite an input are not converted and are reported as failed.
+ * <p>
+ * Files are converted on a fixed pool of threads whose queue holds at most twice as many files as there are threads; when
+ * it is full the walking thread converts the next file itself, so at most a bounded number of models is in memory at once.
+ * A failing file does not stop the batch but is reported in its {@link Result}, including errors such as
+ * {@link OutOfMemoryError} raised by a corrupt input, and any output it left partially written is deleted. The returned
+ * {@link Summary} aggregates the throughput in files, megabytes of input and faces per second and can be written as JSON.
+ * <p>
+ * The class can also be run from the command line; run it without arguments for usage.
+ */
+public class OBJConverter {
+
+	private Format format;
+	private int threads;
+	private final Set<Step> steps;
+	private float weldTolerance;
+	private Consumer<Result> listener;
+
+	/**
+	 * Creates a converter to {@link Format#MESH_DEFLATE} that uses one thread per available processor and applies no
+	 * steps.
+	 */
+	public OBJConverter() {
+		this.format = Format.MESH_DEFLATE;
+		this.threads = Runtime.getRuntime().availableProcessors();
+		this.steps = EnumSet.noneOf(Step.class);
+		this.weldTolerance = 0.0f;
+		this.listener = null;
+	}
+
+	/**
+	 * Sets the format of the output files.
+	 *
+	 * @param format the target {@link Format}
+	 * 
+	 * @return a reference to this object
+	 */
+	public OBJConverter setFormat(Format format) {
+		this.format = Objects.requireNonNull(format, "Format must not be null");
+		return this;
+	}
+
+	/**
+	 * Sets the number of threads that convert files.
+	 *
+	 * @param threads the number of threads
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @throws IllegalArgumentException if the number of threads is not positive
+	 */
+	public OBJConverter setThreads(int threads) {
+		if (threads < 1)
+			throw new IllegalArgumentException("Thread count must be positive");
+		this.threads = threads;
+		return this;
+	}
+
+	/**
+	 * Adds a step that is applied to every model before it is written. Steps run in the order they are declared in
+	 * {@link Step}, regardless of the order they are added in.
+	 *
+	 * @param step the {@link Step} to add
+	 * 
+	 * @return a reference to this object
+	 */
+	public OBJConverter addStep(Step step) {
+		steps.add(Objects.requireNonNull(step, "Step must not be null"));
+		return this;
+	}
+
+	/**
+	 * Sets the tolerance of the {@link Step#WELD} step.
+	 *
+	 * @param tolerance the cell size passed to {@link OBJWelder#weld(OBJObject, float)}
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @throws IllegalArgumentException if the tolerance is negative or not finite
+	 */
+	public OBJConverter setWeldTolerance(float tolerance) {
+		if (!(tolerance >= 0.0f) || Float.isInfinite(tolerance))
+			throw new IllegalArgumentException("Tolerance must be a non-negative finite number");
+		this.weldTolerance = tolerance;
+		return this;
+	}
+
+	/**
+	 * Sets a listener that receives the {@link Result} of every file as soon as it is converted. The listener is called from
+	 * the converting threads and must be thread-safe.
+	 *
+	 * @param listener the listener, or {@code null} for none
+	 * 
+	 * @return a reference to this object
+	 */
+	public OBJConverter setListener(Consumer<Result> listener) {
+		this.listener = listener;
+		return this;
+	}
+
+	/**
+	 * Converts every {@code .obj}, {@code .mesh}, {@code .ply} and {@code .stl} file in the specified file or directory
+	 * tree and writes the results to the specified output directory, which is created if needed.
+	 *
+	 * @param input the input file or directory
+	 * @param output the output directory
+	 * 
+	 * @return the {@link Summary} of the batch, with results in the order of the input paths
+	 * 
+	 * @throws IOException if the input cannot be walked or the output directory cannot be created
+	 */
+	public Summary convert(Path input, Path output) throws IOException {
+		Objects.requireNonNull(input, "Input must not be null");
+		Objects.requireNonNull(output, "Output must not be null");
+		List<Path> files;
+		try (Stream<Path> stream = Files.walk(input)) {
+			files = stream.filter(Files::isRegularFile).filter(file -> Objects.nonNull(Format.of(file))).sorted()
+					.collect(Collectors.toList());
+		}
+		Path root = (Files.isDirectory(input) ? input : input.toAbsolutePath().getParent()).toAbsolutePath().normalize();
+		Files.createDirectories(output);
+		long start = System.nanoTime();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(2 * threads), new ThreadPoolExecutor.CallerRunsPolicy());
+		List<Path> targets = new ArrayList<>(files.size());
+		Map<Path, List<Path>> sources = new HashMap<>();
+		for (Path file : files) {
+			Path relative = root.relativize(file.toAbsolutePath().normalize());
+			Path target = output.resolve(format.rename(relative.toString()));
+			targets.add(target);
+			sources.computeIfAbsent(target.toAbsolutePath().normalize(), key -> new ArrayList<>()).add(file);
+		}
+		Set<Path> inputs = files.stream().map(file -> file.toAbsolutePath().normalize()).collect(Collectors.toSet());
+		List<Future<Result>> futures = new ArrayList<>(files.size());
+		try {
+			for (int i = 0; i < files.size(); i++) {
+				Path file = files.get(i), target = targets.get(i);
+				String conflict = conflict(target, sources, inputs);
+				if (Objects.nonNull(conflict))
+					futures.add(CompletableFuture.completedFuture(report(new Result(file, target, 0L, 0L, 0L, 0L, conflict))));
+				else
+					futures.add(executor.submit(() -> convertFile(file, target)));
+			}
+		} finally {
+			executor.shutdown();
+		}
+		List<Result> results = new ArrayList<>(futures.size());
+		for (int i = 0; i < futures.size(); i++)
+			try {
+				results.add(futures.get(i).get());
+			} catch (InterruptedException exception) {
+				executor.shutdownNow();
+				Thread.currentThread().interrupt();
+				throw new IOException("Conversion was interrupted", exception);
+			} catch (ExecutionException exception) {
+				results.add(report(new Result(files.get(i), targets.get(i), 0L, 0L, 0L, 0L, exception.getCause().toString())));
+			}
+		return new Summary(results, System.nanoTime() - start);
+	}
+
+	private static String conflict(Path target, Map<Path, List<Path>> sources, Set<Path> inputs) {
+		Path key = target.toAbsolutePath().normalize();
+		if (sources.get(key).size() > 1)
+			return String.format("Output %s is shared by inputs %s", target, sources.get(key));
+		if (inputs.contains(key))
+			return String.format("Output %s would overwrite an input", target);
+		return null;
+	}
+
+	private Result report(Result result) {
+		if (Objects.nonNull(listener))
+			listener.accept(result);
+		return result;
+	}
+
+	private Result convertFile(Path input, Path output) {
+		long start = System.nanoTime();
+		long inputSize = 0L;
+		long outputSize = 0L;
+		long faces = 0L;
+		String error = null;
+		Path partial = null;
+		try {
+			inputSize = Files.size(input);
+			OBJModel model = new OBJModel();
+			Format.of(input).read(input, model);
+			for (OBJObject object : model.getObjects()) {
+				if (steps.contains(Step.TRIANGULATE))
+					object.triangulate();
+				if (steps.contains(Step.WELD))
+					OBJWelder.weld(object, weldTolerance);
+				if (steps.contains(Step.NORMALS))
+					OBJNormalGenerator.generate(object);
+				faces += object.getFaceCount();
+			}
+			if (Objects.nonNull(output.getParent()))
+				Files.createDirectories(output.getParent());
+			partial = output;
+			try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(output), 1 << 16)) {
+				format.write(model, stream);
+			}
+			partial = null;
+			outputSize = Files.size(output);
+		} catch (IOException | RuntimeException exception) {
+			error = exception.toString();
+		} finally {
+			if (Objects.nonNull(partial))
+				delete(partial);
+		}
+		return report(new Result(input, output, inputSize, outputSize, faces, System.nanoTime() - start, error));
+	}
+
+	private static void delete(Path output) {
+		try {
+			Files.deleteIfExists(output);
+		} catch (IOException exception) {
+			// The failure of the file is reported either way
+		}
+	}
+
+	/**
+	 * Runs the converter from the command line.
+	 *
+	 * <pre>
+	 * OBJConverter [options] &lt;input&gt; &lt;output&gt;
+	 *   --format obj|mesh|mesh-deflate|buffers|glb|ply|stl  target format, mesh-deflate by default
+	 *   --threads &lt;n&gt;                                       number of threads, one per processor by default
+	 *   --triangulate                                       split faces into triangles
+	 *   --weld                                              weld vertices with identical positions
+	 *   --weld-tolerance &lt;t&gt;                                weld vertices on a grid of cell size t
+	 *   --normals                                           generate smooth normals
+	 *   --summary &lt;file&gt;                                    write the summary as JSON
+	 *   --quiet                                             print only the aggregate line
+	 * </pre>
+	 *
+	 * The process exits with status {@code 1} if any file failed and {@code 2} on invalid arguments.
+	 *
+	 * @param args the command line arguments
+	 * 
+	 * @throws IOException if the input cannot be walked or the output cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		OBJConverter converter = new OBJConverter();
+		List<String> paths = new ArrayList<>();
+		Path summaryFile = null;
+		boolean quiet = false;
+		try {
+			for (int i = 0; i < args.length; i++)
+				switch (args[i]) {
+					case "--format":
+						converter.setFormat(Format.valueOf(value(args, ++i).toUpperCase(Locale.ROOT).replace('-', '_')));
+						break;
+					case "--threads":
+						converter.setThreads(Integer.parseInt(value(args, ++i)));
+						break;
+					case "--triangulate":
+						converter.addStep(Step.TRIANGULATE);
+						break;
+					case "--weld":
+						converter.addStep(Step.WELD);
+						break;
+					case "--weld-tolerance":
+						converter.addStep(Step.WELD).setWeldTolerance(Float.parseFloat(value(args, ++i)));
+						break;
+					case "--normals":
+						converter.addStep(Step.NORMALS);
+						break;
+					case "--summary":
+						summaryFile = Paths.get(value(args, ++i));
+						break;
+					case "--quiet":
+						quiet = true;
+						break;
+					default:
+						if (args[i].startsWith("--"))
+							throw new IllegalArgumentException(String.format("Unknown option %s", args[i]));
+						paths.add(args[i]);
+				}
+			if (paths.size() != 2)
+				throw new IllegalArgumentException("Expected an input and an output path");
+		} catch (IllegalArgumentException exception) {
+			System.err.println(exception.getMessage());
+			System.err.println("Usage: OBJConverter [--format obj|mesh|mesh-deflate|buffers|glb|ply|stl] [--threads <n>]");
+			System.err.println("       [--triangulate] [--weld] [--weld-tolerance <t>] [--normals] [--summary <file>] [--quiet]");
+			System.err.println("       <input> <output>");
+			System.exit(2);
+			return;
+		}
+		PrintStream out = System.out;
+		if (!quiet)
+			converter.setListener(result -> {
+				synchronized (out) {
+					out.println(result);
+				}
+			});
+		Summary summary = converter.convert(Paths.get(paths.get(0)), Paths.get(paths.get(1)));
+		out.println(summary);
+		if (Objects.nonNull(summaryFile))
+			try (Writer writer = Files.newBufferedWriter(summaryFile, StandardCharsets.UTF_8)) {
+				writer.write(summary.toJSON());
+			}
+		if (summary.getFailedCount() > 0)
+			System.exit(1);
+	}
+
+	private static String value(String[] args, int index) {
+		if (index >= args.length)
+			throw new IllegalArgumentException(String.format("Option %s requires a value", args[index - 1]));
+		return args[index];
+	}
+
+	/**
+	 * The file formats the converter reads and writes.
+	 */
+	public enum Format {
+
+		/**
+		 * Wavefront OBJ text.
+		 */
+		OBJ(".obj"),
+
+		/**
+		 * The uncompressed {@link OBJMeshCodec} format.
+		 */
+		MESH(".mesh"),
+
+		/**
+		 * The DEFLATE-compressed {@link OBJMeshCodec} format.
+		 */
+		MESH_DEFLATE(".mesh"),
+
+		/**
+		 * Raw little-endian buffers ready for upload to a GPU; output only. The file starts with the number of objects,
+		 * followed for every object by its vertex count, its triangle count, three floats per vertex position and three
+		 * ints per triangle, as packed by {@link OBJTriangles}.
+		 */
+		BUFFERS(".bin"),
+
+		/**
+		 * Binary glTF written by {@link OBJGlbWriter}; output only.
+		 */
+		GLB(".glb"),
+
+		/**
+		 * Binary PLY read and written by {@link OBJPlyCodec}.
+		 */
+		PLY(".ply"),
+
+		/**
+		 * Binary STL read and written by {@link OBJStlCodec}.
+		 */
+		STL(".stl");
+
+		private final String extension;
+
+		private Format(String extension) {
+			this.extension = extension;
+		}
+
+		/**
+		 * Returns the file extension of the format, including the leading dot.
+		 *
+		 * @return the file extension
+		 */
+		public String getExtension() {
+			return extension;
+		}
+
+		private String rename(String path) {
+			int dot = path.lastIndexOf('.');
+			return (dot > Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) ? path.substring(0, dot) : path) + extension;
+		}
+
+		private static Format of(Path file) {
+			String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+			if (name.endsWith(".obj"))
+				return OBJ;
+			if (name.endsWith(".mesh"))
+				return MESH;
+			if (name.endsWith(".ply"))
+				return PLY;
+			if (name.endsWith(".stl"))
+				return STL;
+			return null;
+		}
+
+		private void read(Path file, OBJModel model) throws IOException {
+			switch (this) {
+				case PLY:
+					OBJPlyCodec.read(file, model);
+					break;
+				case STL:
+					OBJStlCodec.read(file, model);
+					break;
+				default:
+					try (InputStream input = Files.newInputStream(file)) {
+						if (this == OBJ)
+							OBJParser.parse(new InputStreamReader(input, StandardCharsets.UTF_8), model);
+						else
+							OBJMeshCodec.decode(input, model);
+					}
+					break;
+			}
+		}
+
+		private void write(OBJModel model, OutputStream output) throws IOException {
+			switch (this) {
+				case OBJ:
+					Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+					writer.write(model.toOBJString());
+					writer.flush();
+					break;
+				case MESH:
+				case MESH_DEFLATE:
+					OBJMeshCodec.encode(model, output, this == MESH_DEFLATE);
+					break;
+				case BUFFERS:
+					writeBuffers(model, output);
+					break;
+				case GLB:
+					OBJGlbWriter.write(model, output);
+					break;
+				case PLY:
+					OBJPlyCodec.write(model, output);
+					break;
+				case STL:
+					OBJStlCodec.write(model, output);
+					break;
+			}
+		}
+
+		private static void writeBuffers(OBJModel model, OutputStream output) throws IOException {
+			ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(model.getObjects().size());
+			for (OBJObject object : model.getObjects()) {
+				OBJTriangles triangles = new OBJTriangles(object);
+				buffer = ensure(buffer, output, 8);
+				buffer.putInt(triangles.getVertexCount()).putInt(triangles.getTriangleCount());
+				for (float value : triangles.getPositions())
+					(buffer = ensure(buffer, output, 4)).putFloat(value);
+				for (int value : triangles.getVertexIndices())
+					(buffer = ensure(buffer, output, 4)).putInt(value);
+			}
+			output.write(buffer.array(), 0, buffer.position());
+		}
+
+		private static ByteBuffer ensure(ByteBuffer buffer, OutputStream output, int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				output.write(buffer.array(), 0, buffer.position());
+				buffer.clear();
+			}
+			return buffer;
+		}
+
+	}
+
+	/**
+	 * The normalization steps that can be applied to every model.
+	 */
+	public enum Step {
+
+		/**
+		 * Splits every face into triangles with {@link OBJObject#triangulate()}.
+		 */
+		TRIANGULATE,
+
+		/**
+		 * Welds vertices with {@link OBJWelder}.
+		 */
+		WELD,
+
+		/**
+		 * Generates smooth normals with {@link OBJNormalGenerator}.
+		 */
+		NORMALS;
+
+	}
+
+	/**
+	 * The outcome of converting a single file.
+	 */
+	public static class Result {
+
+		private final Path input;
+		private final Path output;
+		private final long inputSize;
+		private final long outputSize;
+		private final long faces;
+		private final long nanos;
+		private final String error;
+
+		private Result(Path input, Path output, long inputSize, long outputSize, long faces, long nanos, String error) {
+			this.input = input;
+			this.output = output;
+			this.inputSize = inputSize;
+			this.outputSize = outputSize;
+			this.faces = faces;
+			this.nanos = nanos;
+			this.error = error;
+		}
+
+		/**
+		 * Returns the input file.
+		 *
+		 * @return the path of the input file
+		 */
+		public Path getInput() {
+			return input;
+		}
+
+		/**
+		 * Returns the output file.
+		 *
+		 * @return the path of the output file
+		 */
+		public Path getOutput() {
+			return output;
+		}
+
+		/**
+		 * Returns the size of the input file.
+		 *
+		 * @return the number of bytes read
+		 */
+		public long getInputSize() {
+			return inputSize;
+		}
+
+		/**
+		 * Returns the size of the output file.
+		 *
+		 * @return the number of bytes written, or {@code 0} if the conversion failed
+		 */
+		public long getOutputSize() {
+			return outputSize;
+		}
+
+		/**
+		 * Returns the number of faces written, after all steps were applied.
+		 *
+		 * @return the number of faces
+		 */
+		public long getFaces() {
+			return faces;
+		}
+
+		/**
+		 * Returns the time spent converting the file.
+		 *
+		 * @return the elapsed time in nanoseconds
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * Returns the error message if the conversion failed.
+		 *
+		 * @return the error message, or {@code null} if the conversion succeeded
+		 */
+		public String getError() {
+			return error;
+		}
+
+		/**
+		 * Returns whether the conversion succeeded.
+		 *
+		 * @return {@code true} if the file was converted
+		 */
+		public boolean isSuccess() {
+			return Objects.isNull(error);
+		}
+
+		private String toJSON() {
+			return String.format(Locale.ROOT,
+					"{\"input\":%s,\"output\":%s,\"inputBytes\":%d,\"outputBytes\":%d,\"faces\":%d,\"millis\":%.3f,\"error\":%s}",
+					Json.quote(input.toString()), Json.quote(output.toString()), inputSize, outputSize, faces, nanos / 1e6,
+					Objects.isNull(error) ? "null" : Json.quote(error));
+		}
+
+		@Override
+		public String toString() {
+			if (!isSuccess())
+				return String.format(Locale.ROOT, "FAIL %s: %s", input, error);
+			double seconds = Math.max(nanos, 1L) / 1e9;
+			return String.format(Locale.ROOT, "OK   %s -> %s (%.1f ms, %.2f MB/s, %.0f faces/s)", input, output, nanos / 1e6,
+					inputSize / 1e6 / seconds, faces / seconds);
+		}
+
+	}
+
+	/**
+	 * The aggregated outcome of a batch.
+	 */
+	public static class Summary {
+
+		private final List<Result> results;
+		private final long nanos;
+		private final long inputSize;
+		private final long outputSize;
+		private final long faces;
+		private final int failed;
+
+		private Summary(List<Result> results, long nanos) {
+			this.results = Collections.unmodifiableList(results);
+			this.nanos = nanos;
+			this.inputSize = results.stream().mapToLong(Result::getInputSize).sum();
+			this.outputSize = results.stream().mapToLong(Result::getOutputSize).sum();
+			this.faces = results.stream().mapToLong(Result::getFaces).sum();
+			this.failed = (int) results.stream().filter(result -> !result.isSuccess()).count();
+		}
+
+		/**
+		 * Returns the results of all files, in the order of the input paths.
+		 *
+		 * @return an unmodifiable list of {@link Result} objects
+		 */
+		public List<Result> getResults() {
+			return results;
+		}
+
+		/**
+		 * Returns the number of files that failed.
+		 *
+		 * @return the number of failed files
+		 */
+		public int getFailedCount() {
+			return failed;
+		}
+
+		/**
+		 * Returns the wall-clock time of the batch.
+		 *
+		 * @return the elapsed time in nanoseconds
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * Returns the number of files converted per second of wall-clock time.
+		 *
+		 * @return the file throughput
+		 */
+		public double getFilesPerSecond() {
+			return results.size() / seconds();
+		}
+
+		/**
+		 * Returns the number of input megabytes (10^6 bytes) read per second of wall-clock time.
+		 *
+		 * @return the input throughput
+		 */
+		public double getMegabytesPerSecond() {
+			return inputSize / 1e6 / seconds();
+		}
+
+		/**
+		 * Returns the number of faces written per second of wall-clock time.
+		 *
+		 * @return the face throughput
+		 */
+		public double getFacesPerSecond() {
+			return faces / seconds();
+		}
+
+		private double seconds() {
+			return Math.max(nanos, 1L) / 1e9;
+		}
+
+		/**
+		 * Converts the summary to a JSON object with the aggregate figures and a {@code results} array of per-file results.
+		 *
+		 * @return the summary in JSON format
+		 */
+		public String toJSON() {
+			StringBuilder builder = new StringBuilder();
+			builder.append(String.format(Locale.ROOT,
+					"{\"files\":%d,\"failed\":%d,\"inputBytes\":%d,\"outputBytes\":%d,\"faces\":%d,\"millis\":%.3f,",
+					results.size(), failed, inputSize, outputSize, faces, nanos / 1e6));
+			builder.append(String.format(Locale.ROOT, "\"filesPerSecond\":%.3f,\"megabytesPerSecond\":%.3f,\"facesPerSecond\":%.1f,",
+					getFilesPerSecond(), getMegabytesPerSecond(), getFacesPerSecond()));
+			builder.append("\"results\":[");
+			for (int i = 0; i < results.size(); i++)
+				builder.append(i == 0 ? "" : ",").append(results.get(i).toJSON());
+			return builder.append("]}").toString();
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT, "%d files (%d failed) in %.1f ms: %.2f files/s, %.2f MB/s, %.0f faces/s",
+					results.size(), failed, nanos / 1e6, getFilesPerSecond(), getMegabytesPerSecond(), getFacesPerSecond());
+		}
+
+	}
+
+}
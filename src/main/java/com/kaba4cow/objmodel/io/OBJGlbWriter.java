@@ -0,0 +1,358 @@
+package com.kaba4cow.objmodel.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import com.kaba4cow.objmodel.OBJModel;
+import com.kaba4cow.objmodel.elements.OBJIndex;
+import com.kaba4cow.objmodel.elements.OBJObject;
+import com.kaba4cow.objmodel.geometry.OBJTriangles;
+
+/**
+ * A utility class for writing {@link OBJModel} objects as binary glTF 2.0 ({@code .glb}) files. Every object becomes a node
+ * with a mesh of one indexed triangle primitive; objects without triangles become nodes without a mesh. The faces of an
+ * object are fan-triangulated, and every distinct combination of vertex, texture and normal index becomes one vertex of an
+ * interleaved buffer view holding the position, then the normal and then the texture coordinate. Normals are only
+ * written for objects whose corners all have one, since glTF has no way to leave the normal of a vertex undefined. Texture
+ * coordinates are written for objects that have any, with zeros for corners that lack them. The V texture coordinate is
+ * flipped, since glTF places the origin of a texture at its top left corner.
+ * <p>
+ * The file is written in two passes over the model. The first pass measures every object and keeps only its counts and
+ * bounds, which is enough to write the header and the complete JSON chunk. The second pass rebuilds the vertex and index
+ * data of one object at a time and streams it into the binary chunk through a small direct buffer, so the memory used is
+ * proportional to the largest object rather than to the whole model. The model must not be modified while it is written.
+ */
+public class OBJGlbWriter {
+
+	private static final int MAGIC = 0x46546C67;
+	private static final int VERSION = 2;
+	private static final int CHUNK_JSON = 0x4E4F534A;
+	private static final int CHUNK_BIN = 0x004E4942;
+	private static final int ARRAY_BUFFER = 34962;
+	private static final int ELEMENT_ARRAY_BUFFER = 34963;
+	private static final int FLOAT = 5126;
+	private static final int UNSIGNED_SHORT = 5123;
+	private static final int UNSIGNED_INT = 5125;
+
+	private OBJGlbWriter() {}
+
+	/**
+	 * Writes the specified model to the specified file, replacing it if it exists.
+	 *
+	 * @param model the {@link OBJModel} to write
+	 * @param file the file to write to
+	 * 
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if a face index refers to a missing element or a position is not finite
+	 */
+	public static void write(OBJModel model, Path file) throws IOException {
+		Objects.requireNonNull(model, "Model must not be null");
+		Objects.requireNonNull(file, "File must not be null");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			write(model, channel);
+		}
+	}
+
+	/**
+	 * Writes the specified model to the specified {@link OutputStream}. The stream is not closed.
+	 *
+	 * @param model the {@link OBJModel} to write
+	 * @param output the {@link OutputStream} to write to
+	 * 
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if a face index refers to a missing element or a position is not finite
+	 */
+	public static void write(OBJModel model, OutputStream output) throws IOException {
+		Objects.requireNonNull(output, "Output must not be null");
+		write(model, Channels.newChannel(output));
+	}
+
+	/**
+	 * Writes the specified model to the specified {@link WritableByteChannel}. The channel is not closed.
+	 *
+	 * @param model the {@link OBJModel} to write
+	 * @param channel the {@link WritableByteChannel} to write to
+	 * 
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if a face index refers to a missing element, a position is not finite or the file
+	 *                                      would exceed 4 GB
+	 */
+	public static void write(OBJModel model, WritableByteChannel channel) throws IOException {
+		Objects.requireNonNull(model, "Model must not be null");
+		Objects.requireNonNull(channel, "Channel must not be null");
+		List<OBJObject> objects = model.getObjects();
+		Layout[] layouts = new Layout[objects.size()];
+		long binaryLength = 0L;
+		for (int i = 0; i < layouts.length; i++) {
+			layouts[i] = new Layout(objects.get(i), binaryLength);
+			binaryLength += layouts[i].getByteLength();
+		}
+		byte[] json = toJSON(objects, layouts, binaryLength).getBytes(StandardCharsets.UTF_8);
+		int jsonLength = align(json.length);
+		long totalLength = 12L + 8L + jsonLength + (binaryLength > 0L ? 8L + binaryLength : 0L);
+		if (totalLength > 0xFFFFFFFFL)
+			throw new IllegalArgumentException("Model is too large for a binary glTF file");
+		ChannelWriter writer = new ChannelWriter(channel, ByteOrder.LITTLE_ENDIAN);
+		writer.ensure(20).putInt(MAGIC).putInt(VERSION).putInt((int) totalLength).putInt(jsonLength).putInt(CHUNK_JSON);
+		writer.writeBytes(json, 0, json.length);
+		for (int i = json.length; i < jsonLength; i++)
+			writer.ensure(1).put((byte) ' ');
+		if (binaryLength > 0L) {
+			writer.ensure(8).putInt((int) binaryLength).putInt(CHUNK_BIN);
+			for (int i = 0; i < layouts.length; i++)
+				if (layouts[i].indexCount > 0)
+					writeObject(objects.get(i), layouts[i], writer);
+		}
+		writer.flush();
+	}
+
+	private static void writeObject(OBJObject object, Layout layout, ChannelWriter writer) throws IOException {
+		Primitive primitive = new Primitive(object);
+		OBJTriangles triangles = primitive.triangles;
+		float[] positions = triangles.getPositions();
+		float[] textures = triangles.getTextures();
+		float[] normals = triangles.getNormals();
+		int[] vertexIndices = triangles.getVertexIndices();
+		int[] textureIndices = triangles.getTextureIndices();
+		int[] normalIndices = triangles.getNormalIndices();
+		for (int i = 0; i < primitive.vertexCount; i++) {
+			int corner = primitive.corners[i];
+			int vertex = 3 * vertexIndices[corner];
+			ByteBuffer buffer = writer.ensure(layout.getStride());
+			buffer.putFloat(positions[vertex + 0]).putFloat(positions[vertex + 1]).putFloat(positions[vertex + 2]);
+			if (layout.hasNormals) {
+				int normal = 3 * normalIndices[corner];
+				buffer.putFloat(normals[normal + 0]).putFloat(normals[normal + 1]).putFloat(normals[normal + 2]);
+			}
+			if (layout.hasTextures) {
+				int texture = 2 * textureIndices[corner];
+				if (textureIndices[corner] == OBJIndex.UNSET)
+					buffer.putFloat(0.0f).putFloat(1.0f);
+				else
+					buffer.putFloat(textures[texture + 0]).putFloat(1.0f - textures[texture + 1]);
+			}
+		}
+		boolean shortIndices = layout.isShortIndices();
+		for (int i = 0; i < primitive.indices.length; i++)
+			if (shortIndices)
+				writer.ensure(2).putShort((short) primitive.indices[i]);
+			else
+				writer.ensure(4).putInt(primitive.indices[i]);
+		writer.writeZeros((int) (align(layout.getIndexLength()) - layout.getIndexLength()));
+	}
+
+	private static int align(int length) {
+		return (length + 3) & ~3;
+	}
+
+	private static long align(long length) {
+		return (length + 3L) & ~3L;
+	}
+
+	private static String toJSON(List<OBJObject> objects, Layout[] layouts, long binaryLength) {
+		StringBuilder nodes = new StringBuilder();
+		StringBuilder meshes = new StringBuilder();
+		StringBuilder accessors = new StringBuilder();
+		StringBuilder views = new StringBuilder();
+		int meshCount = 0;
+		int accessorCount = 0;
+		int viewCount = 0;
+		for (int i = 0; i < layouts.length; i++) {
+			Layout layout = layouts[i];
+			String name = objects.get(i).getName();
+			nodes.append(i == 0 ? "" : ",").append('{');
+			if (Objects.nonNull(name))
+				nodes.append("\"name\":").append(Json.quote(name)).append(',');
+			if (layout.indexCount == 0) {
+				trim(nodes).append('}');
+				continue;
+			}
+			nodes.append("\"mesh\":").append(meshCount).append('}');
+			int vertexView = viewCount++;
+			int indexView = viewCount++;
+			views.append(vertexView == 0 ? "" : ",")
+					.append(String.format(Locale.ROOT,
+							"{\"buffer\":0,\"byteOffset\":%d,\"byteLength\":%d,\"byteStride\":%d,\"target\":%d}",
+							layout.offset, layout.getVertexLength(), layout.getStride(), ARRAY_BUFFER))
+					.append(String.format(Locale.ROOT, ",{\"buffer\":0,\"byteOffset\":%d,\"byteLength\":%d,\"target\":%d}",
+							layout.offset + layout.getVertexLength(), layout.getIndexLength(), ELEMENT_ARRAY_BUFFER));
+			StringBuilder attributes = new StringBuilder();
+			attributes.append("\"POSITION\":").append(accessorCount);
+			accessors.append(accessorCount++ == 0 ? "" : ",")
+					.append(String.format(Locale.ROOT,
+							"{\"bufferView\":%d,\"byteOffset\":0,\"componentType\":%d,\"count\":%d,\"type\":\"VEC3\"",
+							vertexView, FLOAT, layout.vertexCount))
+					.append(String.format(Locale.ROOT, ",\"min\":[%s,%s,%s],\"max\":[%s,%s,%s]}", layout.min[0], layout.min[1],
+							layout.min[2], layout.max[0], layout.max[1], layout.max[2]));
+			int attributeOffset = 12;
+			if (layout.hasNormals) {
+				attributes.append(",\"NORMAL\":").append(accessorCount++);
+				accessors.append(String.format(Locale.ROOT,
+						",{\"bufferView\":%d,\"byteOffset\":%d,\"componentType\":%d,\"count\":%d,\"type\":\"VEC3\"}",
+						vertexView, attributeOffset, FLOAT, layout.vertexCount));
+				attributeOffset += 12;
+			}
+			if (layout.hasTextures) {
+				attributes.append(",\"TEXCOORD_0\":").append(accessorCount++);
+				accessors.append(String.format(Locale.ROOT,
+						",{\"bufferView\":%d,\"byteOffset\":%d,\"componentType\":%d,\"count\":%d,\"type\":\"VEC2\"}",
+						vertexView, attributeOffset, FLOAT, layout.vertexCount));
+			}
+			int indexAccessor = accessorCount++;
+			accessors.append(String.format(Locale.ROOT,
+					",{\"bufferView\":%d,\"byteOffset\":0,\"componentType\":%d,\"count\":%d,\"type\":\"SCALAR\"}",
+					indexView, layout.isShortIndices() ? UNSIGNED_SHORT : UNSIGNED_INT, layout.indexCount));
+			meshes.append(meshCount++ == 0 ? "" : ",").append('{');
+			if (Objects.nonNull(name))
+				meshes.append("\"name\":").append(Json.quote(name)).append(',');
+			meshes.append("\"primitives\":[{\"attributes\":{").append(attributes).append("},\"indices\":")
+					.append(indexAccessor).append(",\"mode\":4}]}");
+		}
+		StringBuilder builder = new StringBuilder();
+		builder.append("{\"asset\":{\"version\":\"2.0\",\"generator\":\"obj-model\"},\"scene\":0,\"scenes\":[{\"nodes\":[");
+		for (int i = 0; i < layouts.length; i++)
+			builder.append(i == 0 ? "" : ",").append(i);
+		builder.append("]}]");
+		if (layouts.length > 0)
+			builder.append(",\"nodes\":[").append(nodes).append(']');
+		if (meshCount > 0) {
+			builder.append(",\"meshes\":[").append(meshes).append(']');
+			builder.append(",\"accessors\":[").append(accessors).append(']');
+			builder.append(",\"bufferViews\":[").append(views).append(']');
+			builder.append(",\"buffers\":[{\"byteLength\":").append(binaryLength).append("}]");
+		}
+		return builder.append('}').toString();
+	}
+
+	private static StringBuilder trim(StringBuilder builder) {
+		if (builder.charAt(builder.length() - 1) == ',')
+			builder.setLength(builder.length() - 1);
+		return builder;
+	}
+
+	/**
+	 * The sizes and bounds of the primitive of one object, kept between the two passes.
+	 */
+	private static class Layout {
+
+		private final long offset;
+		private final int vertexCount;
+		private final int indexCount;
+		private final boolean hasNormals;
+		private final boolean hasTextures;
+		private final float[] min;
+		private final float[] max;
+
+		private Layout(OBJObject object, long offset) {
+			Primitive primitive = new Primitive(object);
+			this.offset = offset;
+			this.vertexCount = primitive.vertexCount;
+			this.indexCount = primitive.indices.length;
+			this.hasNormals = hasNormals(primitive);
+			this.hasTextures = object.getTextureCount() > 0;
+			this.min = new float[] { Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY };
+			this.max = new float[] { Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY };
+			float[] positions = primitive.triangles.getPositions();
+			int[] vertexIndices = primitive.triangles.getVertexIndices();
+			for (int i = 0; i < vertexCount; i++) {
+				int vertex = 3 * vertexIndices[primitive.corners[i]];
+				for (int j = 0; j < 3; j++) {
+					float value = positions[vertex + j];
+					if (!Float.isFinite(value))
+						throw new IllegalArgumentException(
+								String.format("Object %s has a non-finite position", object.getName()));
+					min[j] = Math.min(min[j], value);
+					max[j] = Math.max(max[j], value);
+				}
+			}
+		}
+
+		private static boolean hasNormals(Primitive primitive) {
+			int[] normalIndices = primitive.triangles.getNormalIndices();
+			for (int i = 0; i < primitive.vertexCount; i++)
+				if (normalIndices[primitive.corners[i]] == OBJIndex.UNSET)
+					return false;
+			return primitive.vertexCount > 0;
+		}
+
+		private int getStride() {
+			return 12 + (hasNormals ? 12 : 0) + (hasTextures ? 8 : 0);
+		}
+
+		private boolean isShortIndices() {
+			return vertexCount <= 0xFFFF;
+		}
+
+		private long getVertexLength() {
+			return (long) vertexCount * getStride();
+		}
+
+		private long getIndexLength() {
+			return (long) indexCount * (isShortIndices() ? 2 : 4);
+		}
+
+		private long getByteLength() {
+			return getVertexLength() + align(getIndexLength());
+		}
+
+	}
+
+	/**
+	 * The de-indexed triangles of one object: the first corner of every distinct combination of vertex, texture and normal
+	 * index, and the index of the combination at every corner.
+	 */
+	private static class Primitive {
+
+		private final OBJTriangles triangles;
+		private final int[] corners;
+		private final int[] indices;
+		private final int vertexCount;
+
+		private Primitive(OBJObject object) {
+			this.triangles = new OBJTriangles(object);
+			int[] vertexIndices = triangles.getVertexIndices();
+			int[] textureIndices = triangles.getTextureIndices();
+			int[] normalIndices = triangles.getNormalIndices();
+			int cornerCount = triangles.getCornerCount();
+			int capacity = Integer.highestOneBit(Math.max(4, cornerCount) * 2 - 1) << 1;
+			int mask = capacity - 1;
+			int[] table = new int[capacity];
+			Arrays.fill(table, -1);
+			this.corners = new int[cornerCount];
+			this.indices = new int[cornerCount];
+			int count = 0;
+			for (int i = 0; i < cornerCount; i++) {
+				int hash = vertexIndices[i] * 0x9E3779B1 ^ textureIndices[i] * 0x85EBCA77 ^ normalIndices[i] * 0xC2B2AE3D;
+				int slot = (hash ^ (hash >>> 16)) & mask;
+				while (table[slot] >= 0) {
+					int corner = corners[table[slot]];
+					if (vertexIndices[corner] == vertexIndices[i] && textureIndices[corner] == textureIndices[i]
+							&& normalIndices[corner] == normalIndices[i])
+						break;
+					slot = (slot + 1) & mask;
+				}
+				if (table[slot] < 0) {
+					table[slot] = count;
+					corners[count++] = i;
+				}
+				indices[i] = table[slot];
+			}
+			this.vertexCount = count;
+		}
+
+	}
+
+}
@@ -0,0 +1,281 @@
+package com.kaba4cow.objmodel.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.kaba4cow.objmodel.OBJModel;
+import com.kaba4cow.objmodel.OBJParser;
+
+/**
+ * An out-of-core counterpart of {@link OBJModel} for files larger than the heap. The file is streamed through
+ * {@link OBJParser#stream(Reader, OBJParser.Handler)} and the positions, texture coordinates, normals, face offsets and face
+ * corners of all objects are appended to five temporary files, which are then memory-mapped in segments of 1 GB, so no
+ * array is limited to 2 GB. Only comments, object names and element ranges stay on the heap.
+ * <p>
+ * Elements are read through {@link OBJMappedObject}, whose accessors mirror those of the in-memory classes. Sequential bulk
+ * reads such as {@link OBJMappedObject#copyPositions(float[], int)} are served by the page cache at disk speed, and a single
+ * object can be loaded into the heap with {@link OBJMappedObject#toObject()}. The model is read-only and may be read by any
+ * number of threads. Closing it deletes the temporary files; the mappings themselves are released by the garbage collector.
+ */
+public class OBJMappedModel implements Closeable {
+
+	/**
+	 * The maximum number of vertices, texture coordinates, normals, faces or face corners of a single object, chosen so that
+	 * the three components of every element still fit into a Java array.
+	 */
+	public static final int MAX_COUNT = Integer.MAX_VALUE / 3;
+
+	private final List<String> comments;
+	private final List<OBJMappedObject> objects;
+	final MappedArray positions;
+	final MappedArray textures;
+	final MappedArray normals;
+	final MappedArray faces;
+	final MappedArray corners;
+
+	private OBJMappedModel(Path directory) throws IOException {
+		this.comments = new ArrayList<>();
+		this.objects = new ArrayList<>();
+		List<MappedArray> arrays = new ArrayList<>();
+		try {
+			for (int i = 0; i < 5; i++)
+				arrays.add(new MappedArray(directory));
+		} catch (IOException exception) {
+			for (MappedArray array : arrays)
+				array.close();
+			throw exception;
+		}
+		this.positions = arrays.get(0);
+		this.textures = arrays.get(1);
+		this.normals = arrays.get(2);
+		this.faces = arrays.get(3);
+		this.corners = arrays.get(4);
+	}
+
+	/**
+	 * Reads the specified OBJ file, storing the geometry in the default temporary directory.
+	 *
+	 * @param file the OBJ file to read
+	 * 
+	 * @return a new {@link OBJMappedModel}, to be closed by the caller
+	 * 
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if an object has more than {@link #MAX_COUNT} elements of a kind
+	 */
+	public static OBJMappedModel read(Path file) throws IOException {
+		return read(file, Paths.get(System.getProperty("java.io.tmpdir")));
+	}
+
+	/**
+	 * Reads the specified OBJ file, storing the geometry in the specified directory.
+	 *
+	 * @param file the OBJ file to read
+	 * @param directory the directory for the temporary files
+	 * 
+	 * @return a new {@link OBJMappedModel}, to be closed by the caller
+	 * 
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if an object has more than {@link #MAX_COUNT} elements of a kind
+	 */
+	public static OBJMappedModel read(Path file, Path directory) throws IOException {
+		Objects.requireNonNull(file, "File must not be null");
+		try (Reader source = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			return read(source, directory);
+		}
+	}
+
+	/**
+	 * Reads OBJ data from the specified {@link Reader}, storing the geometry in the specified directory. The reader is closed
+	 * when done.
+	 *
+	 * @param source the {@link Reader} to read the OBJ data from
+	 * @param directory the directory for the temporary files
+	 * 
+	 * @return a new {@link OBJMappedModel}, to be closed by the caller
+	 * 
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if an object has more than {@link #MAX_COUNT} elements of a kind
+	 */
+	public static OBJMappedModel read(Reader source, Path directory) throws IOException {
+		Objects.requireNonNull(source, "Source must not be null");
+		Objects.requireNonNull(directory, "Directory must not be null");
+		OBJMappedModel model = new OBJMappedModel(directory);
+		try {
+			OBJParser.stream(source, model.new Loader());
+			model.positions.finish();
+			model.textures.finish();
+			model.normals.finish();
+			model.faces.finish();
+			model.corners.finish();
+		} catch (IOException | RuntimeException exception) {
+			source.close();
+			model.close();
+			throw exception;
+		}
+		return model;
+	}
+
+	/**
+	 * Retrieves an unmodifiable list of comment texts in the model.
+	 *
+	 * @return an unmodifiable list of comment texts
+	 */
+	public List<String> getComments() {
+		return Collections.unmodifiableList(comments);
+	}
+
+	/**
+	 * Retrieves the text of a comment by its index.
+	 *
+	 * @param index the index of the comment
+	 * 
+	 * @return the text of the comment
+	 */
+	public String getComment(int index) {
+		return comments.get(index);
+	}
+
+	/**
+	 * Retrieves an unmodifiable list of objects in the model.
+	 *
+	 * @return an unmodifiable list of {@link OBJMappedObject} objects
+	 */
+	public List<OBJMappedObject> getObjects() {
+		return Collections.unmodifiableList(objects);
+	}
+
+	/**
+	 * Retrieves an object from the model by its index.
+	 *
+	 * @param index the index of the object
+	 * 
+	 * @return the {@link OBJMappedObject} at the specified index
+	 */
+	public OBJMappedObject getObject(int index) {
+		return objects.get(index);
+	}
+
+	/**
+	 * Retrieves an object from the model by its name.
+	 *
+	 * @param name the name of the object to retrieve
+	 * 
+	 * @return the {@link OBJMappedObject} with the specified name, or {@code null} if not found
+	 */
+	public OBJMappedObject getObject(String name) {
+		for (OBJMappedObject object : objects)
+			if (Objects.equals(object.getName(), name))
+				return object;
+		return null;
+	}
+
+	/**
+	 * Retrieves an optional object from the model by its name.
+	 *
+	 * @param name the name of the object to retrieve
+	 * 
+	 * @return the {@link Optional} containing {@link OBJMappedObject} with the specified name
+	 */
+	public Optional<OBJMappedObject> optObject(String name) {
+		return Optional.ofNullable(getObject(name));
+	}
+
+	/**
+	 * Returns the total size of the temporary files in bytes.
+	 *
+	 * @return the number of bytes stored on disk
+	 */
+	public long getStorageSize() {
+		return 4L * (positions.size() + textures.size() + normals.size() + faces.size() + corners.size());
+	}
+
+	/**
+	 * Closes the model and deletes its temporary files. Objects of the model must not be used afterwards.
+	 *
+	 * @throws IOException if a file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		IOException failure = null;
+		for (MappedArray array : new MappedArray[] { positions, textures, normals, faces, corners })
+			try {
+				array.close();
+			} catch (IOException exception) {
+				if (Objects.isNull(failure))
+					failure = exception;
+				else
+					failure.addSuppressed(exception);
+			}
+		if (Objects.nonNull(failure))
+			throw failure;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OBJMappedModel [comments=%s, objects=%s, bytes=%s]", comments.size(), objects.size(),
+				getStorageSize());
+	}
+
+	private class Loader implements OBJParser.Handler {
+
+		private OBJMappedObject object;
+
+		@Override
+		public void comment(String text) {
+			comments.add(text);
+		}
+
+		@Override
+		public void object(String name) {
+			object = new OBJMappedObject(OBJMappedModel.this, name);
+			objects.add(object);
+		}
+
+		@Override
+		public void vertex(float x, float y, float z) throws IOException {
+			object.vertexCount = increment(object.vertexCount);
+			positions.add(x, y, z);
+		}
+
+		@Override
+		public void texture(float u, float v, float w) throws IOException {
+			object.textureCount = increment(object.textureCount);
+			textures.add(u, v, w);
+		}
+
+		@Override
+		public void normal(float x, float y, float z) throws IOException {
+			object.normalCount = increment(object.normalCount);
+			normals.add(x, y, z);
+		}
+
+		@Override
+		public void face(int[] indices, int count) throws IOException {
+			if (object.cornerCount > MAX_COUNT - count)
+				increment(MAX_COUNT);
+			object.faceCount = increment(object.faceCount);
+			faces.add(object.cornerCount);
+			object.cornerCount += count;
+			corners.add(indices, 3 * count);
+		}
+
+		private int increment(int count) {
+			if (count == MAX_COUNT)
+				throw new IllegalArgumentException(
+						String.format("Object %s has more than %s elements of a kind", object.getName(), MAX_COUNT));
+			return count + 1;
+		}
+
+	}
+
+}
@@ -0,0 +1,417 @@
+package com.kaba4cow.objmodel.io;
+
+import com.kaba4cow.objmodel.elements.OBJFace;
+import com.kaba4cow.objmodel.elements.OBJIndex;
+import com.kaba4cow.objmodel.elements.OBJNormal;
+import com.kaba4cow.objmodel.elements.OBJObject;
+import com.kaba4cow.objmodel.elements.OBJTexture;
+import com.kaba4cow.objmodel.elements.OBJVertex;
+
+/**
+ * An object of an {@link OBJMappedModel}. The object only holds its name and the ranges of its elements in the files of the
+ * model, so any number of objects fit in the heap. The getters mirror those of {@link OBJObject}: element getters return
+ * new copies read from the mapped files, and the bulk {@code copy} methods read whole arrays sequentially. Unset face
+ * indices are returned as {@link OBJIndex#UNSET}. An object must not be used after its model is closed.
+ */
+public final class OBJMappedObject {
+
+	private final OBJMappedModel model;
+	private final String name;
+	private final long vertexStart;
+	private final long textureStart;
+	private final long normalStart;
+	private final long faceStart;
+	private final long cornerStart;
+	int vertexCount;
+	int textureCount;
+	int normalCount;
+	int faceCount;
+	int cornerCount;
+
+	OBJMappedObject(OBJMappedModel model, String name) {
+		this.model = model;
+		this.name = name;
+		this.vertexStart = model.positions.size() / 3;
+		this.textureStart = model.textures.size() / 3;
+		this.normalStart = model.normals.size() / 3;
+		this.faceStart = model.faces.size();
+		this.cornerStart = model.corners.size() / 3;
+	}
+
+	/**
+	 * Retrieves the name of the object.
+	 *
+	 * @return the name of the object
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the number of vertices in the object.
+	 *
+	 * @return number of vertices
+	 */
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 * Retrieves the X component of a vertex.
+	 *
+	 * @param index the index of the vertex
+	 * 
+	 * @return the X component of the vertex
+	 */
+	public float getVertexX(int index) {
+		return model.positions.getFloat(3L * (vertexStart + checkIndex(index, vertexCount)) + 0L);
+	}
+
+	/**
+	 * Retrieves the Y component of a vertex.
+	 *
+	 * @param index the index of the vertex
+	 * 
+	 * @return the Y component of the vertex
+	 */
+	public float getVertexY(int index) {
+		return model.positions.getFloat(3L * (vertexStart + checkIndex(index, vertexCount)) + 1L);
+	}
+
+	/**
+	 * Retrieves the Z component of a vertex.
+	 *
+	 * @param index the index of the vertex
+	 * 
+	 * @return the Z component of the vertex
+	 */
+	public float getVertexZ(int index) {
+		return model.positions.getFloat(3L * (vertexStart + checkIndex(index, vertexCount)) + 2L);
+	}
+
+	/**
+	 * Retrieves a copy of a vertex.
+	 *
+	 * @param index the index of the vertex
+	 * 
+	 * @return a new {@link OBJVertex} with the components of the vertex
+	 */
+	public OBJVertex getVertex(int index) {
+		return new OBJVertex().set(getVertexX(index), getVertexY(index), getVertexZ(index));
+	}
+
+	/**
+	 * Returns the number of textures in the object.
+	 *
+	 * @return number of textures
+	 */
+	public int getTextureCount() {
+		return textureCount;
+	}
+
+	/**
+	 * Retrieves the U component of a texture coordinate.
+	 *
+	 * @param index the index of the texture coordinate
+	 * 
+	 * @return the U component of the texture coordinate
+	 */
+	public float getTextureU(int index) {
+		return model.textures.getFloat(3L * (textureStart + checkIndex(index, textureCount)) + 0L);
+	}
+
+	/**
+	 * Retrieves the V component of a texture coordinate.
+	 *
+	 * @param index the index of the texture coordinate
+	 * 
+	 * @return the V component of the texture coordinate
+	 */
+	public float getTextureV(int index) {
+		return model.textures.getFloat(3L * (textureStart + checkIndex(index, textureCount)) + 1L);
+	}
+
+	/**
+	 * Retrieves the W component of a texture coordinate.
+	 *
+	 * @param index the index of the texture coordinate
+	 * 
+	 * @return the W component of the texture coordinate, or {@link Float#NaN} if it is unset
+	 */
+	public float getTextureW(int index) {
+		return model.textures.getFloat(3L * (textureStart + checkIndex(index, textureCount)) + 2L);
+	}
+
+	/**
+	 * Retrieves a copy of a texture coordinate.
+	 *
+	 * @param index the index of the texture coordinate
+	 * 
+	 * @return a new {@link OBJTexture} with the components of the texture coordinate
+	 */
+	public OBJTexture getTexture(int index) {
+		OBJTexture texture = new OBJTexture().set(getTextureU(index), getTextureV(index));
+		float w = getTextureW(index);
+		if (!Float.isNaN(w))
+			texture.setW(w);
+		return texture;
+	}
+
+	/**
+	 * Returns the number of normals in the object.
+	 *
+	 * @return number of normals
+	 */
+	public int getNormalCount() {
+		return normalCount;
+	}
+
+	/**
+	 * Retrieves the X component of a normal.
+	 *
+	 * @param index the index of the normal
+	 * 
+	 * @return the X component of the normal
+	 */
+	public float getNormalX(int index) {
+		return model.normals.getFloat(3L * (normalStart + checkIndex(index, normalCount)) + 0L);
+	}
+
+	/**
+	 * Retrieves the Y component of a normal.
+	 *
+	 * @param index the index of the normal
+	 * 
+	 * @return the Y component of the normal
+	 */
+	public float getNormalY(int index) {
+		return model.normals.getFloat(3L * (normalStart + checkIndex(index, normalCount)) + 1L);
+	}
+
+	/**
+	 * Retrieves the Z component of a normal.
+	 *
+	 * @param index the index of the normal
+	 * 
+	 * @return the Z component of the normal
+	 */
+	public float getNormalZ(int index) {
+		return model.normals.getFloat(3L * (normalStart + checkIndex(index, normalCount)) + 2L);
+	}
+
+	/**
+	 * Retrieves a copy of a normal.
+	 *
+	 * @param index the index of the normal
+	 * 
+	 * @return a new {@link OBJNormal} with the components of the normal
+	 */
+	public OBJNormal getNormal(int index) {
+		return new OBJNormal().set(getNormalX(index), getNormalY(index), getNormalZ(index));
+	}
+
+	/**
+	 * Returns the number of faces in the object.
+	 *
+	 * @return number of faces
+	 */
+	public int getFaceCount() {
+		return faceCount;
+	}
+
+	/**
+	 * Returns the total number of indices of all faces in the object.
+	 *
+	 * @return number of face corners
+	 */
+	public int getCornerCount() {
+		return cornerCount;
+	}
+
+	/**
+	 * Returns the number of indices of a face.
+	 *
+	 * @param face the index of the face
+	 * 
+	 * @return the number of corners of the face
+	 */
+	public int getFaceSize(int face) {
+		return end(face) - start(face);
+	}
+
+	/**
+	 * Retrieves the vertex index of a corner of a face.
+	 *
+	 * @param face the index of the face
+	 * @param corner the index of the corner within the face
+	 * 
+	 * @return the vertex index, or {@link OBJIndex#UNSET} if it is unset
+	 */
+	public int getFaceVertex(int face, int corner) {
+		return model.corners.getInt(3L * (cornerStart + corner(face, corner)) + 0L);
+	}
+
+	/**
+	 * Retrieves the texture index of a corner of a face.
+	 *
+	 * @param face the index of the face
+	 * @param corner the index of the corner within the face
+	 * 
+	 * @return the texture index, or {@link OBJIndex#UNSET} if it is unset
+	 */
+	public int getFaceTexture(int face, int corner) {
+		return model.corners.getInt(3L * (cornerStart + corner(face, corner)) + 1L);
+	}
+
+	/**
+	 * Retrieves the normal index of a corner of a face.
+	 *
+	 * @param face the index of the face
+	 * @param corner the index of the corner within the face
+	 * 
+	 * @return the normal index, or {@link OBJIndex#UNSET} if it is unset
+	 */
+	public int getFaceNormal(int face, int corner) {
+		return model.corners.getInt(3L * (cornerStart + corner(face, corner)) + 2L);
+	}
+
+	/**
+	 * Retrieves a copy of a face.
+	 *
+	 * @param index the index of the face
+	 * 
+	 * @return a new {@link OBJFace} with the indices of the face
+	 */
+	public OBJFace getFace(int index) {
+		int start = start(index), end = end(index);
+		int[] corners = new int[3 * (end - start)];
+		model.corners.getInts(3L * (cornerStart + start), corners, 0, corners.length);
+		return face(corners, 0, corners.length);
+	}
+
+	/**
+	 * Copies all vertex positions into the specified array, three floats (x, y, z) per vertex.
+	 *
+	 * @param dst the destination array
+	 * @param offset the offset in the destination array
+	 * 
+	 * @return the number of floats written
+	 */
+	public int copyPositions(float[] dst, int offset) {
+		model.positions.getFloats(3L * vertexStart, dst, offset, 3 * vertexCount);
+		return 3 * vertexCount;
+	}
+
+	/**
+	 * Copies all normals into the specified array, three floats (x, y, z) per normal.
+	 *
+	 * @param dst the destination array
+	 * @param offset the offset in the destination array
+	 * 
+	 * @return the number of floats written
+	 */
+	public int copyNormals(float[] dst, int offset) {
+		model.normals.getFloats(3L * normalStart, dst, offset, 3 * normalCount);
+		return 3 * normalCount;
+	}
+
+	/**
+	 * Copies the number of indices of every face into the specified array, one int per face.
+	 *
+	 * @param dst the destination array
+	 * @param offset the offset in the destination array
+	 * 
+	 * @return the number of ints written
+	 */
+	public int copyFaceSizes(int[] dst, int offset) {
+		model.faces.getInts(faceStart, dst, offset, faceCount);
+		for (int i = 0; i < faceCount; i++)
+			dst[offset + i] = (i + 1 < faceCount ? dst[offset + i + 1] : cornerCount) - dst[offset + i];
+		return faceCount;
+	}
+
+	/**
+	 * Copies the indices of all faces into the specified array, three ints (vertex, texture, normal) per face corner, see
+	 * {@link OBJObject#copyFaceCorners(int[], int)}.
+	 *
+	 * @param dst the destination array
+	 * @param offset the offset in the destination array
+	 * 
+	 * @return the number of ints written
+	 */
+	public int copyFaceCorners(int[] dst, int offset) {
+		model.corners.getInts(3L * cornerStart, dst, offset, 3 * cornerCount);
+		return 3 * cornerCount;
+	}
+
+	/**
+	 * Reads the whole object into a new {@link OBJObject} on the heap.
+	 *
+	 * @return a new {@link OBJObject} with copies of all elements
+	 */
+	public OBJObject toObject() {
+		OBJObject object = new OBJObject().setName(name);
+		float[] floats = new float[3 * Math.max(vertexCount, Math.max(textureCount, normalCount))];
+		model.positions.getFloats(3L * vertexStart, floats, 0, 3 * vertexCount);
+		for (int i = 0; i < 3 * vertexCount; i += 3)
+			object.addVertex(new OBJVertex().set(floats[i + 0], floats[i + 1], floats[i + 2]));
+		model.textures.getFloats(3L * textureStart, floats, 0, 3 * textureCount);
+		for (int i = 0; i < 3 * textureCount; i += 3) {
+			OBJTexture texture = new OBJTexture().set(floats[i + 0], floats[i + 1]);
+			if (!Float.isNaN(floats[i + 2]))
+				texture.setW(floats[i + 2]);
+			object.addTexture(texture);
+		}
+		model.normals.getFloats(3L * normalStart, floats, 0, 3 * normalCount);
+		for (int i = 0; i < 3 * normalCount; i += 3)
+			object.addNormal(new OBJNormal().set(floats[i + 0], floats[i + 1], floats[i + 2]));
+		int[] sizes = new int[faceCount];
+		copyFaceSizes(sizes, 0);
+		int[] corners = new int[3 * cornerCount];
+		copyFaceCorners(corners, 0);
+		for (int i = 0, corner = 0; i < faceCount; corner += 3 * sizes[i++])
+			object.addFace(face(corners, corner, corner + 3 * sizes[i]));
+		return object;
+	}
+
+	private static OBJFace face(int[] corners, int from, int to) {
+		OBJFace face = new OBJFace();
+		for (int i = from; i < to; i += 3) {
+			OBJIndex index = new OBJIndex();
+			if (corners[i + 0] != OBJIndex.UNSET)
+				index.setVertex(corners[i + 0]);
+			if (corners[i + 1] != OBJIndex.UNSET)
+				index.setTexture(corners[i + 1]);
+			if (corners[i + 2] != OBJIndex.UNSET)
+				index.setNormal(corners[i + 2]);
+			face.addIndex(index);
+		}
+		return face;
+	}
+
+	private int start(int face) {
+		return model.faces.getInt(faceStart + checkIndex(face, faceCount));
+	}
+
+	private int end(int face) {
+		return face + 1 < faceCount ? model.faces.getInt(faceStart + face + 1) : cornerCount;
+	}
+
+	private int corner(int face, int corner) {
+		int start = start(face);
+		return start + checkIndex(corner, end(face) - start);
+	}
+
+	private static int checkIndex(int index, int size) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException(String.format("Index %s out of bounds for length %s", index, size));
+		return index;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("OBJMappedObject [name=%s, vertices=%s, textures=%s, normals=%s, faces=%s]", name, vertexCount,
+				textureCount, normalCount, faceCount);
+	}
+
+}
@@ -0,0 +1,376 @@
+package com.kaba4cow.objmodel.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import com.kaba4cow.objmodel.OBJModel;
+import com.kaba4cow.objmodel.elements.OBJComment;
+import com.kaba4cow.objmodel.elements.OBJFace;
+import com.kaba4cow.objmodel.elements.OBJIndex;
+import com.kaba4cow.objmodel.elements.OBJNormal;
+import com.kaba4cow.objmodel.elements.OBJObject;
+import com.kaba4cow.objmodel.elements.OBJTexture;
+import com.kaba4cow.objmodel.elements.OBJVertex;
+
+/**
+ * A utility class for encoding {@link OBJModel} objects into a compact binary transfer format and decoding them back. The
+ * format is lossless and consists of a header followed by an optionally DEFLATE-compressed payload. The header records
+ * the payload length and, for compressed data, the compressed length, so a decoder reads exactly one encoded model and
+ * several models can follow each other in a stream:
+ * <ul>
+ * <li>vertices, texture coordinates and normals are written as byte planes of their float bits, each XORed with the previous
+ * value of the same component, so the compressor sees long runs of similar bytes. When any texture coordinate of an object
+ * has a W component, a bit set marks the texture coordinates that have one;</li>
+ * <li>face sizes are written as variable-length integers, and every face index is delta-coded against the index at the same
+ * corner of the previous face and written as a zigzag variable-length integer. Unset indices are coded as {@code 0},
+ * non-negative indices as the index plus one and negative (relative) indices as they are.</li>
+ * </ul>
+ * Decoding reads the payload into a single byte array and decodes it in place without intermediate streams. Lengths and
+ * counts are checked against the data that is actually present before anything is allocated for them, so malformed input
+ * fails with an {@link IOException}.
+ */
+public class OBJMeshCodec {
+
+	private static final int MAGIC = 0x5A4A424F;
+	private static final int VERSION = 2;
+	private static final int FLAG_DEFLATE = 1;
+	private static final int FLAG_TEXTURE_W = 1;
+	private static final int CHUNK = 1 << 16;
+
+	private OBJMeshCodec() {}
+
+	/**
+	 * Encodes the specified model and writes it to the specified {@link OutputStream}. The stream is not closed.
+	 *
+	 * @param model the {@link OBJModel} to encode
+	 * @param output the {@link OutputStream} to write to
+	 * @param deflate {@code true} to compress the payload with DEFLATE
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void encode(OBJModel model, OutputStream output, boolean deflate) throws IOException {
+		Objects.requireNonNull(model, "Model must not be null");
+		Objects.requireNonNull(output, "Output must not be null");
+		ByteWriter payload = new ByteWriter(1 << 16);
+		payload.writeVarInt(model.getComments().size());
+		for (OBJComment comment : model.getComments())
+			payload.writeString(comment.getText());
+		payload.writeVarInt(model.getObjects().size());
+		for (OBJObject object : model.getObjects())
+			encodeObject(object, payload);
+
+		ByteWriter header = new ByteWriter(16);
+		header.writeByte(MAGIC);
+		header.writeByte(MAGIC >>> 8);
+		header.writeByte(MAGIC >>> 16);
+		header.writeByte(MAGIC >>> 24);
+		header.writeByte(VERSION);
+		header.writeByte(deflate ? FLAG_DEFLATE : 0);
+		header.writeVarInt(payload.size());
+		if (deflate) {
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream(CHUNK);
+			Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+			try {
+				DeflaterOutputStream stream = new DeflaterOutputStream(compressed, deflater, CHUNK);
+				payload.writeTo(stream);
+				stream.finish();
+			} finally {
+				deflater.end();
+			}
+			header.writeVarInt(compressed.size());
+			header.writeTo(output);
+			compressed.writeTo(output);
+		} else {
+			header.writeTo(output);
+			payload.writeTo(output);
+		}
+		output.flush();
+	}
+
+	/**
+	 * Encodes the specified model into a byte array.
+	 *
+	 * @param model the {@link OBJModel} to encode
+	 * @param deflate {@code true} to compress the payload with DEFLATE
+	 * 
+	 * @return the encoded bytes
+	 */
+	public static byte[] encode(OBJModel model, boolean deflate) {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try {
+			encode(model, output, deflate);
+		} catch (IOException exception) {
+			throw new IllegalStateException(exception);
+		}
+		return output.toByteArray();
+	}
+
+	private static void encodeObject(OBJObject object, ByteWriter writer) {
+		int vertexCount = object.getVertexCount();
+		int textureCount = object.getTextureCount();
+		int normalCount = object.getNormalCount();
+		int faceCount = object.getFaceCount();
+		boolean textureW = false;
+		for (int i = 0; i < textureCount && !textureW; i++)
+			textureW = object.getTexture(i).hasW();
+		writer.writeString(object.getName());
+		writer.writeVarInt(vertexCount);
+		writer.writeVarInt(textureCount);
+		writer.writeVarInt(normalCount);
+		writer.writeVarInt(faceCount);
+		writer.writeByte(textureW ? FLAG_TEXTURE_W : 0);
+		if (textureW)
+			for (int i = 0; i < textureCount; i += 8) {
+				int bits = 0;
+				for (int j = i; j < Math.min(i + 8, textureCount); j++)
+					if (object.getTexture(j).hasW())
+						bits |= 1 << (j - i);
+				writer.writeByte(bits);
+			}
+
+		float[] floats = new float[3 * Math.max(vertexCount, Math.max(textureCount, normalCount))];
+		for (int i = 0; i < vertexCount; i++) {
+			OBJVertex vertex = object.getVertex(i);
+			floats[3 * i + 0] = vertex.getX();
+			floats[3 * i + 1] = vertex.getY();
+			floats[3 * i + 2] = vertex.getZ();
+		}
+		writer.writeFloatPlanes(floats, 3 * vertexCount, 3);
+		int textureStride = textureW ? 3 : 2;
+		for (int i = 0; i < textureCount; i++) {
+			OBJTexture texture = object.getTexture(i);
+			floats[textureStride * i + 0] = texture.getU();
+			floats[textureStride * i + 1] = texture.getV();
+			if (textureW)
+				floats[textureStride * i + 2] = texture.hasW() ? texture.getW() : 0.0f;
+		}
+		writer.writeFloatPlanes(floats, textureStride * textureCount, textureStride);
+		for (int i = 0; i < normalCount; i++) {
+			OBJNormal normal = object.getNormal(i);
+			floats[3 * i + 0] = normal.getX();
+			floats[3 * i + 1] = normal.getY();
+			floats[3 * i + 2] = normal.getZ();
+		}
+		writer.writeFloatPlanes(floats, 3 * normalCount, 3);
+
+		for (int i = 0; i < faceCount; i++)
+			writer.writeVarInt(object.getFace(i).getIndexCount());
+		OBJFace previous = null;
+		for (int i = 0; i < faceCount; i++) {
+			OBJFace face = object.getFace(i);
+			for (int j = 0; j < face.getIndexCount(); j++) {
+				OBJIndex index = face.getIndex(j);
+				OBJIndex reference = Objects.isNull(previous) || previous.getIndexCount() == 0 ? null
+						: previous.getIndex(Math.min(j, previous.getIndexCount() - 1));
+				writer.writeSignedVarInt(vertexOf(index) - (Objects.isNull(reference) ? 0 : vertexOf(reference)));
+				writer.writeSignedVarInt(textureOf(index) - (Objects.isNull(reference) ? 0 : textureOf(reference)));
+				writer.writeSignedVarInt(normalOf(index) - (Objects.isNull(reference) ? 0 : normalOf(reference)));
+			}
+			previous = face;
+		}
+	}
+
+	private static int vertexOf(OBJIndex index) {
+		return index.hasVertex() ? encodeIndex(index.getVertex()) : 0;
+	}
+
+	private static int textureOf(OBJIndex index) {
+		return index.hasTexture() ? encodeIndex(index.getTexture()) : 0;
+	}
+
+	private static int normalOf(OBJIndex index) {
+		return index.hasNormal() ? encodeIndex(index.getNormal()) : 0;
+	}
+
+	private static int encodeIndex(int index) {
+		return index >= 0 ? index + 1 : index;
+	}
+
+	private static int decodeIndex(int value) {
+		return value > 0 ? value - 1 : value;
+	}
+
+	/**
+	 * Reads encoded data from the specified {@link InputStream} and converts it to an {@link OBJModel} object. If the
+	 * {@code target} is not {@code null} its contents are cleared using {@link OBJModel#clearComments()} and
+	 * {@link OBJModel#clearObjects()}. The stream is not closed.
+	 *
+	 * @param source the {@link InputStream} to read the encoded data from
+	 * @param target the {@link OBJModel} to decode the data to, or {@code null}
+	 * 
+	 * @return the {@link OBJModel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs or the data is malformed
+	 */
+	public static OBJModel decode(InputStream source, OBJModel target) throws IOException {
+		Objects.requireNonNull(source, "Source must not be null");
+		byte[] header = readFully(source, 6);
+		int magic = (header[0] & 0xFF) | (header[1] & 0xFF) << 8 | (header[2] & 0xFF) << 16 | (header[3] & 0xFF) << 24;
+		if (magic != MAGIC)
+			throw new IOException("Not an encoded OBJ model");
+		if (header[4] != VERSION)
+			throw new IOException(String.format("Unsupported version %s", header[4]));
+		int length = readLength(source);
+		byte[] payload = (header[5] & FLAG_DEFLATE) != 0 ? inflate(readFully(source, readLength(source)), length)
+				: readFully(source, length);
+		return decode(new ByteReader(payload, length), target);
+	}
+
+	/**
+	 * Decodes the specified bytes and converts them to an {@link OBJModel} object. If the {@code target} is not {@code null}
+	 * its contents are cleared using {@link OBJModel#clearComments()} and {@link OBJModel#clearObjects()}.
+	 *
+	 * @param source the encoded bytes
+	 * @param target the {@link OBJModel} to decode the data to, or {@code null}
+	 * 
+	 * @return the {@link OBJModel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if the data is malformed
+	 */
+	public static OBJModel decode(byte[] source, OBJModel target) throws IOException {
+		Objects.requireNonNull(source, "Source must not be null");
+		return decode(new ByteArrayInputStream(source), target);
+	}
+
+	private static OBJModel decode(ByteReader reader, OBJModel target) throws IOException {
+		if (Objects.isNull(target))
+			target = new OBJModel();
+		else
+			target.clearComments().clearObjects();
+		int commentCount = reader.readCount(1);
+		for (int i = 0; i < commentCount; i++)
+			target.addComment(new OBJComment().setText(reader.readString()));
+		int objectCount = reader.readCount(6);
+		float[] floats = new float[0];
+		byte[] textureFlags = new byte[0];
+		int[] sizes = new int[0];
+		for (int i = 0; i < objectCount; i++) {
+			OBJObject object = new OBJObject().setName(reader.readString());
+			int vertexCount = reader.readCount(12);
+			int textureCount = reader.readCount(8);
+			int normalCount = reader.readCount(12);
+			int faceCount = reader.readCount(1);
+			boolean textureW = (reader.readByte() & FLAG_TEXTURE_W) != 0;
+			int textureStride = textureW ? 3 : 2;
+			int flagCount = textureW ? (textureCount + 7) / 8 : 0;
+			if (textureFlags.length < flagCount)
+				textureFlags = new byte[flagCount];
+			reader.readBytes(textureFlags, flagCount);
+			int floatCount = 3 * Math.max(vertexCount, Math.max(textureCount, normalCount));
+			if (floats.length < floatCount)
+				floats = new float[floatCount];
+
+			reader.readFloatPlanes(floats, 3 * vertexCount, 3);
+			for (int j = 0; j < vertexCount; j++)
+				object.addVertex(new OBJVertex().set(floats[3 * j + 0], floats[3 * j + 1], floats[3 * j + 2]));
+			reader.readFloatPlanes(floats, textureStride * textureCount, textureStride);
+			for (int j = 0; j < textureCount; j++) {
+				OBJTexture texture = new OBJTexture().set(floats[textureStride * j + 0], floats[textureStride * j + 1]);
+				if (textureW && (textureFlags[j / 8] & 1 << (j % 8)) != 0)
+					texture.setW(floats[textureStride * j + 2]);
+				object.addTexture(texture);
+			}
+			reader.readFloatPlanes(floats, 3 * normalCount, 3);
+			for (int j = 0; j < normalCount; j++)
+				object.addNormal(new OBJNormal().set(floats[3 * j + 0], floats[3 * j + 1], floats[3 * j + 2]));
+
+			if (sizes.length < faceCount)
+				sizes = new int[faceCount];
+			int maxSize = 0;
+			for (int j = 0; j < faceCount; j++)
+				maxSize = Math.max(maxSize, sizes[j] = reader.readCount(3));
+			int[] previous = new int[3 * maxSize];
+			int[] current = new int[3 * maxSize];
+			int previousSize = 0;
+			for (int j = 0; j < faceCount; j++) {
+				int size = sizes[j];
+				OBJFace face = new OBJFace();
+				for (int k = 0; k < size; k++) {
+					int reference = 3 * Math.min(k, previousSize - 1);
+					for (int c = 0; c < 3; c++)
+						current[3 * k + c] = reader.readSignedVarInt() + (previousSize > 0 ? previous[reference + c] : 0);
+					OBJIndex index = new OBJIndex();
+					if (current[3 * k + 0] != 0)
+						index.setVertex(decodeIndex(current[3 * k + 0]));
+					if (current[3 * k + 1] != 0)
+						index.setTexture(decodeIndex(current[3 * k + 1]));
+					if (current[3 * k + 2] != 0)
+						index.setNormal(decodeIndex(current[3 * k + 2]));
+					face.addIndex(index);
+				}
+				object.addFace(face);
+				int[] swap = previous;
+				previous = current;
+				current = swap;
+				previousSize = size;
+			}
+			target.addObject(object);
+		}
+		return target;
+	}
+
+	private static int readLength(InputStream source) throws IOException {
+		int length = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = source.read();
+			if (b < 0)
+				throw new EOFException("Unexpected end of data");
+			length |= (b & 0x7F) << shift;
+			if (b < 0x80) {
+				if (length < 0)
+					break;
+				return length;
+			}
+		}
+		throw new IOException("Malformed length");
+	}
+
+	private static byte[] inflate(byte[] compressed, int length) throws IOException {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(compressed);
+			byte[] payload = new byte[Math.min(length, CHUNK)];
+			int written = 0;
+			while (written < length) {
+				if (written == payload.length)
+					payload = Arrays.copyOf(payload, (int) Math.min(length, 2L * payload.length));
+				int count = inflater.inflate(payload, written, payload.length - written);
+				if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()))
+					throw new EOFException("Unexpected end of data");
+				written += count;
+			}
+			return payload;
+		} catch (DataFormatException exception) {
+			throw new IOException(exception);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	private static byte[] readFully(InputStream source, int length) throws IOException {
+		byte[] bytes = new byte[Math.min(length, CHUNK)];
+		int offset = 0;
+		while (offset < length) {
+			if (offset == bytes.length)
+				bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+			int read = source.read(bytes, offset, bytes.length - offset);
+			if (read < 0)
+				throw new EOFException("Unexpected end of data");
+			offset += read;
+		}
+		return bytes;
+	}
+
+}
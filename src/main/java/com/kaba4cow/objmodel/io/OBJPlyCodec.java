@@ -0,0 +1,515 @@
+package com.kaba4cow.objmodel.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import com.kaba4cow.objmodel.OBJModel;
+import com.kaba4cow.objmodel.elements.OBJComment;
+
+/**
+ * A utility class for reading and writing {@link OBJModel} objects as binary PLY (Polygon File Format) files.
+ * <p>
+ * Writing merges all objects into one mesh, since PLY has no notion of objects, and emits little-endian {@code float}
+ * positions, followed by {@code nx, ny, nz} normals and {@code u, v} texture coordinates when the model has exactly one of
+ * them per vertex. Faces become a {@code vertex_indices} list with an {@code uchar} count, or an {@code int} count if a face
+ * has more than 255 corners; a model without faces is written as a point cloud without a face element. Comments of the
+ * model become {@code comment} lines.
+ * <p>
+ * Reading accepts little- and big-endian files with any property types and extra elements and properties, which are
+ * skipped. Positions, normals and texture coordinates ({@code u, v}, {@code s, t} or {@code texture_u, texture_v}) are read
+ * into one object, with one normal and texture coordinate per vertex. The object is named after the file without its
+ * extension, or {@code mesh} when reading from a stream or channel. ASCII files are not supported. Element counts of files
+ * are checked against the file size before arrays are allocated for them; arrays read from streams and channels grow as
+ * the data arrives instead.
+ * <p>
+ * Both directions move data through packed arrays and a direct buffer of fixed size, and bulk-copy vertex records that
+ * consist of {@code float} positions only. Element objects are created only once, when the finished object is built.
+ */
+public class OBJPlyCodec {
+
+	private static final int MAX_HEADER_LINE = 4096;
+	private static final int CHUNK = 1 << 16;
+
+	private OBJPlyCodec() {}
+
+	/**
+	 * Writes the specified model to the specified file, replacing it if it exists.
+	 *
+	 * @param model the {@link OBJModel} to write
+	 * @param file the file to write to
+	 * 
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing element
+	 */
+	public static void write(OBJModel model, Path file) throws IOException {
+		Objects.requireNonNull(model, "Model must not be null");
+		Objects.requireNonNull(file, "File must not be null");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			write(model, channel);
+		}
+	}
+
+	/**
+	 * Writes the specified model to the specified {@link OutputStream}. The stream is not closed.
+	 *
+	 * @param model the {@link OBJModel} to write
+	 * @param output the {@link OutputStream} to write to
+	 * 
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing element
+	 */
+	public static void write(OBJModel model, OutputStream output) throws IOException {
+		Objects.requireNonNull(output, "Output must not be null");
+		write(model, Channels.newChannel(output));
+	}
+
+	/**
+	 * Writes the specified model to the specified {@link WritableByteChannel}. The channel is not closed.
+	 *
+	 * @param model the {@link OBJModel} to write
+	 * @param channel the {@link WritableByteChannel} to write to
+	 * 
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing element
+	 */
+	public static void write(OBJModel model, WritableByteChannel channel) throws IOException {
+		Objects.requireNonNull(model, "Model must not be null");
+		Objects.requireNonNull(channel, "Channel must not be null");
+		PackedMesh mesh = PackedMesh.of(model);
+		int vertexCount = mesh.getVertexCount();
+		int faceCount = mesh.faceSizes.length;
+		boolean shortCounts = mesh.maxFaceSize <= 0xFF;
+		StringBuilder header = new StringBuilder("ply\nformat binary_little_endian 1.0\n");
+		for (OBJComment comment : model.getComments())
+			if (comment.hasText())
+				header.append("comment ").append(comment.getText().replace('\r', ' ').replace('\n', ' ')).append('\n');
+		header.append("element vertex ").append(vertexCount).append('\n');
+		header.append("property float x\nproperty float y\nproperty float z\n");
+		if (Objects.nonNull(mesh.normals))
+			header.append("property float nx\nproperty float ny\nproperty float nz\n");
+		if (Objects.nonNull(mesh.textures))
+			header.append("property float u\nproperty float v\n");
+		if (faceCount > 0) {
+			header.append("element face ").append(faceCount).append('\n');
+			header.append("property list ").append(shortCounts ? "uchar" : "int").append(" int vertex_indices\n");
+		}
+		header.append("end_header\n");
+		byte[] bytes = header.toString().getBytes(StandardCharsets.UTF_8);
+		ChannelWriter writer = new ChannelWriter(channel, ByteOrder.LITTLE_ENDIAN);
+		writer.writeBytes(bytes, 0, bytes.length);
+		if (Objects.isNull(mesh.normals) && Objects.isNull(mesh.textures))
+			writer.writeFloats(mesh.positions, 0, mesh.positions.length);
+		else
+			for (int i = 0; i < vertexCount; i++) {
+				ByteBuffer buffer = writer.ensure(32);
+				buffer.putFloat(mesh.positions[3 * i + 0]).putFloat(mesh.positions[3 * i + 1])
+						.putFloat(mesh.positions[3 * i + 2]);
+				if (Objects.nonNull(mesh.normals))
+					buffer.putFloat(mesh.normals[3 * i + 0]).putFloat(mesh.normals[3 * i + 1])
+							.putFloat(mesh.normals[3 * i + 2]);
+				if (Objects.nonNull(mesh.textures))
+					buffer.putFloat(mesh.textures[2 * i + 0]).putFloat(mesh.textures[2 * i + 1]);
+			}
+		for (int face = 0, corner = 0; face < faceCount; face++) {
+			int size = mesh.faceSizes[face];
+			ByteBuffer buffer = writer.ensure(4);
+			if (shortCounts)
+				buffer.put((byte) size);
+			else
+				buffer.putInt(size);
+			for (int end = corner + size; corner < end; corner++)
+				writer.ensure(4).putInt(mesh.vertexIndices[corner]);
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Reads the specified PLY file and converts it to an {@link OBJModel} object. If the {@code target} is not {@code null}
+	 * its contents are cleared using {@link OBJModel#clearComments()} and {@link OBJModel#clearObjects()}.
+	 *
+	 * @param file the PLY file to read
+	 * @param target the {@link OBJModel} to read the data to, or {@code null}
+	 * 
+	 * @return the {@link OBJModel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs or the data is malformed
+	 */
+	public static OBJModel read(Path file, OBJModel target) throws IOException {
+		Objects.requireNonNull(file, "File must not be null");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return read(channel, target, PackedMesh.nameOf(file), channel.size());
+		}
+	}
+
+	/**
+	 * Reads PLY data from the specified {@link InputStream} and converts it to an {@link OBJModel} object. If the
+	 * {@code target} is not {@code null} its contents are cleared using {@link OBJModel#clearComments()} and
+	 * {@link OBJModel#clearObjects()}. The stream is not closed.
+	 *
+	 * @param source the {@link InputStream} to read the PLY data from
+	 * @param target the {@link OBJModel} to read the data to, or {@code null}
+	 * 
+	 * @return the {@link OBJModel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs or the data is malformed
+	 */
+	public static OBJModel read(InputStream source, OBJModel target) throws IOException {
+		Objects.requireNonNull(source, "Source must not be null");
+		return read(Channels.newChannel(source), target);
+	}
+
+	/**
+	 * Reads PLY data from the specified {@link ReadableByteChannel} and converts it to an {@link OBJModel} object. If the
+	 * {@code target} is not {@code null} its contents are cleared using {@link OBJModel#clearComments()} and
+	 * {@link OBJModel#clearObjects()}. The channel is not closed.
+	 *
+	 * @param source the {@link ReadableByteChannel} to read the PLY data from
+	 * @param target the {@link OBJModel} to read the data to, or {@code null}
+	 * 
+	 * @return the {@link OBJModel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs or the data is malformed
+	 */
+	public static OBJModel read(ReadableByteChannel source, OBJModel target) throws IOException {
+		Objects.requireNonNull(source, "Source must not be null");
+		return read(source, target, PackedMesh.DEFAULT_NAME, -1L);
+	}
+
+	private static OBJModel read(ReadableByteChannel source, OBJModel target, String name, long fileSize)
+			throws IOException {
+		ChannelReader reader = new ChannelReader(source, ByteOrder.LITTLE_ENDIAN);
+		if (!reader.readLine(MAX_HEADER_LINE).equals("ply"))
+			throw new IOException("Not a PLY file");
+		List<String> comments = new ArrayList<>();
+		List<Element> elements = new ArrayList<>();
+		for (String line; !(line = reader.readLine(MAX_HEADER_LINE)).equals("end_header");) {
+			String[] tokens = line.trim().split("\\s+");
+			switch (tokens[0]) {
+				case "format":
+					if (tokens.length < 2)
+						throw new IOException("Malformed PLY format line");
+					if (tokens[1].equals("binary_little_endian"))
+						reader.order(ByteOrder.LITTLE_ENDIAN);
+					else if (tokens[1].equals("binary_big_endian"))
+						reader.order(ByteOrder.BIG_ENDIAN);
+					else
+						throw new IOException(String.format("Unsupported PLY format %s", tokens[1]));
+					break;
+				case "comment":
+					comments.add(line.trim().length() > 7 ? line.trim().substring(8) : "");
+					break;
+				case "element":
+					if (tokens.length != 3)
+						throw new IOException(String.format("Malformed PLY element line: %s", line));
+					elements.add(new Element(tokens[1], parseCount(tokens[2])));
+					break;
+				case "property":
+					if (elements.isEmpty())
+						throw new IOException("PLY property before any element");
+					List<Property> properties = elements.get(elements.size() - 1).properties;
+					if (tokens.length == 3)
+						properties.add(new Property(tokens[2], Type.of(tokens[1]), null));
+					else if (tokens.length == 5 && tokens[1].equals("list"))
+						properties.add(new Property(tokens[4], Type.of(tokens[3]), Type.of(tokens[2])));
+					else
+						throw new IOException(String.format("Malformed PLY property line: %s", line));
+					break;
+				default:
+					break;
+			}
+		}
+		float[] positions = new float[0];
+		float[] normals = null;
+		float[] textures = null;
+		int[] faceSizes = new int[0];
+		int[] vertexIndices = new int[0];
+		int cornerCount = 0;
+		for (Element element : elements) {
+			if (fileSize >= 0L && element.getMinRecordSize() * (double) element.count > fileSize - reader.position())
+				throw new IOException(String.format("PLY element %s has more records than the file holds", element.name));
+			if (element.name.equals("vertex")) {
+				int count = checkCount(element.count, 3);
+				int x = element.indexOf("x"), y = element.indexOf("y"), z = element.indexOf("z");
+				if (x < 0 || y < 0 || z < 0)
+					throw new IOException("PLY vertex element has no position");
+				int nx = element.indexOf("nx"), ny = element.indexOf("ny"), nz = element.indexOf("nz");
+				int u = element.indexOf("u", "s", "texture_u"), v = element.indexOf("v", "t", "texture_v");
+				int capacity = fileSize >= 0L ? count : Math.min(count, CHUNK);
+				positions = new float[3 * capacity];
+				boolean hasNormals = nx >= 0 && ny >= 0 && nz >= 0;
+				boolean hasTextures = u >= 0 && v >= 0;
+				boolean packed = element.isPackedPosition();
+				normals = hasNormals ? new float[3 * capacity] : null;
+				textures = hasTextures ? new float[2 * capacity] : null;
+				double[] values = new double[element.properties.size()];
+				for (int i = 0; i < count;) {
+					if (i == capacity) {
+						capacity = (int) Math.min(count, 2L * capacity);
+						positions = Arrays.copyOf(positions, 3 * capacity);
+						if (hasNormals)
+							normals = Arrays.copyOf(normals, 3 * capacity);
+						if (hasTextures)
+							textures = Arrays.copyOf(textures, 2 * capacity);
+					}
+					if (packed) {
+						reader.readFloats(positions, 3 * i, 3 * (capacity - i));
+						i = capacity;
+						continue;
+					}
+					for (; i < capacity; i++) {
+						element.read(reader, values);
+						positions[3 * i + 0] = (float) values[x];
+						positions[3 * i + 1] = (float) values[y];
+						positions[3 * i + 2] = (float) values[z];
+						if (hasNormals) {
+							normals[3 * i + 0] = (float) values[nx];
+							normals[3 * i + 1] = (float) values[ny];
+							normals[3 * i + 2] = (float) values[nz];
+						}
+						if (hasTextures) {
+							textures[2 * i + 0] = (float) values[u];
+							textures[2 * i + 1] = (float) values[v];
+						}
+					}
+				}
+			} else if (element.name.equals("face")) {
+				int count = checkCount(element.count, 1);
+				int list = element.indexOf("vertex_indices", "vertex_index");
+				if (list < 0 || Objects.isNull(element.properties.get(list).countType))
+					throw new IOException("PLY face element has no vertex index list");
+				faceSizes = new int[fileSize >= 0L ? count : Math.min(count, CHUNK)];
+				vertexIndices = new int[(int) Math.min(Integer.MAX_VALUE - 8L, Math.max(16L, 4L * faceSizes.length))];
+				for (int i = 0; i < count; i++) {
+					if (i == faceSizes.length)
+						faceSizes = Arrays.copyOf(faceSizes, (int) Math.min(count, 2L * i));
+					for (int j = 0; j < element.properties.size(); j++) {
+						Property property = element.properties.get(j);
+						if (Objects.isNull(property.countType)) {
+							property.type.read(reader.require(property.type.size));
+							continue;
+						}
+						long size = (long) property.countType.read(reader.require(property.countType.size));
+						if (size < 0L || size > Integer.MAX_VALUE)
+							throw new IOException(String.format("Face %s has an invalid size", i));
+						if (j != list) {
+							reader.skip(size * property.type.size);
+							continue;
+						}
+						if (cornerCount + size > Integer.MAX_VALUE)
+							throw new IOException("PLY file has too many face corners");
+						if (vertexIndices.length < cornerCount + size)
+							vertexIndices = Arrays.copyOf(vertexIndices,
+									(int) Math.min(Integer.MAX_VALUE - 8L, Math.max(2L * vertexIndices.length, cornerCount + size)));
+						faceSizes[i] = (int) size;
+						for (int k = 0; k < size; k++)
+							vertexIndices[cornerCount++] = (int) (long) property.type.read(reader.require(property.type.size));
+					}
+				}
+			} else
+				element.skip(reader);
+		}
+		int vertexCount = positions.length / 3;
+		for (int i = 0, corner = 0; i < faceSizes.length; i++)
+			for (int end = corner + faceSizes[i]; corner < end; corner++)
+				if (vertexIndices[corner] < 0 || vertexIndices[corner] >= vertexCount)
+					throw new IOException(String.format("Face %s has an invalid index", i));
+		if (Objects.isNull(target))
+			target = new OBJModel();
+		else
+			target.clearComments().clearObjects();
+		for (String comment : comments)
+			target.addComment(new OBJComment().setText(comment));
+		PackedMesh mesh = new PackedMesh(positions, normals, textures, faceSizes, Arrays.copyOf(vertexIndices, cornerCount));
+		return target.addObject(mesh.toObject(name));
+	}
+
+	private static long parseCount(String token) throws IOException {
+		try {
+			long count = Long.parseLong(token);
+			if (count < 0L)
+				throw new NumberFormatException();
+			return count;
+		} catch (NumberFormatException exception) {
+			throw new IOException(String.format("Invalid PLY element count %s", token));
+		}
+	}
+
+	private static int checkCount(long count, int stride) throws IOException {
+		if (count > Integer.MAX_VALUE / stride)
+			throw new IOException(String.format("PLY element count %s is too large", count));
+		return (int) count;
+	}
+
+	private enum Type {
+
+		INT8(1), UINT8(1), INT16(2), UINT16(2), INT32(4), UINT32(4), FLOAT32(4), FLOAT64(8);
+
+		private final int size;
+
+		private Type(int size) {
+			this.size = size;
+		}
+
+		private double read(ByteBuffer buffer) {
+			switch (this) {
+				case INT8:
+					return buffer.get();
+				case UINT8:
+					return buffer.get() & 0xFF;
+				case INT16:
+					return buffer.getShort();
+				case UINT16:
+					return buffer.getShort() & 0xFFFF;
+				case INT32:
+					return buffer.getInt();
+				case UINT32:
+					return buffer.getInt() & 0xFFFFFFFFL;
+				case FLOAT32:
+					return buffer.getFloat();
+				default:
+					return buffer.getDouble();
+			}
+		}
+
+		private static Type of(String name) throws IOException {
+			switch (name.toLowerCase(Locale.ROOT)) {
+				case "char":
+				case "int8":
+					return INT8;
+				case "uchar":
+				case "uint8":
+					return UINT8;
+				case "short":
+				case "int16":
+					return INT16;
+				case "ushort":
+				case "uint16":
+					return UINT16;
+				case "int":
+				case "int32":
+					return INT32;
+				case "uint":
+				case "uint32":
+					return UINT32;
+				case "float":
+				case "float32":
+					return FLOAT32;
+				case "double":
+				case "float64":
+					return FLOAT64;
+				default:
+					throw new IOException(String.format("Unknown PLY property type %s", name));
+			}
+		}
+
+	}
+
+	private static class Property {
+
+		private final String name;
+		private final Type type;
+		private final Type countType;
+
+		private Property(String name, Type type, Type countType) {
+			this.name = name;
+			this.type = type;
+			this.countType = countType;
+		}
+
+	}
+
+	private static class Element {
+
+		private final String name;
+		private final long count;
+		private final List<Property> properties;
+
+		private Element(String name, long count) {
+			this.name = name;
+			this.count = count;
+			this.properties = new ArrayList<>();
+		}
+
+		private int indexOf(String... names) {
+			for (String name : names)
+				for (int i = 0; i < properties.size(); i++)
+					if (properties.get(i).name.equals(name))
+						return i;
+			return -1;
+		}
+
+		private boolean isPackedPosition() {
+			if (properties.size() != 3 || indexOf("x") != 0 || indexOf("y") != 1 || indexOf("z") != 2)
+				return false;
+			for (Property property : properties)
+				if (property.type != Type.FLOAT32 || Objects.nonNull(property.countType))
+					return false;
+			return true;
+		}
+
+		private int getMinRecordSize() {
+			int size = 0;
+			for (Property property : properties)
+				size += Objects.isNull(property.countType) ? property.type.size : property.countType.size;
+			return size;
+		}
+
+		private int getRecordSize() {
+			int size = 0;
+			for (Property property : properties) {
+				if (Objects.nonNull(property.countType))
+					return -1;
+				size += property.type.size;
+			}
+			return size;
+		}
+
+		private void read(ChannelReader reader, double[] values) throws IOException {
+			for (int i = 0; i < properties.size(); i++) {
+				Property property = properties.get(i);
+				if (Objects.isNull(property.countType))
+					values[i] = property.type.read(reader.require(property.type.size));
+				else {
+					double size = property.countType.read(reader.require(property.countType.size));
+					if (size < 0.0)
+						throw new IOException(String.format("PLY list %s has a negative size", property.name));
+					reader.skip((long) size * property.type.size);
+				}
+			}
+		}
+
+		private void skip(ChannelReader reader) throws IOException {
+			int size = getRecordSize();
+			if (size >= 0) {
+				if (size > 0 && count > Long.MAX_VALUE / size)
+					throw new IOException(String.format("PLY element %s is too large", name));
+				reader.skip(count * size);
+				return;
+			}
+			double[] values = new double[properties.size()];
+			for (long i = 0L; i < count; i++)
+				read(reader, values);
+		}
+
+	}
+
+}
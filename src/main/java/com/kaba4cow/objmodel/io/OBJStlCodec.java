@@ -0,0 +1,283 @@
+package com.kaba4cow.objmodel.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.kaba4cow.objmodel.OBJModel;
+import com.kaba4cow.objmodel.elements.OBJFace;
+import com.kaba4cow.objmodel.elements.OBJIndex;
+import com.kaba4cow.objmodel.elements.OBJNormal;
+import com.kaba4cow.objmodel.elements.OBJObject;
+import com.kaba4cow.objmodel.elements.OBJVertex;
+
+/**
+ * A utility class for reading and writing {@link OBJModel} objects as binary STL (stereolithography) files.
+ * <p>
+ * Writing merges all objects into one mesh, fan-triangulates every face and writes one 50-byte record per triangle with a
+ * facet normal computed from its positions, or a zero normal for degenerate triangles. Faces with fewer than three indices
+ * are skipped.
+ * <p>
+ * Reading restores an indexed mesh from the unindexed triangles: corners with bit-identical positions, with {@code -0.0}
+ * equal to {@code 0.0}, share one vertex, found through an open-addressing hash table of vertex indices. The facet normal of
+ * every triangle becomes one normal referred to by its three corners. The object is named after the file without its
+ * extension, or {@code mesh} when reading from a stream or channel. ASCII files are not supported. The triangle count of
+ * a file must match its size before arrays are allocated for it; arrays read from streams and channels grow as the data
+ * arrives instead.
+ * <p>
+ * Both directions move data through packed arrays and a direct buffer of fixed size. Element objects are created only
+ * once, when the finished object is built.
+ */
+public class OBJStlCodec {
+
+	private static final int HEADER_SIZE = 80;
+	private static final int RECORD_SIZE = 50;
+	private static final int CHUNK = 1 << 16;
+	private static final int MAX_TABLE_CAPACITY = 1 << 30;
+	private static final byte[] HEADER = "Binary STL written by obj-model".getBytes(StandardCharsets.US_ASCII);
+
+	private OBJStlCodec() {}
+
+	/**
+	 * Writes the specified model to the specified file, replacing it if it exists.
+	 *
+	 * @param model the {@link OBJModel} to write
+	 * @param file the file to write to
+	 * 
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing element
+	 */
+	public static void write(OBJModel model, Path file) throws IOException {
+		Objects.requireNonNull(model, "Model must not be null");
+		Objects.requireNonNull(file, "File must not be null");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			write(model, channel);
+		}
+	}
+
+	/**
+	 * Writes the specified model to the specified {@link OutputStream}. The stream is not closed.
+	 *
+	 * @param model the {@link OBJModel} to write
+	 * @param output the {@link OutputStream} to write to
+	 * 
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing element
+	 */
+	public static void write(OBJModel model, OutputStream output) throws IOException {
+		Objects.requireNonNull(output, "Output must not be null");
+		write(model, Channels.newChannel(output));
+	}
+
+	/**
+	 * Writes the specified model to the specified {@link WritableByteChannel}. The channel is not closed.
+	 *
+	 * @param model the {@link OBJModel} to write
+	 * @param channel the {@link WritableByteChannel} to write to
+	 * 
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing element
+	 */
+	public static void write(OBJModel model, WritableByteChannel channel) throws IOException {
+		Objects.requireNonNull(model, "Model must not be null");
+		Objects.requireNonNull(channel, "Channel must not be null");
+		PackedMesh mesh = PackedMesh.of(model);
+		long triangleCount = 0L;
+		for (int size : mesh.faceSizes)
+			triangleCount += Math.max(0, size - 2);
+		ChannelWriter writer = new ChannelWriter(channel, ByteOrder.LITTLE_ENDIAN);
+		writer.writeBytes(HEADER, 0, HEADER.length);
+		writer.writeZeros(HEADER_SIZE - HEADER.length);
+		writer.ensure(4).putInt((int) triangleCount);
+		float[] positions = mesh.positions;
+		for (int face = 0, corner = 0; face < mesh.faceSizes.length; corner += mesh.faceSizes[face++]) {
+			int a = 3 * mesh.vertexIndices[corner];
+			for (int j = 2; j < mesh.faceSizes[face]; j++) {
+				int b = 3 * mesh.vertexIndices[corner + j - 1], c = 3 * mesh.vertexIndices[corner + j];
+				float ux = positions[b + 0] - positions[a + 0], uy = positions[b + 1] - positions[a + 1],
+						uz = positions[b + 2] - positions[a + 2];
+				float vx = positions[c + 0] - positions[a + 0], vy = positions[c + 1] - positions[a + 1],
+						vz = positions[c + 2] - positions[a + 2];
+				float nx = uy * vz - uz * vy, ny = uz * vx - ux * vz, nz = ux * vy - uy * vx;
+				float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+				if (length > 0.0f) {
+					nx /= length;
+					ny /= length;
+					nz /= length;
+				}
+				ByteBuffer buffer = writer.ensure(RECORD_SIZE);
+				buffer.putFloat(nx).putFloat(ny).putFloat(nz);
+				buffer.putFloat(positions[a + 0]).putFloat(positions[a + 1]).putFloat(positions[a + 2]);
+				buffer.putFloat(positions[b + 0]).putFloat(positions[b + 1]).putFloat(positions[b + 2]);
+				buffer.putFloat(positions[c + 0]).putFloat(positions[c + 1]).putFloat(positions[c + 2]);
+				buffer.putShort((short) 0);
+			}
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Reads the specified STL file and converts it to an {@link OBJModel} object. If the {@code target} is not {@code null}
+	 * its contents are cleared using {@link OBJModel#clearComments()} and {@link OBJModel#clearObjects()}.
+	 *
+	 * @param file the STL file to read
+	 * @param target the {@link OBJModel} to read the data to, or {@code null}
+	 * 
+	 * @return the {@link OBJModel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs or the data is malformed
+	 */
+	public static OBJModel read(Path file, OBJModel target) throws IOException {
+		Objects.requireNonNull(file, "File must not be null");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return read(channel, target, PackedMesh.nameOf(file), channel.size());
+		}
+	}
+
+	/**
+	 * Reads STL data from the specified {@link InputStream} and converts it to an {@link OBJModel} object. If the
+	 * {@code target} is not {@code null} its contents are cleared using {@link OBJModel#clearComments()} and
+	 * {@link OBJModel#clearObjects()}. The stream is not closed.
+	 *
+	 * @param source the {@link InputStream} to read the STL data from
+	 * @param target the {@link OBJModel} to read the data to, or {@code null}
+	 * 
+	 * @return the {@link OBJModel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs or the data is malformed
+	 */
+	public static OBJModel read(InputStream source, OBJModel target) throws IOException {
+		Objects.requireNonNull(source, "Source must not be null");
+		return read(Channels.newChannel(source), target);
+	}
+
+	/**
+	 * Reads STL data from the specified {@link ReadableByteChannel} and converts it to an {@link OBJModel} object. If the
+	 * {@code target} is not {@code null} its contents are cleared using {@link OBJModel#clearComments()} and
+	 * {@link OBJModel#clearObjects()}. The channel is not closed.
+	 *
+	 * @param source the {@link ReadableByteChannel} to read the STL data from
+	 * @param target the {@link OBJModel} to read the data to, or {@code null}
+	 * 
+	 * @return the {@link OBJModel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs or the data is malformed
+	 */
+	public static OBJModel read(ReadableByteChannel source, OBJModel target) throws IOException {
+		Objects.requireNonNull(source, "Source must not be null");
+		return read(source, target, PackedMesh.DEFAULT_NAME, -1L);
+	}
+
+	private static OBJModel read(ReadableByteChannel source, OBJModel target, String name, long fileSize)
+			throws IOException {
+		ChannelReader reader = new ChannelReader(source, ByteOrder.LITTLE_ENDIAN);
+		reader.skip(HEADER_SIZE);
+		long triangleCount = reader.require(4).getInt() & 0xFFFFFFFFL;
+		if (fileSize >= 0L && fileSize != HEADER_SIZE + 4 + RECORD_SIZE * triangleCount)
+			throw new IOException(String.format("STL file size %s does not match %s triangles", fileSize, triangleCount));
+		if (triangleCount > (Integer.MAX_VALUE - 8) / 9)
+			throw new IOException(String.format("STL triangle count %s is too large", triangleCount));
+		int count = (int) triangleCount;
+		int capacity = fileSize >= 0L ? count : Math.min(count, CHUNK);
+		float[] normals = new float[3 * capacity];
+		float[] positions = new float[Math.max(9, 3 * Math.min(3 * capacity, CHUNK))];
+		int[] corners = new int[3 * capacity];
+		int[] table = new int[tableCapacity(3L * capacity)];
+		int mask = table.length - 1;
+		Arrays.fill(table, -1);
+		int vertexCount = 0;
+		for (int i = 0; i < count; i++) {
+			if (i == capacity) {
+				capacity = (int) Math.min(count, 2L * capacity);
+				normals = Arrays.copyOf(normals, 3 * capacity);
+				corners = Arrays.copyOf(corners, 3 * capacity);
+			}
+			ByteBuffer buffer = reader.require(RECORD_SIZE);
+			normals[3 * i + 0] = buffer.getFloat();
+			normals[3 * i + 1] = buffer.getFloat();
+			normals[3 * i + 2] = buffer.getFloat();
+			for (int j = 0; j < 3; j++) {
+				float x = buffer.getFloat() + 0.0f, y = buffer.getFloat() + 0.0f, z = buffer.getFloat() + 0.0f;
+				int bx = Float.floatToIntBits(x), by = Float.floatToIntBits(y), bz = Float.floatToIntBits(z);
+				if (2 * vertexCount >= table.length) {
+					if (table.length == MAX_TABLE_CAPACITY)
+						throw new IOException("STL mesh has too many distinct vertices");
+					table = rehash(positions, vertexCount, 2 * table.length);
+					mask = table.length - 1;
+				}
+				int slot = hash(bx, by, bz) & mask;
+				while (table[slot] >= 0) {
+					int vertex = 3 * table[slot];
+					if (Float.floatToIntBits(positions[vertex + 0]) == bx && Float.floatToIntBits(positions[vertex + 1]) == by
+							&& Float.floatToIntBits(positions[vertex + 2]) == bz)
+						break;
+					slot = (slot + 1) & mask;
+				}
+				if (table[slot] < 0) {
+					if (positions.length < 3 * vertexCount + 3)
+						positions = Arrays.copyOf(positions, Math.min(9 * count, 2 * positions.length));
+					positions[3 * vertexCount + 0] = x;
+					positions[3 * vertexCount + 1] = y;
+					positions[3 * vertexCount + 2] = z;
+					table[slot] = vertexCount++;
+				}
+				corners[3 * i + j] = table[slot];
+			}
+			buffer.getShort();
+		}
+		OBJObject object = new OBJObject().setName(name);
+		for (int i = 0; i < vertexCount; i++)
+			object.addVertex(new OBJVertex().set(positions[3 * i + 0], positions[3 * i + 1], positions[3 * i + 2]));
+		for (int i = 0; i < count; i++) {
+			object.addNormal(new OBJNormal().set(normals[3 * i + 0], normals[3 * i + 1], normals[3 * i + 2]));
+			OBJFace face = new OBJFace();
+			for (int j = 0; j < 3; j++)
+				face.addIndex(new OBJIndex().setVertex(corners[3 * i + j]).setNormal(i));
+			object.addFace(face);
+		}
+		if (Objects.isNull(target))
+			target = new OBJModel();
+		else
+			target.clearComments().clearObjects();
+		return target.addObject(object);
+	}
+
+	private static int tableCapacity(long count) {
+		return (int) Math.min(MAX_TABLE_CAPACITY, Long.highestOneBit(Math.max(8L, count) * 2L - 1L) << 1);
+	}
+
+	private static int[] rehash(float[] positions, int vertexCount, int capacity) {
+		int mask = capacity - 1;
+		int[] table = new int[capacity];
+		Arrays.fill(table, -1);
+		for (int i = 0; i < vertexCount; i++) {
+			int slot = hash(Float.floatToIntBits(positions[3 * i + 0]), Float.floatToIntBits(positions[3 * i + 1]),
+					Float.floatToIntBits(positions[3 * i + 2])) & mask;
+			while (table[slot] >= 0)
+				slot = (slot + 1) & mask;
+			table[slot] = i;
+		}
+		return table;
+	}
+
+	private static int hash(int x, int y, int z) {
+		int hash = x * 0x9E3779B1 ^ y * 0x85EBCA77 ^ z * 0xC2B2AE3D;
+		return hash ^ (hash >>> 16);
+	}
+
+}
@@ -0,0 +1,315 @@
+package com.kaba4cow.objmodel.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import com.kaba4cow.objmodel.OBJModel;
+import com.kaba4cow.objmodel.OBJParser;
+import com.kaba4cow.objmodel.elements.OBJComment;
+import com.kaba4cow.objmodel.elements.OBJObject;
+
+/**
+ * Keeps an {@link OBJModel} in sync with an OBJ file on disk. The file is split into blocks at its {@code o} lines, and a
+ * 64-bit hash of the bytes of every block is remembered. On reload only the blocks whose hash is new are parsed, in parallel,
+ * while unchanged blocks, even if they moved, keep their previously parsed objects. The new comment and object lists are
+ * then swapped into the model while holding its monitor, so threads that read the model while synchronized on it never see
+ * a partial update, and the registered {@link Listener} objects are notified.
+ * <p>
+ * {@link #start()} watches the directory of the file with a {@link WatchService} on a daemon thread and reloads once no
+ * further change events have arrived for the debounce interval, which absorbs the bursts of events editors emit when
+ * saving. If the file cannot be read or parsed, for example while it is still being written, the model is left unchanged
+ * and the listeners receive the error.
+ */
+public class OBJWatcher implements Closeable {
+
+	/**
+	 * The default debounce interval in milliseconds.
+	 */
+	public static final long DEFAULT_DEBOUNCE = 100L;
+
+	private final Path file;
+	private final OBJModel model;
+	private final long debounce;
+	private final List<Listener> listeners;
+	private List<Block> blocks;
+	private WatchService service;
+	private Thread thread;
+
+	/**
+	 * Creates a watcher for the specified file that loads its contents into the specified model using
+	 * {@link #DEFAULT_DEBOUNCE}. The current contents of the model are replaced.
+	 *
+	 * @param file the OBJ file to watch
+	 * @param model the {@link OBJModel} to keep in sync
+	 * 
+	 * @throws IOException if the file cannot be read
+	 */
+	public OBJWatcher(Path file, OBJModel model) throws IOException {
+		this(file, model, DEFAULT_DEBOUNCE);
+	}
+
+	/**
+	 * Creates a watcher for the specified file that loads its contents into the specified model. The current contents of the
+	 * model are replaced.
+	 *
+	 * @param file the OBJ file to watch
+	 * @param model the {@link OBJModel} to keep in sync
+	 * @param debounce the time in milliseconds without change events before a reload
+	 * 
+	 * @throws IOException if the file cannot be read
+	 */
+	public OBJWatcher(Path file, OBJModel model, long debounce) throws IOException {
+		this.file = Objects.requireNonNull(file, "File must not be null").toAbsolutePath();
+		this.model = Objects.requireNonNull(model, "Model must not be null");
+		if (debounce < 0L)
+			throw new IllegalArgumentException("Debounce must not be negative");
+		this.debounce = debounce;
+		this.listeners = new CopyOnWriteArrayList<>();
+		this.blocks = Collections.emptyList();
+		reload();
+	}
+
+	/**
+	 * Retrieves the model kept in sync by this watcher.
+	 *
+	 * @return the {@link OBJModel} of this watcher
+	 */
+	public OBJModel getModel() {
+		return model;
+	}
+
+	/**
+	 * Registers a listener.
+	 *
+	 * @param listener the {@link Listener} to add
+	 * 
+	 * @return a reference to this object
+	 */
+	public OBJWatcher addListener(Listener listener) {
+		listeners.add(Objects.requireNonNull(listener, "Listener must not be null"));
+		return this;
+	}
+
+	/**
+	 * Unregisters a listener.
+	 *
+	 * @param listener the {@link Listener} to remove
+	 * 
+	 * @return a reference to this object
+	 */
+	public OBJWatcher removeListener(Listener listener) {
+		listeners.remove(listener);
+		return this;
+	}
+
+	/**
+	 * Starts watching the file on a daemon thread. Calling this method on a started watcher has no effect.
+	 *
+	 * @return a reference to this object
+	 * 
+	 * @throws IOException if the watch service cannot be created
+	 */
+	public synchronized OBJWatcher start() throws IOException {
+		if (Objects.nonNull(thread))
+			return this;
+		service = file.getFileSystem().newWatchService();
+		file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		thread = new Thread(this::watch, String.format("OBJWatcher-%s", file.getFileName()));
+		thread.setDaemon(true);
+		thread.start();
+		return this;
+	}
+
+	/**
+	 * Stops watching the file. The model keeps its current contents.
+	 *
+	 * @throws IOException if the watch service cannot be closed
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (Objects.isNull(thread))
+			return;
+		service.close();
+		thread = null;
+		service = null;
+	}
+
+	private void watch() {
+		WatchService service = this.service;
+		try {
+			while (true) {
+				if (!relevant(service.take()))
+					continue;
+				WatchKey key;
+				while (Objects.nonNull(key = service.poll(debounce, TimeUnit.MILLISECONDS)))
+					relevant(key);
+				try {
+					reload();
+				} catch (IOException | RuntimeException exception) {
+					for (Listener listener : listeners)
+						listener.failed(this, exception);
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException exception) {
+			return;
+		}
+	}
+
+	private boolean relevant(WatchKey key) {
+		boolean relevant = false;
+		for (WatchEvent<?> event : key.pollEvents())
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context()))
+				relevant = true;
+		key.reset();
+		return relevant;
+	}
+
+	/**
+	 * Reads the file and swaps the changed objects into the model. Blocks whose content hash is unchanged are not parsed
+	 * again. Listeners are notified only if something changed.
+	 *
+	 * @return an unmodifiable list of the newly parsed {@link OBJObject} objects
+	 * 
+	 * @throws IOException if the file cannot be read
+	 * @throws RuntimeException if the file contains malformed data; the model is left unchanged
+	 */
+	public synchronized List<OBJObject> reload() throws IOException {
+		byte[] bytes = Files.readAllBytes(file);
+		List<Block> current = split(bytes);
+		Map<Long, ArrayDeque<Block>> previous = new HashMap<>();
+		for (Block block : blocks)
+			previous.computeIfAbsent(block.hash, hash -> new ArrayDeque<>()).add(block);
+		List<Block> parsed = new ArrayList<>();
+		for (int i = 0; i < current.size(); i++) {
+			ArrayDeque<Block> matches = previous.get(current.get(i).hash);
+			if (Objects.nonNull(matches) && !matches.isEmpty())
+				current.set(i, matches.poll());
+			else
+				parsed.add(current.get(i));
+		}
+		if (current.equals(blocks))
+			return Collections.emptyList();
+		parsed.parallelStream().forEach(block -> block.parse(bytes));
+		List<OBJObject> changed = new ArrayList<>();
+		for (Block block : parsed)
+			changed.addAll(block.objects);
+		synchronized (model) {
+			model.clearComments().clearObjects();
+			for (Block block : current) {
+				for (OBJComment comment : block.comments)
+					model.addComment(comment);
+				for (OBJObject object : block.objects)
+					model.addObject(object);
+			}
+		}
+		blocks = current;
+		changed = Collections.unmodifiableList(changed);
+		for (Listener listener : listeners)
+			listener.reloaded(this, changed);
+		return changed;
+	}
+
+	private static List<Block> split(byte[] bytes) {
+		List<Block> blocks = new ArrayList<>();
+		int start = 0;
+		for (int line = 0; line < bytes.length;) {
+			int end = line;
+			while (end < bytes.length && bytes[end] != '\n' && bytes[end] != '\r')
+				end++;
+			if (line > start && isObjectLine(bytes, line, end)) {
+				blocks.add(new Block(bytes, start, line));
+				start = line;
+			}
+			line = end + 1;
+		}
+		if (bytes.length > start || blocks.isEmpty())
+			blocks.add(new Block(bytes, start, bytes.length));
+		return blocks;
+	}
+
+	private static boolean isObjectLine(byte[] bytes, int from, int to) {
+		while (from < to && (bytes[from] == ' ' || bytes[from] == '\t'))
+			from++;
+		if (to - from < 2 || bytes[from] != 'o' || (bytes[from + 1] != ' ' && bytes[from + 1] != '\t'))
+			return false;
+		for (int i = from + 2; i < to; i++)
+			if (bytes[i] > ' ')
+				return true;
+		return false;
+	}
+
+	private static long hash(byte[] bytes, int from, int to) {
+		long hash = 0xCBF29CE484222325L;
+		for (int i = from; i < to; i++)
+			hash = (hash ^ (bytes[i] & 0xFF)) * 0x100000001B3L;
+		return hash ^ (to - from);
+	}
+
+	/**
+	 * A listener notified by an {@link OBJWatcher} after reloads.
+	 */
+	public interface Listener {
+
+		/**
+		 * Called after changed objects have been swapped into the model.
+		 *
+		 * @param watcher the {@link OBJWatcher} that reloaded
+		 * @param changed an unmodifiable list of the newly parsed {@link OBJObject} objects
+		 */
+		void reloaded(OBJWatcher watcher, List<OBJObject> changed);
+
+		/**
+		 * Called when a reload triggered by a file change failed. The model is left unchanged.
+		 *
+		 * @param watcher the {@link OBJWatcher} that failed to reload
+		 * @param exception the exception that caused the failure
+		 */
+		default void failed(OBJWatcher watcher, Exception exception) {}
+
+	}
+
+	private static class Block {
+
+		private final long hash;
+		private final int from;
+		private final int to;
+		private List<OBJComment> comments;
+		private List<OBJObject> objects;
+
+		private Block(byte[] bytes, int from, int to) {
+			this.hash = hash(bytes, from, to);
+			this.from = from;
+			this.to = to;
+		}
+
+		private void parse(byte[] bytes) {
+			try {
+				OBJModel model = OBJParser.parse(new ByteArrayInputStream(bytes, from, to - from), null);
+				comments = new ArrayList<>(model.getComments());
+				objects = new ArrayList<>(model.getObjects());
+			} catch (IOException exception) {
+				throw new UncheckedIOException(exception);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,186 @@
+package com.kaba4cow.objmodel.io;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+import com.kaba4cow.objmodel.OBJModel;
+import com.kaba4cow.objmodel.elements.OBJFace;
+import com.kaba4cow.objmodel.elements.OBJIndex;
+import com.kaba4cow.objmodel.elements.OBJNormal;
+import com.kaba4cow.objmodel.elements.OBJObject;
+import com.kaba4cow.objmodel.elements.OBJTexture;
+import com.kaba4cow.objmodel.elements.OBJVertex;
+
+/**
+ * The objects of a model merged into one mesh of packed arrays, as used by single-mesh formats. Vertex indices of later
+ * objects are offset by the vertices of earlier ones. Normals and texture coordinates are kept only if every object has
+ * exactly one per vertex and every face corner that refers to one refers to that of its vertex; otherwise they are
+ * {@code null}.
+ */
+final class PackedMesh {
+
+	/**
+	 * The name of objects read from sources without a file name.
+	 */
+	static final String DEFAULT_NAME = "mesh";
+
+	final float[] positions;
+	final float[] normals;
+	final float[] textures;
+	final int[] faceSizes;
+	final int[] vertexIndices;
+	final int maxFaceSize;
+
+	/**
+	 * Creates a mesh from the specified arrays.
+	 *
+	 * @param positions three floats per vertex
+	 * @param normals three floats per vertex, or {@code null}
+	 * @param textures two floats per vertex, or {@code null}
+	 * @param faceSizes the number of corners of every face
+	 * @param vertexIndices the vertex index of every corner
+	 */
+	PackedMesh(float[] positions, float[] normals, float[] textures, int[] faceSizes, int[] vertexIndices) {
+		this.positions = positions;
+		this.normals = normals;
+		this.textures = textures;
+		this.faceSizes = faceSizes;
+		this.vertexIndices = vertexIndices;
+		int max = 0;
+		for (int size : faceSizes)
+			max = Math.max(max, size);
+		this.maxFaceSize = max;
+	}
+
+	/**
+	 * Merges the objects of the specified model.
+	 *
+	 * @param model the model to merge
+	 * 
+	 * @return the merged mesh
+	 * 
+	 * @throws IllegalArgumentException if a face index has no vertex or refers to a missing element, or the model is too
+	 *                                      large for packed arrays
+	 */
+	static PackedMesh of(OBJModel model) {
+		long vertexCount = 0L;
+		long faceCount = 0L;
+		long cornerCount = 0L;
+		boolean perVertexNormals = !model.getObjects().isEmpty();
+		boolean perVertexTextures = !model.getObjects().isEmpty();
+		for (OBJObject object : model.getObjects()) {
+			vertexCount += object.getVertexCount();
+			faceCount += object.getFaceCount();
+			cornerCount += object.getCornerCount();
+			perVertexNormals &= object.getNormalCount() == object.getVertexCount();
+			perVertexTextures &= object.getTextureCount() == object.getVertexCount();
+		}
+		if (3L * Math.max(vertexCount, cornerCount) > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Model is too large for a single mesh");
+		float[] positions = new float[(int) (3L * vertexCount)];
+		int[] faceSizes = new int[(int) faceCount];
+		int[] vertexIndices = new int[(int) cornerCount];
+		int[] corners = new int[0];
+		int vertexBase = 0;
+		int faceBase = 0;
+		int cornerBase = 0;
+		for (OBJObject object : model.getObjects()) {
+			object.copyPositions(positions, 3 * vertexBase);
+			object.copyFaceSizes(faceSizes, faceBase);
+			int count = object.getCornerCount();
+			if (corners.length < 3 * count)
+				corners = new int[3 * count];
+			object.copyFaceCorners(corners, 0);
+			for (int face = 0, corner = 0; face < object.getFaceCount(); face++)
+				for (int end = corner + faceSizes[faceBase + face]; corner < end; corner++) {
+					int vertex = corners[3 * corner + 0];
+					int texture = corners[3 * corner + 1];
+					int normal = corners[3 * corner + 2];
+					if (vertex < 0 || vertex >= object.getVertexCount() || !isValid(texture, object.getTextureCount())
+							|| !isValid(normal, object.getNormalCount()))
+						throw new IllegalArgumentException(String.format("Face %s has an invalid index", face));
+					perVertexTextures &= texture == OBJIndex.UNSET || texture == vertex;
+					perVertexNormals &= normal == OBJIndex.UNSET || normal == vertex;
+					vertexIndices[cornerBase + corner] = vertexBase + vertex;
+				}
+			vertexBase += object.getVertexCount();
+			faceBase += object.getFaceCount();
+			cornerBase += count;
+		}
+		float[] normals = null;
+		float[] textures = null;
+		if (perVertexNormals && vertexBase > 0) {
+			normals = new float[3 * vertexBase];
+			int offset = 0;
+			for (OBJObject object : model.getObjects())
+				offset += object.copyNormals(normals, offset);
+		}
+		if (perVertexTextures && vertexBase > 0) {
+			textures = new float[2 * vertexBase];
+			int offset = 0;
+			for (OBJObject object : model.getObjects())
+				offset += object.copyTextures(textures, offset);
+		}
+		return new PackedMesh(positions, normals, textures, faceSizes, vertexIndices);
+	}
+
+	private static boolean isValid(int index, int count) {
+		return index == OBJIndex.UNSET || index >= 0 && index < count;
+	}
+
+	int getVertexCount() {
+		return positions.length / 3;
+	}
+
+	/**
+	 * Returns the name of the object read from the specified file, which is the file name without its extension.
+	 *
+	 * @param file the file
+	 * 
+	 * @return the object name
+	 */
+	static String nameOf(Path file) {
+		Path fileName = file.getFileName();
+		if (Objects.isNull(fileName))
+			return DEFAULT_NAME;
+		String name = fileName.toString();
+		int dot = name.lastIndexOf('.');
+		return dot > 0 ? name.substring(0, dot) : name;
+	}
+
+	/**
+	 * Creates an object from the mesh. Normals and texture coordinates become one element per vertex, referred to by the
+	 * corners of that vertex.
+	 *
+	 * @param name the name of the object
+	 * 
+	 * @return a new {@link OBJObject}
+	 */
+	OBJObject toObject(String name) {
+		OBJObject object = new OBJObject().setName(name);
+		int vertexCount = getVertexCount();
+		for (int i = 0; i < vertexCount; i++)
+			object.addVertex(new OBJVertex().set(positions[3 * i + 0], positions[3 * i + 1], positions[3 * i + 2]));
+		if (Objects.nonNull(textures))
+			for (int i = 0; i < vertexCount; i++)
+				object.addTexture(new OBJTexture().set(textures[2 * i + 0], textures[2 * i + 1]));
+		if (Objects.nonNull(normals))
+			for (int i = 0; i < vertexCount; i++)
+				object.addNormal(new OBJNormal().set(normals[3 * i + 0], normals[3 * i + 1], normals[3 * i + 2]));
+		for (int face = 0, corner = 0; face < faceSizes.length; face++) {
+			OBJFace result = new OBJFace();
+			for (int end = corner + faceSizes[face]; corner < end; corner++) {
+				int vertex = vertexIndices[corner];
+				OBJIndex index = new OBJIndex().setVertex(vertex);
+				if (Objects.nonNull(textures))
+					index.setTexture(vertex);
+				if (Objects.nonNull(normals))
+					index.setNormal(vertex);
+				result.addIndex(index);
+			}
+			object.addFace(result);
+		}
+		return object;
+	}
+
+}
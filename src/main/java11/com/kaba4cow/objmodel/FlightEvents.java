@@ -0,0 +1,170 @@
+package com.kaba4cow.objmodel;
+
+import java.util.Objects;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JDK Flight Recorder events of the library. This class is packaged under {@code META-INF/versions/11} and replaces
+ * the no-op class of the same name on Java 11 and later runtimes; it is only used once {@link OBJMetrics} has found the
+ * API. Events are passed around as {@link Object} so that the Java 8 class keeps the same signatures, and are only
+ * created while a recording enables them.
+ */
+final class FlightEvents {
+
+	private static final EventType PARSE = EventType.getEventType(ParseEvent.class);
+	private static final EventType OBJECT = EventType.getEventType(ObjectEvent.class);
+	private static final EventType EXPORT = EventType.getEventType(ExportEvent.class);
+
+	private FlightEvents() {}
+
+	static boolean isAvailable() {
+		return Objects.nonNull(PARSE) && Objects.nonNull(OBJECT) && Objects.nonNull(EXPORT);
+	}
+
+	static Object beginParse() {
+		if (!PARSE.isEnabled())
+			return null;
+		ParseEvent event = new ParseEvent();
+		event.begin();
+		return event;
+	}
+
+	static void commitParse(Object parse, ParseStats stats) {
+		ParseEvent event = (ParseEvent) parse;
+		event.end();
+		if (!event.shouldCommit())
+			return;
+		event.characters = stats.characters;
+		event.lines = stats.lines;
+		event.comments = stats.comments;
+		event.objects = stats.objects;
+		event.vertices = stats.vertices;
+		event.textures = stats.textures;
+		event.normals = stats.normals;
+		event.faces = stats.faces;
+		event.commit();
+	}
+
+	static boolean isObjectEnabled() {
+		return OBJECT.isEnabled();
+	}
+
+	static Object beginObject() {
+		if (!OBJECT.isEnabled())
+			return null;
+		ObjectEvent event = new ObjectEvent();
+		event.begin();
+		return event;
+	}
+
+	static void commitObject(Object object, String name, long vertices, long textures, long normals, long faces) {
+		ObjectEvent event = (ObjectEvent) object;
+		event.end();
+		if (!event.shouldCommit())
+			return;
+		event.name = name;
+		event.vertices = vertices;
+		event.textures = textures;
+		event.normals = normals;
+		event.faces = faces;
+		event.commit();
+	}
+
+	static Object beginExport() {
+		if (!EXPORT.isEnabled())
+			return null;
+		ExportEvent event = new ExportEvent();
+		event.begin();
+		return event;
+	}
+
+	static void commitExport(Object export, int objects, long characters) {
+		ExportEvent event = (ExportEvent) export;
+		event.end();
+		if (!event.shouldCommit())
+			return;
+		event.objects = objects;
+		event.characters = characters;
+		event.commit();
+	}
+
+	@Name("com.kaba4cow.objmodel.Parse")
+	@Label("OBJ Parse")
+	@Category("OBJ Model")
+	@Description("Parsing of OBJ data, from the first character read to the end of the data")
+	@StackTrace(false)
+	static final class ParseEvent extends Event {
+
+		@Label("Characters")
+		long characters;
+
+		@Label("Lines")
+		long lines;
+
+		@Label("Comments")
+		long comments;
+
+		@Label("Objects")
+		long objects;
+
+		@Label("Vertices")
+		long vertices;
+
+		@Label("Texture Coordinates")
+		long textures;
+
+		@Label("Normals")
+		long normals;
+
+		@Label("Faces")
+		long faces;
+
+	}
+
+	@Name("com.kaba4cow.objmodel.ObjectParse")
+	@Label("OBJ Object Parse")
+	@Category("OBJ Model")
+	@Description("Parsing of one object, from its o statement to the next one or the end of the data")
+	@StackTrace(false)
+	static final class ObjectEvent extends Event {
+
+		@Label("Name")
+		String name;
+
+		@Label("Vertices")
+		long vertices;
+
+		@Label("Texture Coordinates")
+		long textures;
+
+		@Label("Normals")
+		long normals;
+
+		@Label("Faces")
+		long faces;
+
+	}
+
+	@Name("com.kaba4cow.objmodel.Export")
+	@Label("OBJ Export")
+	@Category("OBJ Model")
+	@Description("Conversion of a model to OBJ text")
+	@StackTrace(false)
+	static final class ExportEvent extends Event {
+
+		@Label("Objects")
+		int objects;
+
+		@Label("Characters")
+		long characters;
+
+	}
+
+}